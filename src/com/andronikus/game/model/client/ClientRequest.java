@@ -13,17 +13,14 @@ import java.util.List;
  */
 @Data
 public class ClientRequest implements Serializable {
+    // Fixed so that the layout of Java serialized requests only changes when this does
+    private static final long serialVersionUID = 1L;
+
     private long sequenceNumber = 0;
-    private InputRequest inputCode0;
-    private InputRequest inputCode1;
-    private InputRequest inputCode2;
-    private InputRequest inputCode3;
-    private InputRequest inputCode4;
-    private InputPurgeRequest inputPurge0 = null;
-    private InputPurgeRequest inputPurge1 = null;
-    private InputPurgeRequest inputPurge2 = null;
-    private InputPurgeRequest inputPurge3 = null;
-    private InputPurgeRequest inputPurge4 = null;
+    // Version of the latest game state the client has, so that the next one can be sent as changes to it
+    private long lastReceivedGameStateVersion = -1;
+    // Every input the client has pending, however many there are, so they never need a second request
+    private List<InputRequest> inputs = new ArrayList<>();
     private String sessionToken;
     // TODO this will get you DDoSed
     private List<ClientCommand> clientCommands = new ArrayList<>();
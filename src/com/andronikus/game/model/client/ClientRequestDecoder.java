@@ -0,0 +1,207 @@
+package com.andronikus.game.model.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoder of the binary requests written by a {@link ClientRequestEncoder}. Values are read straight out of the
+ * message bytes into a single {@link ClientRequest} that the decoder hands back for every message, along with pooled
+ * input requests. Whatever the request holds is only good until the next message is decoded, so callers
+ * must copy out anything they keep. Not thread safe.
+ *
+ * A request is laid out as:
+ * <ul>
+ *     <li>The format marker and version, one byte each</li>
+ *     <li>The sequence number, then the last received game state version</li>
+ *     <li>The session token</li>
+ *     <li>The counts of inputs, new commands and commands to remove</li>
+ *     <li>Each input, then each new command, then each command to remove</li>
+ * </ul>
+ *
+ * @author Andronikus
+ */
+public class ClientRequestDecoder {
+
+    // Input codes and session tokens repeat from one message to the next, so their strings are kept and reused
+    private static final int STRING_CACHE_SIZE = 256;
+
+    private final ClientRequest request = new ClientRequest();
+    private final ArrayList<InputRequest> inputPool = new ArrayList<>();
+    private final byte[][] cachedStringBytes = new byte[STRING_CACHE_SIZE][];
+    private final String[] cachedStrings = new String[STRING_CACHE_SIZE];
+
+    private byte[] buffer;
+    private int position;
+    private int end;
+
+    /**
+     * Check if a message is in the binary request format.
+     *
+     * @param message The message
+     * @return True if the message starts with the format marker
+     */
+    public static boolean isBinaryRequest(byte[] message) {
+        return message.length > 0 && (message[0] & 0xFF) == ClientRequestEncoder.FORMAT_MARKER;
+    }
+
+    /**
+     * Decode a message into the decoder's request.
+     *
+     * @param message The message
+     * @return The request, which is overwritten by the next call
+     */
+    public ClientRequest decode(byte[] message) {
+        return decode(message, 0, message.length);
+    }
+
+    /**
+     * Decode a message that takes up part of a buffer into the decoder's request.
+     *
+     * @param aBuffer The buffer
+     * @param offset Where in the buffer the message starts
+     * @param length Length of the message
+     * @return The request, which is overwritten by the next call
+     */
+    public ClientRequest decode(byte[] aBuffer, int offset, int length) {
+        buffer = aBuffer;
+        position = offset;
+        end = offset + length;
+
+        if (readByte() != ClientRequestEncoder.FORMAT_MARKER) {
+            throw new IllegalArgumentException("Message is not a binary client request.");
+        }
+        final int formatVersion = readByte();
+        if (formatVersion != ClientRequestEncoder.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported client request format version " + formatVersion + ".");
+        }
+
+        request.setSequenceNumber(readVarLong());
+        request.setLastReceivedGameStateVersion(readZigZag());
+        request.setSessionToken(readNullableString());
+
+        final int inputCount = readCount();
+        final int commandCount = readCount();
+        final int commandsToRemoveCount = readCount();
+        // Inputs and commands take at least two bytes each, which keeps a corrupted count from running away
+        if ((inputCount + commandCount + commandsToRemoveCount) * 2L > end - position) {
+            throw new IllegalArgumentException("Client request is shorter than its counts say.");
+        }
+
+        final List<InputRequest> inputs = request.getInputs();
+        inputs.clear();
+        for (int index = 0; index < inputCount; index++) {
+            inputs.add(readInput(index));
+        }
+
+        readCommands(request.getClientCommands(), commandCount);
+        readCommands(request.getCommandsToRemove(), commandsToRemoveCount);
+
+        if (position != end) {
+            throw new IllegalArgumentException("Client request has " + (end - position) + " unexpected trailing bytes.");
+        }
+        return request;
+    }
+
+    private int readCount() {
+        final long count = readVarLong();
+        if (count < 0 || count > end - position) {
+            throw new IllegalArgumentException("Client request has an invalid count of " + count + ".");
+        }
+        return (int) count;
+    }
+
+    private InputRequest readInput(int index) {
+        if (index == inputPool.size()) {
+            inputPool.add(new InputRequest());
+        }
+
+        final InputRequest input = inputPool.get(index);
+        input.setInputCode(readNullableString());
+        final int flags = readByte();
+        input.setAckRequired((flags & ClientRequestEncoder.INPUT_ACK_REQUIRED) != 0);
+        input.setInputId((flags & ClientRequestEncoder.INPUT_HAS_ID) != 0 ? readZigZag() : null);
+        return input;
+    }
+
+    /**
+     * Read commands into a list the request already has. Commands are rare, so they are not pooled.
+     */
+    private void readCommands(List<ClientCommand> commands, int count) {
+        commands.clear();
+        for (int index = 0; index < count; index++) {
+            final ClientCommand command = new ClientCommand();
+            command.setCode(readNullableString());
+            command.setCommandNumber(readZigZag());
+            commands.add(command);
+        }
+    }
+
+    private String readNullableString() {
+        final long lengthPlusOne = readVarLong();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+
+        final long length = lengthPlusOne - 1;
+        if (length < 0 || length > end - position) {
+            throw new IllegalArgumentException("String in client request runs past the end of the request.");
+        }
+
+        final int start = position;
+        position += (int) length;
+
+        int hash = 0;
+        for (int index = start; index < position; index++) {
+            hash = 31 * hash + buffer[index];
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        final byte[] cachedBytes = cachedStringBytes[slot];
+        if (cachedBytes != null && sameBytes(cachedBytes, start, (int) length)) {
+            return cachedStrings[slot];
+        }
+
+        final byte[] bytes = new byte[(int) length];
+        System.arraycopy(buffer, start, bytes, 0, bytes.length);
+        final String value = new String(bytes, StandardCharsets.UTF_8);
+        cachedStringBytes[slot] = bytes;
+        cachedStrings[slot] = value;
+        return value;
+    }
+
+    private boolean sameBytes(byte[] cachedBytes, int start, int length) {
+        if (cachedBytes.length != length) {
+            return false;
+        }
+        for (int index = 0; index < length; index++) {
+            if (cachedBytes[index] != buffer[start + index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readByte() {
+        if (position >= end) {
+            throw new IllegalArgumentException("Client request ended unexpectedly.");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int nextByte = readByte();
+            value |= (long) (nextByte & 0x7F) << shift;
+            if ((nextByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length value in client request.");
+    }
+
+    private long readZigZag() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
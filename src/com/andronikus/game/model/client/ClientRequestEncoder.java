@@ -0,0 +1,88 @@
+package com.andronikus.game.model.client;
+
+import com.andronikus.game.model.codec.SnapshotWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encoder of {@link ClientRequest}s into the binary format read by a {@link ClientRequestDecoder}. The buffer is kept
+ * between requests, so the encoder is not thread safe.
+ *
+ * @author Andronikus
+ */
+public class ClientRequestEncoder {
+
+    /*
+     * First byte of every binary request. Java serialization streams start with 0xAC, so the server can tell the two
+     * formats apart while clients move over.
+     */
+    public static final int FORMAT_MARKER = 0xC5;
+    public static final int FORMAT_VERSION = 3;
+
+    static final int INPUT_ACK_REQUIRED = 1;
+    static final int INPUT_HAS_ID = 2;
+
+    private final SnapshotWriter writer = new SnapshotWriter(128);
+
+    /**
+     * Encode a request.
+     *
+     * @param request The request
+     * @return The encoded request
+     */
+    public byte[] encode(ClientRequest request) {
+        writer.reset();
+        writer.writeByte(FORMAT_MARKER);
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeVarLong(request.getSequenceNumber());
+        writer.writeZigZag(request.getLastReceivedGameStateVersion());
+        writeNullableString(request.getSessionToken());
+
+        writer.writeVarLong(request.getInputs().size());
+        writer.writeVarLong(sizeOf(request.getClientCommands()));
+        writer.writeVarLong(sizeOf(request.getCommandsToRemove()));
+
+        for (InputRequest input : request.getInputs()) {
+            writeNullableString(input.getInputCode());
+            writer.writeByte((input.isAckRequired() ? INPUT_ACK_REQUIRED : 0) | (input.getInputId() != null ? INPUT_HAS_ID : 0));
+            if (input.getInputId() != null) {
+                writer.writeZigZag(input.getInputId());
+            }
+        }
+        writeCommands(request.getClientCommands());
+        writeCommands(request.getCommandsToRemove());
+        return writer.toByteArray();
+    }
+
+    private void writeCommands(List<ClientCommand> commands) {
+        if (commands == null) {
+            return;
+        }
+
+        for (ClientCommand command : commands) {
+            writeNullableString(command.getCode());
+            writer.writeZigZag(command.getCommandNumber());
+        }
+    }
+
+    /**
+     * Write a string as its length plus one followed by its UTF-8 bytes, with a lone zero standing for null.
+     */
+    private void writeNullableString(String value) {
+        if (value == null) {
+            writer.writeVarLong(0);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writer.writeVarLong(bytes.length + 1);
+        for (byte nextByte : bytes) {
+            writer.writeByte(nextByte);
+        }
+    }
+
+    private static int sizeOf(List<ClientCommand> commands) {
+        return commands != null ? commands.size() : 0;
+    }
+}
@@ -0,0 +1,75 @@
+package com.andronikus.game.model.client.legacy;
+
+import com.andronikus.game.model.client.ClientCommand;
+import com.andronikus.game.model.client.InputRequest;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client request to the server as clients that still Java serialize their requests send it, with room for five inputs
+ * and five purges. The class has the same simple name and fields as the request it stands in for, which is what Java
+ * serialization needs to read the old requests into it.
+ *
+ * @author Andronikus
+ */
+@Data
+public class ClientRequest implements Serializable {
+    // What the original class was serialized with, so that its requests can still be read
+    private static final long serialVersionUID = -708590777427999258L;
+
+    private long sequenceNumber = 0;
+    private InputRequest inputCode0;
+    private InputRequest inputCode1;
+    private InputRequest inputCode2;
+    private InputRequest inputCode3;
+    private InputRequest inputCode4;
+    private InputPurgeRequest inputPurge0 = null;
+    private InputPurgeRequest inputPurge1 = null;
+    private InputPurgeRequest inputPurge2 = null;
+    private InputPurgeRequest inputPurge3 = null;
+    private InputPurgeRequest inputPurge4 = null;
+    private String sessionToken;
+    private List<ClientCommand> clientCommands = new ArrayList<>();
+    private List<ClientCommand> commandsToRemove = new ArrayList<>();
+
+    /**
+     * Adapt the request to the current request. Purges are dropped, since inputs are acknowledged without them now,
+     * and the request does not say which game state the client has.
+     *
+     * @return The current request
+     */
+    public com.andronikus.game.model.client.ClientRequest toClientRequest() {
+        final com.andronikus.game.model.client.ClientRequest request =
+            new com.andronikus.game.model.client.ClientRequest();
+        request.setSequenceNumber(sequenceNumber);
+        request.setLastReceivedGameStateVersion(-1);
+        addInput(request, inputCode0);
+        addInput(request, inputCode1);
+        addInput(request, inputCode2);
+        addInput(request, inputCode3);
+        addInput(request, inputCode4);
+        request.setSessionToken(sessionToken);
+        if (clientCommands != null) {
+            request.getClientCommands().addAll(clientCommands);
+        }
+        if (commandsToRemove != null) {
+            request.getCommandsToRemove().addAll(commandsToRemove);
+        }
+        return request;
+    }
+
+    /**
+     * Add an input to a request if there is one.
+     *
+     * @param request The request
+     * @param input The input, null if the slot was empty
+     */
+    private static void addInput(com.andronikus.game.model.client.ClientRequest request, InputRequest input) {
+        if (input != null) {
+            request.getInputs().add(input);
+        }
+    }
+}
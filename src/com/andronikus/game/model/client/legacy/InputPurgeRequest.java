@@ -0,0 +1,19 @@
+package com.andronikus.game.model.client.legacy;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * Request to purge an input from the server's acknowledgements, as sent by clients that still Java serialize their
+ * requests. Inputs are no longer purged, so these are only read to get past them.
+ *
+ * @author Andronikus
+ */
+@Data
+public class InputPurgeRequest implements Serializable {
+    // What the original class was serialized with, so that its requests can still be read
+    private static final long serialVersionUID = 1311568282101132838L;
+
+    private long id;
+}
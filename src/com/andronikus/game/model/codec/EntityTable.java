@@ -0,0 +1,129 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.util.LongIntHashMap;
+
+/**
+ * Fields of every entity of one type in a {@link WorldSnapshot}, stored one entity after another in a single array.
+ * Tables are never modified once created. Most tables are never matched up with another snapshot's, so the index of
+ * their entities by key is only built the first time it is needed, by whichever thread encodes the snapshots.
+ *
+ * @author Andronikus
+ */
+public class EntityTable {
+
+    private final int fieldCount;
+    private final int size;
+    private final long[] fields;
+    private final int keyField;
+    private LongIntHashMap indexByKey = null;
+    private boolean indexBuilt = false;
+
+    /**
+     * Instantiate a table of entity fields.
+     *
+     * @param aFieldCount Number of fields each entity has
+     * @param aSize Number of entities
+     * @param aFields The fields of every entity, one entity after another
+     * @param aKeyField Index of the field that is each entity's key, or -1 if the type of entity has no key
+     */
+    EntityTable(int aFieldCount, int aSize, long[] aFields, int aKeyField) {
+        fieldCount = aFieldCount;
+        size = aSize;
+        fields = aFields;
+        keyField = aKeyField;
+    }
+
+    /**
+     * Get the number of entities.
+     *
+     * @return The number of entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of fields each entity has.
+     *
+     * @return The number of fields
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Get a field of an entity.
+     *
+     * @param entity Index of the entity
+     * @param field Index of the field
+     * @return The field
+     */
+    public long field(int entity, int field) {
+        return fields[entity * fieldCount + field];
+    }
+
+    /**
+     * Copy every field of an entity.
+     *
+     * @param entity Index of the entity
+     * @param destination Array to copy the fields into
+     * @param offset Where in the array to put the first field
+     */
+    public void copyFields(int entity, long[] destination, int offset) {
+        System.arraycopy(fields, entity * fieldCount, destination, offset, fieldCount);
+    }
+
+    /**
+     * Whether entities in this table can be matched up with entities in another snapshot by their key.
+     *
+     * @return True if every entity has a key no other entity in the table has
+     */
+    public boolean isKeyed() {
+        buildIndex();
+        return indexByKey != null;
+    }
+
+    /**
+     * Get the key of an entity.
+     *
+     * @param entity Index of the entity
+     * @return The key
+     */
+    public long key(int entity) {
+        return field(entity, keyField);
+    }
+
+    /**
+     * Find the entity with a key.
+     *
+     * @param key The key
+     * @return Index of the entity, or -1 if there is no such entity or the table is not keyed
+     */
+    public int indexOf(long key) {
+        buildIndex();
+        if (indexByKey == null) {
+            return -1;
+        }
+        return indexByKey.getOrDefault(key, -1);
+    }
+
+    private void buildIndex() {
+        if (indexBuilt) {
+            return;
+        }
+        indexBuilt = true;
+        if (keyField < 0) {
+            return;
+        }
+
+        final LongIntHashMap keyIndex = new LongIntHashMap(size);
+        for (int index = 0; index < size; index++) {
+            // With two entities sharing a key there is no telling which is which, so act like there are no keys
+            if (keyIndex.getOrDefault(key(index), -1) >= 0) {
+                return;
+            }
+            keyIndex.put(key(index), index);
+        }
+        indexByKey = keyIndex;
+    }
+}
@@ -0,0 +1,26 @@
+package com.andronikus.game.model.codec;
+
+/**
+ * How a field of an entity is put on the wire.
+ *
+ * @author Andronikus
+ */
+public enum FieldEncoding {
+    /*
+     * Non-negative value, written seven bits at a time.
+     */
+    VARINT,
+    /*
+     * Value that may be negative, zig-zagged and then written seven bits at a time.
+     */
+    ZIGZAG,
+    /*
+     * Value between 0 and 65535, always written in two bytes. Used for quantized positions and angles.
+     */
+    FIXED16,
+    /*
+     * String ID from the {@link SnapshotContext}. The string itself is written right after its ID the first time the ID
+     * appears in a snapshot, so strings have to be given IDs in the order they are written.
+     */
+    STRING
+}
@@ -0,0 +1,38 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.server.GameState;
+
+/**
+ * Binary codec for whole game states, for when there is no baseline to send changes against. Encodes keyframes with a
+ * {@link SnapshotEncoder} and decodes them with a {@link SnapshotDecoder}.
+ *
+ * The codec keeps its buffers between snapshots and is not thread safe, so each thread needs its own.
+ *
+ * @author Andronikus
+ */
+public class GameStateCodec {
+
+    private final SnapshotEncoder encoder = new SnapshotEncoder();
+    private final SnapshotDecoder decoder = new SnapshotDecoder(1);
+
+    /**
+     * Encode a game state.
+     *
+     * @param state The game state
+     * @return The snapshot
+     */
+    public byte[] encode(GameState state) {
+        return encoder.encode(WorldSnapshot.capture(state), null);
+    }
+
+    /**
+     * Decode a game state.
+     *
+     * @param snapshot The snapshot
+     * @return The game state, or null if the message is empty and so holds no snapshot
+     */
+    public GameState decode(byte[] snapshot) {
+        final WorldSnapshot decoded = decoder.decode(snapshot);
+        return decoded == null ? null : decoded.toGameState();
+    }
+}
@@ -0,0 +1,80 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.server.GameState;
+
+import java.util.List;
+
+/**
+ * Layout of one type of entity in a snapshot. The entity is flattened into a fixed number of whole number fields, which
+ * are then written with the encoding for each field.
+ *
+ * @param <TYPE> The type of entity
+ * @author Andronikus
+ */
+public interface IEntitySchema<TYPE> {
+
+    /**
+     * Get how each field is encoded. The length of the array is the number of fields.
+     *
+     * @return The encodings
+     */
+    FieldEncoding[] getFieldEncodings();
+
+    /**
+     * Get which field identifies an entity from one snapshot to the next. Entities of types without such a field are
+     * sent in full in every snapshot. The field cannot be a string, since string IDs differ from one snapshot to the
+     * next.
+     *
+     * @return Index of the field, or -1 if there is none
+     */
+    int getKeyField();
+
+    /**
+     * Get where an entity is, so that snapshots can be narrowed down to what is near a player. The X position is in the
+     * field given and the Y position is in the field right after it.
+     *
+     * @return Index of the X position field, or -1 if the type of entity has no position
+     */
+    int getPositionField();
+
+    /**
+     * Get which field holds the slot of the session an entity is meant for, so that each client is only sent its own.
+     *
+     * @return Index of the session slot field, or -1 if every client is sent the entity
+     */
+    int getRecipientField();
+
+    /**
+     * Get the entities of this type in a game state.
+     *
+     * @param state The game state
+     * @return The entities
+     */
+    List<TYPE> getEntities(GameState state);
+
+    /**
+     * Put an entity created from a snapshot into a game state, after the entities of its type already there.
+     *
+     * @param state The game state
+     * @param entity The entity
+     */
+    void restore(GameState state, TYPE entity);
+
+    /**
+     * Flatten an entity into fields.
+     *
+     * @param entity The entity
+     * @param fields Array to put the fields into
+     * @param context Context of the snapshot
+     */
+    void extract(TYPE entity, long[] fields, SnapshotContext context);
+
+    /**
+     * Create an entity from its fields.
+     *
+     * @param fields The fields
+     * @param context Context of the snapshot
+     * @return The entity
+     */
+    TYPE create(long[] fields, SnapshotContext context);
+}
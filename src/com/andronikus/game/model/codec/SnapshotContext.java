@@ -0,0 +1,110 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.server.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Things shared by every entity in a snapshot. Strings are referred to by ID rather than written out every time they
+ * are used, with IDs starting at 1 so that 0 can stand for null. Players are referred to by their session slot.
+ *
+ * @author Andronikus
+ */
+public class SnapshotContext {
+
+    private final HashMap<String, Integer> stringIds = new HashMap<>();
+    private final ArrayList<String> strings = new ArrayList<>();
+    private final HashMap<Integer, Player> playersBySession = new HashMap<>();
+
+    /**
+     * Forget every string and player so that the context can be used for another snapshot.
+     */
+    public void reset() {
+        stringIds.clear();
+        strings.clear();
+        playersBySession.clear();
+    }
+
+    /**
+     * Get the ID of a string, giving it the next ID if it has not been seen yet.
+     *
+     * @param value The string
+     * @return The ID, or 0 for null
+     */
+    public long stringId(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            strings.add(value);
+            id = strings.size();
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Give a string that was read from a snapshot the next ID.
+     *
+     * @param value The string
+     */
+    public void addString(String value) {
+        strings.add(value);
+    }
+
+    /**
+     * Get the string with an ID.
+     *
+     * @param id The ID
+     * @return The string, or null for 0
+     */
+    public String string(long id) {
+        if (id == 0) {
+            return null;
+        }
+        if (id < 0 || id > strings.size()) {
+            throw new IllegalArgumentException("Snapshot refers to unknown string " + id + ".");
+        }
+        return strings.get((int) (id - 1));
+    }
+
+    /**
+     * Get the number of strings that have IDs.
+     *
+     * @return The number of strings
+     */
+    public int stringCount() {
+        return strings.size();
+    }
+
+    /**
+     * Copy out every string that has an ID, the string with ID 1 first.
+     *
+     * @return The strings
+     */
+    public String[] copyStrings() {
+        return strings.toArray(new String[0]);
+    }
+
+    /**
+     * Make a player available to be looked up by session slot.
+     *
+     * @param player The player
+     */
+    public void addPlayer(Player player) {
+        playersBySession.putIfAbsent(player.getSessionSlot(), player);
+    }
+
+    /**
+     * Get the player with a session slot.
+     *
+     * @param sessionSlot The session slot
+     * @return The player, or null if there is no such player
+     */
+    public Player playerForSession(int sessionSlot) {
+        return playersBySession.get(sessionSlot);
+    }
+}
@@ -0,0 +1,237 @@
+package com.andronikus.game.model.codec;
+
+import java.util.ArrayList;
+
+/**
+ * Decoder of the messages written by a {@link SnapshotEncoder}. Decoded snapshots are kept in a history so that later
+ * messages can be applied to them as baselines. Not thread safe.
+ *
+ * @author Andronikus
+ */
+public class SnapshotDecoder {
+
+    private final SnapshotHistory history;
+    private final SnapshotContext context = new SnapshotContext();
+    private final ArrayList<String> messageStrings = new ArrayList<>();
+
+    /**
+     * Instantiate a decoder of messages written by a {@link SnapshotEncoder}.
+     *
+     * @param historySize How many decoded snapshots to keep as possible baselines
+     */
+    public SnapshotDecoder(int historySize) {
+        history = new SnapshotHistory(historySize);
+    }
+
+    /**
+     * Decode a message into a snapshot.
+     *
+     * @param message The message
+     * @return The snapshot, or null if the message is empty and so holds no snapshot
+     */
+    public WorldSnapshot decode(byte[] message) {
+        if (message.length == 0) {
+            return null;
+        }
+
+        final SnapshotReader reader = new SnapshotReader(message);
+        context.reset();
+        messageStrings.clear();
+
+        final int formatVersion = reader.readByte();
+        if (formatVersion != SnapshotEncoder.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot format version " + formatVersion + ".");
+        }
+
+        final long version = reader.readVarLong();
+        final long baselineReference = reader.readVarLong();
+        WorldSnapshot baseline = null;
+        if (baselineReference != 0) {
+            baseline = history.get(baselineReference - 1);
+            if (baseline == null) {
+                throw new IllegalArgumentException("Baseline snapshot " + (baselineReference - 1) + " is not available.");
+            }
+        }
+
+        final long[] header = new long[WorldSnapshot.HEADER_FIELD_COUNT];
+        for (int field = 0; field < header.length; field++) {
+            header[field] = reader.readZigZag();
+        }
+
+        final int tableCount = SnapshotSchemas.SCHEMAS.size();
+        final int[] tableSizes = new int[tableCount];
+        final long[][] tableFields = new long[tableCount][];
+        for (int table = 0; table < tableCount; table++) {
+            final long mode = reader.readVarLong();
+            if (mode == SnapshotEncoder.FULL_TABLE) {
+                tableFields[table] = readFullTable(reader, table);
+            } else if (mode == SnapshotEncoder.DELTA_TABLE && baseline != null) {
+                tableFields[table] = readDeltaTable(reader, table, baseline);
+            } else {
+                throw new IllegalArgumentException("Snapshot has invalid table mode " + mode + ".");
+            }
+            tableSizes[table] = tableFields[table].length / SnapshotSchemas.SCHEMAS.get(table).getFieldEncodings().length;
+        }
+
+        if (reader.remaining() != 0) {
+            throw new IllegalArgumentException("Snapshot has " + reader.remaining() + " unexpected trailing bytes.");
+        }
+
+        final WorldSnapshot snapshot = new WorldSnapshot(version, header, context.copyStrings(), tableSizes, tableFields);
+        history.add(snapshot);
+        return snapshot;
+    }
+
+    private long[] readFullTable(SnapshotReader reader, int table) {
+        final FieldEncoding[] encodings = SnapshotSchemas.SCHEMAS.get(table).getFieldEncodings();
+        final int count = readCount(reader);
+        final long[] fields = new long[count * encodings.length];
+        for (int index = 0; index < count; index++) {
+            readEntity(reader, encodings, fields, index * encodings.length);
+        }
+        return fields;
+    }
+
+    private long[] readDeltaTable(SnapshotReader reader, int table, WorldSnapshot baseline) {
+        final FieldEncoding[] encodings = SnapshotSchemas.SCHEMAS.get(table).getFieldEncodings();
+        final int fieldCount = encodings.length;
+        final EntityTable baselineTable = baseline.getTable(table);
+
+        // Removed entities
+        final boolean[] removed = new boolean[baselineTable.size()];
+        final int removedCount = readCount(reader);
+        if (removedCount > baselineTable.size()) {
+            throw new IllegalArgumentException("Snapshot removes more entities than the baseline has.");
+        }
+        int previousIndex = -1;
+        for (int count = 0; count < removedCount; count++) {
+            final long index = previousIndex + 1 + reader.readVarLong();
+            if (index < 0 || index >= removed.length) {
+                throw new IllegalArgumentException("Snapshot removes unknown entity " + index + ".");
+            }
+            removed[(int) index] = true;
+            previousIndex = (int) index;
+        }
+
+        // Carry the kept entities over from the baseline
+        final int keptCount = baselineTable.size() - removedCount;
+        final long[] keptFields = new long[keptCount * fieldCount];
+        int keptIndex = 0;
+        for (int index = 0; index < baselineTable.size(); index++) {
+            if (removed[index]) {
+                continue;
+            }
+
+            for (int field = 0; field < fieldCount; field++) {
+                final long value = baselineTable.field(index, field);
+                keptFields[keptIndex * fieldCount + field] = encodings[field] == FieldEncoding.STRING ?
+                    context.stringId(baseline.string(value)) :
+                    value;
+            }
+            keptIndex++;
+        }
+
+        // Changed fields of kept entities
+        final int changedCount = readCount(reader);
+        previousIndex = -1;
+        for (int count = 0; count < changedCount; count++) {
+            final long index = previousIndex + 1 + reader.readVarLong();
+            if (index < 0 || index >= keptCount) {
+                throw new IllegalArgumentException("Snapshot changes unknown entity " + index + ".");
+            }
+
+            final long mask = reader.readVarLong();
+            if ((mask >>> fieldCount) != 0) {
+                throw new IllegalArgumentException("Snapshot changes unknown fields.");
+            }
+
+            final int offset = (int) index * fieldCount;
+            for (int field = 0; field < fieldCount; field++) {
+                if ((mask & (1L << field)) == 0) {
+                    continue;
+                }
+
+                switch (encodings[field]) {
+                    case FIXED16:
+                        keptFields[offset + field] = (keptFields[offset + field] + reader.readZigZag()) & 0xFFFF;
+                        break;
+                    case STRING:
+                        keptFields[offset + field] = readString(reader);
+                        break;
+                    default:
+                        keptFields[offset + field] += reader.readZigZag();
+                        break;
+                }
+            }
+            previousIndex = (int) index;
+        }
+
+        // Created entities, which go in between the kept entities
+        final int createdCount = readCount(reader);
+        final int size = keptCount + createdCount;
+        final long[] fields = new long[size * fieldCount];
+        int nextKept = 0;
+        int index = 0;
+        for (int count = 0; count < createdCount; count++) {
+            final long createdIndex = index + reader.readVarLong();
+            if (createdIndex < index || createdIndex >= size || createdIndex - index > keptCount - nextKept) {
+                throw new IllegalArgumentException("Snapshot creates entity at invalid index " + createdIndex + ".");
+            }
+
+            for (; index < createdIndex; index++, nextKept++) {
+                System.arraycopy(keptFields, nextKept * fieldCount, fields, index * fieldCount, fieldCount);
+            }
+            readEntity(reader, encodings, fields, index * fieldCount);
+            index++;
+        }
+        for (; index < size; index++, nextKept++) {
+            System.arraycopy(keptFields, nextKept * fieldCount, fields, index * fieldCount, fieldCount);
+        }
+        return fields;
+    }
+
+    private void readEntity(SnapshotReader reader, FieldEncoding[] encodings, long[] fields, int offset) {
+        for (int field = 0; field < encodings.length; field++) {
+            switch (encodings[field]) {
+                case VARINT:
+                    fields[offset + field] = reader.readVarLong();
+                    break;
+                case ZIGZAG:
+                    fields[offset + field] = reader.readZigZag();
+                    break;
+                case FIXED16:
+                    fields[offset + field] = reader.readFixed16();
+                    break;
+                case STRING:
+                    fields[offset + field] = readString(reader);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Read a string field, giving back the ID of the string in the snapshot being decoded.
+     */
+    private long readString(SnapshotReader reader) {
+        final long messageId = reader.readVarLong();
+        if (messageId == 0) {
+            return 0;
+        }
+
+        if (messageId == messageStrings.size() + 1) {
+            messageStrings.add(reader.readString());
+        } else if (messageId < 0 || messageId > messageStrings.size()) {
+            throw new IllegalArgumentException("Snapshot refers to unknown string " + messageId + ".");
+        }
+        return context.stringId(messageStrings.get((int) (messageId - 1)));
+    }
+
+    private static int readCount(SnapshotReader reader) {
+        final long count = reader.readVarLong();
+        // Every entry takes at least a byte, which keeps a corrupted count from running away
+        if (count < 0 || count > reader.remaining()) {
+            throw new IllegalArgumentException("Snapshot has an invalid count of " + count + ".");
+        }
+        return (int) count;
+    }
+}
@@ -0,0 +1,296 @@
+package com.andronikus.game.model.codec;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Encoder of snapshots into messages for clients. A message either holds the whole snapshot, which is a keyframe, or
+ * only what changed since a baseline snapshot the client already has.
+ *
+ * A message starts with the format version, the snapshot's version and the baseline's version plus one, with 0 meaning
+ * there is no baseline. Then come the game state's own fields and each table of entities. A table is written either in
+ * full or, when its entities can be matched up with the baseline's by key, as the baseline entities that were removed,
+ * the fields of kept entities that changed and the entities that were created along with where they go. Changed fields
+ * are written as the difference from the baseline.
+ *
+ * An empty message holds no snapshot at all. The server sends one to a client it has nothing for, and decoders skip it.
+ *
+ * The encoder keeps its buffers between messages and is not thread safe, so each thread needs its own.
+ *
+ * @author Andronikus
+ */
+public class SnapshotEncoder {
+
+    public static final int FORMAT_VERSION = 6;
+
+    static final int FULL_TABLE = 0;
+    static final int DELTA_TABLE = 1;
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final SnapshotWriter writer = new SnapshotWriter(INITIAL_BUFFER_SIZE);
+    private int[] baselineToCurrent = new int[64];
+    private int[] currentToBaseline = new int[64];
+    private int[] runEnds = new int[64];
+    private int[] previousInRun = new int[64];
+    private long[] changeMasks = new long[64];
+    private int[] messageStringIds = new int[64];
+    private int messageStringCount = 0;
+
+    /**
+     * Encode a snapshot.
+     *
+     * @param current The snapshot
+     * @param baseline Snapshot the client already has, or null for a keyframe
+     * @return The message
+     */
+    public byte[] encode(WorldSnapshot current, WorldSnapshot baseline) {
+        writer.reset();
+        if (messageStringIds.length <= current.getStringCount()) {
+            messageStringIds = new int[current.getStringCount() + 1];
+        }
+        Arrays.fill(messageStringIds, 0, current.getStringCount() + 1, 0);
+        messageStringCount = 0;
+
+        writer.writeByte(FORMAT_VERSION);
+        writer.writeVarLong(current.getVersion());
+        writer.writeVarLong(baseline == null ? 0 : baseline.getVersion() + 1);
+        for (int field = 0; field < WorldSnapshot.HEADER_FIELD_COUNT; field++) {
+            writer.writeZigZag(current.getHeaderField(field));
+        }
+
+        for (int table = 0; table < SnapshotSchemas.SCHEMAS.size(); table++) {
+            if (baseline != null && matchEntities(table, current, baseline)) {
+                writeDeltaTable(table, current, baseline);
+            } else {
+                writeFullTable(table, current);
+            }
+        }
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Match up the entities in a table with the entities in the baseline by key. Entities are only ever appended to
+     * their lists, but removing one can move another into its place, so the entities that are kept are not always in
+     * the same order as in the baseline. The longest run of them that is in the baseline's order is kept, and the rest
+     * are sent as removed and created again.
+     */
+    private boolean matchEntities(int table, WorldSnapshot current, WorldSnapshot baseline) {
+        final EntityTable currentTable = current.getTable(table);
+        final EntityTable baselineTable = baseline.getTable(table);
+        if (!currentTable.isKeyed() || !baselineTable.isKeyed()) {
+            return false;
+        }
+
+        if (baselineToCurrent.length < baselineTable.size()) {
+            baselineToCurrent = new int[Math.max(baselineTable.size(), baselineToCurrent.length * 2)];
+        }
+        if (currentToBaseline.length < currentTable.size()) {
+            final int capacity = Math.max(currentTable.size(), currentToBaseline.length * 2);
+            currentToBaseline = new int[capacity];
+            runEnds = new int[capacity];
+            previousInRun = new int[capacity];
+        }
+        Arrays.fill(baselineToCurrent, 0, baselineTable.size(), -1);
+
+        // Longest run of baseline indexes going up, where runEnds[length - 1] is the entity that ends the best run of
+        // that length found so far
+        int longestRun = 0;
+        for (int index = 0; index < currentTable.size(); index++) {
+            final int baselineIndex = baselineTable.indexOf(currentTable.key(index));
+            currentToBaseline[index] = baselineIndex;
+            if (baselineIndex < 0) {
+                continue;
+            }
+
+            int low = 0;
+            int high = longestRun;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (currentToBaseline[runEnds[middle]] < baselineIndex) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previousInRun[index] = low > 0 ? runEnds[low - 1] : -1;
+            runEnds[low] = index;
+            longestRun = Math.max(longestRun, low + 1);
+        }
+
+        for (int index = longestRun > 0 ? runEnds[longestRun - 1] : -1; index >= 0; index = previousInRun[index]) {
+            baselineToCurrent[currentToBaseline[index]] = index;
+        }
+        for (int index = 0; index < currentTable.size(); index++) {
+            if (currentToBaseline[index] >= 0 && baselineToCurrent[currentToBaseline[index]] != index) {
+                currentToBaseline[index] = -1;
+            }
+        }
+        return true;
+    }
+
+    private void writeFullTable(int table, WorldSnapshot current) {
+        final EntityTable currentTable = current.getTable(table);
+        writer.writeVarLong(FULL_TABLE);
+        writer.writeVarLong(currentTable.size());
+        for (int index = 0; index < currentTable.size(); index++) {
+            writeEntity(table, current, index);
+        }
+    }
+
+    private void writeDeltaTable(int table, WorldSnapshot current, WorldSnapshot baseline) {
+        final EntityTable currentTable = current.getTable(table);
+        final EntityTable baselineTable = baseline.getTable(table);
+        final FieldEncoding[] encodings = SnapshotSchemas.SCHEMAS.get(table).getFieldEncodings();
+        writer.writeVarLong(DELTA_TABLE);
+
+        // Kept entities are numbered in the order they come in, skipping over created entities
+        if (changeMasks.length < currentTable.size()) {
+            changeMasks = new long[Math.max(currentTable.size(), changeMasks.length * 2)];
+        }
+        int keptCount = 0;
+        int changedCount = 0;
+        for (int index = 0; index < currentTable.size(); index++) {
+            if (currentToBaseline[index] >= 0) {
+                changeMasks[index] = changeMask(table, encodings, current, index, baseline, currentToBaseline[index]);
+                if (changeMasks[index] != 0) {
+                    changedCount++;
+                }
+                keptCount++;
+            }
+        }
+
+        // Removed entities, as the gaps between their indexes in the baseline
+        writer.writeVarLong(baselineTable.size() - keptCount);
+        int previousIndex = -1;
+        for (int index = 0; index < baselineTable.size(); index++) {
+            if (baselineToCurrent[index] < 0) {
+                writer.writeVarLong(index - previousIndex - 1);
+                previousIndex = index;
+            }
+        }
+
+        // Kept entities that changed, as the gaps between their numbers followed by which fields changed and how
+        writer.writeVarLong(changedCount);
+        previousIndex = -1;
+        int keptIndex = 0;
+        for (int index = 0; index < currentTable.size(); index++) {
+            if (currentToBaseline[index] < 0) {
+                continue;
+            }
+
+            if (changeMasks[index] != 0) {
+                writer.writeVarLong(keptIndex - previousIndex - 1);
+                writer.writeVarLong(changeMasks[index]);
+                writeChangedFields(table, encodings, current, index, baseline, currentToBaseline[index], changeMasks[index]);
+                previousIndex = keptIndex;
+            }
+            keptIndex++;
+        }
+
+        // Created entities, each preceded by the gap between its index and the previous created entity's index
+        writer.writeVarLong(currentTable.size() - keptCount);
+        previousIndex = -1;
+        for (int index = 0; index < currentTable.size(); index++) {
+            if (currentToBaseline[index] < 0) {
+                writer.writeVarLong(index - previousIndex - 1);
+                writeEntity(table, current, index);
+                previousIndex = index;
+            }
+        }
+    }
+
+    private static long changeMask(
+        int table, FieldEncoding[] encodings, WorldSnapshot current, int currentIndex, WorldSnapshot baseline, int baselineIndex
+    ) {
+        final EntityTable currentTable = current.getTable(table);
+        final EntityTable baselineTable = baseline.getTable(table);
+
+        long mask = 0;
+        for (int field = 0; field < encodings.length; field++) {
+            final long currentValue = currentTable.field(currentIndex, field);
+            final long baselineValue = baselineTable.field(baselineIndex, field);
+            final boolean changed = encodings[field] == FieldEncoding.STRING ?
+                !Objects.equals(current.string(currentValue), baseline.string(baselineValue)) :
+                currentValue != baselineValue;
+            if (changed) {
+                mask |= 1L << field;
+            }
+        }
+        return mask;
+    }
+
+    private void writeChangedFields(
+        int table, FieldEncoding[] encodings, WorldSnapshot current, int currentIndex, WorldSnapshot baseline, int baselineIndex, long mask
+    ) {
+        final EntityTable currentTable = current.getTable(table);
+        final EntityTable baselineTable = baseline.getTable(table);
+
+        for (int field = 0; field < encodings.length; field++) {
+            if ((mask & (1L << field)) == 0) {
+                continue;
+            }
+
+            final long currentValue = currentTable.field(currentIndex, field);
+            final long baselineValue = baselineTable.field(baselineIndex, field);
+            switch (encodings[field]) {
+                case FIXED16:
+                    // Take the short way around so that angles crossing zero stay small
+                    writer.writeZigZag((short) (currentValue - baselineValue));
+                    break;
+                case STRING:
+                    writeString(current, currentValue);
+                    break;
+                default:
+                    writer.writeZigZag(currentValue - baselineValue);
+                    break;
+            }
+        }
+    }
+
+    private void writeEntity(int table, WorldSnapshot current, int index) {
+        final EntityTable currentTable = current.getTable(table);
+        final FieldEncoding[] encodings = SnapshotSchemas.SCHEMAS.get(table).getFieldEncodings();
+
+        for (int field = 0; field < encodings.length; field++) {
+            final long value = currentTable.field(index, field);
+            switch (encodings[field]) {
+                case VARINT:
+                    writer.writeVarLong(value);
+                    break;
+                case ZIGZAG:
+                    writer.writeZigZag(value);
+                    break;
+                case FIXED16:
+                    writer.writeFixed16(value);
+                    break;
+                case STRING:
+                    writeString(current, value);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Write a string field. Strings get IDs of their own in each message, and the string itself follows its ID the
+     * first time the ID is written.
+     */
+    private void writeString(WorldSnapshot current, long id) {
+        if (id == 0) {
+            writer.writeVarLong(0);
+            return;
+        }
+
+        final int messageId = messageStringIds[(int) id];
+        if (messageId != 0) {
+            writer.writeVarLong(messageId);
+            return;
+        }
+
+        messageStringCount++;
+        messageStringIds[(int) id] = messageStringCount;
+        writer.writeVarLong(messageStringCount);
+        writer.writeString(current.string(id));
+    }
+}
@@ -0,0 +1,128 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.gameserver.engine.ScalableBalanceConstants;
+
+/**
+ * Conversions between the values on entities and the whole number fields they are stored as in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class SnapshotFields {
+
+    private static final long POSITION_STEPS = 1L << 16;
+    private static final double ANGLE_STEPS = 1 << 16;
+    private static final double FULL_ROTATION = Math.PI * 2;
+
+    /**
+     * Store a position as a 16 bit offset from {@link ScalableBalanceConstants#SNAPSHOT_POSITION_ORIGIN}. Positions
+     * outside of the range that covers are clamped to its edge.
+     *
+     * @param position The position
+     * @return The field
+     */
+    public static long fromPosition(long position) {
+        return Math.max(0, Math.min(POSITION_STEPS - 1, position - ScalableBalanceConstants.SNAPSHOT_POSITION_ORIGIN));
+    }
+
+    /**
+     * Get a position back from its field.
+     *
+     * @param field The field
+     * @return The position
+     */
+    public static long toPosition(long field) {
+        return field + ScalableBalanceConstants.SNAPSHOT_POSITION_ORIGIN;
+    }
+
+    /**
+     * Store an angle as a 16 bit fraction of a full rotation. Whole rotations are dropped.
+     *
+     * @param angle The angle in radians
+     * @return The field
+     */
+    public static long fromAngle(double angle) {
+        return Math.floorMod(Math.round(angle / FULL_ROTATION * ANGLE_STEPS), (long) ANGLE_STEPS);
+    }
+
+    /**
+     * Get an angle back from its field.
+     *
+     * @param field The field
+     * @return The angle in radians, between 0 and a full rotation
+     */
+    public static double toAngle(long field) {
+        return field / ANGLE_STEPS * FULL_ROTATION;
+    }
+
+    /**
+     * Store an angular velocity with the same precision as an angle. Unlike an angle, the result may be negative.
+     *
+     * @param angularVelocity The angular velocity in radians
+     * @return The field
+     */
+    public static long fromAngularVelocity(double angularVelocity) {
+        return Math.round(angularVelocity / FULL_ROTATION * ANGLE_STEPS);
+    }
+
+    /**
+     * Get an angular velocity back from its field.
+     *
+     * @param field The field
+     * @return The angular velocity in radians
+     */
+    public static double toAngularVelocity(long field) {
+        return field / ANGLE_STEPS * FULL_ROTATION;
+    }
+
+    /**
+     * Store a value that may be null and is otherwise not negative.
+     *
+     * @param value The value
+     * @return The field, 0 for null
+     */
+    public static long fromNullable(Number value) {
+        return value == null ? 0 : value.longValue() + 1;
+    }
+
+    /**
+     * Get a nullable long back from its field.
+     *
+     * @param field The field
+     * @return The value
+     */
+    public static Long toNullableLong(long field) {
+        return field == 0 ? null : field - 1;
+    }
+
+    /**
+     * Get a nullable integer back from its field.
+     *
+     * @param field The field
+     * @return The value
+     */
+    public static Integer toNullableInteger(long field) {
+        return field == 0 ? null : (int) (field - 1);
+    }
+
+    /**
+     * Store a boolean as one bit of a field of packed booleans. The bits for each boolean are or'd together.
+     *
+     * @param flag The boolean
+     * @param index Which bit to use
+     * @return The bit, or 0 if the boolean is false
+     */
+    public static long fromFlag(boolean flag, int index) {
+        return flag ? 1L << index : 0;
+    }
+
+    /**
+     * Get one boolean back from a field of packed booleans.
+     *
+     * @param field The field
+     * @param index Which boolean
+     * @return The boolean
+     */
+    public static boolean toFlag(long field, int index) {
+        return (field & (1L << index)) != 0;
+    }
+}
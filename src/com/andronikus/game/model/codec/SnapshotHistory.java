@@ -0,0 +1,57 @@
+package com.andronikus.game.model.codec;
+
+/**
+ * The most recent snapshots, looked up by version. Once full, adding a snapshot pushes out the oldest one. Not thread
+ * safe.
+ *
+ * @author Andronikus
+ */
+public class SnapshotHistory {
+
+    private final WorldSnapshot[] snapshots;
+    private int nextSlot = 0;
+
+    /**
+     * Instantiate a history of the most recent snapshots.
+     *
+     * @param capacity How many snapshots to keep
+     */
+    public SnapshotHistory(int capacity) {
+        snapshots = new WorldSnapshot[capacity];
+    }
+
+    /**
+     * Add a snapshot, pushing out the oldest one if the history is full.
+     *
+     * @param snapshot The snapshot
+     */
+    public void add(WorldSnapshot snapshot) {
+        snapshots[nextSlot] = snapshot;
+        nextSlot = (nextSlot + 1) % snapshots.length;
+    }
+
+    /**
+     * Find the snapshot of a version.
+     *
+     * @param version The version
+     * @return The snapshot, or null if it is not in the history
+     */
+    public WorldSnapshot get(long version) {
+        for (WorldSnapshot snapshot : snapshots) {
+            if (snapshot != null && snapshot.getVersion() == version) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forget every snapshot.
+     */
+    public void clear() {
+        for (int index = 0; index < snapshots.length; index++) {
+            snapshots[index] = null;
+        }
+        nextSlot = 0;
+    }
+}
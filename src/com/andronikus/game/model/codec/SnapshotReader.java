@@ -0,0 +1,116 @@
+package com.andronikus.game.model.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader for the values written by a {@link SnapshotWriter}.
+ *
+ * @author Andronikus
+ */
+public class SnapshotReader {
+
+    private final byte[] buffer;
+    private final int end;
+    private int position;
+
+    /**
+     * Instantiate a reader for a game state snapshot.
+     *
+     * @param aBuffer The bytes of the snapshot
+     */
+    public SnapshotReader(byte[] aBuffer) {
+        this(aBuffer, 0, aBuffer.length);
+    }
+
+    /**
+     * Instantiate a reader for a game state snapshot that takes up part of a buffer.
+     *
+     * @param aBuffer The buffer
+     * @param offset Where in the buffer the snapshot starts
+     * @param length Length of the snapshot
+     */
+    public SnapshotReader(byte[] aBuffer, int offset, int length) {
+        buffer = aBuffer;
+        position = offset;
+        end = offset + length;
+    }
+
+    /**
+     * Get the number of bytes that have not been read yet.
+     *
+     * @return The number of bytes
+     */
+    public int remaining() {
+        return end - position;
+    }
+
+    /**
+     * Read a single byte.
+     *
+     * @return The byte as an unsigned value
+     */
+    public int readByte() {
+        requireBytes(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Read a value written by {@link SnapshotWriter#writeFixed16(long)}.
+     *
+     * @return The value, between 0 and 65535
+     */
+    public long readFixed16() {
+        requireBytes(2);
+        final int high = buffer[position++] & 0xFF;
+        final int low = buffer[position++] & 0xFF;
+        return (high << 8) | low;
+    }
+
+    /**
+     * Read a value written by {@link SnapshotWriter#writeVarLong(long)}.
+     *
+     * @return The value
+     */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int nextByte = readByte();
+            value |= (long) (nextByte & 0x7F) << shift;
+            if ((nextByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length value in snapshot.");
+    }
+
+    /**
+     * Read a value written by {@link SnapshotWriter#writeZigZag(long)}.
+     *
+     * @return The value
+     */
+    public long readZigZag() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read a string written by {@link SnapshotWriter#writeString(String)}.
+     *
+     * @return The string
+     */
+    public String readString() {
+        final long length = readVarLong();
+        if (length < 0 || length > remaining()) {
+            throw new IllegalArgumentException("String in snapshot runs past the end of the snapshot.");
+        }
+        final String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+        position += (int) length;
+        return value;
+    }
+
+    private void requireBytes(int bytes) {
+        if (remaining() < bytes) {
+            throw new IllegalArgumentException("Snapshot ended unexpectedly.");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.codec.schema.AsteroidSchema;
+import com.andronikus.game.model.codec.schema.CommandAcknowledgementSchema;
+import com.andronikus.game.model.codec.schema.InputAcknowledgementSchema;
+import com.andronikus.game.model.codec.schema.LaserSchema;
+import com.andronikus.game.model.codec.schema.MicroBlackHoleSchema;
+import com.andronikus.game.model.codec.schema.PlayerCollisionFlagSchema;
+import com.andronikus.game.model.codec.schema.PlayerSchema;
+import com.andronikus.game.model.codec.schema.PortalSchema;
+import com.andronikus.game.model.codec.schema.SnakeSchema;
+
+import java.util.List;
+
+/**
+ * Every list of entities in a snapshot, in the order they are written. The collideable types come first, in the same
+ * order as {@link com.andronikus.game.model.server.GameState#getCollideables()}. Players come before snakes since snakes
+ * refer to players.
+ *
+ * @author Andronikus
+ */
+public class SnapshotSchemas {
+
+    public static final List<IEntitySchema<?>> SCHEMAS = List.of(
+        new PlayerSchema(),
+        new LaserSchema(),
+        new AsteroidSchema(),
+        new SnakeSchema(),
+        new MicroBlackHoleSchema(),
+        new PortalSchema(),
+        new InputAcknowledgementSchema(),
+        new CommandAcknowledgementSchema(),
+        new PlayerCollisionFlagSchema()
+    );
+
+    public static final int PLAYER_TABLE = 0;
+    public static final int COLLIDEABLE_TABLE_COUNT = 6;
+
+    /**
+     * Get the most fields any type of entity has.
+     *
+     * @return The number of fields
+     */
+    public static int maxFieldCount() {
+        int maxFieldCount = 0;
+        for (IEntitySchema<?> schema : SCHEMAS) {
+            maxFieldCount = Math.max(maxFieldCount, schema.getFieldEncodings().length);
+        }
+        return maxFieldCount;
+    }
+}
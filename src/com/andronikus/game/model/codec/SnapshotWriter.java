@@ -0,0 +1,114 @@
+package com.andronikus.game.model.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that game state snapshots are written into. The buffer is kept between snapshots, so once it has
+ * grown to the size of a typical snapshot, writing a snapshot does not allocate.
+ *
+ * @author Andronikus
+ */
+public class SnapshotWriter {
+
+    private byte[] buffer;
+    private int size = 0;
+
+    /**
+     * Instantiate a writer for game state snapshots.
+     *
+     * @param initialCapacity Size of the buffer to start with
+     */
+    public SnapshotWriter(int initialCapacity) {
+        buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Throw away everything that has been written, keeping the buffer.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Get the number of bytes written since the last reset.
+     *
+     * @return The number of bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Write a single byte.
+     *
+     * @param value The byte, only the lowest 8 bits are used
+     */
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Write the lowest 16 bits of a value in two bytes.
+     *
+     * @param value The value
+     */
+    public void writeFixed16(long value) {
+        ensureCapacity(2);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Write a value seven bits at a time, lowest bits first. Small non-negative values take a single byte.
+     *
+     * @param value The value
+     */
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[size++] = (byte) remaining;
+    }
+
+    /**
+     * Write a value that may be negative, such that values close to zero on either side take few bytes.
+     *
+     * @param value The value
+     */
+    public void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write a string as its length followed by its UTF-8 bytes.
+     *
+     * @param value The string
+     */
+    public void writeString(String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Copy out everything written since the last reset.
+     *
+     * @return The bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (size + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additionalBytes));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.server.BoundingBoxBorder;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.debug.ServerDebugSettings;
+import lombok.Getter;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Game state flattened into tables of whole number fields, as laid out by the schemas in {@link SnapshotSchemas}.
+ * Snapshots are never modified once created, so they can be handed between threads and kept around to be compared
+ * against later snapshots.
+ *
+ * @author Andronikus
+ */
+public class WorldSnapshot {
+
+    public static final int FLAGS_FIELD = 0;
+    public static final int BORDER_TYPE_FIELD = 1;
+    public static final int BORDER_MAX_X_FIELD = 2;
+    public static final int BORDER_MAX_Y_FIELD = 3;
+    public static final int HEADER_FIELD_COUNT = 4;
+
+    private static final int NO_BORDER = 0;
+    private static final int BOUNDING_BOX_BORDER = 1;
+
+    private static final int SERVER_DEBUG_MODE_FLAG = 0;
+    private static final int TICK_ENABLED_FLAG = 1;
+    private static final int COLLISIONS_ENABLED_FLAG = 2;
+    private static final int MOVEMENT_ENABLED_FLAG = 3;
+    private static final int SPAWNING_ENABLED_FLAG = 4;
+    private static final int DEBUG_SETTINGS_FLAG = 5;
+
+    @Getter
+    private final long version;
+    private final long[] header;
+    private final String[] strings;
+    private final EntityTable[] tables;
+
+    /**
+     * Instantiate a snapshot of the game state.
+     *
+     * @param aVersion Version of the game state
+     * @param aHeader The game state's own fields
+     * @param aStrings Strings referred to by fields, the string with ID 1 first
+     * @param tableSizes Number of entities in each table
+     * @param tableFields Fields of the entities in each table
+     */
+    WorldSnapshot(long aVersion, long[] aHeader, String[] aStrings, int[] tableSizes, long[][] tableFields) {
+        this(aVersion, aHeader, aStrings, new EntityTable[SnapshotSchemas.SCHEMAS.size()]);
+        for (int table = 0; table < tables.length; table++) {
+            tables[table] = createTable(table, tableSizes[table], tableFields[table]);
+        }
+    }
+
+    private WorldSnapshot(long aVersion, long[] aHeader, String[] aStrings, EntityTable[] aTables) {
+        version = aVersion;
+        header = aHeader;
+        strings = aStrings;
+        tables = aTables;
+    }
+
+    private static EntityTable createTable(int table, int size, long[] fields) {
+        final IEntitySchema<?> schema = SnapshotSchemas.SCHEMAS.get(table);
+        return new EntityTable(schema.getFieldEncodings().length, size, fields, schema.getKeyField());
+    }
+
+    /**
+     * Take a snapshot of a game state.
+     *
+     * @param state The game state
+     * @return The snapshot
+     */
+    public static WorldSnapshot capture(GameState state) {
+        final long[] header = new long[HEADER_FIELD_COUNT];
+        header[FLAGS_FIELD] = SnapshotFields.fromFlag(state.isServerDebugMode(), SERVER_DEBUG_MODE_FLAG) |
+            SnapshotFields.fromFlag(state.isTickEnabled(), TICK_ENABLED_FLAG) |
+            SnapshotFields.fromFlag(state.isCollisionsEnabled(), COLLISIONS_ENABLED_FLAG) |
+            SnapshotFields.fromFlag(state.isMovementEnabled(), MOVEMENT_ENABLED_FLAG) |
+            SnapshotFields.fromFlag(state.isSpawningEnabled(), SPAWNING_ENABLED_FLAG) |
+            SnapshotFields.fromFlag(state.getDebugSettings() != null, DEBUG_SETTINGS_FLAG);
+
+        if (state.getBorder() == null) {
+            header[BORDER_TYPE_FIELD] = NO_BORDER;
+        } else if (state.getBorder() instanceof BoundingBoxBorder) {
+            final BoundingBoxBorder border = (BoundingBoxBorder) state.getBorder();
+            header[BORDER_TYPE_FIELD] = BOUNDING_BOX_BORDER;
+            header[BORDER_MAX_X_FIELD] = border.getMaxX();
+            header[BORDER_MAX_Y_FIELD] = border.getMaxY();
+        } else {
+            throw new IllegalArgumentException("Cannot snapshot border of type " + state.getBorder().getClass().getSimpleName() + ".");
+        }
+
+        final SnapshotContext context = new SnapshotContext();
+        final long[] scratch = new long[SnapshotSchemas.maxFieldCount()];
+        final int tableCount = SnapshotSchemas.SCHEMAS.size();
+        final int[] tableSizes = new int[tableCount];
+        final long[][] tableFields = new long[tableCount][];
+
+        for (int table = 0; table < tableCount; table++) {
+            tableSizes[table] = SnapshotSchemas.SCHEMAS.get(table).getEntities(state).size();
+            tableFields[table] = captureTable(SnapshotSchemas.SCHEMAS.get(table), state, context, scratch);
+        }
+
+        return new WorldSnapshot(state.getVersion(), header, context.copyStrings(), tableSizes, tableFields);
+    }
+
+    private static <TYPE> long[] captureTable(IEntitySchema<TYPE> schema, GameState state, SnapshotContext context, long[] scratch) {
+        final List<TYPE> entities = schema.getEntities(state);
+        final int fieldCount = schema.getFieldEncodings().length;
+        final long[] fields = new long[entities.size() * fieldCount];
+
+        for (int index = 0; index < entities.size(); index++) {
+            schema.extract(entities.get(index), scratch, context);
+            System.arraycopy(scratch, 0, fields, index * fieldCount, fieldCount);
+        }
+        return fields;
+    }
+
+    /**
+     * Narrow the snapshot down to some of its entities. Everything that is kept keeps its order.
+     *
+     * @param keptEntities For each table, which entities to keep, or null to keep the whole table
+     * @return The narrowed down snapshot
+     */
+    public WorldSnapshot subset(BitSet[] keptEntities) {
+        final EntityTable[] keptTables = new EntityTable[tables.length];
+
+        for (int table = 0; table < tables.length; table++) {
+            final EntityTable entities = tables[table];
+            if (keptEntities[table] == null) {
+                keptTables[table] = entities;
+                continue;
+            }
+
+            final int fieldCount = entities.getFieldCount();
+            final long[] fields = new long[keptEntities[table].cardinality() * fieldCount];
+
+            int keptIndex = 0;
+            for (int index = keptEntities[table].nextSetBit(0); index >= 0 && index < entities.size(); index = keptEntities[table].nextSetBit(index + 1)) {
+                entities.copyFields(index, fields, keptIndex * fieldCount);
+                keptIndex++;
+            }
+            keptTables[table] = createTable(table, keptIndex, fields);
+        }
+
+        // Strings that are no longer referred to are harmless, since only strings that are written get sent
+        return new WorldSnapshot(version, header, strings, keptTables);
+    }
+
+    /**
+     * Turn the snapshot back into a game state.
+     *
+     * @return The game state
+     */
+    public GameState toGameState() {
+        final GameState state = new GameState();
+        state.setVersion(version);
+
+        final long flags = header[FLAGS_FIELD];
+        state.setServerDebugMode(SnapshotFields.toFlag(flags, SERVER_DEBUG_MODE_FLAG));
+        state.setTickEnabled(SnapshotFields.toFlag(flags, TICK_ENABLED_FLAG));
+        state.setCollisionsEnabled(SnapshotFields.toFlag(flags, COLLISIONS_ENABLED_FLAG));
+        state.setMovementEnabled(SnapshotFields.toFlag(flags, MOVEMENT_ENABLED_FLAG));
+        state.setSpawningEnabled(SnapshotFields.toFlag(flags, SPAWNING_ENABLED_FLAG));
+        if (SnapshotFields.toFlag(flags, DEBUG_SETTINGS_FLAG)) {
+            state.setDebugSettings(new ServerDebugSettings());
+        }
+
+        if (header[BORDER_TYPE_FIELD] == BOUNDING_BOX_BORDER) {
+            final BoundingBoxBorder border = new BoundingBoxBorder();
+            border.setMaxX(header[BORDER_MAX_X_FIELD]);
+            border.setMaxY(header[BORDER_MAX_Y_FIELD]);
+            state.setBorder(border);
+        } else if (header[BORDER_TYPE_FIELD] != NO_BORDER) {
+            throw new IllegalArgumentException("Snapshot has unknown border type " + header[BORDER_TYPE_FIELD] + ".");
+        }
+
+        final SnapshotContext context = new SnapshotContext();
+        for (String string : strings) {
+            context.addString(string);
+        }
+
+        final long[] scratch = new long[SnapshotSchemas.maxFieldCount()];
+        for (int table = 0; table < tables.length; table++) {
+            createEntities(SnapshotSchemas.SCHEMAS.get(table), tables[table], state, context, scratch);
+            if (table == SnapshotSchemas.PLAYER_TABLE) {
+                state.getPlayers().forEach(context::addPlayer);
+            }
+        }
+        return state;
+    }
+
+    private static <TYPE> void createEntities(IEntitySchema<TYPE> schema, EntityTable table, GameState state, SnapshotContext context, long[] scratch) {
+        for (int index = 0; index < table.size(); index++) {
+            table.copyFields(index, scratch, 0);
+            schema.restore(state, schema.create(scratch, context));
+        }
+    }
+
+    /**
+     * Get one of the game state's own fields.
+     *
+     * @param field Index of the field
+     * @return The field
+     */
+    public long getHeaderField(int field) {
+        return header[field];
+    }
+
+    /**
+     * Get the number of strings referred to by fields.
+     *
+     * @return The number of strings
+     */
+    public int getStringCount() {
+        return strings.length;
+    }
+
+    /**
+     * Get a string referred to by a field.
+     *
+     * @param id ID of the string
+     * @return The string, or null for 0
+     */
+    public String string(long id) {
+        return id == 0 ? null : strings[(int) (id - 1)];
+    }
+
+    /**
+     * Get the table of one type of entity.
+     *
+     * @param table Index of the type in {@link SnapshotSchemas#SCHEMAS}
+     * @return The table
+     */
+    public EntityTable getTable(int table) {
+        return tables[table];
+    }
+
+    /**
+     * Get the value a field stands for, so that fields from different snapshots can be compared. Strings are only
+     * meaningful within their own snapshot, so string fields are compared by the string itself.
+     *
+     * @param table Index of the table
+     * @param entity Index of the entity
+     * @param field Index of the field
+     * @return The value, which is a string for string fields and a long otherwise
+     */
+    public Object fieldValue(int table, int entity, int field) {
+        return fieldValue(strings, SnapshotSchemas.SCHEMAS.get(table), field, tables[table].field(entity, field));
+    }
+
+    private static Object fieldValue(String[] strings, IEntitySchema<?> schema, int field, long value) {
+        if (schema.getFieldEncodings()[field] != FieldEncoding.STRING) {
+            return value;
+        }
+        return value == 0 ? null : strings[(int) (value - 1)];
+    }
+}
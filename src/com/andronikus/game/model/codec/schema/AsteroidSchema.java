@@ -0,0 +1,115 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.server.Asteroid;
+import com.andronikus.game.model.server.GameState;
+
+import java.util.List;
+
+/**
+ * Layout of an asteroid in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class AsteroidSchema implements IEntitySchema<Asteroid> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT,  // ID
+        FieldEncoding.FIXED16, // X
+        FieldEncoding.FIXED16, // Y
+        FieldEncoding.ZIGZAG,  // X velocity
+        FieldEncoding.ZIGZAG,  // Y velocity
+        FieldEncoding.FIXED16, // Angle
+        FieldEncoding.ZIGZAG,  // Angular velocity
+        FieldEncoding.VARINT,  // Size
+        FieldEncoding.ZIGZAG,  // Durability
+        FieldEncoding.ZIGZAG   // Cracking ticks
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Asteroid> getEntities(GameState state) {
+        return state.getAsteroids();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, Asteroid asteroid) {
+        state.getAsteroidRegistry().restore(asteroid);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(Asteroid asteroid, long[] fields, SnapshotContext context) {
+        fields[0] = asteroid.getId();
+        fields[1] = SnapshotFields.fromPosition(asteroid.getX());
+        fields[2] = SnapshotFields.fromPosition(asteroid.getY());
+        fields[3] = asteroid.getXVelocity();
+        fields[4] = asteroid.getYVelocity();
+        fields[5] = SnapshotFields.fromAngle(asteroid.getAngle());
+        fields[6] = SnapshotFields.fromAngularVelocity(asteroid.getAngularVelocity());
+        fields[7] = asteroid.getSize();
+        fields[8] = asteroid.getDurability();
+        fields[9] = asteroid.getCrackingTicks();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Asteroid create(long[] fields, SnapshotContext context) {
+        final Asteroid asteroid = new Asteroid();
+        asteroid.setId(fields[0]);
+        asteroid.setX(SnapshotFields.toPosition(fields[1]));
+        asteroid.setY(SnapshotFields.toPosition(fields[2]));
+        asteroid.setXVelocity(fields[3]);
+        asteroid.setYVelocity(fields[4]);
+        asteroid.setAngle(SnapshotFields.toAngle(fields[5]));
+        asteroid.setAngularVelocity(SnapshotFields.toAngularVelocity(fields[6]));
+        asteroid.setSize((int) fields[7]);
+        asteroid.setDurability((int) fields[8]);
+        asteroid.setCrackingTicks((int) fields[9]);
+        return asteroid;
+    }
+}
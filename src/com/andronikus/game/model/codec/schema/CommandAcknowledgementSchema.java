@@ -0,0 +1,91 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.debug.CommandAcknowledgement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Layout of a command acknowledgement in a snapshot. Only present when the game state has debug settings.
+ *
+ * @author Andronikus
+ */
+public class CommandAcknowledgementSchema implements IEntitySchema<CommandAcknowledgement> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT, // Session slot
+        FieldEncoding.ZIGZAG  // Command ID
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CommandAcknowledgement> getEntities(GameState state) {
+        return state.getDebugSettings() == null ? Collections.emptyList() : state.getDebugSettings().getCommandAcknowledgements();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, CommandAcknowledgement acknowledgement) {
+        getEntities(state).add(acknowledgement);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(CommandAcknowledgement acknowledgement, long[] fields, SnapshotContext context) {
+        fields[0] = acknowledgement.getSessionSlot();
+        fields[1] = acknowledgement.getCommandId();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandAcknowledgement create(long[] fields, SnapshotContext context) {
+        final CommandAcknowledgement acknowledgement = new CommandAcknowledgement();
+        acknowledgement.setSessionSlot((int) fields[0]);
+        acknowledgement.setCommandId(fields[1]);
+        return acknowledgement;
+    }
+}
@@ -0,0 +1,93 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.input.InputAcknowledgement;
+
+import java.util.List;
+
+/**
+ * Layout of an input acknowledgement in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class InputAcknowledgementSchema implements IEntitySchema<InputAcknowledgement> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT, // Session slot
+        FieldEncoding.ZIGZAG, // Latest input ID
+        FieldEncoding.VARINT  // Bitfield of the inputs before the latest
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<InputAcknowledgement> getEntities(GameState state) {
+        return state.getInputAcknowledgements();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, InputAcknowledgement acknowledgement) {
+        state.getInputAcknowledgements().add(acknowledgement);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(InputAcknowledgement acknowledgement, long[] fields, SnapshotContext context) {
+        fields[0] = acknowledgement.getSessionSlot();
+        fields[1] = acknowledgement.getLatestInputId();
+        fields[2] = acknowledgement.getAckBitfield();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputAcknowledgement create(long[] fields, SnapshotContext context) {
+        final InputAcknowledgement acknowledgement = new InputAcknowledgement();
+        acknowledgement.setSessionSlot((int) fields[0]);
+        acknowledgement.setLatestInputId(fields[1]);
+        acknowledgement.setAckBitfield(fields[2]);
+        return acknowledgement;
+    }
+}
@@ -0,0 +1,109 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Laser;
+
+import java.util.List;
+
+/**
+ * Layout of a laser in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class LaserSchema implements IEntitySchema<Laser> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT,  // ID
+        FieldEncoding.FIXED16, // X
+        FieldEncoding.FIXED16, // Y
+        FieldEncoding.ZIGZAG,  // X velocity
+        FieldEncoding.ZIGZAG,  // Y velocity
+        FieldEncoding.VARINT,  // Loyalty
+        FieldEncoding.FIXED16, // Angle
+        FieldEncoding.VARINT   // Active
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Laser> getEntities(GameState state) {
+        return state.getLasers();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, Laser laser) {
+        state.getLaserRegistry().restore(laser);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(Laser laser, long[] fields, SnapshotContext context) {
+        fields[0] = laser.getId();
+        fields[1] = SnapshotFields.fromPosition(laser.getX());
+        fields[2] = SnapshotFields.fromPosition(laser.getY());
+        fields[3] = laser.getXVelocity();
+        fields[4] = laser.getYVelocity();
+        fields[5] = laser.getLoyalty();
+        fields[6] = SnapshotFields.fromAngle(laser.getAngle());
+        fields[7] = SnapshotFields.fromFlag(laser.isActive(), 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Laser create(long[] fields, SnapshotContext context) {
+        final Laser laser = new Laser();
+        laser.setId(fields[0]);
+        laser.setX(SnapshotFields.toPosition(fields[1]));
+        laser.setY(SnapshotFields.toPosition(fields[2]));
+        laser.setXVelocity(fields[3]);
+        laser.setYVelocity(fields[4]);
+        laser.setLoyalty((int) fields[5]);
+        laser.setAngle(SnapshotFields.toAngle(fields[6]));
+        laser.setActive(SnapshotFields.toFlag(fields[7], 0));
+        return laser;
+    }
+}
@@ -0,0 +1,100 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.MicroBlackHole;
+
+import java.util.List;
+
+/**
+ * Layout of a black hole in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class MicroBlackHoleSchema implements IEntitySchema<MicroBlackHole> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT,  // ID
+        FieldEncoding.FIXED16, // X
+        FieldEncoding.FIXED16, // Y
+        FieldEncoding.FIXED16, // Angle
+        FieldEncoding.ZIGZAG   // Angular velocity
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<MicroBlackHole> getEntities(GameState state) {
+        return state.getBlackHoles();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, MicroBlackHole blackHole) {
+        state.getBlackHoleRegistry().restore(blackHole);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(MicroBlackHole blackHole, long[] fields, SnapshotContext context) {
+        fields[0] = blackHole.getId();
+        fields[1] = SnapshotFields.fromPosition(blackHole.getX());
+        fields[2] = SnapshotFields.fromPosition(blackHole.getY());
+        fields[3] = SnapshotFields.fromAngle(blackHole.getAngle());
+        fields[4] = SnapshotFields.fromAngularVelocity(blackHole.getAngularVelocity());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MicroBlackHole create(long[] fields, SnapshotContext context) {
+        final MicroBlackHole blackHole = new MicroBlackHole();
+        blackHole.setId(fields[0]);
+        blackHole.setX(SnapshotFields.toPosition(fields[1]));
+        blackHole.setY(SnapshotFields.toPosition(fields[2]));
+        blackHole.setAngle(SnapshotFields.toAngle(fields[3]));
+        blackHole.setAngularVelocity(SnapshotFields.toAngularVelocity(fields[4]));
+        return blackHole;
+    }
+}
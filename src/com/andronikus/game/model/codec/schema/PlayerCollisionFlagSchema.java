@@ -0,0 +1,97 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.debug.PlayerCollisionFlag;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Layout of a player collision flag in a snapshot. Only present when the game state has debug settings.
+ *
+ * @author Andronikus
+ */
+public class PlayerCollisionFlagSchema implements IEntitySchema<PlayerCollisionFlag> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT, // Session slot
+        FieldEncoding.STRING, // Collision type
+        FieldEncoding.ZIGZAG, // Collision ID
+        FieldEncoding.VARINT  // Game state version
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<PlayerCollisionFlag> getEntities(GameState state) {
+        return state.getDebugSettings() == null ? Collections.emptyList() : state.getDebugSettings().getPlayerCollisionFlags();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, PlayerCollisionFlag flag) {
+        getEntities(state).add(flag);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(PlayerCollisionFlag flag, long[] fields, SnapshotContext context) {
+        fields[0] = flag.getSessionSlot();
+        fields[1] = context.stringId(flag.getCollisionType());
+        fields[2] = flag.getCollisionId();
+        fields[3] = flag.getGameStateVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PlayerCollisionFlag create(long[] fields, SnapshotContext context) {
+        final PlayerCollisionFlag flag = new PlayerCollisionFlag();
+        flag.setSessionSlot((int) fields[0]);
+        flag.setCollisionType(context.string(fields[1]));
+        flag.setCollisionId(fields[2]);
+        flag.setGameStateVersion(fields[3]);
+        return flag;
+    }
+}
@@ -0,0 +1,169 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Player;
+import com.andronikus.game.model.server.PlayerColor;
+
+import java.util.List;
+
+/**
+ * Layout of a player in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class PlayerSchema implements IEntitySchema<Player> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT,  // Session slot
+        FieldEncoding.FIXED16, // X
+        FieldEncoding.FIXED16, // Y
+        FieldEncoding.ZIGZAG,  // X velocity
+        FieldEncoding.ZIGZAG,  // Y velocity
+        FieldEncoding.ZIGZAG,  // External X acceleration
+        FieldEncoding.ZIGZAG,  // External Y acceleration
+        FieldEncoding.ZIGZAG,  // Speed
+        FieldEncoding.ZIGZAG,  // Acceleration
+        FieldEncoding.ZIGZAG,  // Boosting charge
+        FieldEncoding.ZIGZAG,  // Boosting recharge
+        FieldEncoding.FIXED16, // Angle
+        FieldEncoding.ZIGZAG,  // Rotational velocity
+        FieldEncoding.ZIGZAG,  // Health
+        FieldEncoding.ZIGZAG,  // Shield count
+        FieldEncoding.ZIGZAG,  // Shield recharge
+        FieldEncoding.ZIGZAG,  // Laser charges
+        FieldEncoding.ZIGZAG,  // Laser recharge
+        FieldEncoding.VARINT,  // Color
+        FieldEncoding.ZIGZAG,  // Venom
+        FieldEncoding.VARINT,  // Collided portal ID
+        FieldEncoding.VARINT,  // Flags
+        FieldEncoding.VARINT   // ID
+    };
+
+    private static final int BOOSTING_FLAG = 0;
+    private static final int DEAD_FLAG = 1;
+    private static final int SHIELD_LOST_THIS_TICK_FLAG = 2;
+    private static final int THRUSTING_FLAG = 3;
+    private static final int PERFORMED_WARP_FLAG = 4;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Player> getEntities(GameState state) {
+        return state.getPlayers();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, Player player) {
+        state.getPlayerRegistry().restore(player);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(Player player, long[] fields, SnapshotContext context) {
+        fields[0] = player.getSessionSlot();
+        fields[1] = SnapshotFields.fromPosition(player.getX());
+        fields[2] = SnapshotFields.fromPosition(player.getY());
+        fields[3] = player.getXVelocity();
+        fields[4] = player.getYVelocity();
+        fields[5] = player.getExternalXAcceleration();
+        fields[6] = player.getExternalYAcceleration();
+        fields[7] = player.getSpeed();
+        fields[8] = player.getAcceleration();
+        fields[9] = player.getBoostingCharge();
+        fields[10] = player.getBoostingRecharge();
+        fields[11] = SnapshotFields.fromAngle(player.getAngle());
+        fields[12] = SnapshotFields.fromAngularVelocity(player.getRotationalVelocity());
+        fields[13] = player.getHealth();
+        fields[14] = player.getShieldCount();
+        fields[15] = player.getShieldRecharge();
+        fields[16] = player.getLaserCharges();
+        fields[17] = player.getLaserRecharge();
+        fields[18] = player.getColor() == null ? 0 : player.getColor().getId() + 1;
+        fields[19] = player.getVenom();
+        fields[20] = SnapshotFields.fromNullable(player.getCollidedPortalId());
+        fields[21] = SnapshotFields.fromFlag(player.isBoosting(), BOOSTING_FLAG) |
+            SnapshotFields.fromFlag(player.isDead(), DEAD_FLAG) |
+            SnapshotFields.fromFlag(player.isShieldLostThisTick(), SHIELD_LOST_THIS_TICK_FLAG) |
+            SnapshotFields.fromFlag(player.isThrusting(), THRUSTING_FLAG) |
+            SnapshotFields.fromFlag(player.isPerformedWarp(), PERFORMED_WARP_FLAG);
+        fields[22] = player.getId();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Player create(long[] fields, SnapshotContext context) {
+        final Player player = new Player();
+        player.setSessionSlot((int) fields[0]);
+        player.setX(SnapshotFields.toPosition(fields[1]));
+        player.setY(SnapshotFields.toPosition(fields[2]));
+        player.setXVelocity(fields[3]);
+        player.setYVelocity(fields[4]);
+        player.setExternalXAcceleration(fields[5]);
+        player.setExternalYAcceleration(fields[6]);
+        player.setSpeed(fields[7]);
+        player.setAcceleration(fields[8]);
+        player.setBoostingCharge((int) fields[9]);
+        player.setBoostingRecharge((int) fields[10]);
+        player.setAngle(SnapshotFields.toAngle(fields[11]));
+        player.setRotationalVelocity(SnapshotFields.toAngularVelocity(fields[12]));
+        player.setHealth((int) fields[13]);
+        player.setShieldCount((int) fields[14]);
+        player.setShieldRecharge((int) fields[15]);
+        player.setLaserCharges((int) fields[16]);
+        player.setLaserRecharge((int) fields[17]);
+        player.setColor(fields[18] == 0 ? null : PlayerColor.getById((int) fields[18] - 1));
+        player.setVenom((int) fields[19]);
+        player.setCollidedPortalId(SnapshotFields.toNullableLong(fields[20]));
+        player.setBoosting(SnapshotFields.toFlag(fields[21], BOOSTING_FLAG));
+        player.setDead(SnapshotFields.toFlag(fields[21], DEAD_FLAG));
+        player.setShieldLostThisTick(SnapshotFields.toFlag(fields[21], SHIELD_LOST_THIS_TICK_FLAG));
+        player.setThrusting(SnapshotFields.toFlag(fields[21], THRUSTING_FLAG));
+        player.setPerformedWarp(SnapshotFields.toFlag(fields[21], PERFORMED_WARP_FLAG));
+        player.setId(fields[22]);
+        return player;
+    }
+}
@@ -0,0 +1,106 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Portal;
+
+import java.util.List;
+
+/**
+ * Layout of a portal in a snapshot.
+ *
+ * @author Andronikus
+ */
+public class PortalSchema implements IEntitySchema<Portal> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT,  // ID
+        FieldEncoding.FIXED16, // X
+        FieldEncoding.FIXED16, // Y
+        FieldEncoding.FIXED16, // Angle
+        FieldEncoding.ZIGZAG,  // Angular velocity
+        FieldEncoding.VARINT,  // Ticks since collision
+        FieldEncoding.VARINT   // Ticks since movement
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Portal> getEntities(GameState state) {
+        return state.getPortals();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, Portal portal) {
+        state.getPortalRegistry().restore(portal);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(Portal portal, long[] fields, SnapshotContext context) {
+        fields[0] = portal.getId();
+        fields[1] = SnapshotFields.fromPosition(portal.getX());
+        fields[2] = SnapshotFields.fromPosition(portal.getY());
+        fields[3] = SnapshotFields.fromAngle(portal.getAngle());
+        fields[4] = SnapshotFields.fromAngularVelocity(portal.getAngularVelocity());
+        fields[5] = SnapshotFields.fromNullable(portal.getTicksSinceCollision());
+        fields[6] = SnapshotFields.fromNullable(portal.getTicksSinceMovement());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Portal create(long[] fields, SnapshotContext context) {
+        final Portal portal = new Portal();
+        portal.setId(fields[0]);
+        portal.setX(SnapshotFields.toPosition(fields[1]));
+        portal.setY(SnapshotFields.toPosition(fields[2]));
+        portal.setAngle(SnapshotFields.toAngle(fields[3]));
+        portal.setAngularVelocity(SnapshotFields.toAngularVelocity(fields[4]));
+        portal.setTicksSinceCollision(SnapshotFields.toNullableInteger(fields[5]));
+        portal.setTicksSinceMovement(SnapshotFields.toNullableInteger(fields[6]));
+        return portal;
+    }
+}
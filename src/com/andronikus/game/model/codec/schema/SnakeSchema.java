@@ -0,0 +1,113 @@
+package com.andronikus.game.model.codec.schema;
+
+import com.andronikus.game.model.codec.FieldEncoding;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotContext;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Snake;
+
+import java.util.List;
+
+/**
+ * Layout of a snake in a snapshot. The snake's target is stored as the session slot of the player, so players have to
+ * be read before snakes.
+ *
+ * @author Andronikus
+ */
+public class SnakeSchema implements IEntitySchema<Snake> {
+
+    private static final FieldEncoding[] FIELD_ENCODINGS = {
+        FieldEncoding.VARINT,  // ID
+        FieldEncoding.FIXED16, // X
+        FieldEncoding.FIXED16, // Y
+        FieldEncoding.ZIGZAG,  // X velocity
+        FieldEncoding.ZIGZAG,  // Y velocity
+        FieldEncoding.FIXED16, // Angle
+        FieldEncoding.ZIGZAG,  // Health
+        FieldEncoding.VARINT,  // Target's session slot
+        FieldEncoding.VARINT   // Chasing
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FieldEncoding[] getFieldEncodings() {
+        return FIELD_ENCODINGS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getKeyField() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPositionField() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getRecipientField() {
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Snake> getEntities(GameState state) {
+        return state.getSnakes();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void restore(GameState state, Snake snake) {
+        state.getSnakeRegistry().restore(snake);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void extract(Snake snake, long[] fields, SnapshotContext context) {
+        fields[0] = snake.getId();
+        fields[1] = SnapshotFields.fromPosition(snake.getX());
+        fields[2] = SnapshotFields.fromPosition(snake.getY());
+        fields[3] = snake.getXVelocity();
+        fields[4] = snake.getYVelocity();
+        fields[5] = SnapshotFields.fromAngle(snake.getAngle());
+        fields[6] = snake.getHealth();
+        fields[7] = snake.getTarget() == null ? 0 : snake.getTarget().getSessionSlot();
+        fields[8] = SnapshotFields.fromFlag(snake.isChasing(), 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Snake create(long[] fields, SnapshotContext context) {
+        final Snake snake = new Snake();
+        snake.setId(fields[0]);
+        snake.setX(SnapshotFields.toPosition(fields[1]));
+        snake.setY(SnapshotFields.toPosition(fields[2]));
+        snake.setXVelocity(fields[3]);
+        snake.setYVelocity(fields[4]);
+        snake.setAngle(SnapshotFields.toAngle(fields[5]));
+        snake.setHealth((int) fields[6]);
+        snake.setTarget(context.playerForSession((int) fields[7]));
+        snake.setChasing(SnapshotFields.toFlag(fields[8], 0));
+        return snake;
+    }
+}
@@ -0,0 +1,62 @@
+package com.andronikus.game.model.server;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Every collideable in a game state, read straight from the registries of each type, one type after another.
+ *
+ * @author Andronikus
+ */
+class CollideableView extends AbstractList<IMoveable> implements RandomAccess {
+
+    private final List<? extends EntityRegistry<?>> registries;
+
+    /**
+     * Instantiate a view of every collideable.
+     *
+     * @param someRegistries The registries, in the order their entities come in
+     */
+    CollideableView(List<? extends EntityRegistry<?>> someRegistries) {
+        registries = someRegistries;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IMoveable get(int index) {
+        int registryIndex = index;
+        for (EntityRegistry<?> registry : registries) {
+            if (registryIndex < registry.size()) {
+                return registry.view().get(registryIndex);
+            }
+            registryIndex -= registry.size();
+        }
+        throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size() + " collideables.");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (EntityRegistry<?> registry : registries) {
+            size += registry.size();
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(Consumer<? super IMoveable> action) {
+        for (EntityRegistry<?> registry : registries) {
+            registry.view().forEach(action);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.andronikus.game.model.server;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Registry of one type of entity. The entities are kept packed together in a list, and removing one moves the last
+ * entity into its place, so adding and removing never shift the rest of the list. Each entity's ID is made up of a slot
+ * and the slot's generation, with the slot telling where the entity is in the list. Slots are reused once their entity
+ * is removed, but with the next generation, so an ID for a removed entity never finds the entity that took its slot.
+ *
+ * @param <TYPE> The type of entity
+ * @author Andronikus
+ */
+public class EntityRegistry<TYPE extends IMoveable> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // IDs are the slot generation followed by this many bits for the slot
+    public static final int SLOT_BITS = 20;
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = Integer.MAX_VALUE;
+    private static final int NO_ENTITY = -1;
+    private static final int INITIAL_SLOT_CAPACITY = 16;
+
+    private final ArrayList<TYPE> entities = new ArrayList<>();
+    private final List<TYPE> view = Collections.unmodifiableList(entities);
+    private int[] entitySlots = new int[INITIAL_SLOT_CAPACITY];
+    private int[] slotIndexes = new int[INITIAL_SLOT_CAPACITY];
+    private int[] slotGenerations = new int[INITIAL_SLOT_CAPACITY];
+    private int slotCount = 0;
+    private int[] freeSlots = new int[INITIAL_SLOT_CAPACITY];
+    private int freeSlotCount = 0;
+
+    /**
+     * Add an entity, giving it a new ID.
+     *
+     * @param entity The entity
+     * @return The entity's ID
+     */
+    public long add(TYPE entity) {
+        int slot = NO_ENTITY;
+        // Slots taken by restored entities can still be on the free list, so those are skipped
+        while (freeSlotCount > 0 && slot == NO_ENTITY) {
+            final int freeSlot = freeSlots[--freeSlotCount];
+            if (slotIndexes[freeSlot] == NO_ENTITY) {
+                slot = freeSlot;
+            }
+        }
+        if (slot == NO_ENTITY) {
+            slot = slotCount;
+            growSlots(slotCount + 1);
+        }
+
+        final long id = ((long) slotGenerations[slot] << SLOT_BITS) | slot;
+        entity.setMoveableId(id);
+        place(entity, slot);
+        return id;
+    }
+
+    /**
+     * Add an entity that already has an ID, such as one taken from a snapshot, keeping its ID.
+     *
+     * @param entity The entity
+     */
+    public void restore(TYPE entity) {
+        final long id = entity.getMoveableId();
+        if (id < 0 || (id >>> SLOT_BITS) > GENERATION_MASK) {
+            throw new IllegalArgumentException("Cannot restore entity with invalid ID " + id + ".");
+        }
+
+        final int slot = (int) (id & SLOT_MASK);
+        if (slot >= slotCount) {
+            final int firstNewSlot = slotCount;
+            growSlots(slot + 1);
+            for (int newSlot = firstNewSlot; newSlot < slot; newSlot++) {
+                pushFreeSlot(newSlot);
+            }
+        } else if (slotIndexes[slot] != NO_ENTITY) {
+            throw new IllegalArgumentException("Cannot restore entity with ID " + id + " since its slot is taken.");
+        }
+
+        slotGenerations[slot] = (int) (id >>> SLOT_BITS);
+        place(entity, slot);
+    }
+
+    /**
+     * Get an entity by its ID.
+     *
+     * @param id The ID
+     * @return The entity, or null if there is no entity with the ID
+     */
+    public TYPE get(long id) {
+        final int index = indexOf(id);
+        return index == NO_ENTITY ? null : entities.get(index);
+    }
+
+    /**
+     * Remove an entity.
+     *
+     * @param entity The entity
+     * @return True if the entity was in the registry
+     */
+    public boolean remove(TYPE entity) {
+        final int index = indexOf(entity.getMoveableId());
+        if (index == NO_ENTITY || entities.get(index) != entity) {
+            return false;
+        }
+
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Remove an entity by its ID.
+     *
+     * @param id The ID
+     * @return The entity that was removed, or null if there is no entity with the ID
+     */
+    public TYPE remove(long id) {
+        final int index = indexOf(id);
+        if (index == NO_ENTITY) {
+            return null;
+        }
+
+        final TYPE entity = entities.get(index);
+        removeAt(index);
+        return entity;
+    }
+
+    /**
+     * Remove every entity that matches a filter. Each entity is checked once, but since removing an entity moves another
+     * into its place, they are not necessarily checked in the order of the list.
+     *
+     * @param filter The filter
+     * @return The number of entities removed
+     */
+    public int removeIf(Predicate<? super TYPE> filter) {
+        int removedCount = 0;
+        int index = 0;
+        while (index < entities.size()) {
+            if (filter.test(entities.get(index))) {
+                // The entity moved into this index has yet to be checked
+                removeAt(index);
+                removedCount++;
+            } else {
+                index++;
+            }
+        }
+        return removedCount;
+    }
+
+    /**
+     * Get the entities, which can be read but not changed.
+     *
+     * @return The entities
+     */
+    public List<TYPE> view() {
+        return view;
+    }
+
+    /**
+     * Get the number of entities.
+     *
+     * @return The number of entities
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof EntityRegistry && entities.equals(((EntityRegistry<?>) object).entities);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return entities.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return entities.toString();
+    }
+
+    private int indexOf(long id) {
+        if (id < 0) {
+            return NO_ENTITY;
+        }
+
+        final long slot = id & SLOT_MASK;
+        if (slot >= slotCount || slotGenerations[(int) slot] != (id >>> SLOT_BITS)) {
+            return NO_ENTITY;
+        }
+        return slotIndexes[(int) slot];
+    }
+
+    private void place(TYPE entity, int slot) {
+        final int index = entities.size();
+        if (index == entitySlots.length) {
+            entitySlots = Arrays.copyOf(entitySlots, index * 2);
+        }
+        entities.add(entity);
+        entitySlots[index] = slot;
+        slotIndexes[slot] = index;
+    }
+
+    private void removeAt(int index) {
+        final int slot = entitySlots[index];
+        final int lastIndex = entities.size() - 1;
+        if (index != lastIndex) {
+            entities.set(index, entities.get(lastIndex));
+            entitySlots[index] = entitySlots[lastIndex];
+            slotIndexes[entitySlots[index]] = index;
+        }
+        entities.remove(lastIndex);
+
+        slotIndexes[slot] = NO_ENTITY;
+        slotGenerations[slot] = (slotGenerations[slot] + 1) & GENERATION_MASK;
+        pushFreeSlot(slot);
+    }
+
+    private void growSlots(int newSlotCount) {
+        if (newSlotCount > SLOT_MASK + 1) {
+            throw new IllegalStateException("Entity registry is out of slots.");
+        }
+
+        if (newSlotCount > slotIndexes.length) {
+            final int capacity = Math.max(newSlotCount, slotIndexes.length * 2);
+            slotIndexes = Arrays.copyOf(slotIndexes, capacity);
+            slotGenerations = Arrays.copyOf(slotGenerations, capacity);
+        }
+        Arrays.fill(slotIndexes, slotCount, newSlotCount, NO_ENTITY);
+        slotCount = newSlotCount;
+    }
+
+    private void pushFreeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+}
@@ -6,24 +6,23 @@ import lombok.Data;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
- * State of the game.
+ * State of the game. Entities are kept in a registry for each type, which is where they are added and removed, and are
+ * read through the lists the registries give out.
  *
  * @author Andronikus
  */
 @Data
 public class GameState implements Serializable {
     private long version = 0;
-    private ArrayList<IMoveable> collideables = new ArrayList<>();
-    private ArrayList<Player> players = new ArrayList<>();
-    private ArrayList<Laser> lasers = new ArrayList<>();
-    private ArrayList<Asteroid> asteroids = new ArrayList<>();
-    private ArrayList<Snake> snakes = new ArrayList<>();
-    private ArrayList<MicroBlackHole> blackHoles = new ArrayList<>();
-    private ArrayList<Portal> portals = new ArrayList<>();
-    private long nextLaserId = 0;
-    private long nextSpawnId = 0;
+    private EntityRegistry<Player> playerRegistry = new EntityRegistry<>();
+    private EntityRegistry<Laser> laserRegistry = new EntityRegistry<>();
+    private EntityRegistry<Asteroid> asteroidRegistry = new EntityRegistry<>();
+    private EntityRegistry<Snake> snakeRegistry = new EntityRegistry<>();
+    private EntityRegistry<MicroBlackHole> blackHoleRegistry = new EntityRegistry<>();
+    private EntityRegistry<Portal> portalRegistry = new EntityRegistry<>();
     private IBorder border;
     private boolean serverDebugMode = false;
     private ServerDebugSettings debugSettings = null;
@@ -36,4 +35,67 @@ public class GameState implements Serializable {
 
     // Input related
     private ArrayList<InputAcknowledgement> inputAcknowledgements = new ArrayList<>();
+
+    /**
+     * Get every collideable, which are the players, lasers, asteroids, snakes, black holes and portals in that order.
+     *
+     * @return The collideables, which can be read but not changed
+     */
+    public List<IMoveable> getCollideables() {
+        return new CollideableView(List.of(playerRegistry, laserRegistry, asteroidRegistry, snakeRegistry, blackHoleRegistry, portalRegistry));
+    }
+
+    /**
+     * Get the players.
+     *
+     * @return The players, which can be read but not changed
+     */
+    public List<Player> getPlayers() {
+        return playerRegistry.view();
+    }
+
+    /**
+     * Get the lasers.
+     *
+     * @return The lasers, which can be read but not changed
+     */
+    public List<Laser> getLasers() {
+        return laserRegistry.view();
+    }
+
+    /**
+     * Get the asteroids.
+     *
+     * @return The asteroids, which can be read but not changed
+     */
+    public List<Asteroid> getAsteroids() {
+        return asteroidRegistry.view();
+    }
+
+    /**
+     * Get the snakes.
+     *
+     * @return The snakes, which can be read but not changed
+     */
+    public List<Snake> getSnakes() {
+        return snakeRegistry.view();
+    }
+
+    /**
+     * Get the black holes.
+     *
+     * @return The black holes, which can be read but not changed
+     */
+    public List<MicroBlackHole> getBlackHoles() {
+        return blackHoleRegistry.view();
+    }
+
+    /**
+     * Get the portals.
+     *
+     * @return The portals, which can be read but not changed
+     */
+    public List<Portal> getPortals() {
+        return portalRegistry.view();
+    }
 }
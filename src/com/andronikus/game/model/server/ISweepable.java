@@ -0,0 +1,29 @@
+package com.andronikus.game.model.server;
+
+/**
+ * Moveable that is fast enough that it could pass through something between ticks. The engine remembers where its hitbox
+ * was before it moved so that collisions can be checked along the whole path it took during the tick.
+ *
+ * @author Andronikus
+ */
+public interface ISweepable extends IMoveable {
+
+    /**
+     * Remember where the hitbox is right now as where it was before moving this tick.
+     */
+    void recordPreviousPosition();
+
+    /**
+     * Get hitbox X from before moving this tick.
+     *
+     * @return The X
+     */
+    long getPreviousBoxX();
+
+    /**
+     * Get hitbox Y from before moving this tick.
+     *
+     * @return The Y
+     */
+    long getPreviousBoxY();
+}
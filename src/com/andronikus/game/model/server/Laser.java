@@ -9,17 +9,26 @@ import lombok.Data;
  * @author Andronikus
  */
 @Data
-public class Laser implements IMoveable {
+public class Laser implements ISweepable {
 
     private long x;
     private long y;
     private long xVelocity;
     private long yVelocity;
-    private String loyalty;
+    /**
+     * Slot of the session whose player shot the laser, 0 if no player did.
+     */
+    private int loyalty;
     private long id;
     private boolean active = true;
     private double angle;
 
+    /**
+     * Where the hitbox was before moving this tick. Only used by the engine.
+     */
+    private transient long previousX;
+    private transient long previousY;
+
     /**
      * {@inheritDoc}
      */
@@ -60,6 +69,31 @@ public class Laser implements IMoveable {
         return angle;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordPreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPreviousBoxX() {
+        return previousX;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPreviousBoxY() {
+        return previousY;
+    }
+
     @Override
     public void setMoveableId(long id) {
         this.id = id;
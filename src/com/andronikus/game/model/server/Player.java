@@ -9,13 +9,14 @@ import lombok.Data;
  * @author Andronikus
  */
 @Data
-public class Player implements IMoveable {
+public class Player implements ISweepable {
 
     /**
-     * Tie-back to the session with the server.
+     * Tie-back to the session with the server, by the session's slot.
      */
-    private String sessionId;
+    private int sessionSlot;
 
+    private long id;
     private long x;
     private long y;
 
@@ -54,6 +55,12 @@ public class Player implements IMoveable {
     private Long collidedPortalId = null;
     private boolean performedWarp = false;
 
+    /**
+     * Where the hitbox was before moving this tick. Only used by the engine.
+     */
+    private transient long previousX;
+    private transient long previousY;
+
     /**
      * {@inheritDoc}
      */
@@ -94,18 +101,42 @@ public class Player implements IMoveable {
         return angle;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordPreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPreviousBoxX() {
+        return previousX;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPreviousBoxY() {
+        return previousY;
+    }
+
     @Override
     public void setMoveableId(long id) {
-        // can't set player ID
+        this.id = id;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @Deprecated
     public long getMoveableId() {
-        return 0L;
+        return id;
     }
 
     @Override
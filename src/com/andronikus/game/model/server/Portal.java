@@ -19,6 +19,11 @@ public class Portal implements IMoveable {
     private Integer ticksSinceCollision = null;
     private Integer ticksSinceMovement = null;
 
+    /**
+     * ID of the player going through the portal. Only used by the engine.
+     */
+    private transient Long collidedPlayerId = null;
+
     /**
      * {@inheritDoc}
      */
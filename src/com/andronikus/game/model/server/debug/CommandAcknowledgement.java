@@ -11,6 +11,6 @@ import java.io.Serializable;
  */
 @Data
 public class CommandAcknowledgement implements Serializable {
-    private String sessionId;
+    private int sessionSlot;
     private long commandId;
 }
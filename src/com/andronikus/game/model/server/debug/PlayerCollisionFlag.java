@@ -11,7 +11,7 @@ import java.io.Serializable;
  */
 @Data
 public class PlayerCollisionFlag implements Serializable {
-    private String sessionId;
+    private int sessionSlot;
     private String collisionType;
     private long collisionId;
     private long gameStateVersion;
@@ -5,13 +5,16 @@ import lombok.Data;
 import java.io.Serializable;
 
 /**
- * Acknowledgement from the server that an input has been processed.
+ * Acknowledgement from the server of the inputs of a session that have been processed. The latest input ID processed
+ * is acknowledged along with a bitfield of the IDs just before it, where bit n is set if input
+ * {@code latestInputId - 1 - n} has been processed. Inputs further back than the bitfield reaches are taken as
+ * acknowledged, since the server drops them as duplicates if they are sent again.
  *
  * @author Andronikus
  */
 @Data
 public class InputAcknowledgement implements Serializable {
-    private String sessionId;
-    private long inputId;
-    private long createdGameStateVersion;
+    private int sessionSlot;
+    private long latestInputId = -1;
+    private long ackBitfield = 0;
 }
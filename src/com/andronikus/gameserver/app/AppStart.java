@@ -2,13 +2,12 @@ package com.andronikus.gameserver.app;
 
 import com.andronikus.gameserver.auth.IAuthenticationProvider;
 import com.andronikus.gameserver.auth.MySqlAuthenticationProvider;
-import com.andronikus.gameserver.auth.Session;
+import com.andronikus.gameserver.auth.SessionRegistry;
 import com.andronikus.gameserver.auth.StaticAuthenticationProvider;
 import com.andronikus.gameserver.server.GameServer;
 import com.andronikus.gameserver.ServletCertificateUtil;
-import com.gabler.udpmanager.ResourceLock;
 
-import java.util.HashMap;
+import java.util.List;
 
 /**
  * Application entry point class.
@@ -26,7 +25,9 @@ public class AppStart {
         final ApplicationOptions applicationOptions = new ApplicationOptions(args);
         final String authScheme = applicationOptions.getOption("authMethod", true, 1).get(0);
         final boolean debugMode = Boolean.parseBoolean(applicationOptions.getOption("debugMode", false, 1).get(0));
+        final List<String> viewRadiusOption = applicationOptions.getOption("viewRadius", false, 1);
         applicationOptions.checkUnusedOptions();
+        final Long viewRadius = viewRadiusOption == null ? null : parseViewRadius(viewRadiusOption.get(0));
 
         IAuthenticationProvider authenticationProvider = null;
         if (authScheme.equalsIgnoreCase("static")) {
@@ -40,9 +41,31 @@ public class AppStart {
         }
 
         ServletCertificateUtil.addSslToSystemProperties();
-        final ResourceLock<HashMap<String, Session>> sessionManager = new ResourceLock<>(new HashMap<>());
-        final GameServer server = new GameServer(sessionManager, authenticationProvider);
+        final GameServer server = new GameServer(new SessionRegistry(), authenticationProvider);
         server.setDebugMode(debugMode);
+        if (viewRadius != null) {
+            server.setViewRadius(viewRadius);
+        }
         server.start();
     }
+
+    /**
+     * Parse the radius around a player that its client is shown.
+     *
+     * @param viewRadius The option's value
+     * @return The radius
+     */
+    private static long parseViewRadius(String viewRadius) {
+        final long radius;
+        try {
+            radius = Long.parseLong(viewRadius);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Option \"viewRadius\" must be a whole number but was \"" + viewRadius + "\".");
+        }
+
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Option \"viewRadius\" must be positive but was " + radius + ".");
+        }
+        return radius;
+    }
 }
@@ -3,20 +3,12 @@ package com.andronikus.gameserver.auth;
 import com.gabler.server.ChatThread;
 import com.gabler.server.Server;
 import com.gabler.server.ServerConfiguration;
-import com.gabler.udpmanager.ResourceLock;
 import lombok.SneakyThrows;
 
 import javax.net.ssl.SSLServerSocketFactory;
 import java.io.PrintWriter;
-import java.math.BigInteger;
 import java.net.ServerSocket;
-import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.List;
-import java.util.UUID;
-import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,20 +22,20 @@ public class AuthenticationServlet extends ServerConfiguration {
     private static final Logger LOGGER = Logger.getLogger("AuthenticationServlet");
     private static final int AUTH_SERVLET_PORT = 13352;
 
-    private final ResourceLock<HashMap<String, Session>> sessionManager;
+    private final SessionRegistry sessionRegistry;
     private final IAuthenticationProvider authenticationProvider;
 
     /**
      * Instantiate a server for the creation of {@link Session}s via authentication.
      *
-     * @param aSessionManager The session manager
+     * @param aSessionRegistry Registry of every session
      * @param anAuthenticationProvider Object responsible for authentication
      */
     public AuthenticationServlet(
-        ResourceLock<HashMap<String, Session>> aSessionManager,
+        SessionRegistry aSessionRegistry,
         IAuthenticationProvider anAuthenticationProvider
     ) {
-        sessionManager = aSessionManager;
+        sessionRegistry = aSessionRegistry;
         authenticationProvider = anAuthenticationProvider;
     }
 
@@ -87,7 +79,7 @@ public class AuthenticationServlet extends ServerConfiguration {
 
             if (authenticated) {
                 final Session session = retrieveOrCreateSession(username);
-                final String message = "SESSION " + session.getSecret() + " " + session.getId();
+                final String message = "SESSION " + session.getSecret() + " " + session.getId() + " " + session.getSlot();
                 clientAccess.sendMessage(message, null);
             } else {
                 clientAccess.sendMessage("NOSESSION", null);
@@ -125,79 +117,14 @@ public class AuthenticationServlet extends ServerConfiguration {
      * @return An either newly created session or the session the user was using before signing off
      */
     private Session retrieveOrCreateSession(String username) {
-        Session returnSession =  sessionManager.performRunInLock((Function<HashMap<String, Session>, List<Session>>) sessionMap -> new ArrayList<>(sessionMap.values()))
-                .stream()
-                .filter(session -> session.getUsername().equalsIgnoreCase(username))
-                .findFirst()
-                .orElseGet(() -> generateSession(username));
+        final Session returnSession = sessionRegistry.retrieveOrCreate(username);
 
+        // The client starts over, so it has neither sent anything nor received any game state yet
         returnSession.setLastRecordedSequenceNumber(-1);
+        returnSession.setLastReceivedGameStateVersion(-1);
         return returnSession;
     }
 
-    /**
-     * Upon successful authentication, generate a new session and return session.
-     *
-     * @param username Username associated with the session
-     * @return Session generated
-     */
-    private Session generateSession(String username) {
-        final Session newSession = new Session();
-
-        boolean uniqueSessionSecretFound = false;
-        String newSecret = null;
-        while (!uniqueSessionSecretFound) {
-            final String secret = new BigInteger(128, new SecureRandom()).toString();
-            uniqueSessionSecretFound = sessionManager.performRunInLock(sessions -> sessions.get(secret) == null);
-
-            if (uniqueSessionSecretFound) {
-                newSecret = secret;
-            }
-        }
-
-        boolean uniqueIdFound = false;
-        String newId = null;
-        while (!uniqueIdFound) {
-            final String id = UUID.randomUUID().toString();
-            uniqueIdFound = sessionManager.performRunInLock(sessions -> {
-                // Return for inline interface, not this method
-                return sessionIdUnique(sessions.values(), id);
-            });
-
-            if (uniqueIdFound) {
-                newId = id;
-            }
-        }
-
-        final String sessionSecret = newSecret;
-        final String sessionId = newId;
-        sessionManager.performRunInLock(sessions -> {
-            newSession.setSecret(sessionSecret);
-            newSession.setId(sessionId);
-            newSession.setUsername(username);
-            sessions.put(sessionSecret, newSession);
-        });
-
-        return newSession;
-    }
-
-    /**
-     * Check that a given session id is unique amongst a list of more sessions.
-     *
-     * @param sessions The sessions
-     * @param id The id
-     * @return True if unique
-     */
-    private static boolean sessionIdUnique(Collection<Session> sessions, String id) {
-        for (Session session : sessions) {
-            if (session.getId().equalsIgnoreCase(id)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     /**
      * Terminate the servlet.
      */
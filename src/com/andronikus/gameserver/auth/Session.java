@@ -11,9 +11,11 @@ import lombok.Data;
 @Data
 public class Session {
 
-    private long lastRecordedSequenceNumber = -1;
+    private volatile long lastRecordedSequenceNumber = -1;
+    private volatile long lastReceivedGameStateVersion = -1;
     private String secret;
     private String id;
+    private int slot;
     private String username;
     private ServerClientCallback connectionInfo;
 }
@@ -0,0 +1,126 @@
+package com.andronikus.gameserver.auth;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Registry of every {@link Session}, indexed by secret, by ID and by username. Lookups never block, so game traffic
+ * does not wait on logins.
+ *
+ * @author Andronikus
+ */
+public class SessionRegistry {
+
+    private final ConcurrentHashMap<String, Session> sessionsBySecret = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Session> sessionsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Session> sessionsByUsername = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<Session>> sessionEndListeners = new CopyOnWriteArrayList<>();
+    private final SecureRandom random = new SecureRandom();
+    // Slots start at 1 so that 0 can stand for no session
+    private final AtomicInteger nextSlot = new AtomicInteger(1);
+
+    /**
+     * Get the session with a secret.
+     *
+     * @param secret The secret
+     * @return The session, or null if there is none
+     */
+    public Session getBySecret(String secret) {
+        return secret == null ? null : sessionsBySecret.get(secret);
+    }
+
+    /**
+     * Get the session with an ID.
+     *
+     * @param id The ID, in any case
+     * @return The session, or null if there is none
+     */
+    public Session getById(String id) {
+        return id == null ? null : sessionsById.get(id.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the session of a user.
+     *
+     * @param username The username, in any case
+     * @return The session, or null if there is none
+     */
+    public Session getByUsername(String username) {
+        return username == null ? null : sessionsByUsername.get(username.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get the session of a user, creating one with a new secret and ID if the user has none.
+     *
+     * @param username The username
+     * @return The session
+     */
+    public Session retrieveOrCreate(String username) {
+        return sessionsByUsername.computeIfAbsent(username.toLowerCase(Locale.ROOT), key -> createSession(username));
+    }
+
+    /**
+     * End a session, removing it from every index and then telling each session end listener.
+     *
+     * @param session The session
+     */
+    public void end(Session session) {
+        final boolean removed = sessionsByUsername.remove(session.getUsername().toLowerCase(Locale.ROOT), session);
+        sessionsBySecret.remove(session.getSecret(), session);
+        sessionsById.remove(session.getId(), session);
+        if (removed) {
+            sessionEndListeners.forEach(listener -> listener.accept(session));
+        }
+    }
+
+    /**
+     * Add a listener to be told about every session that ends.
+     *
+     * @param listener The listener
+     */
+    public void addSessionEndListener(Consumer<Session> listener) {
+        sessionEndListeners.add(listener);
+    }
+
+    /**
+     * Get every session. The collection is a live view that never blocks, and sessions registered while it is being
+     * iterated over may or may not be included.
+     *
+     * @return The sessions
+     */
+    public Collection<Session> getSessions() {
+        return Collections.unmodifiableCollection(sessionsById.values());
+    }
+
+    /**
+     * Create a session and index it by ID and then by secret. Fields are set before each index is claimed, so a session
+     * found by its secret is always complete. Should a random ID or secret ever collide with another session's, another
+     * is picked. The ID is made lower case here so that nothing after has to compare it without case.
+     *
+     * The session is also given a slot, which is what the game knows it by. Slots are never handed out twice, so a laser
+     * or player left behind by a session that has ended is never mistaken for a new session's.
+     */
+    private Session createSession(String username) {
+        final Session session = new Session();
+        session.setUsername(username);
+        session.setSlot(nextSlot.getAndIncrement());
+
+        do {
+            session.setId(UUID.randomUUID().toString().toLowerCase(Locale.ROOT));
+        } while (sessionsById.putIfAbsent(session.getId(), session) != null);
+
+        do {
+            session.setSecret(new BigInteger(128, random).toString());
+        } while (sessionsBySecret.putIfAbsent(session.getSecret(), session) != null);
+
+        return session;
+    }
+}
@@ -0,0 +1,115 @@
+package com.andronikus.gameserver.broadcast;
+
+import com.andronikus.game.model.codec.EntityTable;
+import com.andronikus.game.model.codec.IEntitySchema;
+import com.andronikus.game.model.codec.SnapshotFields;
+import com.andronikus.game.model.codec.SnapshotSchemas;
+import com.andronikus.game.model.codec.WorldSnapshot;
+import com.andronikus.util.LongHashSet;
+
+import java.util.BitSet;
+
+/**
+ * The part of the world a client is shown, which is everything within a view radius of its player. Entities that were
+ * shown last time are kept until they are a bit further out than the view radius, so that something sitting right at
+ * the edge does not flicker in and out.
+ *
+ * Players are always shown, as are entities without a position. Until a client has a player, it is shown no other
+ * entities at all. Entities meant for one session, such as acknowledgements, are only shown to that session's client.
+ *
+ * @author Andronikus
+ */
+public class AreaOfInterest {
+
+    private final int sessionSlot;
+    /*
+     * Keys of the entities of each table shown last time, and a set to fill with the ones shown this time. The two are
+     * swapped after each snapshot, so narrowing does not allocate sets. Entities with a position are keyed by their ID,
+     * so the keys are the raw field values.
+     */
+    private final LongHashSet[] shownKeys;
+    private final LongHashSet[] nextShownKeys;
+
+    /**
+     * Instantiate the part of the world a client is shown.
+     *
+     * @param aSessionSlot Slot of the client's session
+     */
+    public AreaOfInterest(int aSessionSlot) {
+        sessionSlot = aSessionSlot;
+        shownKeys = new LongHashSet[SnapshotSchemas.SCHEMAS.size()];
+        nextShownKeys = new LongHashSet[SnapshotSchemas.SCHEMAS.size()];
+        for (int table = 0; table < shownKeys.length; table++) {
+            shownKeys[table] = new LongHashSet();
+            nextShownKeys[table] = new LongHashSet();
+        }
+    }
+
+    /**
+     * Narrow a snapshot down to what the client is shown.
+     *
+     * @param snapshot The snapshot
+     * @param viewRadius How far from the player entities are shown
+     * @param hysteresis How much further than the view radius entities that were shown last time are still shown
+     * @return The narrowed down snapshot
+     */
+    public WorldSnapshot narrow(WorldSnapshot snapshot, long viewRadius, long hysteresis) {
+        final EntityTable players = snapshot.getTable(SnapshotSchemas.PLAYER_TABLE);
+        final int playerIndex = players.indexOf((long) sessionSlot);
+        final int playerPositionField = SnapshotSchemas.SCHEMAS.get(SnapshotSchemas.PLAYER_TABLE).getPositionField();
+
+        long playerX = 0;
+        long playerY = 0;
+        if (playerIndex >= 0) {
+            playerX = SnapshotFields.toPosition(players.field(playerIndex, playerPositionField));
+            playerY = SnapshotFields.toPosition(players.field(playerIndex, playerPositionField + 1));
+        }
+
+        final double viewRadiusSquared = (double) viewRadius * viewRadius;
+        final double keptRadiusSquared = (double) (viewRadius + hysteresis) * (viewRadius + hysteresis);
+
+        final BitSet[] keptEntities = new BitSet[SnapshotSchemas.SCHEMAS.size()];
+        for (int table = 0; table < keptEntities.length; table++) {
+            final IEntitySchema<?> schema = SnapshotSchemas.SCHEMAS.get(table);
+            final EntityTable entities = snapshot.getTable(table);
+            final int recipientField = schema.getRecipientField();
+            if (recipientField >= 0) {
+                keptEntities[table] = new BitSet(entities.size());
+                for (int index = 0; index < entities.size(); index++) {
+                    if (entities.field(index, recipientField) == sessionSlot) {
+                        keptEntities[table].set(index);
+                    }
+                }
+                continue;
+            }
+
+            final int positionField = schema.getPositionField();
+            if (table == SnapshotSchemas.PLAYER_TABLE || positionField < 0) {
+                continue;
+            }
+
+            final LongHashSet previouslyShown = shownKeys[table];
+            final LongHashSet shown = nextShownKeys[table];
+            shown.clear();
+            keptEntities[table] = new BitSet(entities.size());
+            if (playerIndex >= 0) {
+                final int keyField = schema.getKeyField();
+                for (int index = 0; index < entities.size(); index++) {
+                    final double xDistance = SnapshotFields.toPosition(entities.field(index, positionField)) - playerX;
+                    final double yDistance = SnapshotFields.toPosition(entities.field(index, positionField + 1)) - playerY;
+                    final double distanceSquared = xDistance * xDistance + yDistance * yDistance;
+                    final long key = entities.field(index, keyField);
+
+                    if (distanceSquared <= viewRadiusSquared || (distanceSquared <= keptRadiusSquared && previouslyShown.contains(key))) {
+                        keptEntities[table].set(index);
+                        shown.add(key);
+                    }
+                }
+            }
+            shownKeys[table] = shown;
+            nextShownKeys[table] = previouslyShown;
+        }
+
+        return snapshot.subset(keptEntities);
+    }
+}
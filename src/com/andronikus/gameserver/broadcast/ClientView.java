@@ -0,0 +1,30 @@
+package com.andronikus.gameserver.broadcast;
+
+import com.andronikus.game.model.codec.SnapshotHistory;
+import com.andronikus.gameserver.engine.ScalableBalanceConstants;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * What has been sent to one client. Since every client is shown a different part of the world, the snapshots sent to
+ * a client are kept so that later snapshots can be sent as changes to them.
+ *
+ * @author Andronikus
+ */
+@Getter
+public class ClientView {
+
+    private final AreaOfInterest areaOfInterest;
+    private final SnapshotHistory sentSnapshots = new SnapshotHistory(ScalableBalanceConstants.SNAPSHOT_HISTORY_SIZE);
+    @Setter
+    private long lastKeyframeVersion = -1;
+
+    /**
+     * Instantiate what has been sent to a client.
+     *
+     * @param sessionSlot Slot of the client's session
+     */
+    public ClientView(int sessionSlot) {
+        areaOfInterest = new AreaOfInterest(sessionSlot);
+    }
+}
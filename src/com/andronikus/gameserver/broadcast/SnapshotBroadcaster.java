@@ -0,0 +1,109 @@
+package com.andronikus.gameserver.broadcast;
+
+import com.andronikus.game.model.codec.SnapshotEncoder;
+import com.andronikus.game.model.codec.WorldSnapshot;
+import com.andronikus.gameserver.auth.Session;
+import com.andronikus.gameserver.auth.SessionRegistry;
+import com.andronikus.gameserver.engine.ScalableBalanceConstants;
+import com.andronikus.gameserver.server.ClientMessenger;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Broadcaster of game state snapshots. Each client is sent only the part of the world around its player along with its
+ * own acknowledgements, and only what changed there since the last snapshot it reported receiving. A client is sent a
+ * keyframe instead when it has not received anything yet, its snapshot is too old to still be around or it has gone
+ * too long without one.
+ *
+ * Only meant to be called from one thread at a time.
+ *
+ * @author Andronikus
+ */
+public class SnapshotBroadcaster {
+
+    private static final Logger LOGGER = Logger.getLogger("SnapshotBroadcaster");
+
+    private final ClientMessenger messenger;
+    private final SessionRegistry sessionRegistry;
+    private final SnapshotEncoder encoder = new SnapshotEncoder();
+    private final HashMap<Integer, ClientView> clientViews = new HashMap<>();
+    private long lastSnapshotVersion = -1;
+    @Setter
+    private volatile long viewRadius = ScalableBalanceConstants.SNAPSHOT_VIEW_RADIUS;
+
+    /**
+     * Instantiate a broadcaster of game state snapshots.
+     *
+     * @param aMessenger Sender of messages to clients
+     * @param aSessionRegistry Registry of every session
+     */
+    public SnapshotBroadcaster(ClientMessenger aMessenger, SessionRegistry aSessionRegistry) {
+        messenger = aMessenger;
+        sessionRegistry = aSessionRegistry;
+    }
+
+    /**
+     * Broadcast a snapshot to every connected client.
+     *
+     * @param snapshot The snapshot
+     */
+    public void broadcast(WorldSnapshot snapshot) {
+        // Clients are shown different things each time, so a version can only ever be sent once
+        if (snapshot.getVersion() == lastSnapshotVersion) {
+            return;
+        }
+        lastSnapshotVersion = snapshot.getVersion();
+
+        final List<Session> sessions = sessionRegistry
+            .getSessions()
+            .stream()
+            .filter(session -> session.getConnectionInfo() != null)
+            .collect(Collectors.toList());
+        clientViews.keySet().retainAll(sessions.stream().map(Session::getSlot).collect(Collectors.toSet()));
+
+        final long currentViewRadius = viewRadius;
+        sessions.forEach(session -> {
+            final ClientView view = clientViews.computeIfAbsent(session.getSlot(), ClientView::new);
+            final WorldSnapshot narrowedSnapshot = view.getAreaOfInterest().narrow(
+                snapshot, currentViewRadius, ScalableBalanceConstants.SNAPSHOT_VIEW_HYSTERESIS
+            );
+
+            final WorldSnapshot baseline = chooseBaseline(session, view, narrowedSnapshot);
+            if (baseline == null) {
+                view.setLastKeyframeVersion(narrowedSnapshot.getVersion());
+            }
+            view.getSentSnapshots().add(narrowedSnapshot);
+
+            try {
+                messenger.queue(session.getConnectionInfo(), encoder.encode(narrowedSnapshot, baseline));
+            } catch (Exception exception) {
+                LOGGER.log(Level.SEVERE, "Snapshot broadcast to session " + session.getId() + " failed.", exception);
+            }
+        });
+        messenger.sendQueued();
+    }
+
+    /**
+     * Choose the snapshot to send the changes against for a session.
+     *
+     * @return The snapshot, or null to send a keyframe
+     */
+    private WorldSnapshot chooseBaseline(Session session, ClientView view, WorldSnapshot snapshot) {
+        final long acknowledgedVersion = session.getLastReceivedGameStateVersion();
+
+        if (
+            acknowledgedVersion < 0 ||
+            acknowledgedVersion >= snapshot.getVersion() ||
+            view.getLastKeyframeVersion() < 0 ||
+            snapshot.getVersion() - view.getLastKeyframeVersion() >= ScalableBalanceConstants.SNAPSHOT_KEYFRAME_INTERVAL_TICKS
+        ) {
+            return null;
+        }
+        return view.getSentSnapshots().get(acknowledgedVersion);
+    }
+}
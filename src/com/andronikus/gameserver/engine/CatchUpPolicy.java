@@ -0,0 +1,24 @@
+package com.andronikus.gameserver.engine;
+
+/**
+ * What a {@link ServerTimeManager} does once it has fallen behind schedule.
+ *
+ * @author Andronikus
+ */
+public enum CatchUpPolicy {
+
+    /**
+     * Make up for every missed execution by running them back to back.
+     */
+    BURST,
+
+    /**
+     * Drop the missed executions and carry on with the next one on the original schedule.
+     */
+    SKIP,
+
+    /**
+     * Push the whole schedule back, so that the next execution is a full period after the late one started.
+     */
+    SLOW_DOWN
+}
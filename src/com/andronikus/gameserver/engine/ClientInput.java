@@ -1,27 +1,31 @@
 package com.andronikus.gameserver.engine;
 
+import com.andronikus.gameserver.engine.input.InputCode;
 import lombok.Data;
 
 /**
- * Input from a client.
+ * Input from a client, with its code already read from the text the client sent.
  *
  * @author Andronikus
  */
 @Data
 public class ClientInput {
-    private final String code;
+    private final InputCode code;
+    private final long argument;
     private final boolean ackRequired;
     private final long id;
 
     /**
      * Create input from a client.
      *
-     * @param aCode The input code
+     * @param aCode The input code, null if the client sent a code the server does not know
+     * @param anArgument The numeric parameter of the input, 0 if it has none
      * @param anAckRequired If this input requires an acknowledgement
      * @param anId The ID of the input
      */
-    public ClientInput(String aCode, boolean anAckRequired, long anId) {
+    public ClientInput(InputCode aCode, long anArgument, boolean anAckRequired, long anId) {
         code = aCode;
+        argument = anArgument;
         ackRequired = anAckRequired;
         id = anId;
     }
@@ -15,4 +15,9 @@ public class ClientInputSet {
 
     private Session session;
     private List<ClientInput> inputs;
+
+    /**
+     * Bit for each input code in the set, by {@link com.andronikus.gameserver.engine.input.InputCode#mask()}.
+     */
+    private int codes;
 }
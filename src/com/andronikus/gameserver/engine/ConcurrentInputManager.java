@@ -1,24 +1,33 @@
 package com.andronikus.gameserver.engine;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import com.andronikus.util.MpscRingBuffer;
+
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Concurrent thread-safe input manager that allows for reading and writing at the same time.
+ * Concurrent thread-safe input manager that allows for reading and writing at the same time. Inputs wait on a bounded
+ * ring, so a flood of inputs pushes out the oldest ones instead of growing the heap.
  *
  * @author Andronikus
  */
 public class ConcurrentInputManager {
 
-    private final ConcurrentLinkedQueue<ClientInputSet> inputs;
+    private final MpscRingBuffer<ClientInputSet> inputs;
 
     /**
      * Instantiate input manager.
      */
     public ConcurrentInputManager() {
-        inputs = new ConcurrentLinkedQueue<>();
+        this(ScalableBalanceConstants.INPUT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Instantiate input manager.
+     *
+     * @param capacity How many input sets can wait to be handled
+     */
+    public ConcurrentInputManager(int capacity) {
+        inputs = new MpscRingBuffer<>(capacity, MpscRingBuffer.OverflowPolicy.DROP_OLDEST);
     }
 
     /**
@@ -27,22 +36,25 @@ public class ConcurrentInputManager {
      * @param input The input to add to the engine
      */
     public void addInput(ClientInputSet input) {
-        inputs.add(input);
+        inputs.offer(input);
     }
 
     /**
-     * Get inputs that have not yet been processed.
+     * Move inputs that have not yet been processed into a list, so the list can be reused from one tick to the next.
      *
-     * @return The inputs
+     * @param clientInputs The list, which is added to and not cleared
+     * @return The number of inputs moved
      */
-    public List<ClientInputSet> getUnhandledCodes() {
-        final ArrayList<ClientInputSet> clientInputs = new ArrayList<>();
-
-        for (Iterator<ClientInputSet> iterator = inputs.iterator(); iterator.hasNext();) {
-            inputs.poll(); // Little something to ensure exhaustion
-            clientInputs.add(iterator.next());
-        }
+    public int drainUnhandledCodes(List<ClientInputSet> clientInputs) {
+        return inputs.drainTo(clientInputs);
+    }
 
-        return clientInputs;
+    /**
+     * Get how many inputs have been thrown away because too many were waiting.
+     *
+     * @return The count
+     */
+    public long getDroppedCount() {
+        return inputs.getOverflowCount();
     }
 }
@@ -0,0 +1,90 @@
+package com.andronikus.gameserver.engine;
+
+import java.util.Arrays;
+
+/**
+ * The most recent input IDs of a session that have been processed, kept as a fixed number of bits starting at a base ID
+ * that moves up as newer inputs come in. Inputs from before the base are too old to tell apart, so they count as
+ * processed. Thread safe.
+ *
+ * @author Andronikus
+ */
+public class DuplicateInputWindow {
+
+    private final long[] words;
+    private final int size;
+    private boolean started = false;
+    private long base;
+
+    /**
+     * Instantiate a window of the most recent input IDs.
+     *
+     * @param aSize How many input IDs the window covers, a multiple of 64
+     */
+    public DuplicateInputWindow(int aSize) {
+        if (aSize <= 0 || aSize % Long.SIZE != 0) {
+            throw new IllegalArgumentException("Duplicate input window size must be a positive multiple of 64.");
+        }
+        size = aSize;
+        words = new long[aSize / Long.SIZE];
+    }
+
+    /**
+     * Check if an input has been processed.
+     *
+     * @param inputId The ID of the input
+     * @return True if the input has been processed or is older than the window
+     */
+    public synchronized boolean contains(long inputId) {
+        if (!started || inputId - base >= size) {
+            return false;
+        }
+        if (inputId < base) {
+            return true;
+        }
+        return (words[wordIndex(inputId)] & (1L << inputId)) != 0;
+    }
+
+    /**
+     * Record that an input has been processed, moving the window up if the input is newer than it covers.
+     *
+     * @param inputId The ID of the input
+     */
+    public synchronized void add(long inputId) {
+        if (!started) {
+            // Leave room below the first input for the ones sent just before it that arrive late
+            base = inputId - size + 1;
+            started = true;
+        } else if (inputId < base) {
+            return;
+        } else if (inputId - base >= size) {
+            slide(inputId - size + 1);
+        }
+        words[wordIndex(inputId)] |= 1L << inputId;
+    }
+
+    /**
+     * Get how many input IDs the window covers.
+     *
+     * @return The size of the window
+     */
+    int getSize() {
+        return size;
+    }
+
+    private void slide(long newBase) {
+        if (newBase - base >= size) {
+            Arrays.fill(words, 0);
+        } else {
+            // Each ID is cleared once as the base passes it
+            for (long inputId = base; inputId < newBase; inputId++) {
+                words[wordIndex(inputId)] &= ~(1L << inputId);
+            }
+        }
+        base = newBase;
+    }
+
+    private int wordIndex(long inputId) {
+        return (int) Math.floorMod(inputId, (long) size) / Long.SIZE;
+    }
+}
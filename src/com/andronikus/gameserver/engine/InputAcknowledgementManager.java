@@ -1,132 +1,139 @@
 package com.andronikus.gameserver.engine;
 
-import com.andronikus.game.model.client.InputPurgeRequest;
 import com.andronikus.game.model.client.InputRequest;
 import com.andronikus.game.model.server.input.InputAcknowledgement;
-import com.andronikus.gameserver.auth.Session;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Collectors;
 
 /**
- * Manager for input acknowledgements.
+ * Manager for input acknowledgements. Each session has a single acknowledgement of its latest input and a bitfield of
+ * the ones before it, which goes out on every game state so that a lost game state costs nothing to recover from.
  *
  * @author Andronikus
  */
 public class InputAcknowledgementManager {
 
-    /*
-     * TODO
-     * Technically, this could get bloated. Might be good to every few minutes just purge this. The worst that happens is
-     * that a client that missed their ack and has not been sending their duplicate check just gets an input reprocessed.
-     */
-    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Byte>> processedCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, DuplicateInputWindow> processedWindows = new ConcurrentHashMap<>();
+    private final HashMap<Integer, InputAcknowledgement> acksBySession = new HashMap<>();
     private final ArrayList<InputAcknowledgement> acksForSend = new ArrayList<>();
-    private final ConcurrentLinkedQueue<InputPurge> purgeQueue = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<InputAcknowledgement> ackRenewalQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> endedSessions = new ConcurrentLinkedQueue<>();
 
     /**
-     * Register an acknowledgement to be put on the next game state
+     * Acknowledge that an input of a session has been processed. Only called from the engine thread.
      *
-     * @param acknowledgement The acknowledgement
+     * @param sessionSlot The slot of the session
+     * @param inputId The ID of the input
      */
-    public void registerAck(InputAcknowledgement acknowledgement) {
-        ConcurrentHashMap<Long, Byte> cacheForSessionId = processedCache.computeIfAbsent(acknowledgement.getSessionId(), sessionId -> new ConcurrentHashMap<>());
-        cacheForSessionId.put(acknowledgement.getInputId(), (byte) 0x01);
-        acksForSend.add(acknowledgement);
-    }
+    public void registerAck(int sessionSlot, long inputId) {
+        if (inputId < 0) {
+            return;
+        }
 
-    /**
-     * Purge acknowledgements for that have expired or those that have had a purge requested.
-     *
-     * @param gameStateVersion The version of the game
-     * @param retentionTicks The amount of ticks
-     */
-    public void purgeExpiredAndRequestedAcks(long gameStateVersion, long retentionTicks) {
-        acksForSend.removeIf(ack -> {
-            final long ackAgeTicks = gameStateVersion - ack.getCreatedGameStateVersion();
-            return ackAgeTicks > retentionTicks;
-        });
-        // TODO techically might be a good idea to throttle the purge processing?
-        final ArrayList<InputPurge> purgesToProcess = new ArrayList<>();
-        InputPurge purge = purgeQueue.poll();
-        while (purge != null) {
-            purgesToProcess.add(purge);
-            purge = purgeQueue.poll();
+        processedWindows
+            .computeIfAbsent(sessionSlot, id -> new DuplicateInputWindow(ScalableBalanceConstants.INPUT_DUPLICATE_WINDOW_SIZE))
+            .add(inputId);
+
+        InputAcknowledgement acknowledgement = acksBySession.get(sessionSlot);
+        if (acknowledgement == null) {
+            acknowledgement = new InputAcknowledgement();
+            acknowledgement.setSessionSlot(sessionSlot);
+            acksBySession.put(sessionSlot, acknowledgement);
+            acksForSend.add(acknowledgement);
         }
-        acksForSend.removeIf(ack ->
-            purgesToProcess.stream().anyMatch(purgeToProcess ->
-                ack.getInputId() == purgeToProcess.inputId &&
-                ack.getSessionId().equalsIgnoreCase(purgeToProcess.sessionId)
-            )
-        );
+        acknowledge(acknowledgement, inputId);
     }
 
     /**
-     * Poll for acknowledgements to send.
+     * Get the acknowledgement of every session that has had an input processed. Only called from the engine thread.
      *
-     * @param limit The limit per send
-     * @param gameStateVersion The version of the game
-     * @return List of acknowledgements to send
+     * @return The acknowledgements, which are updated in place as more inputs are processed
      */
-    public List<InputAcknowledgement> pollForAcks(int limit, long gameStateVersion) {
-        /*
-         * It's okay if a duplicate gets put in the ack queue, this means cache was cleared and will be cleaned up on purge
-         * or ack purge request.
-         */
-        InputAcknowledgement renewedAck = ackRenewalQueue.poll();
-        while (renewedAck != null) {
-            renewedAck.setCreatedGameStateVersion(gameStateVersion);
-            acksForSend.add(renewedAck);
-            renewedAck = ackRenewalQueue.poll();
+    public List<InputAcknowledgement> getAcks() {
+        Integer sessionSlot = endedSessions.poll();
+        while (sessionSlot != null) {
+            final InputAcknowledgement acknowledgement = acksBySession.remove(sessionSlot);
+            if (acknowledgement != null) {
+                acksForSend.remove(acknowledgement);
+            }
+            sessionSlot = endedSessions.poll();
         }
-
-        return acksForSend.stream().limit(limit).collect(Collectors.toList());
+        return acksForSend;
     }
 
     /**
-     * Purge inputs.
+     * Forget, from any thread, everything about the inputs of a session that has ended.
      *
-     * @param purgeRequests Requests of which inputs to purge
-     * @param session The session requesting the purge
+     * @param sessionSlot The slot of the session
      */
-    public void purgeInputs(List<InputPurgeRequest> purgeRequests, Session session) {
-        purgeRequests.forEach(inputPurgeRequest -> {
-            final InputPurge purge = new InputPurge();
-            purge.inputId = inputPurgeRequest.getId();
-            purge.sessionId = session.getId();
-            purgeQueue.add(purge);
-        });
+    public void endSession(int sessionSlot) {
+        processedWindows.remove(sessionSlot);
+        endedSessions.add(sessionSlot);
     }
 
     /**
-     * Check, from any thread, if the current input request is already known to the server. If it is, requeue the
-     * acknowledgement since the client is clearly missing it.
+     * Check, from any thread, if the current input request is already known to the server. The client is told about
+     * it again by the acknowledgement on the next game state, so there is nothing to resend.
      *
      * @param inputRequest The input request
+     * @param sessionSlot The slot of the session the input came from
      * @return True if the input is a duplicate
      */
-    public boolean queueDuplicateAckResend(InputRequest inputRequest, String sessionId) {
-        final ConcurrentHashMap<Long, Byte> inputCache = processedCache.get(sessionId);
-        if (inputCache == null) {
+    public boolean isDuplicate(InputRequest inputRequest, int sessionSlot) {
+        final DuplicateInputWindow window = processedWindows.get(sessionSlot);
+        if (window == null || inputRequest.getInputId() == null) {
             return false;
         }
 
-        final boolean inputExists = inputCache.containsKey(inputRequest.getInputId());
-        if (inputExists) {
-            final InputAcknowledgement renewedAck = new InputAcknowledgement();
-            renewedAck.setInputId(inputRequest.getInputId());
-            renewedAck.setSessionId(sessionId);
-            ackRenewalQueue.add(renewedAck);
-        }
-        return inputExists;
+        return window.contains(inputRequest.getInputId());
     }
 
-    private static class InputPurge {
-        private String sessionId;
-        private long inputId;
+    /**
+     * Get the duplicate input window of a session.
+     *
+     * @param sessionSlot The slot of the session
+     * @return The window, null if the session has not had an input processed
+     */
+    DuplicateInputWindow getWindow(int sessionSlot) {
+        return processedWindows.get(sessionSlot);
+    }
+
+    /**
+     * Get how many sessions have a duplicate input window.
+     *
+     * @return The number of windows
+     */
+    int getWindowCount() {
+        return processedWindows.size();
+    }
+
+    /**
+     * Move an acknowledgement's bitfield along to take in an input.
+     *
+     * @param acknowledgement The acknowledgement
+     * @param inputId The ID of the input
+     */
+    static void acknowledge(InputAcknowledgement acknowledgement, long inputId) {
+        final long latestInputId = acknowledgement.getLatestInputId();
+        if (latestInputId < 0) {
+            acknowledgement.setLatestInputId(inputId);
+            acknowledgement.setAckBitfield(0);
+        } else if (inputId > latestInputId) {
+            // The old latest input moves into the bitfield along with everything behind it
+            final long shift = inputId - latestInputId;
+            long bitfield = 0;
+            if (shift < Long.SIZE) {
+                bitfield = (acknowledgement.getAckBitfield() << shift) | (1L << (shift - 1));
+            } else if (shift == Long.SIZE) {
+                bitfield = 1L << (Long.SIZE - 1);
+            }
+            acknowledgement.setLatestInputId(inputId);
+            acknowledgement.setAckBitfield(bitfield);
+        } else if (inputId < latestInputId && latestInputId - inputId <= Long.SIZE) {
+            acknowledgement.setAckBitfield(acknowledgement.getAckBitfield() | (1L << (latestInputId - inputId - 1)));
+        }
     }
 }
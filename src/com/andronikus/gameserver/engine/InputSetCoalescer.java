@@ -0,0 +1,72 @@
+package com.andronikus.gameserver.engine;
+
+import com.andronikus.gameserver.engine.input.InputCode;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Merges the input sets of a tick into one set for each session, so that what a client's inputs do does not depend on
+ * how they happened to be split into packets. Inputs that set state are only kept the last time their code turns up,
+ * while events such as shooting are all kept. Only used on the engine thread.
+ *
+ * @author Andronikus
+ */
+public class InputSetCoalescer {
+
+    private final HashMap<Integer, ClientInputSet> setsBySession = new HashMap<>();
+    private final int[] lastIndexes = new int[InputCode.count()];
+
+    /**
+     * Merge input sets. The first set of each session is reused to hold the session's merged inputs, so the sets must
+     * not be used for anything else afterwards, and inputs that are dropped are not acknowledged unless that has
+     * already been done.
+     *
+     * @param inputSets The input sets, in the order they arrived
+     * @param coalescedSets List to add the merged sets to, in the order their sessions first turn up
+     */
+    public void coalesce(List<ClientInputSet> inputSets, List<ClientInputSet> coalescedSets) {
+        setsBySession.clear();
+        for (int index = 0; index < inputSets.size(); index++) {
+            final ClientInputSet inputSet = inputSets.get(index);
+            final ClientInputSet sessionSet = setsBySession.putIfAbsent(inputSet.getSession().getSlot(), inputSet);
+            if (sessionSet == null) {
+                coalescedSets.add(inputSet);
+            } else {
+                sessionSet.getInputs().addAll(inputSet.getInputs());
+                sessionSet.setCodes(sessionSet.getCodes() | inputSet.getCodes());
+            }
+        }
+
+        for (int index = 0; index < coalescedSets.size(); index++) {
+            collapseStateInputs(coalescedSets.get(index).getInputs());
+        }
+    }
+
+    /**
+     * Drop every input with an unknown code, and every input that sets state but whose code turns up again later. What
+     * is left stays in order.
+     *
+     * @param inputs The inputs
+     */
+    private void collapseStateInputs(List<ClientInput> inputs) {
+        Arrays.fill(lastIndexes, -1);
+        for (int index = 0; index < inputs.size(); index++) {
+            final InputCode code = inputs.get(index).getCode();
+            if (code != null) {
+                lastIndexes[code.ordinal()] = index;
+            }
+        }
+
+        int keptCount = 0;
+        for (int index = 0; index < inputs.size(); index++) {
+            final ClientInput input = inputs.get(index);
+            final InputCode code = input.getCode();
+            if (code != null && (code.isEvent() || lastIndexes[code.ordinal()] == index)) {
+                inputs.set(keptCount++, input);
+            }
+        }
+        inputs.subList(keptCount, inputs.size()).clear();
+    }
+}
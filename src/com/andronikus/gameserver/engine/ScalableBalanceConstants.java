@@ -57,6 +57,19 @@ public class ScalableBalanceConstants {
     public static final int DEFAULT_TPS = 30;
     public static final int BROADCAST_RATE = 30;
 
+    /*
+     * How the tick timer catches up after falling behind, and how close to the next tick it stops parking the thread
+     * and starts spinning instead. Parking can overshoot by a fraction of a millisecond, so the spin covers that.
+     */
+    public static final CatchUpPolicy TICK_CATCH_UP_POLICY = CatchUpPolicy.BURST;
+    public static final long TIMER_SPIN_THRESHOLD_NANOS = 250_000;
+
+    /*
+     * In debug mode, how many ticks the tick timer's jitter is averaged over before it is logged along with its overruns
+     * and skipped ticks.
+     */
+    public static final int TICK_TIMING_REPORT_TICKS = DEFAULT_TPS * 10;
+
     /*
      * Player health numbers.
      */
@@ -166,6 +179,11 @@ public class ScalableBalanceConstants {
     public static final int SNAKE_VENOM_TICKS = 49;
     public static final int SNAKE_VENOM_DAMAGE = 1;
 
+    /*
+     * Size of the cells used to look up which players are near something. Roughly the distance things look for players at.
+     */
+    public static final int PLAYER_PROXIMITY_CELL_SIZE = 512;
+
     /*
      * Size of black holes.
      */
@@ -212,9 +230,60 @@ public class ScalableBalanceConstants {
     public static final long COLLISION_FLAG_LIFE_SPAN_TICKS = 5;
 
     /*
-     * Input Acknowledgement properties
+     * Collision broad phase grid. Cells are a few player sizes across and the grid extends far enough past the border to
+     * cover lasers that have not been cleaned up yet.
+     */
+    public static final int COLLISION_GRID_CELL_SIZE = PLAYER_SIZE * 4;
+    public static final long COLLISION_GRID_MARGIN = 2048;
+
+    /*
+     * In debug mode, how many ticks the collision phase is timed over before the average is logged.
+     */
+    public static final int COLLISION_TIMING_REPORT_TICKS = DEFAULT_TPS * 10;
+
+    /*
+     * Collision math is spread across threads once a tick has at least this many relevant candidate pairs, with each
+     * thread taking chunks of pairs of this size.
+     */
+    public static final int COLLISION_PARALLEL_THRESHOLD = 512;
+    public static final int COLLISION_PARALLEL_CHUNK_SIZE = 64;
+
+    /*
+     * Positions in game state snapshots are 16 bit offsets from this point. The range covers the border with plenty of
+     * room on every side for things that have not been cleaned up yet.
+     */
+    public static final long SNAPSHOT_POSITION_ORIGIN = -16384;
+
+    /*
+     * Snapshots are sent as changes since the last one the client received. A second's worth of broadcast snapshots is
+     * kept to send changes against, and every client gets a whole snapshot at least every few seconds regardless.
+     */
+    public static final int SNAPSHOT_HISTORY_SIZE = BROADCAST_RATE;
+    public static final long SNAPSHOT_KEYFRAME_INTERVAL_TICKS = DEFAULT_TPS * 5;
+
+    /*
+     * Clients are only sent what is within this distance of their player, which covers a screen with room to spare for
+     * fast things coming into view. Things already shown are kept until they are a little further out than that.
+     */
+    public static final long SNAPSHOT_VIEW_RADIUS = 2048;
+    public static final long SNAPSHOT_VIEW_HYSTERESIS = 256;
+
+    /*
+     * In debug mode, how many broadcasts the snapshot stage's lag behind the simulation is averaged over before it is
+     * logged.
+     */
+    public static final int SNAPSHOT_LAG_REPORT_BROADCASTS = BROADCAST_RATE * 10;
+
+    /*
+     * How many of a session's most recent input IDs are remembered to drop inputs that are sent again. Inputs from
+     * further back are dropped as well.
+     */
+    public static final int INPUT_DUPLICATE_WINDOW_SIZE = 1024;
+
+    /*
+     * How many input sets and commands can wait for the engine. Past that, the oldest input sets are dropped and new
+     * commands are turned away.
      */
-    public static final long INPUT_ACKNOWLEDGEMENT_LIFE_SPAN_TICKS = ScalableBalanceConstants.DEFAULT_TPS * 2;
-    // With 6 players at 5 inputs per tick, this would cover one whole tick of all inputting.
-    public static final int INPUT_ACKNOWLEDGEMENT_GAMESTATE_LIMIT = 30;
+    public static final int INPUT_QUEUE_CAPACITY = 4096;
+    public static final int COMMAND_QUEUE_CAPACITY = 256;
 }
@@ -1,20 +1,20 @@
 package com.andronikus.gameserver.engine;
 
 import com.andronikus.game.model.client.InputRequest;
-import com.andronikus.game.model.client.InputPurgeRequest;
+import com.andronikus.game.model.codec.WorldSnapshot;
 import com.andronikus.game.model.server.Asteroid;
 import com.andronikus.game.model.server.BoundingBoxBorder;
 import com.andronikus.game.model.server.GameState;
-import com.andronikus.game.model.server.IMoveable;
+import com.andronikus.game.model.server.Laser;
 import com.andronikus.game.model.server.MicroBlackHole;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.game.model.server.Portal;
 import com.andronikus.game.model.server.Snake;
 import com.andronikus.game.model.server.debug.ServerDebugSettings;
-import com.andronikus.game.model.server.input.InputAcknowledgement;
 import com.andronikus.gameserver.engine.asteroid.AsteroidSplitter;
 import com.andronikus.gameserver.engine.blackhole.BlackHoleManager;
 import com.andronikus.gameserver.engine.collision.CollisionHandler;
+import com.andronikus.gameserver.engine.collision.CollisionManager;
 import com.andronikus.gameserver.engine.collision.LaserAsteroidCollisionHandler;
 import com.andronikus.gameserver.engine.collision.PlayerAndLaserCollisionHandler;
 import com.andronikus.gameserver.engine.collision.PlayerAsteroidCollisionHandler;
@@ -24,24 +24,24 @@ import com.andronikus.gameserver.engine.collision.SnakePlayerCollisionHandler;
 import com.andronikus.gameserver.engine.collision.debug.FlagCreatingCollisionHandler;
 import com.andronikus.gameserver.engine.command.CommandEngineTransferQueue;
 import com.andronikus.gameserver.engine.command.ServerCommandManager;
+import com.andronikus.gameserver.engine.input.InputCode;
 import com.andronikus.gameserver.engine.input.InputSetHandler;
 import com.andronikus.gameserver.auth.Session;
 import com.andronikus.gameserver.engine.player.ColorAssigner;
+import com.andronikus.gameserver.engine.player.SessionPlayerIndex;
 import com.andronikus.gameserver.engine.portal.PortalManager;
+import com.andronikus.gameserver.engine.proximity.PlayerProximityIndex;
 import com.andronikus.gameserver.engine.snake.SnakeTargetingHelper;
 import com.andronikus.gameserver.engine.spawning.RandomInboundsSpawner;
 import com.andronikus.gameserver.engine.spawning.RandomOutOfBoundsSpawner;
 import lombok.Getter;
 
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Engine for the server. Hook for all components that create some kind of event (IE client messages or ticks).
@@ -52,70 +52,95 @@ public class ServerEngine {
 
     private static final Logger LOGGER = Logger.getLogger("ServerEngine");
 
-    private final Consumer<GameStateBytesWrapper> gameStateBroadcastCallback;
-    private volatile ArrayList<CollisionHandler> collisionHandlers = new ArrayList<>();
-    private volatile ArrayList<CollisionHandler> debugCollisionHandlers = new ArrayList<>();
     private GameState gameState;
-    private GameStateBytesWrapper gameStateBytesPayload;
+    @Getter
     private final ServerTimeManager tickTimer;
-    private final ServerTimeManager broadcastTimer;
+    private final SnapshotBroadcastStage broadcastStage;
     private final ConcurrentInputManager inputManager;
     private final InputSetHandler inputHandler;
     @Getter
     private final CommandEngineTransferQueue commandTransferQueue;
     private final ServerCommandManager commandManager;
     private final InputAcknowledgementManager inputAckManager;
+    @Getter
+    private final CollisionManager collisionManager;
 
     private final ColorAssigner colorAssigner = new ColorAssigner();
+    private final SessionPlayerIndex playerIndex = new SessionPlayerIndex();
     private final RandomOutOfBoundsSpawner outOfBoundsSpawner = new RandomOutOfBoundsSpawner();
     private final RandomInboundsSpawner inboundsObjectSpawner = new RandomInboundsSpawner();
     private final AsteroidSplitter asteroidSplitter = new AsteroidSplitter();
-    private final SnakeTargetingHelper snakeTargetingHelper = new SnakeTargetingHelper();
-    private final BlackHoleManager blackHoleManager = new BlackHoleManager(this);
+    private final PlayerProximityIndex playerProximityIndex = new PlayerProximityIndex(ScalableBalanceConstants.PLAYER_PROXIMITY_CELL_SIZE);
+    private final SnakeTargetingHelper snakeTargetingHelper = new SnakeTargetingHelper(playerProximityIndex);
+    private final BlackHoleManager blackHoleManager = new BlackHoleManager(this, playerProximityIndex);
     private final PortalManager portalManager = new PortalManager(this);
+    private final ArrayList<ClientInputSet> inputSets = new ArrayList<>();
+    private final ArrayList<ClientInputSet> coalescedInputSets = new ArrayList<>();
+    private final InputSetCoalescer inputCoalescer = new InputSetCoalescer();
+    private long reportedDroppedInputCount = 0;
+
+    private long reportedTicks;
+    private long reportedJitterNanos;
+    private long reportedMaxJitterNanos;
+    private long reportedOverrunCount;
+    private long reportedSkippedCount;
 
     /**
      * Instantiate engine for the server.
      *
-     * @param aGameStateCalculationCallback Function to call when gamestate calculation is done
+     * @param aGameStateCalculationCallback Function to broadcast a snapshot of the game state with
      */
-    public ServerEngine(Consumer<GameStateBytesWrapper> aGameStateCalculationCallback) {
-        gameStateBroadcastCallback = aGameStateCalculationCallback;
-        tickTimer = new ServerTimeManager(this, ServerEngine::tick, "tick", ScalableBalanceConstants.DEFAULT_TPS); // TODO non-static or different frame rate?
-        broadcastTimer = new ServerTimeManager(this, ServerEngine::performGameStateBroadcast, "broadcast", ScalableBalanceConstants.BROADCAST_RATE); // TODO non-static or different frame rate?
+    public ServerEngine(Consumer<WorldSnapshot> aGameStateCalculationCallback) {
+        tickTimer = new ServerTimeManager(this, ServerEngine::tick, "tick", ScalableBalanceConstants.DEFAULT_TPS, ScalableBalanceConstants.TICK_CATCH_UP_POLICY); // TODO non-static or different frame rate?
+        broadcastStage = new SnapshotBroadcastStage(aGameStateCalculationCallback, ScalableBalanceConstants.BROADCAST_RATE); // TODO non-static or different frame rate?
         inputManager = new ConcurrentInputManager();
-        inputHandler = new InputSetHandler();
+        inputHandler = new InputSetHandler(playerIndex);
         commandTransferQueue = new CommandEngineTransferQueue();
         commandManager = new ServerCommandManager(this);
         inputAckManager = new InputAcknowledgementManager();
+        collisionManager = new CollisionManager();
     }
 
     /**
      * Perform an engine tick.
      */
     public void tick() {
+        if (isDebugMode()) {
+            recordTickTiming();
+        }
         calculateNextGameState();
 
         try {
-            final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-            final ObjectOutputStream outputStream = new ObjectOutputStream(byteStream);
-            outputStream.writeObject(gameState);
-            byte[] gameStateBytes = byteStream.toByteArray();
-
-            final GameStateBytesWrapper wrapper = new GameStateBytesWrapper();
-            wrapper.setPayload(gameStateBytes);
-            gameStateBytesPayload = wrapper;
+            broadcastStage.publish(WorldSnapshot.capture(gameState));
         } catch (Exception exception) {
-            LOGGER.log(Level.SEVERE, "Failed to serialize game state to bytes.", exception);
+            LOGGER.log(Level.SEVERE, "Failed to take a snapshot of the game state.", exception);
         }
     }
 
     /**
-     * Perform broadcast of the game state.
+     * Record how late the tick timer started the last tick and log the timer's metrics once enough ticks have been
+     * recorded.
      */
-    public void performGameStateBroadcast() {
-        if (gameStateBytesPayload != null && gameStateBytesPayload.getPayload() != null) {
-            gameStateBroadcastCallback.accept(gameStateBytesPayload);
+    private void recordTickTiming() {
+        final long jitterNanos = tickTimer.getLastJitterNanos();
+        reportedTicks++;
+        reportedJitterNanos += jitterNanos;
+        reportedMaxJitterNanos = Math.max(reportedMaxJitterNanos, jitterNanos);
+
+        if (reportedTicks >= ScalableBalanceConstants.TICK_TIMING_REPORT_TICKS) {
+            final long overrunCount = tickTimer.getOverrunCount();
+            final long skippedCount = tickTimer.getSkippedCount();
+            LOGGER.info(
+                "Ticks started " + String.format("%.3f", (double) reportedJitterNanos / reportedTicks / 1_000_000.0) +
+                "ms late on average, at most " + String.format("%.3f", reportedMaxJitterNanos / 1_000_000.0) +
+                "ms, over " + reportedTicks + " ticks. " + (overrunCount - reportedOverrunCount) + " ticks overran and " +
+                (skippedCount - reportedSkippedCount) + " were skipped."
+            );
+            reportedTicks = 0;
+            reportedJitterNanos = 0;
+            reportedMaxJitterNanos = 0;
+            reportedOverrunCount = overrunCount;
+            reportedSkippedCount = skippedCount;
         }
     }
 
@@ -136,16 +161,10 @@ public class ServerEngine {
         }
 
         // Get rid of lasers if they are beyond the border and will not impact anything
-        gameState.getLasers().removeIf(laser -> {
-            boolean willRemove = laser.getX() < -2000 || laser.getX() > ScalableBalanceConstants.BORDER_X_COORDINATE + 2000 ||
-            laser.getY() < -2000 || laser.getY() > ScalableBalanceConstants.BORDER_Y_COORDINATE + 2000;
-
-            if (willRemove) {
-                gameState.getCollideables().remove(laser);
-            }
-
-            return willRemove;
-        });
+        gameState.getLaserRegistry().removeIf(laser ->
+            laser.getX() < -2000 || laser.getX() > ScalableBalanceConstants.BORDER_X_COORDINATE + 2000 ||
+            laser.getY() < -2000 || laser.getY() > ScalableBalanceConstants.BORDER_Y_COORDINATE + 2000
+        );
 
         // Before the player's inputs are processed, let's clip some wings and make they're not overclocking
         // Players lose negative acceleration and rotational velocity until it is next requested
@@ -205,20 +224,25 @@ public class ServerEngine {
         });
 
         // Handle player inputs
-        final List<ClientInputSet> inputSets = inputManager.getUnhandledCodes();
-        inputSets.forEach(inputSet -> {
-            inputHandler.putInputSetOnGameState(inputSet, gameState);
-
-            inputSet.getInputs().forEach(input -> {
-                final InputAcknowledgement acknowledgement = new InputAcknowledgement();
-                acknowledgement.setSessionId(inputSet.getSession().getId());
-                acknowledgement.setCreatedGameStateVersion(gameState.getVersion());
-                acknowledgement.setInputId(input.getId());
-                inputAckManager.registerAck(acknowledgement);
-            });
-        });
+        playerIndex.removeEndedSessions();
+        inputSets.clear();
+        inputManager.drainUnhandledCodes(inputSets);
+        if (inputManager.getDroppedCount() > reportedDroppedInputCount) {
+            reportedDroppedInputCount = inputManager.getDroppedCount();
+            LOGGER.warning("Engine is falling behind on inputs. " + reportedDroppedInputCount + " input sets have been dropped so far.");
+        }
+
+        // Every input is acknowledged before each session's inputs are merged and repeats of the same state are dropped
+        inputSets.forEach(inputSet ->
+            inputSet.getInputs().forEach(input -> inputAckManager.registerAck(inputSet.getSession().getSlot(), input.getId()))
+        );
+        coalescedInputSets.clear();
+        inputCoalescer.coalesce(inputSets, coalescedInputSets);
+        coalescedInputSets.forEach(inputSet -> inputHandler.putInputSetOnGameState(inputSet, gameState));
 
         // TODO these engine steps will eventually need to be better managed
+        // Remember where the lasers were so collisions can be checked along the path they take this tick
+        gameState.getLasers().forEach(Laser::recordPreviousPosition);
         if (isMovementEnabled()) {
             gameState.getLasers().forEach(laser -> {
                 laser.setX(laser.getX() + laser.getXVelocity());
@@ -227,28 +251,14 @@ public class ServerEngine {
         }
 
         // Portal manager
-        gameState.getPortals().removeIf(portal -> {
-            boolean willRemove = portalManager.handlePortalTick(gameState, portal);
-
-            if (willRemove) {
-                gameState.getCollideables().remove(portal);
-            }
-
-            return willRemove;
-        });
+        gameState.getPortalRegistry().removeIf(portal -> portalManager.handlePortalTick(gameState, portal));
 
         // Black hole manager
-        gameState.getBlackHoles().removeIf(blackHole -> {
-            boolean willRemove = blackHoleManager.handleBlackHoleTick(gameState, blackHole);
-
-            if (willRemove) {
-                gameState.getCollideables().remove(blackHole);
-            }
-
-            return willRemove;
-        });
+        playerProximityIndex.rebuild(gameState.getPlayers());
+        gameState.getBlackHoleRegistry().removeIf(blackHole -> blackHoleManager.handleBlackHoleTick(gameState, blackHole));
 
         gameState.getPlayers().forEach(player -> {
+            player.recordPreviousPosition();
             colorAssigner.assignPlayerColor(player);
 
             // Adjust the max speed and acceleration based on if boost is being used
@@ -300,6 +310,8 @@ public class ServerEngine {
 
         // Snake movement
         if (isMovementEnabled()) {
+            // Players have moved and possibly died since the black holes looked for them
+            playerProximityIndex.rebuild(gameState.getPlayers());
             gameState.getSnakes().forEach(snake -> {
                 snakeTargetingHelper.evaluateSnakeDirection(snake, gameState);
                 snake.setX(snake.getX() + snake.getXVelocity());
@@ -307,16 +319,10 @@ public class ServerEngine {
             });
         }
 
-        gameState.getSnakes().removeIf(snake -> {
-            final boolean willRemove = snake.getX() < -400 || snake.getX() > ScalableBalanceConstants.BORDER_X_COORDINATE + 400 ||
-                snake.getY() < -400 || snake.getY() > ScalableBalanceConstants.BORDER_Y_COORDINATE + 400;
-
-            if (willRemove) {
-                gameState.getCollideables().remove(snake);
-            }
-
-            return willRemove;
-        });
+        gameState.getSnakeRegistry().removeIf(snake ->
+            snake.getX() < -400 || snake.getX() > ScalableBalanceConstants.BORDER_X_COORDINATE + 400 ||
+            snake.getY() < -400 || snake.getY() > ScalableBalanceConstants.BORDER_Y_COORDINATE + 400
+        );
 
         // Move asteroids
         if (isMovementEnabled()) {
@@ -329,13 +335,12 @@ public class ServerEngine {
 
         // Asteroid crack and remove
         final ArrayList<Asteroid> newAsteroids = new ArrayList<>();
-        gameState.getAsteroids().removeIf(asteroid -> {
+        gameState.getAsteroidRegistry().removeIf(asteroid -> {
             if (asteroid.getDurability() <= 0) {
                 asteroid.setCrackingTicks(asteroid.getCrackingTicks() + 1);
                 if (asteroid.getCrackingTicks() > ScalableBalanceConstants.ASTEROID_CRACKING_TICKS) {
-                    gameState.getCollideables().remove(asteroid);
                     if (asteroid.getSize() > 0) {
-                        asteroidSplitter.splitAsteroid(gameState, asteroid, newAsteroids);
+                        asteroidSplitter.splitAsteroid(asteroid, newAsteroids);
                     }
                     return true;
                 }
@@ -343,40 +348,23 @@ public class ServerEngine {
 
             if (asteroid.getX() < -400 || asteroid.getX() > ScalableBalanceConstants.BORDER_X_COORDINATE + 400 ||
                 asteroid.getY() < -400 || asteroid.getY() > ScalableBalanceConstants.BORDER_Y_COORDINATE + 400) {
-                gameState.getCollideables().remove(asteroid);
                 return true;
             }
 
             return false;
         });
-        gameState.getAsteroids().addAll(newAsteroids);
-        gameState.getCollideables().addAll(newAsteroids);
+        newAsteroids.forEach(gameState.getAsteroidRegistry()::add);
 
         // Check for collisions
-        final ArrayList<IMoveable> collideablesCopy = new ArrayList<>(gameState.getCollideables());
-        final int collideablesSize = collideablesCopy.size();
-        for (int index = 0; index < collideablesSize - 1; index++) {
-            for (int innerIndex = 1; innerIndex < collideablesSize; innerIndex++) {
-                final IMoveable collideable0 = collideablesCopy.get(index);
-                final IMoveable collideable1 = collideablesCopy.get(innerIndex);
-                if (isCollisionEnabled()) {
-                    collisionHandlers.forEach(collisionHandler -> collisionHandler.checkAndHandleCollision(gameState, collideable0, collideable1));
-                }
-                if (isDebugMode()) {
-                    debugCollisionHandlers.forEach(collisionHandler -> collisionHandler.checkAndHandleCollision(gameState, collideable0, collideable1));
-                }
-            }
-        }
+        collisionManager.checkCollisions(gameState, isCollisionEnabled(), isDebugMode());
 
         if (isSpawningEnabled()) {
             outOfBoundsSpawner.doRandomSpawns(gameState);
             inboundsObjectSpawner.doRandomSpawns(gameState);
         }
 
-        gameState.setInputAcknowledgements(new ArrayList<>(ScalableBalanceConstants.INPUT_ACKNOWLEDGEMENT_GAMESTATE_LIMIT));
-        gameState.getInputAcknowledgements().addAll(inputAckManager.pollForAcks(ScalableBalanceConstants.INPUT_ACKNOWLEDGEMENT_GAMESTATE_LIMIT, gameState.getVersion()));
-
-        inputAckManager.purgeExpiredAndRequestedAcks(gameState.getVersion(), ScalableBalanceConstants.INPUT_ACKNOWLEDGEMENT_LIFE_SPAN_TICKS);
+        gameState.getInputAcknowledgements().clear();
+        gameState.getInputAcknowledgements().addAll(inputAckManager.getAcks());
         gameState.setVersion(gameState.getVersion() + 1);
     }
 
@@ -384,54 +372,65 @@ public class ServerEngine {
      * Start the engine.
      */
     public void start() {
-        final ArrayList<CollisionHandler> collisionHandlers = new ArrayList<>();
+        final ArrayList<CollisionHandler<?, ?>> collisionHandlers = new ArrayList<>();
         collisionHandlers.add(new PlayerAndLaserCollisionHandler());
         collisionHandlers.add(new LaserAsteroidCollisionHandler());
         collisionHandlers.add(new PlayerAsteroidCollisionHandler());
         collisionHandlers.add(new SnakeLaserCollisionHandler());
         collisionHandlers.add(new SnakePlayerCollisionHandler());
         collisionHandlers.add(new PlayerPortalCollisionHandler());
-        this.collisionHandlers = collisionHandlers;
 
-        final ArrayList<CollisionHandler> debugCollisionHandlers = new ArrayList<>();
+        final ArrayList<CollisionHandler<?, ?>> debugCollisionHandlers = new ArrayList<>();
         debugCollisionHandlers.add(new FlagCreatingCollisionHandler<>(Asteroid.class));
-        this.debugCollisionHandlers = debugCollisionHandlers;
+        collisionManager.setCollisionHandlers(collisionHandlers, debugCollisionHandlers);
         tickTimer.start();
         tickTimer.startTimer();
-        broadcastTimer.start();
-        broadcastTimer.startTimer();
+        broadcastStage.start();
+        broadcastStage.startBroadcasting();
     }
 
     /**
-     * Add an input.
+     * Add the inputs of a client request, skipping any the server already has. Input codes are read here, on the way
+     * in, so the engine never has to look at their text.
      *
      * @param codes The input codes
      * @param session The session associated with the input
      */
     public void addInputs(List<InputRequest> codes, Session session) {
         final ClientInputSet inputSet = new ClientInputSet();
-        final List<ClientInput> inputs = codes
-            .stream()
-            .filter(code -> !inputAckManager.queueDuplicateAckResend(code, session.getId()))
-            .map(code -> new ClientInput(
-                    code.getInputCode(),
-                    code.isAckRequired(),
-                    code.getInputId() != null ? code.getInputId() : -1
-                )
-            )
-            .collect(Collectors.toList());
+        final List<ClientInput> inputs = new ArrayList<>(codes.size());
+        int inputCodes = 0;
+        for (InputRequest code : codes) {
+            if (code == null || code.getInputCode() == null || inputAckManager.isDuplicate(code, session.getSlot())) {
+                continue;
+            }
+
+            // Unknown codes are still kept so that they are acknowledged
+            final InputCode inputCode = InputCode.forText(code.getInputCode());
+            if (inputCode != null) {
+                inputCodes |= inputCode.mask();
+            }
+            inputs.add(new ClientInput(
+                inputCode,
+                InputCode.argumentForText(code.getInputCode()),
+                code.isAckRequired(),
+                code.getInputId() != null ? code.getInputId() : -1
+            ));
+        }
         inputSet.setSession(session);
         inputSet.setInputs(inputs);
+        inputSet.setCodes(inputCodes);
         inputManager.addInput(inputSet);
     }
 
     /**
-     * Purge input acknowledgements by ID for a particular session.
-     * @param inputPurges The inputs to purge
-     * @param session The session to purge inputs from
+     * Let go of what the engine keeps about a session that has ended.
+     *
+     * @param session The session
      */
-    public void purgeInputAcks(List<InputPurgeRequest> inputPurges, Session session) {
-        inputAckManager.purgeInputs(inputPurges, session);
+    public void endSession(Session session) {
+        inputAckManager.endSession(session.getSlot());
+        playerIndex.endSession(session.getSlot());
     }
 
     /**
@@ -447,22 +446,22 @@ public class ServerEngine {
         outOfBoundsSpawner.register(
             Asteroid::new, 40, ScalableBalanceConstants.ASTEROID_SPAWN_CHANCE, ScalableBalanceConstants.ASTEROID_STARTING_SPEED_MAXIMUM,
             ScalableBalanceConstants.ASTEROID_STARTING_SPEED_MINIMUM, ScalableBalanceConstants.ASTEROID_ROTATIONAL_VELOCITY_MAXIMUM,
-            ScalableBalanceConstants.ASTEROID_ROTATIONAL_VELOCITY_MINIMUM, GameState::getAsteroids
+            ScalableBalanceConstants.ASTEROID_ROTATIONAL_VELOCITY_MINIMUM, GameState::getAsteroidRegistry
         );
 
         outOfBoundsSpawner.register(
             Snake::new, 20, ScalableBalanceConstants.SNAKE_SPAWN_CHANCE, ScalableBalanceConstants.SNAKE_IDLE_SPEED,
-            ScalableBalanceConstants.SNAKE_IDLE_SPEED, 0, 0, GameState::getSnakes
+            ScalableBalanceConstants.SNAKE_IDLE_SPEED, 0, 0, GameState::getSnakeRegistry
         );
 
         inboundsObjectSpawner.register(
             MicroBlackHole::new, 10, ScalableBalanceConstants.BLACK_HOLE_SPAWN_CHANCE, ScalableBalanceConstants.BLACK_HOLE_ANGULAR_VELOCITY_MAXIMUM,
-            ScalableBalanceConstants.BLACK_HOLE_ANGULAR_VELOCITY_MINIMUM, GameState::getBlackHoles
+            ScalableBalanceConstants.BLACK_HOLE_ANGULAR_VELOCITY_MINIMUM, GameState::getBlackHoleRegistry
         );
 
         inboundsObjectSpawner.register(
             Portal::new, 5, ScalableBalanceConstants.PORTAL_SPAWN_CHANCE,
-            0, 0, GameState::getPortals
+            0, 0, GameState::getPortalRegistry
         );
     }
 
@@ -498,6 +497,7 @@ public class ServerEngine {
      */
     public void setDebugMode(boolean debugMode) {
         gameState.setServerDebugMode(debugMode);
+        broadcastStage.setReportingLag(debugMode);
 
         if (gameState.isServerDebugMode() && gameState.getDebugSettings() == null) {
             gameState.setDebugSettings(new ServerDebugSettings());
@@ -518,7 +518,7 @@ public class ServerEngine {
      */
     public void pauseEngine() {
         tickTimer.stopTimer();
-        broadcastTimer.stopTimer();
+        broadcastStage.stopBroadcasting();
     }
 
     /**
@@ -526,15 +526,16 @@ public class ServerEngine {
      */
     public void resumeEngine() {
         tickTimer.startTimer();
-        broadcastTimer.startTimer();
+        broadcastStage.startBroadcasting();
     }
 
     /**
      * Kill the engine.
      */
     public void kill() {
-        broadcastTimer.kill();
+        broadcastStage.kill();
         tickTimer.kill();
+        collisionManager.kill();
     }
 
     /**
@@ -1,11 +1,17 @@
 package com.andronikus.gameserver.engine;
 
+import lombok.Getter;
+
 import java.util.ConcurrentModificationException;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
 import java.util.logging.Logger;
 
 /**
- * Time manager for the server.
+ * Time manager for the server. Runs a function on the engine on a fixed schedule, parking the thread until the next
+ * execution is close and only spinning for the last stretch.
  *
  * @author Andronikus
  */
@@ -16,33 +22,105 @@ public class ServerTimeManager extends Thread {
     private final ServerEngine engine;
     private final Consumer<ServerEngine> engineFunction;
     private final String functionName;
+    private final long ticksPerSecond;
+    private final CatchUpPolicy catchUpPolicy;
+    private final LongSupplier clock;
+    private final LongConsumer parker;
     private volatile boolean running;
     private volatile boolean alive;
     private volatile long startTime;
-    private final long tickDelay;
-    private volatile long executionCount;
+    private volatile long scheduledCount;
     private volatile long executionDiscrepancy;
 
+    /*
+     * Timing metrics. Jitter is how late an execution started compared to when it was due, and an overrun is an
+     * execution that took longer than the time between executions.
+     */
+    @Getter
+    private volatile long executionCount;
+    @Getter
+    private volatile long lastJitterNanos;
+    @Getter
+    private volatile long maxJitterNanos;
+    private volatile long totalJitterNanos;
+    @Getter
+    private volatile long overrunCount;
+    @Getter
+    private volatile long skippedCount;
+
+    /**
+     * Instantiate a time manager for the server that bursts through missed executions.
+     *
+     * @param anEngine The engine to act on
+     * @param anEngineFunction Function on the engine to call
+     * @param aFunctionName Name of the function
+     * @param aTicksPerSecond The amount of ticks per second
+     */
+    public ServerTimeManager(
+        ServerEngine anEngine,
+        Consumer<ServerEngine> anEngineFunction,
+        String aFunctionName,
+        long aTicksPerSecond
+    ) {
+        this(anEngine, anEngineFunction, aFunctionName, aTicksPerSecond, CatchUpPolicy.BURST);
+    }
+
     /**
      * Instantiate a time manager for the server.
      *
      * @param anEngine The engine to act on
      * @param anEngineFunction Function on the engine to call
      * @param aFunctionName Name of the function
-     * @param ticksPerSecond The amount of ticks per second
+     * @param aTicksPerSecond The amount of ticks per second
+     * @param aCatchUpPolicy What to do after falling behind schedule
      */
     public ServerTimeManager(
         ServerEngine anEngine,
         Consumer<ServerEngine> anEngineFunction,
         String aFunctionName,
-        long ticksPerSecond
+        long aTicksPerSecond,
+        CatchUpPolicy aCatchUpPolicy
+    ) {
+        this(
+            anEngine,
+            anEngineFunction,
+            aFunctionName,
+            aTicksPerSecond,
+            aCatchUpPolicy,
+            System::nanoTime,
+            LockSupport::parkNanos
+        );
+    }
+
+    /**
+     * Instantiate a time manager for the server that keeps time with the given clock.
+     *
+     * @param anEngine The engine to act on
+     * @param anEngineFunction Function on the engine to call
+     * @param aFunctionName Name of the function
+     * @param aTicksPerSecond The amount of ticks per second
+     * @param aCatchUpPolicy What to do after falling behind schedule
+     * @param aClock Clock in nanoseconds, in the manner of {@link System#nanoTime()}
+     * @param aParker Function that parks the thread for up to the given number of nanoseconds
+     */
+    ServerTimeManager(
+        ServerEngine anEngine,
+        Consumer<ServerEngine> anEngineFunction,
+        String aFunctionName,
+        long aTicksPerSecond,
+        CatchUpPolicy aCatchUpPolicy,
+        LongSupplier aClock,
+        LongConsumer aParker
     ) {
         engine = anEngine;
         engineFunction = anEngineFunction;
         functionName = aFunctionName;
+        ticksPerSecond = aTicksPerSecond;
+        catchUpPolicy = aCatchUpPolicy;
+        clock = aClock;
+        parker = aParker;
         running = false;
         alive = true;
-        tickDelay = 1000 / ticksPerSecond;
         executionCount = 0;
         executionDiscrepancy = 0;
     }
@@ -54,9 +132,10 @@ public class ServerTimeManager extends Thread {
         if (running) {
             throw new ConcurrentModificationException("Timer cannot be started when running.");
         }
-        executionCount = 0;
-        startTime = System.currentTimeMillis();
+        scheduledCount = 0;
+        startTime = clock.getAsLong();
         running = true;
+        LockSupport.unpark(this);
     }
 
     /**
@@ -71,29 +150,124 @@ public class ServerTimeManager extends Thread {
      */
     public synchronized void kill() {
         alive = false;
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Get the average of how late executions started compared to when they were due.
+     *
+     * @return The average jitter in nanoseconds
+     */
+    public long getAverageJitterNanos() {
+        final long count = executionCount;
+        return count == 0 ? 0 : totalJitterNanos / count;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
     public void run() {
         while (alive) {
-            if (running) {
-                final long timeStamp = System.currentTimeMillis();
-                final long deltaTime = timeStamp - startTime;
-                final long executionCount = deltaTime / tickDelay;
-
-                if (executionCount > this.executionCount) {
-                    engineFunction.accept(engine);
-                    this.executionCount = this.executionCount + 1;
-                }
-
-                final long newExecutionDiscrepancy = executionCount - this.executionCount;
-                if (newExecutionDiscrepancy  > executionDiscrepancy) {
-                    LOGGER.warning("Server is a few " + functionName + "s behind. Latest " + functionName +
-                            " discrepancy of " + executionDiscrepancy + " is now " + newExecutionDiscrepancy + ". Expected "
-                            + executionCount + " " + functionName + "s, only performed " + this.executionCount + ".");
-                }
-                executionDiscrepancy = newExecutionDiscrepancy;
+            if (!running) {
+                // Woken up by starting the timer or killing it
+                LockSupport.park(this);
+                continue;
+            }
+
+            final long deadline = deadlineOf(scheduledCount);
+            if (!waitUntil(deadline)) {
+                continue;
             }
+
+            final long executionStart = clock.getAsLong();
+            engineFunction.accept(engine);
+            final long executionEnd = clock.getAsLong();
+            recordExecution(executionStart - deadline, executionEnd - executionStart > 1_000_000_000L / ticksPerSecond);
+
+            scheduledCount = scheduledCount + 1;
+            executionCount = executionCount + 1;
+            catchUp(executionStart, executionEnd);
         }
     }
 
+    /**
+     * Get when an execution is due. The deadline is worked out from the start each time, so rounding never builds up.
+     *
+     * @param execution Number of the execution since the timer started
+     * @return The deadline, in terms of the clock
+     */
+    private long deadlineOf(long execution) {
+        return startTime + execution * 1_000_000_000L / ticksPerSecond;
+    }
+
+    /**
+     * Wait for a deadline, parking until it is close and then spinning.
+     *
+     * @param deadline The deadline
+     * @return False if the timer was stopped or killed in the meantime
+     */
+    private boolean waitUntil(long deadline) {
+        long remaining = deadline - clock.getAsLong();
+        while (remaining > 0) {
+            if (!running || !alive) {
+                return false;
+            }
+
+            if (remaining > ScalableBalanceConstants.TIMER_SPIN_THRESHOLD_NANOS) {
+                parker.accept(remaining - ScalableBalanceConstants.TIMER_SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - clock.getAsLong();
+        }
+        return running && alive;
+    }
+
+    /**
+     * Apply the catch up policy if the timer has fallen behind, and warn if it is further behind than before.
+     *
+     * @param executionStart When the last execution started
+     * @param now The current time
+     */
+    private void catchUp(long executionStart, long now) {
+        final long dueCount = (now - startTime) * ticksPerSecond / 1_000_000_000L;
+        final long newExecutionDiscrepancy = Math.max(0, dueCount - scheduledCount);
+        if (newExecutionDiscrepancy > executionDiscrepancy) {
+            LOGGER.warning("Server is a few " + functionName + "s behind. Latest " + functionName +
+                    " discrepancy of " + executionDiscrepancy + " is now " + newExecutionDiscrepancy + ". Expected "
+                    + dueCount + " " + functionName + "s, only performed " + scheduledCount + ".");
+        }
+
+        if (newExecutionDiscrepancy > 0) {
+            switch (catchUpPolicy) {
+                case SKIP:
+                    scheduledCount = scheduledCount + newExecutionDiscrepancy;
+                    skippedCount = skippedCount + newExecutionDiscrepancy;
+                    break;
+                case SLOW_DOWN:
+                    // Move the start so that the next execution is due a period after the last one started
+                    startTime = executionStart - (scheduledCount - 1) * 1_000_000_000L / ticksPerSecond;
+                    break;
+                case BURST:
+                    break;
+            }
+        }
+        executionDiscrepancy = catchUpPolicy == CatchUpPolicy.BURST ? newExecutionDiscrepancy : 0;
+    }
+
+    /**
+     * Record the timing of an execution.
+     *
+     * @param jitterNanos How late the execution started
+     * @param overran Whether the execution took longer than the time between executions
+     */
+    private void recordExecution(long jitterNanos, boolean overran) {
+        lastJitterNanos = jitterNanos;
+        maxJitterNanos = Math.max(maxJitterNanos, jitterNanos);
+        totalJitterNanos = totalJitterNanos + jitterNanos;
+        if (overran) {
+            overrunCount = overrunCount + 1;
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.andronikus.gameserver.engine;
+
+import com.andronikus.game.model.codec.WorldSnapshot;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Stage that encodes and broadcasts game state snapshots on its own thread, so that the tick thread can get on with the
+ * next tick. The tick thread publishes a snapshot after every tick, and at each broadcast the stage takes whichever
+ * snapshot is the latest. Snapshots published in between broadcasts are never encoded.
+ *
+ * @author Andronikus
+ */
+public class SnapshotBroadcastStage extends Thread {
+
+    private static final Logger LOGGER = Logger.getLogger("SnapshotBroadcastStage");
+
+    private final Consumer<WorldSnapshot> broadcastFunction;
+    private final long broadcastDelayNanos;
+    private final AtomicReference<WorldSnapshot> latestSnapshot = new AtomicReference<>();
+    private volatile boolean running;
+    private volatile boolean alive;
+    private volatile boolean reportingLag;
+    private volatile long lagTicks;
+
+    private long reportedBroadcasts;
+    private long reportedLagTicks;
+    private long reportedMaxLagTicks;
+    private long reportedBroadcastNanos;
+
+    /**
+     * Instantiate a stage that broadcasts game state snapshots.
+     *
+     * @param aBroadcastFunction Function that encodes and sends a snapshot
+     * @param broadcastsPerSecond How many snapshots to broadcast per second
+     */
+    public SnapshotBroadcastStage(Consumer<WorldSnapshot> aBroadcastFunction, long broadcastsPerSecond) {
+        broadcastFunction = aBroadcastFunction;
+        broadcastDelayNanos = 1_000_000_000L / broadcastsPerSecond;
+        running = false;
+        alive = true;
+        reportingLag = false;
+        lagTicks = 0;
+    }
+
+    /**
+     * Publish the snapshot taken at the end of a tick. Only meant to be called from the tick thread.
+     *
+     * @param snapshot The snapshot, which must not be modified afterwards
+     */
+    public void publish(WorldSnapshot snapshot) {
+        latestSnapshot.set(snapshot);
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Start broadcasting.
+     */
+    public void startBroadcasting() {
+        running = true;
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Stop broadcasting.
+     */
+    public void stopBroadcasting() {
+        running = false;
+    }
+
+    /**
+     * Kill the stage's thread.
+     */
+    public void kill() {
+        alive = false;
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Set whether how far the stage lags behind the simulation is logged now and then.
+     *
+     * @param isReportingLag Whether to log the lag
+     */
+    public void setReportingLag(boolean isReportingLag) {
+        reportingLag = isReportingLag;
+    }
+
+    /**
+     * Get how many ticks the simulation had gotten ahead of the last broadcast snapshot by the time it was sent.
+     *
+     * @return The number of ticks
+     */
+    public long getLagTicks() {
+        return lagTicks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run() {
+        long nextBroadcastTime = System.nanoTime();
+        long lastBroadcastVersion = -1;
+
+        while (alive) {
+            final WorldSnapshot snapshot = latestSnapshot.get();
+            if (!running || snapshot == null || snapshot.getVersion() == lastBroadcastVersion) {
+                // Woken up by the next publish
+                LockSupport.park(this);
+                continue;
+            }
+
+            final long waitTime = nextBroadcastTime - System.nanoTime();
+            if (waitTime > 0) {
+                LockSupport.parkNanos(this, waitTime);
+                continue;
+            }
+
+            final long startTime = System.nanoTime();
+            broadcastFunction.accept(snapshot);
+            lastBroadcastVersion = snapshot.getVersion();
+
+            // After falling behind, start over from now instead of trying to catch up with a burst of broadcasts
+            nextBroadcastTime = Math.max(nextBroadcastTime + broadcastDelayNanos, startTime);
+
+            lagTicks = latestSnapshot.get().getVersion() - snapshot.getVersion();
+            if (reportingLag) {
+                recordLag(lagTicks, System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Record how far behind a broadcast was and log the averages once enough broadcasts have been recorded.
+     *
+     * @param broadcastLagTicks Ticks the simulation had gotten ahead of the broadcast snapshot
+     * @param elapsedNanos Time the broadcast took
+     */
+    private void recordLag(long broadcastLagTicks, long elapsedNanos) {
+        reportedBroadcasts++;
+        reportedLagTicks += broadcastLagTicks;
+        reportedMaxLagTicks = Math.max(reportedMaxLagTicks, broadcastLagTicks);
+        reportedBroadcastNanos += elapsedNanos;
+
+        if (reportedBroadcasts >= ScalableBalanceConstants.SNAPSHOT_LAG_REPORT_BROADCASTS) {
+            LOGGER.info(
+                "Snapshot broadcasts averaged " + String.format("%.3f", (double) reportedBroadcastNanos / reportedBroadcasts / 1_000_000.0) +
+                "ms and lagged the simulation by " + String.format("%.2f", (double) reportedLagTicks / reportedBroadcasts) +
+                " ticks, at most " + reportedMaxLagTicks + ", over " + reportedBroadcasts + " broadcasts."
+            );
+            reportedBroadcasts = 0;
+            reportedLagTicks = 0;
+            reportedMaxLagTicks = 0;
+            reportedBroadcastNanos = 0;
+        }
+    }
+}
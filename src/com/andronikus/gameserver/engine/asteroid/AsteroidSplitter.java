@@ -1,7 +1,6 @@
 package com.andronikus.gameserver.engine.asteroid;
 
 import com.andronikus.game.model.server.Asteroid;
-import com.andronikus.game.model.server.GameState;
 import com.andronikus.gameserver.engine.ScalableBalanceConstants;
 
 import java.util.ArrayList;
@@ -30,20 +29,19 @@ public class AsteroidSplitter {
     }
 
     /**
-     * Split an asteroid into smaller asteroids. Mainly, just add the small asteroids to the gamestate.
+     * Split an asteroid into smaller asteroids. The small asteroids get their IDs once they are added to the game state.
      *
-     * @param state The game state
      * @param asteroid The asteroid to split
      * @param newAsteroids The list of asteroids to add to
      */
-    public void splitAsteroid(GameState state, Asteroid asteroid, ArrayList<Asteroid> newAsteroids) {
+    public void splitAsteroid(Asteroid asteroid, ArrayList<Asteroid> newAsteroids) {
         final Asteroid firstAsteroid = new Asteroid();
         final Asteroid secondAsteroid = new Asteroid();
         final Asteroid thirdAsteroid = new Asteroid();
 
-        copyAsteroidFields(state, asteroid, firstAsteroid);
-        copyAsteroidFields(state, asteroid, secondAsteroid);
-        copyAsteroidFields(state, asteroid, thirdAsteroid);
+        copyAsteroidFields(asteroid, firstAsteroid);
+        copyAsteroidFields(asteroid, secondAsteroid);
+        copyAsteroidFields(asteroid, thirdAsteroid);
 
         newAsteroids.add(firstAsteroid);
         newAsteroids.add(secondAsteroid);
@@ -53,11 +51,10 @@ public class AsteroidSplitter {
     /**
      * Copy an asteroids field with random deviations to a new asteroid.
      *
-     * @param state The game state
      * @param parent The parent asteroid being copied
      * @param newAsteroid The asteroid to copy fields onto
      */
-    private void copyAsteroidFields(GameState state, Asteroid parent, Asteroid newAsteroid) {
+    private void copyAsteroidFields(Asteroid parent, Asteroid newAsteroid) {
         newAsteroid.setSize(0);
         newAsteroid.setXVelocity(parent.getXVelocity());
         newAsteroid.setYVelocity(parent.getYVelocity());
@@ -70,9 +67,6 @@ public class AsteroidSplitter {
         final int yDelta = (int)(positionalDeltaRange * randomMultiplier()) + ScalableBalanceConstants.ASTEROID_SPLIT_DISTANCE_MIN;
         newAsteroid.setX(parent.getX() + xDelta);
         newAsteroid.setY(parent.getY() + yDelta);
-
-        newAsteroid.setId(state.getNextSpawnId());
-        state.setNextSpawnId(state.getNextSpawnId() + 1);
     }
 
     /**
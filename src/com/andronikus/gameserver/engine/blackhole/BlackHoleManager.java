@@ -4,6 +4,7 @@ import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.MicroBlackHole;
 import com.andronikus.gameserver.engine.ScalableBalanceConstants;
 import com.andronikus.gameserver.engine.ServerEngine;
+import com.andronikus.gameserver.engine.proximity.PlayerProximityIndex;
 
 import java.util.Random;
 
@@ -15,25 +16,29 @@ import java.util.Random;
 public class BlackHoleManager {
 
     private final ServerEngine engine;
+    private final PlayerProximityIndex playerProximityIndex;
     private final Random random;
 
     /**
      * Instantiate a manager for a black hole.
      *
      * @param anEngine The engine
+     * @param aPlayerProximityIndex Index of where the live players are
      */
-    public BlackHoleManager(ServerEngine anEngine) {
-        this(anEngine, new Random());
+    public BlackHoleManager(ServerEngine anEngine, PlayerProximityIndex aPlayerProximityIndex) {
+        this(anEngine, aPlayerProximityIndex, new Random());
     }
 
     /**
      * Instantiate a manager for a black hole.
      *
      * @param anEngine The engine
+     * @param aPlayerProximityIndex Index of where the live players are
      * @param aRandom Supplier of random values
      */
-    public BlackHoleManager(ServerEngine anEngine, Random aRandom) {
+    public BlackHoleManager(ServerEngine anEngine, PlayerProximityIndex aPlayerProximityIndex, Random aRandom) {
         this.engine = anEngine;
+        this.playerProximityIndex = aPlayerProximityIndex;
         this.random = aRandom;
     }
 
@@ -46,23 +51,25 @@ public class BlackHoleManager {
      */
     public boolean handleBlackHoleTick(GameState gameState, MicroBlackHole blackHole) {
         final double gravity = ScalableBalanceConstants.BLACK_HOLE_GRAVITY;
-        gameState.getPlayers().forEach(player -> {
-            if (!player.isDead()) {
-                final double xDifference = player.getX() - blackHole.getX();
-                final double yDifference = player.getY() - blackHole.getY();
+        final double activeRange = ScalableBalanceConstants.BLACK_HOLE_ACTIVE_RANGE;
+        final double exclusiveMaxDistance = activeRange + 1;
 
-                final double distance = Math.sqrt(Math.pow(xDifference, 2) + Math.pow(yDifference, 2));
-                final double exclusiveMaxDistance = ScalableBalanceConstants.BLACK_HOLE_ACTIVE_RANGE + 1;
+        playerProximityIndex.forEachPlayerWithin(blackHole.getX(), blackHole.getY(), (long) Math.ceil(activeRange), (player, distanceSquared) -> {
+            // Squared distance is whole, so being at least 1 away is the same as not being right on top of the black hole
+            if (distanceSquared >= activeRange * activeRange || distanceSquared < 1) {
+                return;
+            }
 
-                if (distance < ScalableBalanceConstants.BLACK_HOLE_ACTIVE_RANGE && distance >= 1) {
-                    final double strength = (exclusiveMaxDistance - distance) / exclusiveMaxDistance;
-                    final double xAcceleration = strength * gravity * (-xDifference / Math.abs(xDifference));
-                    final double yAcceleration = strength * gravity * (-yDifference / Math.abs(yDifference));
+            final double xDifference = player.getX() - blackHole.getX();
+            final double yDifference = player.getY() - blackHole.getY();
+            final double distance = Math.sqrt(distanceSquared);
 
-                    player.setExternalXAcceleration(player.getExternalXAcceleration() + (long)(xAcceleration));
-                    player.setExternalYAcceleration(player.getExternalYAcceleration() + (long)(yAcceleration));
-                }
-            }
+            final double strength = (exclusiveMaxDistance - distance) / exclusiveMaxDistance;
+            final double xAcceleration = strength * gravity * (-xDifference / Math.abs(xDifference));
+            final double yAcceleration = strength * gravity * (-yDifference / Math.abs(yDifference));
+
+            player.setExternalXAcceleration(player.getExternalXAcceleration() + (long)(xAcceleration));
+            player.setExternalYAcceleration(player.getExternalYAcceleration() + (long)(yAcceleration));
         });
 
         return considerForRemoval();
@@ -0,0 +1,53 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.IMoveable;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase that does not do any narrowing at all. Every collideable is paired with every other collideable.
+ *
+ * @author Andronikus
+ */
+public class BruteForceBroadPhase implements ICollisionBroadPhase {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beginPhase() {
+        // Nothing is cached
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void findCandidatePairs(List<IMoveable> collideables, BiConsumer<IMoveable, IMoveable> candidatePairConsumer) {
+        final int collideablesSize = collideables.size();
+        for (int index = 0; index < collideablesSize - 1; index++) {
+            for (int innerIndex = index + 1; innerIndex < collideablesSize; innerIndex++) {
+                candidatePairConsumer.accept(collideables.get(index), collideables.get(innerIndex));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void findCandidatePairs(
+        List<IMoveable> firstCollideables,
+        List<IMoveable> secondCollideables,
+        BiConsumer<IMoveable, IMoveable> candidatePairConsumer
+    ) {
+        final int firstSize = firstCollideables.size();
+        final int secondSize = secondCollideables.size();
+        for (int index = 0; index < firstSize; index++) {
+            for (int innerIndex = 0; innerIndex < secondSize; innerIndex++) {
+                candidatePairConsumer.accept(firstCollideables.get(index), secondCollideables.get(innerIndex));
+            }
+        }
+    }
+}
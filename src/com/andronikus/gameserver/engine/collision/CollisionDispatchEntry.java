@@ -0,0 +1,207 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.IMoveable;
+import lombok.Getter;
+
+import java.util.ArrayList;
+
+/**
+ * Entry in the collision dispatch table. Holds every handler registered for one unordered pair of collideable types.
+ *
+ * Handlers are numbered in the order they are run, regular handlers first and then debug handlers, so that which of
+ * them found a collision can be stored as a bit mask.
+ *
+ * @author Andronikus
+ */
+public class CollisionDispatchEntry {
+
+    public static final int MAX_HANDLERS = Long.SIZE;
+
+    @Getter
+    private final Class<?> firstType;
+    @Getter
+    private final Class<?> secondType;
+    private final ArrayList<OrientedHandler> handlers = new ArrayList<>();
+    private int debugHandlerStart = 0;
+
+    /**
+     * Instantiate an entry in the collision dispatch table.
+     *
+     * @param aFirstType The first type of collideable
+     * @param aSecondType The second type of collideable
+     */
+    public CollisionDispatchEntry(Class<?> aFirstType, Class<?> aSecondType) {
+        firstType = aFirstType;
+        secondType = aSecondType;
+    }
+
+    /**
+     * Register a handler for this pair of types.
+     *
+     * @param handler The handler
+     * @param debug Whether the handler is only used in debug mode
+     */
+    public void addHandler(CollisionHandler<?, ?> handler, boolean debug) {
+        if (handlers.size() >= MAX_HANDLERS) {
+            throw new IllegalStateException(
+                "Cannot register more than " + MAX_HANDLERS + " handlers for " + firstType.getSimpleName() + " and " +
+                secondType.getSimpleName() + "."
+            );
+        }
+
+        final OrientedHandler orientedHandler = new OrientedHandler(handler, !handler.getFirstClass().equals(firstType));
+        if (debug) {
+            handlers.add(orientedHandler);
+        } else {
+            handlers.add(debugHandlerStart, orientedHandler);
+            debugHandlerStart++;
+        }
+    }
+
+    /**
+     * Whether there is any handler that would be run.
+     *
+     * @param collisionsEnabled Whether collision handlers should be run
+     * @param debugMode Whether debug collision handlers should be run
+     * @return True if there are any handlers to run
+     */
+    public boolean hasHandlers(boolean collisionsEnabled, boolean debugMode) {
+        return firstHandler(collisionsEnabled) < lastHandler(debugMode);
+    }
+
+    /**
+     * Give a pair of collideables to the handlers. Each handler checks relevance, does the collision math and handles
+     * the collision in turn.
+     *
+     * @param state The state of the game
+     * @param first Collideable of the first type
+     * @param second Collideable of the second type
+     * @param collisionsEnabled Whether collision handlers should be run
+     * @param debugMode Whether debug collision handlers should be run
+     */
+    public void dispatch(GameState state, IMoveable first, IMoveable second, boolean collisionsEnabled, boolean debugMode) {
+        final int lastHandler = lastHandler(debugMode);
+        for (int index = firstHandler(collisionsEnabled); index < lastHandler; index++) {
+            final OrientedHandler handler = handlers.get(index);
+            if (handler.isRelevant(state, first, second) && handler.isColliding(first, second)) {
+                handler.applyCollision(state, first, second);
+            }
+        }
+    }
+
+    /**
+     * Whether any of the handlers consider a pair of collideables relevant.
+     *
+     * @param state The state of the game
+     * @param first Collideable of the first type
+     * @param second Collideable of the second type
+     * @param collisionsEnabled Whether collision handlers should be run
+     * @param debugMode Whether debug collision handlers should be run
+     * @return True if any handler finds the pair relevant
+     */
+    public boolean isAnyRelevant(GameState state, IMoveable first, IMoveable second, boolean collisionsEnabled, boolean debugMode) {
+        final int lastHandler = lastHandler(debugMode);
+        for (int index = firstHandler(collisionsEnabled); index < lastHandler; index++) {
+            if (handlers.get(index).isRelevant(state, first, second)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find which handlers find a pair of collideables relevant and colliding, without handling any collisions. Does not
+     * modify anything, so may be called from any thread as long as nothing is handling collisions at the same time.
+     *
+     * @param state The state of the game
+     * @param first Collideable of the first type
+     * @param second Collideable of the second type
+     * @param collisionsEnabled Whether collision handlers should be run
+     * @param debugMode Whether debug collision handlers should be run
+     * @return Bit mask of the handlers that found a collision
+     */
+    public long findCollisions(GameState state, IMoveable first, IMoveable second, boolean collisionsEnabled, boolean debugMode) {
+        long collisionMask = 0;
+        final int lastHandler = lastHandler(debugMode);
+        for (int index = firstHandler(collisionsEnabled); index < lastHandler; index++) {
+            final OrientedHandler handler = handlers.get(index);
+            if (handler.isRelevant(state, first, second) && handler.isColliding(first, second)) {
+                collisionMask |= 1L << index;
+            }
+        }
+        return collisionMask;
+    }
+
+    /**
+     * Handle the collisions found by {@link CollisionDispatchEntry#findCollisions}. Since handling an earlier collision
+     * can make a later one irrelevant, relevance is checked again right before each collision is handled.
+     *
+     * @param state The state of the game
+     * @param first Collideable of the first type
+     * @param second Collideable of the second type
+     * @param collisionMask Bit mask of the handlers that found a collision
+     */
+    public void applyCollisions(GameState state, IMoveable first, IMoveable second, long collisionMask) {
+        long remainingMask = collisionMask;
+        while (remainingMask != 0) {
+            final int index = Long.numberOfTrailingZeros(remainingMask);
+            remainingMask &= remainingMask - 1;
+
+            final OrientedHandler handler = handlers.get(index);
+            if (handler.isRelevant(state, first, second)) {
+                handler.applyCollision(state, first, second);
+            }
+        }
+    }
+
+    private int firstHandler(boolean collisionsEnabled) {
+        return collisionsEnabled ? 0 : debugHandlerStart;
+    }
+
+    private int lastHandler(boolean debugMode) {
+        return debugMode ? handlers.size() : debugHandlerStart;
+    }
+
+    /**
+     * Handler along with whether the collideables have to be swapped before being given to it.
+     */
+    private static class OrientedHandler {
+        private final CollisionHandler<?, ?> handler;
+        private final boolean reversed;
+
+        private OrientedHandler(CollisionHandler<?, ?> aHandler, boolean isReversed) {
+            handler = aHandler;
+            reversed = isReversed;
+        }
+
+        private boolean isRelevant(GameState state, IMoveable first, IMoveable second) {
+            final CollisionHandler<IMoveable, IMoveable> typedHandler = typedHandler();
+            return reversed ? typedHandler.isRelevant(state, second, first) : typedHandler.isRelevant(state, first, second);
+        }
+
+        private boolean isColliding(IMoveable first, IMoveable second) {
+            final CollisionHandler<IMoveable, IMoveable> typedHandler = typedHandler();
+            return reversed ? typedHandler.isColliding(second, first) : typedHandler.isColliding(first, second);
+        }
+
+        private void applyCollision(GameState state, IMoveable first, IMoveable second) {
+            if (reversed) {
+                typedHandler().applyCollision(state, second, first);
+            } else {
+                typedHandler().applyCollision(state, first, second);
+            }
+        }
+
+        /**
+         * The handler, taking any collideables. Entries are looked up by the classes of the pair and the pair is put in
+         * the handler's order first, so the collideables are always of the types the handler was registered for.
+         *
+         * @return The handler
+         */
+        @SuppressWarnings("unchecked")
+        private CollisionHandler<IMoveable, IMoveable> typedHandler() {
+            return (CollisionHandler<IMoveable, IMoveable>) handler;
+        }
+    }
+}
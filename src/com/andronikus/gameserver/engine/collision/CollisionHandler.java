@@ -2,6 +2,8 @@ package com.andronikus.gameserver.engine.collision;
 
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.IMoveable;
+import com.andronikus.game.model.server.ISweepable;
+import lombok.Getter;
 
 /**
  * Handler for a collision between two objects.
@@ -12,7 +14,9 @@ import com.andronikus.game.model.server.IMoveable;
  */
 public abstract class CollisionHandler<TYPE_ONE extends IMoveable, TYPE_TWO extends IMoveable> {
 
+    @Getter
     private final Class<?> firstClass;
+    @Getter
     private final Class<?> secondClass;
 
     /**
@@ -54,19 +58,92 @@ public abstract class CollisionHandler<TYPE_ONE extends IMoveable, TYPE_TWO exte
             return;
         }
 
+        checkAndHandleOrderedCollision(state, firstParameter, secondParameter);
+    }
+
+    /**
+     * Check collision between two objects that are already known to be of the types this handler handles, in order, and
+     * handle the collision if the collision is occuring and the collision is relevant.
+     *
+     * @param state The state of the game
+     * @param firstParameter The collideable of the first type
+     * @param secondParameter The collideable of the second type
+     */
+    public void checkAndHandleOrderedCollision(GameState state, TYPE_ONE firstParameter, TYPE_TWO secondParameter) {
         if (!collisionRelevant(state, firstParameter, secondParameter)) {
             return;
         }
 
-        // Stored X,Y coordinates are at the center, CollisionUtil likes corner points
-        if (CollisionUtil.boundedEliptoidCollisionTest(
-            firstParameter.getBoxX(), firstParameter.getBoxY(), firstParameter.getBoxWidth(), firstParameter.getBoxHeight(), firstParameter.getTilt(),
-            secondParameter.getBoxX(), secondParameter.getBoxY(), secondParameter.getBoxWidth(), secondParameter.getBoxHeight(), secondParameter.getTilt()
-        )) {
+        if (isColliding(firstParameter, secondParameter)) {
             handleCollision(state, firstParameter, secondParameter);
         }
     }
 
+    /**
+     * Is the collision between the two objects relevant? Relevance of a pair may only ever go from relevant to not
+     * relevant during a collision phase, never the other way.
+     *
+     * @param state The state of the game
+     * @param first The first collideable
+     * @param second The second collideable
+     * @return Whether or not the collision is relevant
+     */
+    boolean isRelevant(GameState state, TYPE_ONE first, TYPE_TWO second) {
+        return collisionRelevant(state, first, second);
+    }
+
+    /**
+     * Handle a collision that is known to be occuring and relevant.
+     *
+     * @param state The state of the game
+     * @param first The first collideable
+     * @param second The second collideable
+     */
+    void applyCollision(GameState state, TYPE_ONE first, TYPE_TWO second) {
+        handleCollision(state, first, second);
+    }
+
+    /**
+     * Perform the collision math between two objects. Only reads the positions and hitboxes of the objects, which
+     * handlers never change, so this is safe to call from any thread during the collision phase.
+     *
+     * @param first The first collideable
+     * @param second The second collideable
+     * @return Whether the two are colliding
+     */
+    boolean isColliding(TYPE_ONE first, TYPE_TWO second) {
+        if (!isSwept()) {
+            // Stored X,Y coordinates are at the center, CollisionUtil likes corner points
+            return CollisionUtil.boundedEliptoidCollisionTest(
+                first.getBoxX(), first.getBoxY(), first.getBoxWidth(), first.getBoxHeight(), first.getTilt(),
+                second.getBoxX(), second.getBoxY(), second.getBoxWidth(), second.getBoxHeight(), second.getTilt()
+            );
+        }
+
+        return CollisionUtil.sweptBoundedEliptoidCollisionTest(
+            previousBoxX(first), previousBoxY(first), first.getBoxX(), first.getBoxY(), first.getBoxWidth(), first.getBoxHeight(), first.getTilt(),
+            previousBoxX(second), previousBoxY(second), second.getBoxX(), second.getBoxY(), second.getBoxWidth(), second.getBoxHeight(), second.getTilt()
+        );
+    }
+
+    /**
+     * Should collisions be checked along the whole path the objects took during the tick, rather than just where they
+     * ended up? Only sweepable objects are checked along their path, other objects are treated as standing still.
+     *
+     * @return Whether collisions are swept
+     */
+    protected boolean isSwept() {
+        return false;
+    }
+
+    private static long previousBoxX(IMoveable collideable) {
+        return collideable instanceof ISweepable ? ((ISweepable) collideable).getPreviousBoxX() : collideable.getBoxX();
+    }
+
+    private static long previousBoxY(IMoveable collideable) {
+        return collideable instanceof ISweepable ? ((ISweepable) collideable).getPreviousBoxY() : collideable.getBoxY();
+    }
+
     /**
      * Is the collision between the two objects relevant or should the interaction be ignored before the collision math
      * is even performed?
@@ -0,0 +1,387 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.Asteroid;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.IMoveable;
+import com.andronikus.game.model.server.Laser;
+import com.andronikus.game.model.server.MicroBlackHole;
+import com.andronikus.game.model.server.Player;
+import com.andronikus.game.model.server.Portal;
+import com.andronikus.game.model.server.Snake;
+import com.andronikus.gameserver.engine.ScalableBalanceConstants;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Manager for the collision phase of the engine tick. Uses a broad phase to find which collideables could be colliding
+ * and then gives those pairs to the collision handlers. Collideables that rarely move are kept in a static layer that is
+ * queried by the others instead of going through the broad phase.
+ *
+ * @author Andronikus
+ */
+public class CollisionManager {
+
+    private static final Logger LOGGER = Logger.getLogger("CollisionManager");
+    private static final ArrayList<IMoveable> EMPTY_BUCKET = new ArrayList<>();
+
+    public static final String BRUTE_FORCE_BROAD_PHASE = "BRUTEFORCE";
+    public static final String SPATIAL_HASH_BROAD_PHASE = "SPATIALHASH";
+
+    private final Map<String, ICollisionBroadPhase> broadPhaseMap;
+    private ICollisionBroadPhase broadPhase;
+    @Getter
+    private String broadPhaseName;
+
+    private volatile List<CollisionDispatchEntry> dispatchEntries = new ArrayList<>();
+    private final HashMap<Class<?>, ArrayList<IMoveable>> buckets = new HashMap<>();
+    private final HashMap<Class<?>, Predicate<IMoveable>> dormancyRules = new HashMap<>();
+    private final HashSet<Class<?>> staticTypes = new HashSet<>();
+    private final StaticCollisionLayer staticLayer;
+
+    private GameState currentGameState;
+    private CollisionDispatchEntry currentEntry;
+    private boolean currentCollisionsEnabled;
+    private boolean currentDebugMode;
+    private long candidatePairCount;
+
+    // Relevant candidate pairs, in the order they were found, and the collisions found for them
+    private CollisionDispatchEntry[] pairEntries = new CollisionDispatchEntry[0];
+    private IMoveable[] pairFirsts = new IMoveable[0];
+    private IMoveable[] pairSeconds = new IMoveable[0];
+    private long[] pairCollisionMasks = new long[0];
+    private int pairCount = 0;
+
+    private final ForkJoinPool narrowPhasePool;
+    @Getter
+    private volatile int parallelThreshold = ScalableBalanceConstants.COLLISION_PARALLEL_THRESHOLD;
+
+    private long timedTicks = 0;
+    private long timedNanos = 0;
+    private long timedCandidatePairs = 0;
+
+    /**
+     * Instantiate a manager for the collision phase of the engine tick.
+     */
+    public CollisionManager() {
+        this(new ForkJoinPool());
+    }
+
+    /**
+     * Instantiate a manager for the collision phase of the engine tick.
+     *
+     * @param aNarrowPhasePool Pool that the collision math is spread across when there are enough candidate pairs
+     */
+    public CollisionManager(ForkJoinPool aNarrowPhasePool) {
+        narrowPhasePool = aNarrowPhasePool;
+        broadPhaseMap = new HashMap<>();
+        broadPhaseMap.put(BRUTE_FORCE_BROAD_PHASE, new BruteForceBroadPhase());
+        broadPhaseMap.put(SPATIAL_HASH_BROAD_PHASE, new SpatialHashBroadPhase(
+            ScalableBalanceConstants.COLLISION_GRID_CELL_SIZE,
+            -ScalableBalanceConstants.COLLISION_GRID_MARGIN,
+            -ScalableBalanceConstants.COLLISION_GRID_MARGIN,
+            ScalableBalanceConstants.BORDER_X_COORDINATE + ScalableBalanceConstants.COLLISION_GRID_MARGIN,
+            ScalableBalanceConstants.BORDER_Y_COORDINATE + ScalableBalanceConstants.COLLISION_GRID_MARGIN
+        ));
+        selectBroadPhase(SPATIAL_HASH_BROAD_PHASE);
+
+        // Collideables that cannot be involved in any collision are left out of the collision phase altogether
+        dormancyRules.put(Player.class, collideable -> ((Player) collideable).isDead());
+        dormancyRules.put(Laser.class, collideable -> !((Laser) collideable).isActive());
+        dormancyRules.put(Asteroid.class, collideable -> ((Asteroid) collideable).getDurability() <= 0);
+        dormancyRules.put(Snake.class, collideable -> ((Snake) collideable).getHealth() <= 0);
+
+        // Collideables that only move when teleported are kept in a layer that is not rebuilt every tick
+        staticTypes.add(Portal.class);
+        staticTypes.add(MicroBlackHole.class);
+        staticLayer = new StaticCollisionLayer(
+            ScalableBalanceConstants.COLLISION_GRID_CELL_SIZE,
+            -ScalableBalanceConstants.COLLISION_GRID_MARGIN,
+            -ScalableBalanceConstants.COLLISION_GRID_MARGIN,
+            ScalableBalanceConstants.BORDER_X_COORDINATE + ScalableBalanceConstants.COLLISION_GRID_MARGIN,
+            ScalableBalanceConstants.BORDER_Y_COORDINATE + ScalableBalanceConstants.COLLISION_GRID_MARGIN
+        );
+    }
+
+    /**
+     * Set the handlers that collisions are given to. Builds the dispatch table that maps each pair of collideable types
+     * to the handlers for that pair.
+     *
+     * @param handlers Handlers for collisions
+     * @param debugHandlers Handlers for collisions that are only used in debug mode
+     */
+    public void setCollisionHandlers(List<CollisionHandler<?, ?>> handlers, List<CollisionHandler<?, ?>> debugHandlers) {
+        final HashMap<Class<?>, HashMap<Class<?>, CollisionDispatchEntry>> dispatchTable = new HashMap<>();
+        final ArrayList<CollisionDispatchEntry> entries = new ArrayList<>();
+        handlers.forEach(handler -> registerHandler(dispatchTable, entries, handler, false));
+        debugHandlers.forEach(handler -> registerHandler(dispatchTable, entries, handler, true));
+        dispatchEntries = entries;
+    }
+
+    /**
+     * Register a handler in the dispatch table.
+     *
+     * @param dispatchTable Dispatch table, keyed by both orderings of each pair of types
+     * @param entries Each distinct entry of the dispatch table
+     * @param handler The handler
+     * @param debug Whether the handler is only used in debug mode
+     */
+    private static void registerHandler(
+        HashMap<Class<?>, HashMap<Class<?>, CollisionDispatchEntry>> dispatchTable,
+        ArrayList<CollisionDispatchEntry> entries,
+        CollisionHandler<?, ?> handler,
+        boolean debug
+    ) {
+        final Class<?> firstClass = handler.getFirstClass();
+        final Class<?> secondClass = handler.getSecondClass();
+
+        CollisionDispatchEntry entry = dispatchTable.computeIfAbsent(firstClass, key -> new HashMap<>()).get(secondClass);
+        if (entry == null) {
+            entry = new CollisionDispatchEntry(firstClass, secondClass);
+            dispatchTable.get(firstClass).put(secondClass, entry);
+            dispatchTable.computeIfAbsent(secondClass, key -> new HashMap<>()).put(firstClass, entry);
+            entries.add(entry);
+        }
+        entry.addHandler(handler, debug);
+    }
+
+    /**
+     * Select which broad phase is used to find potential collisions.
+     *
+     * @param name Name of the broad phase
+     * @return False if there is no broad phase by that name
+     */
+    public boolean selectBroadPhase(String name) {
+        final ICollisionBroadPhase selectedBroadPhase = broadPhaseMap.get(name);
+        if (selectedBroadPhase == null) {
+            return false;
+        }
+
+        broadPhase = selectedBroadPhase;
+        broadPhaseName = name;
+        timedTicks = 0;
+        timedNanos = 0;
+        timedCandidatePairs = 0;
+        return true;
+    }
+
+    /**
+     * Set how many relevant candidate pairs there need to be in a tick before the collision math is spread across
+     * threads. Below this, everything is done on the tick thread.
+     *
+     * @param threshold The threshold
+     */
+    public void setParallelThreshold(int threshold) {
+        parallelThreshold = Math.max(0, threshold);
+    }
+
+    /**
+     * Stop the threads used for collision math.
+     */
+    public void kill() {
+        narrowPhasePool.shutdown();
+    }
+
+    /**
+     * Check for and handle the collisions between the collideables on the game state.
+     *
+     * @param gameState The state of the game
+     * @param collisionsEnabled Whether collision handlers should be run
+     * @param debugMode Whether debug collision handlers should be run
+     */
+    public void checkCollisions(GameState gameState, boolean collisionsEnabled, boolean debugMode) {
+        if (!collisionsEnabled && !debugMode) {
+            return;
+        }
+
+        final long startTime = System.nanoTime();
+        currentGameState = gameState;
+        currentCollisionsEnabled = collisionsEnabled;
+        currentDebugMode = debugMode;
+        candidatePairCount = 0;
+
+        // Bucket the collideables by their concrete type
+        buckets.values().forEach(ArrayList::clear);
+        gameState.getCollideables().forEach(collideable -> {
+            final Predicate<IMoveable> dormancyRule = dormancyRules.get(collideable.getClass());
+            if (dormancyRule == null || !dormancyRule.test(collideable)) {
+                buckets.computeIfAbsent(collideable.getClass(), key -> new ArrayList<>()).add(collideable);
+            }
+        });
+        staticTypes.forEach(staticType -> staticLayer.synchronize(staticType, buckets.getOrDefault(staticType, EMPTY_BUCKET)));
+        broadPhase.beginPhase();
+
+        // Only pairs of types that have a handler are checked
+        final List<CollisionDispatchEntry> entries = dispatchEntries;
+        final int entryCount = entries.size();
+        for (int index = 0; index < entryCount; index++) {
+            final CollisionDispatchEntry entry = entries.get(index);
+            if (!entry.hasHandlers(collisionsEnabled, debugMode)) {
+                continue;
+            }
+
+            final ArrayList<IMoveable> firstBucket = buckets.getOrDefault(entry.getFirstType(), EMPTY_BUCKET);
+            final ArrayList<IMoveable> secondBucket = buckets.getOrDefault(entry.getSecondType(), EMPTY_BUCKET);
+            if (firstBucket.isEmpty() || secondBucket.isEmpty()) {
+                continue;
+            }
+
+            currentEntry = entry;
+            final boolean firstStatic = staticTypes.contains(entry.getFirstType());
+            final boolean secondStatic = staticTypes.contains(entry.getSecondType());
+            if (secondStatic && !firstStatic) {
+                firstBucket.forEach(collideable -> staticLayer.findNearby(entry.getSecondType(), collideable, this::handleCandidatePair));
+            } else if (firstStatic && !secondStatic) {
+                secondBucket.forEach(collideable -> staticLayer.findNearby(entry.getFirstType(), collideable, this::handleReversedCandidatePair));
+            } else if (firstBucket == secondBucket) {
+                broadPhase.findCandidatePairs(firstBucket, this::handleCandidatePair);
+            } else {
+                broadPhase.findCandidatePairs(firstBucket, secondBucket, this::handleCandidatePair);
+            }
+        }
+
+        currentEntry = null;
+        currentGameState = null;
+
+        if (pairCount > 0 && pairCount >= parallelThreshold) {
+            // Collision math only reads positions, so it can be done in parallel. Handling the collisions is done
+            // afterwards on this thread, in the same order as the serial path would, so the outcome is identical
+            narrowPhasePool.invoke(new NarrowPhaseTask(gameState, collisionsEnabled, debugMode, 0, pairCount));
+            for (int index = 0; index < pairCount; index++) {
+                if (pairCollisionMasks[index] != 0) {
+                    pairEntries[index].applyCollisions(gameState, pairFirsts[index], pairSeconds[index], pairCollisionMasks[index]);
+                }
+            }
+        } else {
+            for (int index = 0; index < pairCount; index++) {
+                pairEntries[index].dispatch(gameState, pairFirsts[index], pairSeconds[index], collisionsEnabled, debugMode);
+            }
+        }
+        clearPairs();
+
+        if (debugMode) {
+            recordTiming(System.nanoTime() - startTime, candidatePairCount);
+        }
+    }
+
+    /**
+     * Take a pair of collideables found by the broad phase. Pairs that none of the handlers for their types find relevant
+     * are dropped, since relevance can only be lost during the collision phase.
+     *
+     * @param collideable0 The collideable of the first type of the current dispatch entry
+     * @param collideable1 The collideable of the second type of the current dispatch entry
+     */
+    private void handleCandidatePair(IMoveable collideable0, IMoveable collideable1) {
+        candidatePairCount++;
+        if (!currentEntry.isAnyRelevant(currentGameState, collideable0, collideable1, currentCollisionsEnabled, currentDebugMode)) {
+            return;
+        }
+
+        if (pairCount == pairEntries.length) {
+            final int newCapacity = Math.max(64, pairCount * 2);
+            pairEntries = Arrays.copyOf(pairEntries, newCapacity);
+            pairFirsts = Arrays.copyOf(pairFirsts, newCapacity);
+            pairSeconds = Arrays.copyOf(pairSeconds, newCapacity);
+            pairCollisionMasks = Arrays.copyOf(pairCollisionMasks, newCapacity);
+        }
+        pairEntries[pairCount] = currentEntry;
+        pairFirsts[pairCount] = collideable0;
+        pairSeconds[pairCount] = collideable1;
+        pairCollisionMasks[pairCount] = 0;
+        pairCount++;
+    }
+
+    /**
+     * Take a pair of collideables that was found in the opposite order of the current dispatch entry.
+     *
+     * @param collideable1 The collideable of the second type of the current dispatch entry
+     * @param collideable0 The collideable of the first type of the current dispatch entry
+     */
+    private void handleReversedCandidatePair(IMoveable collideable1, IMoveable collideable0) {
+        handleCandidatePair(collideable0, collideable1);
+    }
+
+    /**
+     * Clear the stored pairs so that collideables are not held onto between ticks.
+     */
+    private void clearPairs() {
+        Arrays.fill(pairEntries, 0, pairCount, null);
+        Arrays.fill(pairFirsts, 0, pairCount, null);
+        Arrays.fill(pairSeconds, 0, pairCount, null);
+        pairCount = 0;
+    }
+
+    /**
+     * Record how long a collision phase took and log the average once enough ticks have been timed.
+     *
+     * @param elapsedNanos Time the collision phase took
+     * @param candidatePairs Number of pairs the broad phase found
+     */
+    private void recordTiming(long elapsedNanos, long candidatePairs) {
+        timedTicks++;
+        timedNanos += elapsedNanos;
+        timedCandidatePairs += candidatePairs;
+
+        if (timedTicks >= ScalableBalanceConstants.COLLISION_TIMING_REPORT_TICKS) {
+            LOGGER.info(
+                "Collision phase using " + broadPhaseName + " broad phase averaged " +
+                String.format("%.3f", (double) timedNanos / timedTicks / 1_000_000.0) + "ms and " +
+                (timedCandidatePairs / timedTicks) + " candidate pairs over " + timedTicks + " ticks."
+            );
+            timedTicks = 0;
+            timedNanos = 0;
+            timedCandidatePairs = 0;
+        }
+    }
+
+    /**
+     * Task that does the collision math for a range of the stored pairs, splitting the range up until it is small enough.
+     */
+    private class NarrowPhaseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GameState gameState;
+        private final boolean collisionsEnabled;
+        private final boolean debugMode;
+        private final int start;
+        private final int end;
+
+        private NarrowPhaseTask(GameState aGameState, boolean areCollisionsEnabled, boolean isDebugMode, int aStart, int anEnd) {
+            gameState = aGameState;
+            collisionsEnabled = areCollisionsEnabled;
+            debugMode = isDebugMode;
+            start = aStart;
+            end = anEnd;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if (end - start <= ScalableBalanceConstants.COLLISION_PARALLEL_CHUNK_SIZE) {
+                for (int index = start; index < end; index++) {
+                    pairCollisionMasks[index] = pairEntries[index].findCollisions(
+                        gameState, pairFirsts[index], pairSeconds[index], collisionsEnabled, debugMode
+                    );
+                }
+                return;
+            }
+
+            final int middle = (start + end) >>> 1;
+            invokeAll(
+                new NarrowPhaseTask(gameState, collisionsEnabled, debugMode, start, middle),
+                new NarrowPhaseTask(gameState, collisionsEnabled, debugMode, middle, end)
+            );
+        }
+    }
+}
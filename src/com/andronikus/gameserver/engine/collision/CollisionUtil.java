@@ -1,5 +1,8 @@
 package com.andronikus.gameserver.engine.collision;
 
+import com.andronikus.game.model.server.IMoveable;
+import com.andronikus.game.model.server.ISweepable;
+
 /**
  * Common utility for determining if two objects are colliding with each other.
  *
@@ -7,9 +10,15 @@ package com.andronikus.gameserver.engine.collision;
  */
 public class CollisionUtil {
 
-     /**
+    /**
      * Between two rectangles, is there a collision based on the eliptoid in the rectangles?
      *
+     * Measured along the line between the two centers, the radius of an eliptoid with semi-axes a and b is
+     * sqrt((a * cos(r))^2 + (b * sin(r))^2), where r is the angle of that line relative to the tilt of the eliptoid. Since
+     * cos(r) and sin(r) are just the components of the line rotated by the tilt, divided by the distance, the radius
+     * multiplied by the distance can be calculated without finding the angle of the line at all. The objects are then
+     * colliding when the squared distance is at most the sum of these scaled radii.
+     *
      * @param x0 First X
      * @param y0 First Y
      * @param width0 First width
@@ -26,53 +35,142 @@ public class CollisionUtil {
         long x0, long y0, int width0, int height0, double tiltAngle0,
         long x1, long y1, int width1, int height1, double tiltAngle1
     ) {
-        // The given X and Y coordinates are the corner points, let's move to the center.
-        final long centerX0 = x0 /*+ (width0 / 2)*/;
-        final long centerY0 = y0 /*+ (height0 / 2)*/;
-        final long centerX1 = x1 /*+ (width1 / 2)*/;
-        final long centerY1 = y1 /*+ (height1 / 2)*/;
-
-        // Next up, calculate the distance between the two
-        final long xDelta0 = centerX1 - centerX0;
-        final long xDelta1 = centerX0 - centerX1;
-        final long yDelta0 = centerY1 - centerY0;
-        final long yDelta1 = centerY0 - centerY1;
-
-        final double distanceSquared = xDelta0 * xDelta0 + yDelta0 * yDelta0;
-        final double distance = Math.sqrt(distanceSquared);
+        // Given X and Y coordinates are the centers of the hitboxes
+        final double xDelta = x1 - x0;
+        final double yDelta = y1 - y0;
+        final double distanceSquared = xDelta * xDelta + yDelta * yDelta;
 
         // Early return if Deltas are 0, that would break things
-        if (distance == 0) {
+        if (distanceSquared == 0) {
             return true;
         }
 
-        // Calculate angle from one hitbox to the next
-        final double theta0 = extendedRangeArcCosine(xDelta0, yDelta0, distance);
-        final double theta1 = extendedRangeArcCosine(xDelta1, yDelta1, distance);
-
-        // Calculate radial angle
-        final double radialAngle0 = theta0 - tiltAngle0;
-        final double radialAngle1 = theta1 - tiltAngle1;
+        // Neither eliptoid reaches further than half its longest side, so anything further than that cannot be touching
+        final double boundingRadiusSum = (Math.max(width0, height0) + Math.max(width1, height1)) / 2.0;
+        if (distanceSquared > boundingRadiusSum * boundingRadiusSum) {
+            return false;
+        }
 
-        // Calculate Max distance for a collision to occur
-        final double radialX0 = Math.cos(radialAngle0) * (double) width0 / 2;
-        final double radialY0 = Math.sin(radialAngle0) * (double) height0 / 2;
-        final double radialX1 = Math.cos(radialAngle1) * (double) width1 / 2;
-        final double radialY1 = Math.sin(radialAngle1) * (double) height1 / 2;
+        // Circles are their own bounding circles, so if both are circles, that check was the whole test
+        if (width0 == height0 && width1 == height1) {
+            return true;
+        }
 
-        // TODO optimize to skip for squares
-        final double radialDistance0 = Math.sqrt(radialX0 * radialX0 + radialY0 * radialY0);
-        final double radialDistance1 = Math.sqrt(radialX1 * radialX1 + radialY1 * radialY1);
+        final double distance = Math.sqrt(distanceSquared);
+        final double scaledRadius0 = distanceScaledRadius(xDelta, yDelta, distance, width0, height0, tiltAngle0);
+        final double scaledRadius1 = distanceScaledRadius(xDelta, yDelta, distance, width1, height1, tiltAngle1);
 
         // If distance between objects is less than combined radius', objects are colliding
-        return distance <= radialDistance0 + radialDistance1;
+        return distanceSquared <= scaledRadius0 + scaledRadius1;
+    }
+
+    /**
+     * Between two rectangles that each moved in a straight line during the tick, is there a collision based on the
+     * eliptoid in the rectangles at any point along the way? The rectangles are checked where they ended up and where
+     * their centers came closest to one another.
+     *
+     * @param startX0 First X before moving
+     * @param startY0 First Y before moving
+     * @param x0 First X
+     * @param y0 First Y
+     * @param width0 First width
+     * @param height0 First height
+     * @param tiltAngle0 Angle at which the first hitbox is tilted
+     * @param startX1 Second X before moving
+     * @param startY1 Second Y before moving
+     * @param x1 Second X
+     * @param y1 Second Y
+     * @param width1 Second width
+     * @param height1 Second height
+     * @param tiltAngle1 Angle at which the second hitbox is tilted
+     * @return Are two rectangular hitboxes colliding with one another at any point during the tick?
+     */
+    public static boolean sweptBoundedEliptoidCollisionTest(
+        long startX0, long startY0, long x0, long y0, int width0, int height0, double tiltAngle0,
+        long startX1, long startY1, long x1, long y1, int width1, int height1, double tiltAngle1
+    ) {
+        if (boundedEliptoidCollisionTest(x0, y0, width0, height0, tiltAngle0, x1, y1, width1, height1, tiltAngle1)) {
+            return true;
+        }
+
+        // Treat the first hitbox as standing still and the second as moving relative to it
+        final double startXDelta = startX1 - startX0;
+        final double startYDelta = startY1 - startY0;
+        final double relativeXVelocity = (x1 - startX1) - (x0 - startX0);
+        final double relativeYVelocity = (y1 - startY1) - (y0 - startY0);
+        final double relativeSpeedSquared = relativeXVelocity * relativeXVelocity + relativeYVelocity * relativeYVelocity;
+        if (relativeSpeedSquared == 0) {
+            return false;
+        }
+
+        // Fraction of the tick at which the centers were closest. End of the tick was already checked
+        final double closestTime = -(startXDelta * relativeXVelocity + startYDelta * relativeYVelocity) / relativeSpeedSquared;
+        if (closestTime >= 1) {
+            return false;
+        }
+        final double time = Math.max(0, closestTime);
+
+        return boundedEliptoidCollisionTest(
+            startX0 + Math.round((x0 - startX0) * time), startY0 + Math.round((y0 - startY0) * time), width0, height0, tiltAngle0,
+            startX1 + Math.round((x1 - startX1) * time), startY1 + Math.round((y1 - startY1) * time), width1, height1, tiltAngle1
+        );
+    }
+
+    /**
+     * Get the radius of an eliptoid along a line, multiplied by the length of that line.
+     *
+     * @param xDelta X component of the line
+     * @param yDelta Y component of the line
+     * @param distance Length of the line
+     * @param width Width of the hitbox bounding the eliptoid
+     * @param height Height of the hitbox bounding the eliptoid
+     * @param tiltAngle Angle at which the hitbox is tilted
+     * @return The radius multiplied by the length of the line
+     */
+    private static double distanceScaledRadius(double xDelta, double yDelta, double distance, int width, int height, double tiltAngle) {
+        if (width == height) {
+            return distance * width / 2;
+        }
+
+        // Rotate the line into the frame of the hitbox. Direction of the line does not matter since components get squared
+        double alongWidth = xDelta;
+        double alongHeight = yDelta;
+        if (tiltAngle != 0) {
+            final double cosine = Math.cos(tiltAngle);
+            final double sine = Math.sin(tiltAngle);
+            alongWidth = xDelta * cosine + yDelta * sine;
+            alongHeight = yDelta * cosine - xDelta * sine;
+        }
+
+        final double radialX = alongWidth * (double) width / 2;
+        final double radialY = alongHeight * (double) height / 2;
+        return Math.sqrt(radialX * radialX + radialY * radialY);
     }
 
-    private static double extendedRangeArcCosine(double adjacent, double opposite, double hypotenuse) {
-        double postFix = 1;
-        if (opposite < 0) {
-            postFix = -1;
+    /**
+     * Get the radius of a circle that fully contains the eliptoid bounded by a hitbox, regardless of the tilt of the hitbox.
+     *
+     * @param width Width of the hitbox
+     * @param height Height of the hitbox
+     * @return The bounding radius, rounded up
+     */
+    public static int boundingRadius(int width, int height) {
+        return (Math.max(width, height) + 1) / 2;
+    }
+
+    /**
+     * Get how far from its current center a collideable could have touched something during the tick. This is the
+     * bounding radius plus, for sweepables, how far the collideable moved.
+     *
+     * @param collideable The collideable
+     * @return The reach
+     */
+    public static long reach(IMoveable collideable) {
+        long reach = boundingRadius(collideable.getBoxWidth(), collideable.getBoxHeight());
+        if (collideable instanceof ISweepable) {
+            final ISweepable sweepable = (ISweepable) collideable;
+            reach += Math.abs(sweepable.getBoxX() - sweepable.getPreviousBoxX()) + Math.abs(sweepable.getBoxY() - sweepable.getPreviousBoxY());
         }
-        return (Math.acos(adjacent / hypotenuse) * postFix + Math.PI * 2) % (Math.PI * 2);
+        return reach;
     }
 }
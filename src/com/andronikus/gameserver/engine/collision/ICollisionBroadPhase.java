@@ -0,0 +1,47 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.IMoveable;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase of collision detection. Responsible for cheaply narrowing down which pairs of collideables are close
+ * enough to one another that the (expensive) collision math needs to be performed on them.
+ *
+ * Collideables are given to the broad phase in buckets, one bucket per type of collideable. A bucket is not modified
+ * between the start of a collision phase and the end of it, so broad phases may cache whatever they build for a bucket.
+ *
+ * @author Andronikus
+ */
+public interface ICollisionBroadPhase {
+
+    /**
+     * Notify the broad phase that a new collision phase is starting and the buckets may have changed.
+     */
+    void beginPhase();
+
+    /**
+     * Find the pairs of collideables within one bucket that could potentially be colliding. Each unordered pair is given
+     * to the consumer at most once. Any pair that is not given to the consumer is guaranteed to not be colliding.
+     *
+     * @param collideables The bucket of collideables to check
+     * @param candidatePairConsumer Consumer that each candidate pair is given to
+     */
+    void findCandidatePairs(List<IMoveable> collideables, BiConsumer<IMoveable, IMoveable> candidatePairConsumer);
+
+    /**
+     * Find the pairs of collideables between two different buckets that could potentially be colliding. Each pair is
+     * given to the consumer at most once, with the collideable from the first bucket first. Any pair that is not given
+     * to the consumer is guaranteed to not be colliding.
+     *
+     * @param firstCollideables The first bucket of collideables to check
+     * @param secondCollideables The second bucket of collideables to check
+     * @param candidatePairConsumer Consumer that each candidate pair is given to
+     */
+    void findCandidatePairs(
+        List<IMoveable> firstCollideables,
+        List<IMoveable> secondCollideables,
+        BiConsumer<IMoveable, IMoveable> candidatePairConsumer
+    );
+}
@@ -16,6 +16,14 @@ public class LaserAsteroidCollisionHandler extends CollisionHandler<Laser, Aster
         super(Laser.class, Asteroid.class);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isSwept() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -17,6 +17,14 @@ public class PlayerAndLaserCollisionHandler extends CollisionHandler<Player, Las
         super(Player.class, Laser.class);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isSwept() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -25,8 +33,7 @@ public class PlayerAndLaserCollisionHandler extends CollisionHandler<Player, Las
         return !player.isDead() &&
                player.getCollidedPortalId() == null &&
                laser.isActive() &&
-               (laser.getLoyalty() == null ||
-                !laser.getLoyalty().equals(player.getSessionId()));
+               laser.getLoyalty() != player.getSessionSlot();
     }
 
     /**
@@ -29,6 +29,7 @@ public class PlayerPortalCollisionHandler extends CollisionHandler<Player, Porta
     @Override
     protected void handleCollision(GameState state, Player player, Portal portal) {
         player.setCollidedPortalId(portal.getId());
+        portal.setCollidedPlayerId(player.getId());
         portal.setTicksSinceCollision(0);
         player.setPerformedWarp(false);
     }
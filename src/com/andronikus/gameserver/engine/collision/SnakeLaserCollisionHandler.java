@@ -16,6 +16,14 @@ public class SnakeLaserCollisionHandler extends CollisionHandler<Snake, Laser> {
         super(Snake.class, Laser.class);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isSwept() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
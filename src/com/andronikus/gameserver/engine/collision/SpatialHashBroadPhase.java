@@ -0,0 +1,307 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.IMoveable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Broad phase that buckets collideables into a uniform grid of cells by the position of their hitbox. Only collideables
+ * that are in the same cell or in a neighbouring cell are paired with one another.
+ *
+ * The grid is laid over a fixed region of the map. Collideables outside of that region are clamped into the cells on
+ * the edge of the grid, so they are still checked, just less efficiently. Each bucket of collideables gets its own grid,
+ * which is built the first time the bucket is checked during a collision phase and reused for the rest of the phase.
+ *
+ * Handling one collision can change the outcome of the next, like a laser being spent on the first thing it hits, so
+ * the pairs are handed on in the same order as {@link BruteForceBroadPhase} would hand them on, not in the order of the
+ * cells.
+ *
+ * @author Andronikus
+ */
+public class SpatialHashBroadPhase implements ICollisionBroadPhase {
+
+    private final int cellSize;
+    private final long minX;
+    private final long minY;
+    private final int columns;
+    private final int rows;
+
+    private final IdentityHashMap<List<IMoveable>, Grid> gridsByBucket = new IdentityHashMap<>();
+    private final ArrayList<Grid> gridPool = new ArrayList<>();
+    private int gridsInUse = 0;
+    // Each pair's index in the first bucket followed by its index in the second, so sorting puts them in bucket order
+    private long[] pairs = new long[64];
+    private int pairCount = 0;
+
+    /**
+     * Instantiate a broad phase that buckets collideables into a uniform grid.
+     *
+     * @param aCellSize Width and height of each cell of the grid
+     * @param aMinX Smallest X covered by the grid
+     * @param aMinY Smallest Y covered by the grid
+     * @param maxX Largest X covered by the grid
+     * @param maxY Largest Y covered by the grid
+     */
+    public SpatialHashBroadPhase(int aCellSize, long aMinX, long aMinY, long maxX, long maxY) {
+        cellSize = aCellSize;
+        minX = aMinX;
+        minY = aMinY;
+        columns = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beginPhase() {
+        gridsByBucket.clear();
+        gridsInUse = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void findCandidatePairs(List<IMoveable> collideables, BiConsumer<IMoveable, IMoveable> candidatePairConsumer) {
+        final Grid grid = gridFor(collideables);
+        final int neighbourRange = neighbourRange(grid.maxReach, grid.maxReach);
+
+        final int occupiedCellCount = grid.occupiedCells.size();
+        for (int cellIndex = 0; cellIndex < occupiedCellCount; cellIndex++) {
+            final GridCell cell = grid.occupiedCells.get(cellIndex);
+            pairWithinCell(cell);
+
+            // Only look "forward" so that each pair of neighbouring cells is visited once
+            for (int rowOffset = 0; rowOffset <= neighbourRange; rowOffset++) {
+                for (int columnOffset = -neighbourRange; columnOffset <= neighbourRange; columnOffset++) {
+                    if (rowOffset == 0 && columnOffset <= 0) {
+                        continue;
+                    }
+
+                    final GridCell neighbour = grid.cellAt(cell.column + columnOffset, cell.row + rowOffset);
+                    if (neighbour != null && neighbour.memberCount > 0) {
+                        pairBetweenCells(cell, neighbour, true);
+                    }
+                }
+            }
+        }
+        handOnPairs(collideables, collideables, candidatePairConsumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void findCandidatePairs(
+        List<IMoveable> firstCollideables,
+        List<IMoveable> secondCollideables,
+        BiConsumer<IMoveable, IMoveable> candidatePairConsumer
+    ) {
+        final Grid firstGrid = gridFor(firstCollideables);
+        final Grid secondGrid = gridFor(secondCollideables);
+        final int neighbourRange = neighbourRange(firstGrid.maxReach, secondGrid.maxReach);
+
+        final int occupiedCellCount = firstGrid.occupiedCells.size();
+        for (int cellIndex = 0; cellIndex < occupiedCellCount; cellIndex++) {
+            final GridCell cell = firstGrid.occupiedCells.get(cellIndex);
+
+            // The buckets are distinct, so every neighbouring cell of the other grid has to be looked at
+            for (int rowOffset = -neighbourRange; rowOffset <= neighbourRange; rowOffset++) {
+                for (int columnOffset = -neighbourRange; columnOffset <= neighbourRange; columnOffset++) {
+                    final GridCell neighbour = secondGrid.cellAt(cell.column + columnOffset, cell.row + rowOffset);
+                    if (neighbour != null && neighbour.memberCount > 0) {
+                        pairBetweenCells(cell, neighbour, false);
+                    }
+                }
+            }
+        }
+        handOnPairs(firstCollideables, secondCollideables, candidatePairConsumer);
+    }
+
+    /**
+     * Get how many cells away two collideables can be from one another and still be touching.
+     *
+     * @param firstReach Largest reach of the first collideable
+     * @param secondReach Largest reach of the second collideable
+     * @return Number of cells in each direction that need to be looked at
+     */
+    private int neighbourRange(long firstReach, long secondReach) {
+        // Two collideables can only be touching if their centers are no further apart than their combined reach
+        final long range = Math.max(1, (firstReach + secondReach + cellSize - 1) / cellSize);
+        return (int) Math.min(range, Math.max(columns, rows));
+    }
+
+    /**
+     * Get the grid for a bucket, building it if this is the first time it is requested during this phase.
+     *
+     * @param collideables The bucket
+     * @return The grid
+     */
+    private Grid gridFor(List<IMoveable> collideables) {
+        Grid grid = gridsByBucket.get(collideables);
+        if (grid != null) {
+            return grid;
+        }
+
+        if (gridsInUse == gridPool.size()) {
+            gridPool.add(new Grid());
+        }
+        grid = gridPool.get(gridsInUse);
+        gridsInUse++;
+
+        grid.build(collideables);
+        gridsByBucket.put(collideables, grid);
+        return grid;
+    }
+
+    /**
+     * Pair every member of a cell with every other member of the same cell.
+     *
+     * @param cell The cell
+     */
+    private void pairWithinCell(GridCell cell) {
+        for (int index = 0; index < cell.memberCount - 1; index++) {
+            for (int innerIndex = index + 1; innerIndex < cell.memberCount; innerIndex++) {
+                addPair(cell.memberIndexes[index], cell.memberIndexes[innerIndex]);
+            }
+        }
+    }
+
+    /**
+     * Pair every member of a cell with every member of another cell.
+     *
+     * @param cell The cell
+     * @param neighbour The other cell
+     * @param sameBucket Whether both cells are of the same bucket, in which case each pair is put in bucket order
+     */
+    private void pairBetweenCells(GridCell cell, GridCell neighbour, boolean sameBucket) {
+        for (int index = 0; index < cell.memberCount; index++) {
+            final int memberIndex = cell.memberIndexes[index];
+            for (int neighbourIndex = 0; neighbourIndex < neighbour.memberCount; neighbourIndex++) {
+                final int neighbourMemberIndex = neighbour.memberIndexes[neighbourIndex];
+                if (sameBucket && neighbourMemberIndex < memberIndex) {
+                    addPair(neighbourMemberIndex, memberIndex);
+                } else {
+                    addPair(memberIndex, neighbourMemberIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Store a pair to be handed on once every pair of the buckets is found.
+     *
+     * @param firstIndex Index of the first collideable in its bucket
+     * @param secondIndex Index of the second collideable in its bucket
+     */
+    private void addPair(int firstIndex, int secondIndex) {
+        if (pairCount == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairCount * 2);
+        }
+        pairs[pairCount] = ((long) firstIndex << 32) | secondIndex;
+        pairCount++;
+    }
+
+    /**
+     * Hand the stored pairs on in bucket order and clear them.
+     *
+     * @param firstCollideables The bucket the first of each pair is from
+     * @param secondCollideables The bucket the second of each pair is from
+     * @param candidatePairConsumer Consumer of the pairs
+     */
+    private void handOnPairs(
+        List<IMoveable> firstCollideables,
+        List<IMoveable> secondCollideables,
+        BiConsumer<IMoveable, IMoveable> candidatePairConsumer
+    ) {
+        Arrays.sort(pairs, 0, pairCount);
+        for (int index = 0; index < pairCount; index++) {
+            final long pair = pairs[index];
+            candidatePairConsumer.accept(firstCollideables.get((int) (pair >>> 32)), secondCollideables.get((int) pair));
+        }
+        pairCount = 0;
+    }
+
+    /**
+     * Grid of cells holding one bucket of collideables.
+     */
+    private class Grid {
+        private final GridCell[] cells;
+        private final ArrayList<GridCell> occupiedCells = new ArrayList<>();
+        private long maxReach = 0;
+
+        private Grid() {
+            cells = new GridCell[columns * rows];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    cells[row * columns + column] = new GridCell(column, row);
+                }
+            }
+        }
+
+        /**
+         * Clear the grid and fill it with a bucket of collideables.
+         *
+         * @param collideables The bucket
+         */
+        private void build(List<IMoveable> collideables) {
+            occupiedCells.forEach(cell -> cell.memberCount = 0);
+            occupiedCells.clear();
+            maxReach = 0;
+
+            final int collideablesSize = collideables.size();
+            for (int index = 0; index < collideablesSize; index++) {
+                final IMoveable collideable = collideables.get(index);
+                maxReach = Math.max(maxReach, CollisionUtil.reach(collideable));
+
+                final int column = (int) Math.max(0, Math.min(columns - 1, Math.floorDiv(collideable.getBoxX() - minX, (long) cellSize)));
+                final int row = (int) Math.max(0, Math.min(rows - 1, Math.floorDiv(collideable.getBoxY() - minY, (long) cellSize)));
+                final GridCell cell = cells[row * columns + column];
+                if (cell.memberCount == 0) {
+                    occupiedCells.add(cell);
+                }
+                cell.addMember(index);
+            }
+        }
+
+        /**
+         * Get a cell by its column and row.
+         *
+         * @param column The column
+         * @param row The row
+         * @return The cell or null if the column and row are off the grid
+         */
+        private GridCell cellAt(int column, int row) {
+            if (column < 0 || column >= columns || row < 0 || row >= rows) {
+                return null;
+            }
+            return cells[row * columns + column];
+        }
+    }
+
+    private static class GridCell {
+        private final int column;
+        private final int row;
+        // Members by their index in the bucket, which is how the pairs are put in order
+        private int[] memberIndexes = new int[4];
+        private int memberCount = 0;
+
+        private GridCell(int aColumn, int aRow) {
+            column = aColumn;
+            row = aRow;
+        }
+
+        private void addMember(int memberIndex) {
+            if (memberCount == memberIndexes.length) {
+                memberIndexes = Arrays.copyOf(memberIndexes, memberCount * 2);
+            }
+            memberIndexes[memberCount] = memberIndex;
+            memberCount++;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.IMoveable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Layer of the collision system for collideables that almost never move, such as portals and black holes. Unlike the
+ * broad phase, which is rebuilt every tick, the layer keeps its index between ticks and only touches a collideable when
+ * it first shows up, moves or goes away.
+ *
+ * @author Andronikus
+ */
+public class StaticCollisionLayer {
+
+    private final int cellSize;
+    private final long minX;
+    private final long minY;
+    private final int columns;
+    private final int rows;
+
+    private final HashMap<Class<?>, TypeIndex> typeIndexes = new HashMap<>();
+    private long synchronizationCount = 0;
+
+    /**
+     * Instantiate a layer of the collision system for collideables that almost never move.
+     *
+     * @param aCellSize Width and height of each cell of the index
+     * @param aMinX Smallest X covered by the index
+     * @param aMinY Smallest Y covered by the index
+     * @param maxX Largest X covered by the index
+     * @param maxY Largest Y covered by the index
+     */
+    public StaticCollisionLayer(int aCellSize, long aMinX, long aMinY, long maxX, long maxY) {
+        cellSize = aCellSize;
+        minX = aMinX;
+        minY = aMinY;
+        columns = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+    }
+
+    /**
+     * Bring the index for a type of collideable up to date with the collideables of that type that are in the game.
+     * Collideables that are new or have moved since the last synchronization are indexed and collideables that are gone
+     * are removed. Everything else is left alone.
+     *
+     * @param type The type of collideable
+     * @param collideables Every collideable of that type that can currently collide
+     */
+    public void synchronize(Class<?> type, List<IMoveable> collideables) {
+        synchronizationCount++;
+        final TypeIndex typeIndex = typeIndexes.computeIfAbsent(type, key -> new TypeIndex());
+
+        boolean membershipChanged = false;
+        final int collideablesSize = collideables.size();
+        for (int index = 0; index < collideablesSize; index++) {
+            final IMoveable collideable = collideables.get(index);
+            IndexedCollideable indexed = typeIndex.indexedCollideables.get(collideable);
+
+            if (indexed == null) {
+                indexed = new IndexedCollideable(collideable);
+                typeIndex.indexedCollideables.put(collideable, indexed);
+                typeIndex.insert(indexed);
+                membershipChanged = true;
+            } else if (indexed.x != collideable.getBoxX() || indexed.y != collideable.getBoxY() || indexed.reach != CollisionUtil.reach(collideable)) {
+                typeIndex.remove(indexed);
+                indexed.update();
+                typeIndex.insert(indexed);
+                membershipChanged = true;
+            }
+            indexed.lastSynchronization = synchronizationCount;
+        }
+
+        // Anything that was not seen is no longer in the game
+        if (typeIndex.indexedCollideables.size() != collideablesSize) {
+            final Iterator<Map.Entry<IMoveable, IndexedCollideable>> iterator = typeIndex.indexedCollideables.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final IndexedCollideable indexed = iterator.next().getValue();
+                if (indexed.lastSynchronization != synchronizationCount) {
+                    typeIndex.remove(indexed);
+                    iterator.remove();
+                    membershipChanged = true;
+                }
+            }
+        }
+
+        if (membershipChanged) {
+            typeIndex.maxReach = 0;
+            typeIndex.indexedCollideables.values().forEach(indexed -> typeIndex.maxReach = Math.max(typeIndex.maxReach, indexed.reach));
+        }
+    }
+
+    /**
+     * Find the indexed collideables of a type that could be colliding with another collideable. Collideables are given
+     * to the consumer in a fixed order for the same index and query.
+     *
+     * @param type The type of indexed collideable
+     * @param collideable The other collideable
+     * @param nearbyConsumer Consumer that is given the other collideable and each nearby indexed collideable
+     */
+    public void findNearby(Class<?> type, IMoveable collideable, BiConsumer<IMoveable, IMoveable> nearbyConsumer) {
+        final TypeIndex typeIndex = typeIndexes.get(type);
+        if (typeIndex == null || typeIndex.cells.isEmpty()) {
+            return;
+        }
+
+        final long range = Math.max(1, (CollisionUtil.reach(collideable) + typeIndex.maxReach + cellSize - 1) / cellSize);
+        final int column = columnFor(collideable.getBoxX());
+        final int row = rowFor(collideable.getBoxY());
+        final int minColumn = (int) Math.max(0, column - range);
+        final int maxColumn = (int) Math.min(columns - 1, column + range);
+        final int minRow = (int) Math.max(0, row - range);
+        final int maxRow = (int) Math.min(rows - 1, row + range);
+
+        // Only a handful of cells are ever occupied, so walk those instead of the neighbourhood if that is cheaper
+        if ((long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1) > typeIndex.cells.size()) {
+            typeIndex.cells.forEach((cellIndex, members) -> {
+                final int cellColumn = cellIndex % columns;
+                final int cellRow = cellIndex / columns;
+                if (cellColumn >= minColumn && cellColumn <= maxColumn && cellRow >= minRow && cellRow <= maxRow) {
+                    members.forEach(member -> nearbyConsumer.accept(collideable, member));
+                }
+            });
+            return;
+        }
+
+        for (int cellRow = minRow; cellRow <= maxRow; cellRow++) {
+            for (int cellColumn = minColumn; cellColumn <= maxColumn; cellColumn++) {
+                final ArrayList<IMoveable> members = typeIndex.cells.get(cellRow * columns + cellColumn);
+                if (members != null) {
+                    members.forEach(member -> nearbyConsumer.accept(collideable, member));
+                }
+            }
+        }
+    }
+
+    private int columnFor(long x) {
+        return (int) Math.max(0, Math.min(columns - 1, Math.floorDiv(x - minX, (long) cellSize)));
+    }
+
+    private int rowFor(long y) {
+        return (int) Math.max(0, Math.min(rows - 1, Math.floorDiv(y - minY, (long) cellSize)));
+    }
+
+    /**
+     * Index of every collideable of one type.
+     */
+    private class TypeIndex {
+        private final IdentityHashMap<IMoveable, IndexedCollideable> indexedCollideables = new IdentityHashMap<>();
+        private final HashMap<Integer, ArrayList<IMoveable>> cells = new HashMap<>();
+        private long maxReach = 0;
+
+        private void insert(IndexedCollideable indexed) {
+            indexed.cellIndex = rowFor(indexed.y) * columns + columnFor(indexed.x);
+            cells.computeIfAbsent(indexed.cellIndex, key -> new ArrayList<>()).add(indexed.collideable);
+        }
+
+        private void remove(IndexedCollideable indexed) {
+            final ArrayList<IMoveable> members = cells.get(indexed.cellIndex);
+            // Moveables compare by value, so remove by identity to not take out a lookalike
+            members.removeIf(member -> member == indexed.collideable);
+            if (members.isEmpty()) {
+                cells.remove(indexed.cellIndex);
+            }
+        }
+    }
+
+    /**
+     * Collideable along with where it was when it was indexed.
+     */
+    private static class IndexedCollideable {
+        private final IMoveable collideable;
+        private long x;
+        private long y;
+        private long reach;
+        private int cellIndex;
+        private long lastSynchronization;
+
+        private IndexedCollideable(IMoveable aCollideable) {
+            collideable = aCollideable;
+            update();
+        }
+
+        private void update() {
+            x = collideable.getBoxX();
+            y = collideable.getBoxY();
+            reach = CollisionUtil.reach(collideable);
+        }
+    }
+}
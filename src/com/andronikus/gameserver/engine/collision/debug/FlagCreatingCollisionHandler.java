@@ -23,7 +23,7 @@ public class FlagCreatingCollisionHandler<MOVEABLE extends IMoveable> extends Co
     @Override
     protected boolean collisionRelevant(GameState state, Player player, MOVEABLE moveable) {
         return !player.isDead() && state.getDebugSettings().getPlayerCollisionFlags().stream().noneMatch(flag ->
-            flag.getSessionId().equalsIgnoreCase(player.getSessionId()) && flag.getCollisionId() == moveable.getMoveableId() &&
+            flag.getSessionSlot() == player.getSessionSlot() && flag.getCollisionId() == moveable.getMoveableId() &&
             flag.getCollisionType().equals(moveable.moveableTag())
         );
     }
@@ -34,7 +34,7 @@ public class FlagCreatingCollisionHandler<MOVEABLE extends IMoveable> extends Co
     @Override
     protected void handleCollision(GameState state, Player player, MOVEABLE moveable) {
         final PlayerCollisionFlag flag = new PlayerCollisionFlag();
-        flag.setSessionId(player.getSessionId());
+        flag.setSessionSlot(player.getSessionSlot());
         flag.setCollisionType(moveable.moveableTag());
         flag.setCollisionId(moveable.getMoveableId());
         flag.setGameStateVersion(state.getVersion());
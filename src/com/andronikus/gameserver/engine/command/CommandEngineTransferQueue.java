@@ -2,23 +2,27 @@ package com.andronikus.gameserver.engine.command;
 
 import com.andronikus.game.model.client.ClientCommand;
 import com.andronikus.gameserver.auth.Session;
+import com.andronikus.gameserver.engine.ScalableBalanceConstants;
+import com.andronikus.util.MpscRingBuffer;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Logger;
 
 /**
  * Queue that Commands are placed onto by an external connection. Queues get polled by a tick of the server engine.
+ * Commands that come in while too many are already waiting are turned away.
  *
  * @author Andronikus
  */
 public class CommandEngineTransferQueue {
 
     private static final Logger LOGGER = Logger.getLogger("CommandEngineTransferQueue");
-    private final ConcurrentLinkedQueue<EngineCommand> newCommands = new ConcurrentLinkedQueue<>();
-    private final ConcurrentLinkedQueue<EngineCommand> retiredCommands = new ConcurrentLinkedQueue<>();
+    private final MpscRingBuffer<EngineCommand> newCommands = new MpscRingBuffer<>(
+        ScalableBalanceConstants.COMMAND_QUEUE_CAPACITY, MpscRingBuffer.OverflowPolicy.REJECT
+    );
+    private final MpscRingBuffer<EngineCommand> retiredCommands = new MpscRingBuffer<>(
+        ScalableBalanceConstants.COMMAND_QUEUE_CAPACITY, MpscRingBuffer.OverflowPolicy.REJECT
+    );
 
     /**
      * Take a new command from the client.
@@ -35,7 +39,9 @@ public class CommandEngineTransferQueue {
         engineCommand.setSession(session);
         engineCommand.setCommandText(clientCommand.getCode());
         engineCommand.setCommandId(clientCommand.getCommandNumber());
-        newCommands.add(engineCommand);
+        if (!newCommands.offer(engineCommand)) {
+            LOGGER.warning("Too many commands are waiting. Turned away command " + clientCommand.getCommandNumber() + " from session " + session.getId() + ".");
+        }
     }
 
     /**
@@ -53,38 +59,28 @@ public class CommandEngineTransferQueue {
         engineCommand.setSession(session);
         engineCommand.setCommandText(clientCommand.getCode());
         engineCommand.setCommandId(clientCommand.getCommandNumber());
-        retiredCommands.add(engineCommand);
+        if (!retiredCommands.offer(engineCommand)) {
+            LOGGER.warning("Too many command retirements are waiting. Turned away retirement of command " + clientCommand.getCommandNumber() + " from session " + session.getId() + ".");
+        }
     }
 
     /**
-     * Get new commands to process.
+     * Move new commands to process into a list.
      *
-     * @return The new commands
+     * @param engineCommands The list, which is added to and not cleared
+     * @return The number of commands moved
      */
-    public List<EngineCommand> getNewCommands() {
-        final ArrayList<EngineCommand> engineCommands = new ArrayList<>();
-
-        for (Iterator<EngineCommand> iterator = newCommands.iterator(); iterator.hasNext();) {
-            newCommands.poll(); // Little something to ensure exhaustion
-            engineCommands.add(iterator.next());
-        }
-
-        return engineCommands;
+    public int drainNewCommands(List<EngineCommand> engineCommands) {
+        return newCommands.drainTo(engineCommands);
     }
 
     /**
-     * Get commands that can be retired from acking.
+     * Move commands that can be retired from acking into a list.
      *
-     * @return Retired commands
+     * @param engineCommands The list, which is added to and not cleared
+     * @return The number of commands moved
      */
-    public List<EngineCommand> getRetiredCommands() {
-        final ArrayList<EngineCommand> engineCommands = new ArrayList<>();
-
-        for (Iterator<EngineCommand> iterator = retiredCommands.iterator(); iterator.hasNext();) {
-            retiredCommands.poll(); // Little something to ensure exhaustion
-            engineCommands.add(iterator.next());
-        }
-
-        return engineCommands;
+    public int drainRetiredCommands(List<EngineCommand> engineCommands) {
+        return retiredCommands.drainTo(engineCommands);
     }
 }
@@ -19,7 +19,7 @@ public class EngineCommand {
     public boolean equals(Object otherObject) {
         return otherObject instanceof EngineCommand &&
             ((EngineCommand) otherObject).commandId == commandId &&
-            ((EngineCommand) otherObject).session.getId().equalsIgnoreCase(session.getId());
+            ((EngineCommand) otherObject).session.getSlot() == session.getSlot();
     }
 
     /**
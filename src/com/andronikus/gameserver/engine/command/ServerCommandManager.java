@@ -16,6 +16,8 @@ import com.andronikus.gameserver.engine.command.processor.EnableTickCommandProce
 import com.andronikus.gameserver.engine.command.processor.MoveCommandProcessor;
 import com.andronikus.gameserver.engine.command.processor.RespawnCommandProcessor;
 import com.andronikus.gameserver.engine.command.processor.SetAngleCommandProcessor;
+import com.andronikus.gameserver.engine.command.processor.SetBroadPhaseCommandProcessor;
+import com.andronikus.gameserver.engine.command.processor.SetParallelCollisionThresholdCommandProcessor;
 import com.andronikus.gameserver.engine.command.processor.SetVelocityCommandProcessor;
 import com.andronikus.gameserver.engine.command.processor.SpawnEntityCommandProcessor;
 import lombok.Getter;
@@ -43,6 +45,7 @@ public class ServerCommandManager {
     private final Map<String, AbstractCommandProcessor> commandProcessorMap;
     private final List<EngineCommand> commandProcessingQueue = new ArrayList<>();
     private final List<EngineCommand> acknowledgedCommands = new ArrayList<>();
+    private final List<EngineCommand> transferredCommands = new ArrayList<>();
 
     /**
      * Instantiate a manager for commands sent to the server.
@@ -66,6 +69,8 @@ public class ServerCommandManager {
         commandProcessorMap.put("MOVE", new MoveCommandProcessor(this));
         commandProcessorMap.put("SETVEL", new SetVelocityCommandProcessor(this));
         commandProcessorMap.put("SETANGLE", new SetAngleCommandProcessor(this));
+        commandProcessorMap.put("BROADPHASE", new SetBroadPhaseCommandProcessor(this));
+        commandProcessorMap.put("PARALLELCOLLISION", new SetParallelCollisionThresholdCommandProcessor(this));
     }
 
     /**
@@ -80,22 +85,26 @@ public class ServerCommandManager {
         }
 
         // Cleanup old commands
-        final List<EngineCommand> retiredCommands = queue.getRetiredCommands();
-        acknowledgedCommands.removeIf(retiredCommands::contains);
+        transferredCommands.clear();
+        queue.drainRetiredCommands(transferredCommands);
+        acknowledgedCommands.removeIf(transferredCommands::contains);
 
         // Take new commands
-        final List<EngineCommand> newCommands = queue.getNewCommands().stream().filter(newCommand ->
-            !commandProcessingQueue.contains(newCommand) && !acknowledgedCommands.contains(newCommand)
-        ).collect(Collectors.toList());
-        commandProcessingQueue.addAll(newCommands);
-        acknowledgedCommands.addAll(newCommands);
+        transferredCommands.clear();
+        queue.drainNewCommands(transferredCommands);
+        transferredCommands.forEach(newCommand -> {
+            if (!commandProcessingQueue.contains(newCommand) && !acknowledgedCommands.contains(newCommand)) {
+                commandProcessingQueue.add(newCommand);
+                acknowledgedCommands.add(newCommand);
+            }
+        });
 
         // For the acknowledged commands, let the clients know
         gameState.getDebugSettings().getCommandAcknowledgements().clear();
         acknowledgedCommands.forEach(acknowledgedCommand -> {
             final CommandAcknowledgement gameStateAck = new CommandAcknowledgement();
             gameStateAck.setCommandId(acknowledgedCommand.getCommandId());
-            gameStateAck.setSessionId(acknowledgedCommand.getSession().getId());
+            gameStateAck.setSessionSlot(acknowledgedCommand.getSession().getSlot());
             gameState.getDebugSettings().getCommandAcknowledgements().add(gameStateAck);
         });
     }
@@ -1,11 +1,6 @@
 package com.andronikus.gameserver.engine.command.processor;
 
-import com.andronikus.game.model.server.Asteroid;
 import com.andronikus.game.model.server.GameState;
-import com.andronikus.game.model.server.Laser;
-import com.andronikus.game.model.server.MicroBlackHole;
-import com.andronikus.game.model.server.Portal;
-import com.andronikus.game.model.server.Snake;
 import com.andronikus.gameserver.engine.command.CommandInputFailException;
 import com.andronikus.gameserver.engine.command.EngineCommand;
 import com.andronikus.gameserver.engine.command.ServerCommandManager;
@@ -27,44 +22,29 @@ public class DestroyCommandProcessor extends AbstractCommandProcessor {
         super(aCommandManager);
         entityTypeToDestroyerMap = new HashMap<>();
         entityTypeToDestroyerMap.put("ASTEROID", (gameState, id) -> {
-            final Asteroid asteroid = gameState.getAsteroids().stream().filter(asteroid1 -> asteroid1.getId() == id).findFirst().orElse(null);
-            if (asteroid == null) {
+            if (gameState.getAsteroidRegistry().remove(id) == null) {
                 throw new CommandInputFailException("No asteroid for ID " + id + ".");
             }
-            gameState.getAsteroids().remove(asteroid);
-            gameState.getCollideables().remove(asteroid);
         });
         entityTypeToDestroyerMap.put("LASER", (gameState, id) -> {
-            final Laser laser = gameState.getLasers().stream().filter(laser1 -> laser1.getId() == id).findFirst().orElse(null);
-            if (laser == null) {
+            if (gameState.getLaserRegistry().remove(id) == null) {
                 throw new CommandInputFailException("No laser for ID " + id + ".");
             }
-            gameState.getLasers().remove(laser);
-            gameState.getCollideables().remove(laser);
         });
         entityTypeToDestroyerMap.put("BLACKHOLE", (gameState, id) -> {
-            final MicroBlackHole blackHole = gameState.getBlackHoles().stream().filter(blackHole1 -> blackHole1.getId() == id).findFirst().orElse(null);
-            if (blackHole == null) {
+            if (gameState.getBlackHoleRegistry().remove(id) == null) {
                 throw new CommandInputFailException("No black hole for ID " + id + ".");
             }
-            gameState.getBlackHoles().remove(blackHole);
-            gameState.getCollideables().remove(blackHole);
         });
         entityTypeToDestroyerMap.put("PORTAL", (gameState, id) -> {
-            final Portal portal = gameState.getPortals().stream().filter(portal1 -> portal1.getId() == id).findFirst().orElse(null);
-            if (portal == null) {
+            if (gameState.getPortalRegistry().remove(id) == null) {
                 throw new CommandInputFailException("No portal for ID " + id + ".");
             }
-            gameState.getPortals().remove(portal);
-            gameState.getCollideables().remove(portal);
         });
         entityTypeToDestroyerMap.put("SNAKE", (gameState, id) -> {
-            final Snake snake = gameState.getSnakes().stream().filter(snake1 -> snake1.getId() == id).findFirst().orElse(null);
-            if (snake == null) {
+            if (gameState.getSnakeRegistry().remove(id) == null) {
                 throw new CommandInputFailException("No snake for ID " + id + ".");
             }
-            gameState.getSnakes().remove(snake);
-            gameState.getCollideables().remove(snake);
         });
     }
 
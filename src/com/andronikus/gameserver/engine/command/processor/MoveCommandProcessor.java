@@ -26,15 +26,15 @@ public class MoveCommandProcessor extends AbstractCommandProcessor {
 
         entityTypeToFinderMap = new HashMap<>();
         entityTypeToFinderMap.put("ASTEROID", (gameState, id) ->
-            gameState.getAsteroids().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+            gameState.getAsteroidRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("LASER", (gameState, id) ->
-            gameState.getLasers().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+            gameState.getLaserRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("BLACKHOLE", (gameState, id) ->
-            gameState.getBlackHoles().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+            gameState.getBlackHoleRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("PLAYER", (gameState, id) -> {
@@ -45,11 +45,11 @@ public class MoveCommandProcessor extends AbstractCommandProcessor {
         });
 
         entityTypeToFinderMap.put("PORTAL", (gameState, id) ->
-            gameState.getPortals().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+            gameState.getPortalRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("SNAKE", (gameState, id) ->
-            gameState.getSnakes().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+            gameState.getSnakeRegistry().get(id)
         );
     }
 
@@ -103,11 +103,11 @@ public class MoveCommandProcessor extends AbstractCommandProcessor {
             targetX = x;
             targetY = y;
         } else if (positionType == PositionType.RELATIVE) {
-            final String sessionId = command.getSession().getId();
+            final int sessionSlot = command.getSession().getSlot();
             final Player player = state
                 .getPlayers()
                 .stream()
-                .filter(candidatePlayer -> candidatePlayer.getSessionId().equals(sessionId))
+                .filter(candidatePlayer -> candidatePlayer.getSessionSlot() == sessionSlot)
                 .findFirst()
                 .get();
 
@@ -29,7 +29,7 @@ public class RespawnCommandProcessor extends AbstractCommandProcessor {
     public void doProcess(EngineCommand command, GameState state, List<String> parameters) {
         final Player player = getPlayerFromParameters(command, state, parameters);
         if (player != null) {
-            LOGGER.info("Respawning player with session ID " + player.getSessionId() + ".");
+            LOGGER.info("Respawning player with session slot " + player.getSessionSlot() + ".");
             getCommandManager().getEngine().respawnPlayer(player);
         }
     }
@@ -0,0 +1,44 @@
+package com.andronikus.gameserver.engine.command.processor;
+
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.gameserver.engine.command.CommandInputFailException;
+import com.andronikus.gameserver.engine.command.EngineCommand;
+import com.andronikus.gameserver.engine.command.ServerCommandManager;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Command processor for the set broad phase command.
+ *
+ * @author Andronikus
+ */
+public class SetBroadPhaseCommandProcessor extends AbstractCommandProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger("SetBroadPhaseCommandProcessor");
+
+    /**
+     * Instantiate a command processor for the set broad phase command.
+     *
+     * @param aCommandManager The command manager
+     */
+    public SetBroadPhaseCommandProcessor(ServerCommandManager aCommandManager) {
+        super(aCommandManager);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void doProcess(EngineCommand command, GameState state, List<String> parameters) {
+        if (parameters.size() < 1) {
+            throw new CommandInputFailException("Command requires 1 parameter.");
+        }
+
+        final String broadPhaseName = parameters.get(0).toUpperCase();
+        if (!getCommandManager().getEngine().getCollisionManager().selectBroadPhase(broadPhaseName)) {
+            throw new CommandInputFailException("Parameter value \"" + parameters.get(0) + "\" is not a broad phase.");
+        }
+        LOGGER.info("Collision broad phase set to " + broadPhaseName + ".");
+    }
+}
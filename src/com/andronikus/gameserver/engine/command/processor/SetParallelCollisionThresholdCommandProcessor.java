@@ -0,0 +1,50 @@
+package com.andronikus.gameserver.engine.command.processor;
+
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.gameserver.engine.command.CommandInputFailException;
+import com.andronikus.gameserver.engine.command.EngineCommand;
+import com.andronikus.gameserver.engine.command.ServerCommandManager;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Command processor for the set parallel collision threshold command.
+ *
+ * @author Andronikus
+ */
+public class SetParallelCollisionThresholdCommandProcessor extends AbstractCommandProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger("SetParallelCollisionThresholdCommandProcessor");
+
+    /**
+     * Instantiate a command processor for the set parallel collision threshold command.
+     *
+     * @param aCommandManager The command manager
+     */
+    public SetParallelCollisionThresholdCommandProcessor(ServerCommandManager aCommandManager) {
+        super(aCommandManager);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void doProcess(EngineCommand command, GameState state, List<String> parameters) {
+        int threshold;
+        try {
+            threshold = Integer.parseInt(parameters.get(0));
+        } catch (NumberFormatException exception) {
+            throw new CommandInputFailException("Parameter value \"" + parameters.get(0) + "\" is not an integer.");
+        } catch (IndexOutOfBoundsException exception) {
+            throw new CommandInputFailException("Command requires 1 parameter.");
+        }
+
+        if (threshold < 0) {
+            throw new CommandInputFailException("Parameter value \"" + parameters.get(0) + "\" is negative.");
+        }
+
+        getCommandManager().getEngine().getCollisionManager().setParallelThreshold(threshold);
+        LOGGER.info("Parallel collision threshold set to " + threshold + ".");
+    }
+}
@@ -25,15 +25,15 @@ public class SetVelocityCommandProcessor extends AbstractCommandProcessor {
 
         entityTypeToFinderMap = new HashMap<>();
         entityTypeToFinderMap.put("ASTEROID", (gameState, id) ->
-                gameState.getAsteroids().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+                gameState.getAsteroidRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("LASER", (gameState, id) ->
-                gameState.getLasers().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+                gameState.getLaserRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("BLACKHOLE", (gameState, id) ->
-                gameState.getBlackHoles().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+                gameState.getBlackHoleRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("PLAYER", (gameState, id) -> {
@@ -44,11 +44,11 @@ public class SetVelocityCommandProcessor extends AbstractCommandProcessor {
         });
 
         entityTypeToFinderMap.put("PORTAL", (gameState, id) ->
-                gameState.getPortals().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+                gameState.getPortalRegistry().get(id)
         );
 
         entityTypeToFinderMap.put("SNAKE", (gameState, id) ->
-                gameState.getSnakes().stream().filter(entity -> entity.getId() == id).findFirst().orElse(null)
+                gameState.getSnakeRegistry().get(id)
         );
     }
 
@@ -33,72 +33,54 @@ public class SpawnEntityCommandProcessor extends AbstractCommandProcessor {
         super(aCommandManager);
         entityTypeToSpawnerMap = new HashMap<>();
         entityTypeToSpawnerMap.put("SNAKE", information -> {
-            long id = allocateNewId(information.command, information.state);
             final Snake snake = new Snake();
             snake.setXVelocity(information.xVelocity);
             snake.setYVelocity(information.yVelocity);
             snake.setX(information.x + information.positionAnchor.x);
             snake.setY(information.y + information.positionAnchor.y);
-            snake.setId(id); // TODO calculate angle
-            snake.setAngle(0);
-            information.state.getSnakes().add(snake);
-            information.state.getCollideables().add(snake);
+            snake.setAngle(0); // TODO calculate angle
+            logAllocatedId(information.command, information.state.getSnakeRegistry().add(snake));
         });
         entityTypeToSpawnerMap.put("PORTAL", information -> {
-            long id = allocateNewId(information.command, information.state);
             final Portal portal = new Portal();
             portal.setX(information.x + information.positionAnchor.x);
             portal.setY(information.y + information.positionAnchor.y);
-            portal.setId(id);
-            information.state.getPortals().add(portal);
-            information.state.getCollideables().add(portal);
+            logAllocatedId(information.command, information.state.getPortalRegistry().add(portal));
         });
         entityTypeToSpawnerMap.put("BLACKHOLE", information -> {
-            long id = allocateNewId(information.command, information.state);
             final MicroBlackHole blackHole = new MicroBlackHole();
             blackHole.setX(information.x + information.positionAnchor.x);
             blackHole.setY(information.y + information.positionAnchor.y);
-            blackHole.setId(id);
-            information.state.getBlackHoles().add(blackHole);
-            information.state.getCollideables().add(blackHole);
+            logAllocatedId(information.command, information.state.getBlackHoleRegistry().add(blackHole));
         });
         entityTypeToSpawnerMap.put("LASER", information -> {
-            long id = allocateNewId(information.command, information.state);
             final Laser laser = new Laser();
             laser.setXVelocity(information.xVelocity);
             laser.setYVelocity(information.yVelocity);
             laser.setX(information.x + information.positionAnchor.x);
             laser.setY(information.y + information.positionAnchor.y);
-            laser.setId(id); // TODO calculate angle
-            laser.setAngle(0);
-            information.state.getLasers().add(laser);
-            information.state.getCollideables().add(laser);
+            laser.setAngle(0); // TODO calculate angle
+            logAllocatedId(information.command, information.state.getLaserRegistry().add(laser));
         });
         entityTypeToSpawnerMap.put("ASTEROID0", information -> {
-            long id = allocateNewId(information.command, information.state);
             final Asteroid asteroid = new Asteroid();
             asteroid.setXVelocity(information.xVelocity);
             asteroid.setYVelocity(information.yVelocity);
             asteroid.setX(information.x + information.positionAnchor.x);
             asteroid.setY(information.y + information.positionAnchor.y);
-            asteroid.setId(id); // TODO calculate angle
-            asteroid.setAngle(0);
+            asteroid.setAngle(0); // TODO calculate angle
             asteroid.setSize(0);
-            information.state.getAsteroids().add(asteroid);
-            information.state.getCollideables().add(asteroid);
+            logAllocatedId(information.command, information.state.getAsteroidRegistry().add(asteroid));
         }); // Small asteroid
         entityTypeToSpawnerMap.put("ASTEROID1", information -> {
-            long id = allocateNewId(information.command, information.state);
             final Asteroid asteroid = new Asteroid();
             asteroid.setXVelocity(information.xVelocity);
             asteroid.setYVelocity(information.yVelocity);
             asteroid.setX(information.x + information.positionAnchor.x);
             asteroid.setY(information.y + information.positionAnchor.y);
-            asteroid.setId(id); // TODO calculate angle
-            asteroid.setAngle(0);
+            asteroid.setAngle(0); // TODO calculate angle
             asteroid.setSize(1);
-            information.state.getAsteroids().add(asteroid);
-            information.state.getCollideables().add(asteroid);
+            logAllocatedId(information.command, information.state.getAsteroidRegistry().add(asteroid));
         }); // Big asteroid
 
         entityTypeToPositionFinderMap = new HashMap<>();
@@ -111,35 +93,35 @@ public class SpawnEntityCommandProcessor extends AbstractCommandProcessor {
             return new RelativePositionAnchor(player.getX(), player.getY());
         });
         entityTypeToPositionFinderMap.put("SNAKE", (state, id) -> {
-            final Snake snake = state.getSnakes().stream().filter(snake0 -> snake0.getId() == id).findFirst().orElse(null);
+            final Snake snake = state.getSnakeRegistry().get(id);
             if (snake == null) {
                 return null;
             }
             return new RelativePositionAnchor(snake.getX(), snake.getY());
         });
         entityTypeToPositionFinderMap.put("PORTAL", (state, id) -> {
-            final Portal portal = state.getPortals().stream().filter(portal0 -> portal0.getId() == id).findFirst().orElse(null);
+            final Portal portal = state.getPortalRegistry().get(id);
             if (portal == null) {
                 return null;
             }
             return new RelativePositionAnchor(portal.getX(), portal.getY());
         });
         entityTypeToPositionFinderMap.put("BLACKHOLE", (state, id) -> {
-            final MicroBlackHole blackHole = state.getBlackHoles().stream().filter(blackHole0 -> blackHole0.getId() == id).findFirst().orElse(null);
+            final MicroBlackHole blackHole = state.getBlackHoleRegistry().get(id);
             if (blackHole == null) {
                 return null;
             }
             return new RelativePositionAnchor(blackHole.getX(), blackHole.getY());
         });
         entityTypeToPositionFinderMap.put("LASER", (state, id) -> {
-            final Laser laser = state.getLasers().stream().filter(laser0 -> laser0.getId() == id).findFirst().orElse(null);
+            final Laser laser = state.getLaserRegistry().get(id);
             if (laser == null) {
                 return null;
             }
             return new RelativePositionAnchor(laser.getX(), laser.getY());
         });
         entityTypeToPositionFinderMap.put("ASTEROID", (state, id) -> {
-            final Asteroid asteroid = state.getAsteroids().stream().filter(asteroid0 -> asteroid0.getId() == id).findFirst().orElse(null);
+            final Asteroid asteroid = state.getAsteroidRegistry().get(id);
             if (asteroid == null) {
                 return null;
             }
@@ -244,7 +226,7 @@ public class SpawnEntityCommandProcessor extends AbstractCommandProcessor {
             } else {
                 final Player player = state.getPlayers()
                     .stream()
-                    .filter(statePlayer -> statePlayer.getSessionId().equals(command.getSession().getId()))
+                    .filter(statePlayer -> statePlayer.getSessionSlot() == command.getSession().getSlot())
                     .findFirst()
                     .get(); // TODO, we sure this can't throw an NPE
 
@@ -264,17 +246,13 @@ public class SpawnEntityCommandProcessor extends AbstractCommandProcessor {
     }
 
     /**
-     * Allocate an ID for the entity to be generated
+     * Log the ID the generated entity was given.
      *
      * @param command the command
-     * @param state The state of the game
-     * @return The ID
+     * @param id The ID
      */
-    private long allocateNewId(EngineCommand command, GameState state) {
-        final long nextId = state.getNextSpawnId();
-        state.setNextSpawnId(nextId + 1);
-        LOGGER.info("Allocated entity ID " + nextId + " for command " + command.getId() + ".");
-        return nextId;
+    private void logAllocatedId(EngineCommand command, long id) {
+        LOGGER.info("Allocated entity ID " + id + " for command " + command.getId() + ".");
     }
 
     private class RelativePositionAnchor {
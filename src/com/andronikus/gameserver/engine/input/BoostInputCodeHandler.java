@@ -3,8 +3,7 @@ package com.andronikus.gameserver.engine.input;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.gameserver.auth.Session;
-
-import java.util.List;
+import com.andronikus.gameserver.engine.ClientInput;
 
 /**
  * Input handler for boost-related inputs.
@@ -17,8 +16,8 @@ public class BoostInputCodeHandler implements IInputCodeHandler {
      * {@inheritDoc}
      */
     @Override
-    public void handleInput(GameState state, Player player, String inputCode, List<String> allInputs, Session session) {
-        if (allInputs.stream().anyMatch(input -> input.equals("BOOSTEND"))) {
+    public void handleInput(GameState state, Player player, ClientInput input, int allInputCodes, Session session) {
+        if (InputCode.BOOSTEND.isIn(allInputCodes)) {
             player.setBoosting(false);
         } else {
             player.setBoosting(player.getSpeed() > 0 && player.getBoostingCharge() > 0);
@@ -3,8 +3,7 @@ package com.andronikus.gameserver.engine.input;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.gameserver.auth.Session;
-
-import java.util.List;
+import com.andronikus.gameserver.engine.ClientInput;
 
 /**
  * Handler for an input code.
@@ -18,11 +17,11 @@ public interface IInputCodeHandler {
      *
      * @param state The state of the game to change
      * @param player The player who gave the input
-     * @param inputCode The input code
-     * @param allInputs All of the other inputs in the packet a player sent
+     * @param input The input
+     * @param allInputCodes Bit for each input code in the packet a player sent, by {@link InputCode#mask()}
      * @param session The player's session
      */
-    void handleInput(GameState state, Player player, String inputCode, List<String> allInputs, Session session);
+    void handleInput(GameState state, Player player, ClientInput input, int allInputCodes, Session session);
 
     /**
      * Whether or not the handler requires a player be given to operate.
@@ -0,0 +1,113 @@
+package com.andronikus.gameserver.engine.input;
+
+import java.util.HashMap;
+
+/**
+ * Input codes a client can send. Inputs are turned into one of these when they arrive, so the engine works with the
+ * ordinal and a bit for each code rather than with text.
+ *
+ * Most codes set some state of the player, so sending one again in the same tick changes nothing. The rest are events,
+ * each of which counts on its own.
+ *
+ * @author Andronikus
+ */
+public enum InputCode {
+    JOINGAME(false),
+    THRUST(false),
+    THRUSTEND(false),
+    RTHRUST(false),
+    LROTATE(false),
+    RROTATE(false),
+    BOOST(false),
+    BOOSTEND(false),
+    BREAK(false),
+    SHOOT(true);
+
+    private static final InputCode[] CODES = values();
+    private static final HashMap<String, InputCode> CODES_BY_TEXT = new HashMap<>();
+
+    static {
+        for (InputCode code : CODES) {
+            CODES_BY_TEXT.put(code.name(), code);
+        }
+    }
+
+    private final boolean event;
+
+    /**
+     * Instantiate an input code.
+     *
+     * @param anEvent Whether each input with the code counts on its own
+     */
+    InputCode(boolean anEvent) {
+        event = anEvent;
+    }
+
+    /**
+     * Get whether each input with the code counts on its own, rather than setting state that a repeat of the input
+     * leaves as it is.
+     *
+     * @return True if the code is an event
+     */
+    public boolean isEvent() {
+        return event;
+    }
+
+    /**
+     * Get the bit for the code in a set of codes.
+     *
+     * @return The bit
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Check if a set of codes has the code in it.
+     *
+     * @param codes The set of codes, with a bit for each code
+     * @return True if the code is in the set
+     */
+    public boolean isIn(int codes) {
+        return (codes & mask()) != 0;
+    }
+
+    /**
+     * Get the number of input codes.
+     *
+     * @return The number of codes
+     */
+    public static int count() {
+        return CODES.length;
+    }
+
+    /**
+     * Get the code of an input, leaving off any parameters after the first space.
+     *
+     * @param inputText The input as the client sent it
+     * @return The code, or null if the input has no known code
+     */
+    public static InputCode forText(String inputText) {
+        final int indexOfSpace = inputText.indexOf(' ');
+        return CODES_BY_TEXT.get(indexOfSpace == -1 ? inputText : inputText.substring(0, indexOfSpace));
+    }
+
+    /**
+     * Get the numeric parameter of an input, which is whatever follows the first space.
+     *
+     * @param inputText The input as the client sent it
+     * @return The parameter, or 0 if the input does not have a numeric one
+     */
+    public static long argumentForText(String inputText) {
+        final int indexOfSpace = inputText.indexOf(' ');
+        if (indexOfSpace == -1) {
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(inputText.substring(indexOfSpace + 1).trim());
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+}
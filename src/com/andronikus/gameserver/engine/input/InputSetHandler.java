@@ -5,11 +5,11 @@ import com.andronikus.game.model.server.Player;
 import com.andronikus.gameserver.auth.Session;
 import com.andronikus.gameserver.engine.ClientInput;
 import com.andronikus.gameserver.engine.ClientInputSet;
+import com.andronikus.gameserver.engine.player.SessionPlayerIndex;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Handler for a {@link ClientInputSet} that mutates a {@link GameState} based on the input.
@@ -18,42 +18,50 @@ import java.util.stream.Collectors;
  */
 public class InputSetHandler {
 
-    // Note, that a hash map can be read concurrently, so long as it won't be written to.
-    private final HashMap<String, IInputCodeHandler> handlerMap;
+    // Indexed by the ordinal of the input code, null where a code has no handler
+    private final IInputCodeHandler[] handlers = new IInputCodeHandler[InputCode.count()];
+    private final SessionPlayerIndex playerIndex;
 
     /**
      * Instantiate handler for a {@link ClientInputSet}.
+     *
+     * @param aPlayerIndex Index of the player each session controls
      */
-    public InputSetHandler() {
-        this(defaultHandlerMap());
+    public InputSetHandler(SessionPlayerIndex aPlayerIndex) {
+        this(defaultHandlerMap(aPlayerIndex), aPlayerIndex);
     }
 
     /**
      * Instantiate handler for a {@link ClientInputSet}.
      *
      * @param aHandlerMap Map of input codes to the {@link IInputCodeHandler} implementation that will handle it.
+     * @param aPlayerIndex Index of the player each session controls
      */
-    public InputSetHandler(HashMap<String, IInputCodeHandler> aHandlerMap) {
-        handlerMap = aHandlerMap;
+    public InputSetHandler(EnumMap<InputCode, IInputCodeHandler> aHandlerMap, SessionPlayerIndex aPlayerIndex) {
+        for (Map.Entry<InputCode, IInputCodeHandler> entry : aHandlerMap.entrySet()) {
+            handlers[entry.getKey().ordinal()] = entry.getValue();
+        }
+        playerIndex = aPlayerIndex;
     }
 
     /**
      * Default map of input codes to their handler.
      *
+     * @param playerIndex Index of the player each session controls
      * @return The map of code to handler
      */
-    private static HashMap<String, IInputCodeHandler> defaultHandlerMap() {
-        final HashMap<String, IInputCodeHandler> handler = new HashMap<>();
-        handler.put("JOINGAME", new JoinGameInputCodeHandler());
-        handler.put("THRUST", new ThrustInputCodeHandler());
-        handler.put("THRUSTEND", new ThrustEndInputCodeHandler());
-        handler.put("RTHRUST", new ReverseThrustInputCodeHandler());
-        handler.put("LROTATE", new LeftRotateInputCodeHandler());
-        handler.put("RROTATE", new RightRotateInputCodeHandler());
-        handler.put("BOOST", new BoostInputCodeHandler());
-        handler.put("BOOSTEND", new BoostInputCodeHandler());
-        handler.put("BREAK", new BreakInputCodeHandler());
-        handler.put("SHOOT", new ShootInputCodeHandler());
+    private static EnumMap<InputCode, IInputCodeHandler> defaultHandlerMap(SessionPlayerIndex playerIndex) {
+        final EnumMap<InputCode, IInputCodeHandler> handler = new EnumMap<>(InputCode.class);
+        handler.put(InputCode.JOINGAME, new JoinGameInputCodeHandler(playerIndex));
+        handler.put(InputCode.THRUST, new ThrustInputCodeHandler());
+        handler.put(InputCode.THRUSTEND, new ThrustEndInputCodeHandler());
+        handler.put(InputCode.RTHRUST, new ReverseThrustInputCodeHandler());
+        handler.put(InputCode.LROTATE, new LeftRotateInputCodeHandler());
+        handler.put(InputCode.RROTATE, new RightRotateInputCodeHandler());
+        handler.put(InputCode.BOOST, new BoostInputCodeHandler());
+        handler.put(InputCode.BOOSTEND, new BoostInputCodeHandler());
+        handler.put(InputCode.BREAK, new BreakInputCodeHandler());
+        handler.put(InputCode.SHOOT, new ShootInputCodeHandler());
         return handler;
     }
 
@@ -65,55 +73,27 @@ public class InputSetHandler {
      */
     public void putInputSetOnGameState(ClientInputSet inputSet, GameState gameState) {
         final Session session = inputSet.getSession();
-        final Player player = playerForSession(gameState, session.getId());
+        Player player = playerIndex.get(gameState, session.getSlot());
 
-        final ArrayList<String> allInputCodes = inputSet.getInputs().stream().map(ClientInput::getCode).collect(Collectors.toCollection(ArrayList::new));
-        inputSet.getInputs().forEach(input -> {
-            if (input != null && input.getCode().length() > 0) {
-                final String noParameterInput = inputCodeForFullInput(input.getCode());
-                final IInputCodeHandler handler = handlerMap.get(noParameterInput);
+        final List<ClientInput> inputs = inputSet.getInputs();
+        for (int index = 0; index < inputs.size(); index++) {
+            final ClientInput input = inputs.get(index);
+            if (input == null || input.getCode() == null) {
+                continue;
+            }
 
-                if (handler != null) {
-                    if (!handler.requiresPlayer() ||
-                        (player != null && (!handler.playerMustBeAlive()) || !player.isDead())) {
-                        handler.handleInput(gameState, player, input.getCode(), allInputCodes, session);
+            final IInputCodeHandler handler = handlers[input.getCode().ordinal()];
+            if (handler != null) {
+                if (!handler.requiresPlayer() ||
+                    (player != null && (!handler.playerMustBeAlive() || !player.isDead()))) {
+                    handler.handleInput(gameState, player, input, inputSet.getCodes(), session);
+
+                    // A handler that runs without a player may have just added one, like joining the game does
+                    if (!handler.requiresPlayer()) {
+                        player = playerIndex.get(gameState, session.getSlot());
                     }
                 }
             }
-        });
-    }
-
-    /**
-     * Get a {@link Player} from session information.
-     *
-     * @param gameState The {@link GameState} to find players on
-     * @param sessionId The session identifier that a player will be tagged with
-     * @return The player, null if it does not exist
-     */
-    private Player playerForSession(GameState gameState, String sessionId) {
-        final Optional<Player> optionalPlayer = gameState.getPlayers().stream().filter(
-            player -> player.getSessionId().equalsIgnoreCase(sessionId)
-        ).findFirst();
-
-        Player player = null;
-        if (optionalPlayer.isPresent()) {
-            player = optionalPlayer.get();
-        }
-        return player;
-    }
-
-    /**
-     * Get the input code for a full input. That is, the input keyword, without manual parameters denoted by a space.
-     *
-     * @param fullInputCode The entire input code, parameters and all
-     * @return The input code without parameters
-     */
-    private static String inputCodeForFullInput(String fullInputCode) {
-        final int indexOfSpace = fullInputCode.indexOf(" ");
-        if (indexOfSpace == -1) {
-            return fullInputCode;
         }
-
-        return fullInputCode.substring(0, indexOfSpace);
     }
 }
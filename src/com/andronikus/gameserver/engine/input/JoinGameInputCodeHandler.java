@@ -3,8 +3,8 @@ package com.andronikus.gameserver.engine.input;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.gameserver.auth.Session;
-
-import java.util.List;
+import com.andronikus.gameserver.engine.ClientInput;
+import com.andronikus.gameserver.engine.player.SessionPlayerIndex;
 
 /**
  * Input handler for the input to join the game.
@@ -13,20 +13,31 @@ import java.util.List;
  */
 public class JoinGameInputCodeHandler implements IInputCodeHandler {
 
+    private final SessionPlayerIndex playerIndex;
+
+    /**
+     * Instantiate input handler for the input to join the game.
+     *
+     * @param aPlayerIndex Index of the player each session controls, which the new player is added to
+     */
+    public JoinGameInputCodeHandler(SessionPlayerIndex aPlayerIndex) {
+        playerIndex = aPlayerIndex;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public void handleInput(GameState state, Player player, String inputCode, List<String> allInputCodes, Session session) {
+    public void handleInput(GameState state, Player player, ClientInput input, int allInputCodes, Session session) {
         // Revalidate that there is no player (incase client multiple JOINGAME commands appeared in one client request)
-        if (player == null && playerStillDoesNotExist(state, session.getId())) {
+        if (player == null && playerIndex.get(state, session.getSlot()) == null) {
             final Player newPlayer = new Player();
             // TODO Choose a better position
             newPlayer.setX(0);
             newPlayer.setY(0);
-            newPlayer.setSessionId(session.getId());
-            state.getPlayers().add(newPlayer);
-            state.getCollideables().add(newPlayer);
+            newPlayer.setSessionSlot(session.getSlot());
+            state.getPlayerRegistry().add(newPlayer);
+            playerIndex.add(newPlayer);
         }
     }
 
@@ -38,19 +49,6 @@ public class JoinGameInputCodeHandler implements IInputCodeHandler {
         return false;
     }
 
-    /**
-     * Ensure, before adding the player, that this player really does not exist.
-     *
-     * @param state The state of the game to search
-     * @param sessionId The session ID
-     * @return True if the player still is not in the game state
-     */
-    private boolean playerStillDoesNotExist(GameState state, String sessionId) {
-        return state.getPlayers().stream().filter(
-            player -> player.getSessionId().equalsIgnoreCase(sessionId)
-        ).findFirst().isEmpty();
-    }
-
     /**
      * {@inheritDoc}
      */
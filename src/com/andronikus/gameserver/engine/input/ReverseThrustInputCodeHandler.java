@@ -4,8 +4,7 @@ import com.andronikus.gameserver.engine.ScalableBalanceConstants;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.gameserver.auth.Session;
-
-import java.util.List;
+import com.andronikus.gameserver.engine.ClientInput;
 
 /**
  * Handle command for when the client has requested that their player move backward.
@@ -18,7 +17,7 @@ public class ReverseThrustInputCodeHandler implements IInputCodeHandler {
      * {@inheritDoc}
      */
     @Override
-    public void handleInput(GameState state, Player player, String inputCode, List<String> allInputCodes, Session session) {
+    public void handleInput(GameState state, Player player, ClientInput input, int allInputCodes, Session session) {
         player.setAcceleration(ScalableBalanceConstants.REVERSE_THRUST_ACCELERATION);
         player.setBoosting(false);
         player.setThrusting(false);
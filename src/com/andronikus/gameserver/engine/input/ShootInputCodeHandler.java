@@ -4,10 +4,9 @@ import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Laser;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.gameserver.auth.Session;
+import com.andronikus.gameserver.engine.ClientInput;
 import com.andronikus.gameserver.engine.ScalableBalanceConstants;
 
-import java.util.List;
-
 /**
  * Handle command for when a client has requested that their player shoot a laser.
  *
@@ -19,7 +18,7 @@ public class ShootInputCodeHandler implements IInputCodeHandler {
      * {@inheritDoc}
      */
     @Override
-    public void handleInput(GameState state, Player player, String inputCode, List<String> allInputs, Session session) {
+    public void handleInput(GameState state, Player player, ClientInput input, int allInputCodes, Session session) {
         if (player.isBoosting() || player.getLaserCharges() <= 0 || player.getCollidedPortalId() != null) {
             return;
         }
@@ -28,17 +27,12 @@ public class ShootInputCodeHandler implements IInputCodeHandler {
 
         laser.setX(player.getX());
         laser.setY(player.getY());
-        laser.setLoyalty(player.getSessionId());
+        laser.setLoyalty(player.getSessionSlot());
         laser.setXVelocity((long)(Math.cos(player.getAngle()) * ScalableBalanceConstants.LASER_SPEED));
         laser.setYVelocity((long)(Math.sin(player.getAngle()) * ScalableBalanceConstants.LASER_SPEED));
         laser.setAngle(player.getAngle());
 
-        final long id = state.getNextLaserId();
-        state.setNextLaserId(id + 1);
-        laser.setId(id);
-
-        state.getLasers().add(laser);
-        state.getCollideables().add(laser);
+        state.getLaserRegistry().add(laser);
         player.setLaserCharges(player.getLaserCharges() - 1);
     }
 
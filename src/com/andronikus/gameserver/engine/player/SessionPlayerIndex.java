@@ -0,0 +1,61 @@
+package com.andronikus.gameserver.engine.player;
+
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Player;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Index of the player each session controls, kept as the player's ID so that a player removed from the game state is
+ * never handed out again. Sessions are looked up by their slot.
+ *
+ * @author Andronikus
+ */
+public class SessionPlayerIndex {
+
+    private final HashMap<Integer, Long> playerIdsBySession = new HashMap<>();
+    private final ConcurrentLinkedQueue<Integer> endedSessions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Get the player of a session. Only called from the engine thread.
+     *
+     * @param state The game state the player is on
+     * @param sessionSlot The slot of the session
+     * @return The player, null if the session has none
+     */
+    public Player get(GameState state, int sessionSlot) {
+        final Long playerId = playerIdsBySession.get(sessionSlot);
+        return playerId == null ? null : state.getPlayerRegistry().get(playerId);
+    }
+
+    /**
+     * Index a player that has been added to the game state under its session. Only called from the engine thread.
+     *
+     * @param player The player
+     */
+    public void add(Player player) {
+        playerIdsBySession.put(player.getSessionSlot(), player.getId());
+    }
+
+    /**
+     * Forget, from any thread, the player of a session that has ended. The player is taken out of the index on the
+     * engine thread by {@link #removeEndedSessions()}.
+     *
+     * @param sessionSlot The slot of the session
+     */
+    public void endSession(int sessionSlot) {
+        endedSessions.add(sessionSlot);
+    }
+
+    /**
+     * Take the players of the sessions that have ended out of the index. Only called from the engine thread.
+     */
+    public void removeEndedSessions() {
+        Integer sessionSlot = endedSessions.poll();
+        while (sessionSlot != null) {
+            playerIdsBySession.remove(sessionSlot);
+            sessionSlot = endedSessions.poll();
+        }
+    }
+}
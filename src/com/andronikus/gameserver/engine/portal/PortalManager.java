@@ -47,12 +47,7 @@ public class PortalManager {
      */
     public boolean handlePortalTick(GameState state, Portal portal) {
         if (portal.getTicksSinceCollision() != null) {
-            final Player player = state
-                .getPlayers()
-                .stream()
-                .filter(candidatePlayer -> candidatePlayer.getCollidedPortalId() != null && candidatePlayer.getCollidedPortalId() == portal.getId())
-                .findFirst()
-                .get();
+            final Player player = state.getPlayerRegistry().get(portal.getCollidedPlayerId());
             return doTeleportStep(portal, player);
         }
 
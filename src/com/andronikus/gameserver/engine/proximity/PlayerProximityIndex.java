@@ -0,0 +1,152 @@
+package com.andronikus.gameserver.engine.proximity;
+
+import com.andronikus.game.model.server.Player;
+import com.andronikus.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Index of where the live players are, for answering which players are near a point without looking at every player.
+ * The index is a snapshot, so it has to be rebuilt whenever players may have moved or died. Only meant to be used from
+ * the engine thread.
+ *
+ * @author Andronikus
+ */
+public class PlayerProximityIndex {
+
+    private static final int NO_CELL = -1;
+
+    private final int cellSize;
+    // Each occupied cell's index in the cell pool
+    private final LongIntHashMap cells = new LongIntHashMap();
+    private final ArrayList<ArrayList<Player>> cellPool = new ArrayList<>();
+    private int cellsInUse = 0;
+    private final NearestPlayerSearch nearestPlayerSearch = new NearestPlayerSearch();
+
+    /**
+     * Instantiate an index of where the live players are.
+     *
+     * @param aCellSize Width and height of each cell of the index
+     */
+    public PlayerProximityIndex(int aCellSize) {
+        cellSize = aCellSize;
+    }
+
+    /**
+     * Rebuild the index from the players in the game. Dead players are left out.
+     *
+     * @param players The players
+     */
+    public void rebuild(List<Player> players) {
+        for (int index = 0; index < cellsInUse; index++) {
+            cellPool.get(index).clear();
+        }
+        cellsInUse = 0;
+        cells.clear();
+
+        final int playerCount = players.size();
+        for (int index = 0; index < playerCount; index++) {
+            final Player player = players.get(index);
+            if (player.isDead()) {
+                continue;
+            }
+
+            final long cellKey = cellKey(Math.floorDiv(player.getX(), cellSize), Math.floorDiv(player.getY(), cellSize));
+            int cellIndex = cells.getOrDefault(cellKey, NO_CELL);
+            if (cellIndex == NO_CELL) {
+                if (cellsInUse == cellPool.size()) {
+                    cellPool.add(new ArrayList<>());
+                }
+                cellIndex = cellsInUse;
+                cellsInUse++;
+                cells.put(cellKey, cellIndex);
+            }
+            cellPool.get(cellIndex).add(player);
+        }
+    }
+
+    /**
+     * Find every live player within a range of a point.
+     *
+     * @param x The X of the point
+     * @param y The Y of the point
+     * @param range The range, inclusive
+     * @param playerConsumer Consumer given each player in range and their squared distance from the point
+     */
+    public void forEachPlayerWithin(long x, long y, long range, ObjLongConsumer<Player> playerConsumer) {
+        if (cells.size() == 0) {
+            return;
+        }
+
+        final long rangeSquared = range * range;
+        final long minColumn = Math.floorDiv(x - range, cellSize);
+        final long maxColumn = Math.floorDiv(x + range, cellSize);
+        final long minRow = Math.floorDiv(y - range, cellSize);
+        final long maxRow = Math.floorDiv(y + range, cellSize);
+
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long column = minColumn; column <= maxColumn; column++) {
+                final int cellIndex = cells.getOrDefault(cellKey(column, row), NO_CELL);
+                if (cellIndex == NO_CELL) {
+                    continue;
+                }
+
+                final ArrayList<Player> cell = cellPool.get(cellIndex);
+                final int cellPlayerCount = cell.size();
+                for (int index = 0; index < cellPlayerCount; index++) {
+                    final Player player = cell.get(index);
+                    final long xDifference = player.getX() - x;
+                    final long yDifference = player.getY() - y;
+                    final long distanceSquared = xDifference * xDifference + yDifference * yDifference;
+                    if (distanceSquared <= rangeSquared) {
+                        playerConsumer.accept(player, distanceSquared);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the live player nearest to a point, as long as they are within range of it.
+     *
+     * @param x The X of the point
+     * @param y The Y of the point
+     * @param range The range, inclusive
+     * @return The nearest player or null if no live player is in range
+     */
+    public Player findNearestPlayerWithin(long x, long y, long range) {
+        nearestPlayerSearch.nearestPlayer = null;
+        nearestPlayerSearch.nearestDistanceSquared = Long.MAX_VALUE;
+        forEachPlayerWithin(x, y, range, nearestPlayerSearch);
+
+        final Player nearestPlayer = nearestPlayerSearch.nearestPlayer;
+        // Do not hold onto the player until the next search
+        nearestPlayerSearch.nearestPlayer = null;
+        return nearestPlayer;
+    }
+
+    private static long cellKey(long column, long row) {
+        return (column << 32) ^ (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Running search for the nearest player, reused from one search to the next.
+     */
+    private static class NearestPlayerSearch implements ObjLongConsumer<Player> {
+        private Player nearestPlayer = null;
+        private long nearestDistanceSquared = Long.MAX_VALUE;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void accept(Player player, long distanceSquared) {
+            if (distanceSquared < nearestDistanceSquared) {
+                nearestPlayer = player;
+                nearestDistanceSquared = distanceSquared;
+            }
+        }
+    }
+}
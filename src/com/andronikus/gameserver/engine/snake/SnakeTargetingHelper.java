@@ -4,8 +4,7 @@ import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Player;
 import com.andronikus.game.model.server.Snake;
 import com.andronikus.gameserver.engine.ScalableBalanceConstants;
-
-import java.util.Optional;
+import com.andronikus.gameserver.engine.proximity.PlayerProximityIndex;
 
 /**
  * Utility for dealing with the direction of a snake.
@@ -14,6 +13,17 @@ import java.util.Optional;
  */
 public class SnakeTargetingHelper {
 
+    private final PlayerProximityIndex playerProximityIndex;
+
+    /**
+     * Instantiate a utility for dealing with the direction of a snake.
+     *
+     * @param aPlayerProximityIndex Index of where the live players are
+     */
+    public SnakeTargetingHelper(PlayerProximityIndex aPlayerProximityIndex) {
+        playerProximityIndex = aPlayerProximityIndex;
+    }
+
     /**
      * Evaluate direction of the snake.
      *
@@ -26,24 +36,19 @@ public class SnakeTargetingHelper {
     }
 
     /**
-     * Update the target of the snake.
+     * Update the target of the snake. Snakes go after the nearest live player within their chase distance.
      *
      * @param snake The snake
      * @param gameState Gamestate which presumably has a list of potential targets
      */
     private void updateTarget(Snake snake, GameState gameState) {
         if (snake.getTarget() == null) {
-            final Optional<Player> targetPlayer = gameState
-                .getPlayers()
-                .stream()
-                .filter(player ->
-                    !player.isDead() &&
-                    Math.sqrt(Math.pow(player.getX() - snake.getX(), 2) + Math.pow(player.getY() - snake.getY(), 2)) <= ScalableBalanceConstants.SNAKE_CHASE_DISTANCE
-                )
-                .findFirst();
+            final Player targetPlayer = playerProximityIndex.findNearestPlayerWithin(
+                snake.getX(), snake.getY(), ScalableBalanceConstants.SNAKE_CHASE_DISTANCE
+            );
 
-            if (targetPlayer.isPresent()) {
-                snake.setTarget(targetPlayer.get());
+            if (targetPlayer != null) {
+                snake.setTarget(targetPlayer);
                 snake.setChasing(true);
             }
         }
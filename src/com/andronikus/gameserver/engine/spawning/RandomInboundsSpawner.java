@@ -1,5 +1,6 @@
 package com.andronikus.gameserver.engine.spawning;
 
+import com.andronikus.game.model.server.EntityRegistry;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.IMoveable;
 import com.andronikus.gameserver.engine.ScalableBalanceConstants;
@@ -42,12 +43,12 @@ public class RandomInboundsSpawner {
      * @param spawnChance The chance that this object will be spawned on any given engine tick
      * @param maxRotationalVelocity The maximum rotational velocity the object spawns at
      * @param minRotationalVelocity The minimum rotational velocity the object spawns at
-     * @param listingsToPostTo The list that gets added to when an object is spawned
+     * @param listingsToPostTo The registry that gets added to when an object is spawned
      * @param <TYPE> The type of object being spawned
      */
     public <TYPE extends IMoveable> void register(
             Supplier<TYPE> generationFunction, int capacity, double spawnChance, double maxRotationalVelocity,
-            double minRotationalVelocity, Function<GameState, ArrayList<TYPE>> listingsToPostTo
+            double minRotationalVelocity, Function<GameState, EntityRegistry<TYPE>> listingsToPostTo
     ) {
         // TODO make more statistics
         final SpawningRegistration<TYPE> registration = new SpawningRegistration<>();
@@ -77,7 +78,7 @@ public class RandomInboundsSpawner {
      * @param <TYPE> The type of the object that could potentially be spawned
      */
     private <TYPE extends IMoveable> void doRandomSpawn(GameState state, SpawningRegistration<TYPE> registration) {
-        final ArrayList<TYPE> listingsToPostTo = registration.listingsToPostTo.apply(state);
+        final EntityRegistry<TYPE> listingsToPostTo = registration.listingsToPostTo.apply(state);
         if (listingsToPostTo.size() >= registration.capacity) {
             return;
         }
@@ -98,23 +99,19 @@ public class RandomInboundsSpawner {
             double angularVelocityRange = registration.maxRotationalVelocity - registration.minRotationalVelocity;
             spawnResult.setDirectionTickDelta(angularVelocityRange * random.nextDouble() + registration.minRotationalVelocity);
 
-            handleSpawnedItem(state, spawnResult, listingsToPostTo);
+            handleSpawnedItem(spawnResult, listingsToPostTo);
         }
     }
 
     /**
      * Handle a spawned item.
      *
-     * @param state The state of the game
      * @param spawnResult The spawned item
-     * @param listingsToPostTo Where to add the spawning to
+     * @param listingsToPostTo Where to add the spawning to, which also gives it its ID
      * @param <TYPE> The type of what was spawned
      */
-    private <TYPE extends IMoveable> void handleSpawnedItem(GameState state, TYPE spawnResult, ArrayList<TYPE> listingsToPostTo) {
+    private <TYPE extends IMoveable> void handleSpawnedItem(TYPE spawnResult, EntityRegistry<TYPE> listingsToPostTo) {
         listingsToPostTo.add(spawnResult);
-        state.getCollideables().add(spawnResult);
-        spawnResult.setMoveableId(state.getNextSpawnId());
-        state.setNextSpawnId(state.getNextSpawnId() + 1);
     }
 
     private class SpawningRegistration<TYPE extends IMoveable> {
@@ -123,6 +120,6 @@ public class RandomInboundsSpawner {
         double spawnChance;
         double maxRotationalVelocity;
         double minRotationalVelocity;
-        Function<GameState, ArrayList<TYPE>> listingsToPostTo;
+        Function<GameState, EntityRegistry<TYPE>> listingsToPostTo;
     }
 }
@@ -1,5 +1,6 @@
 package com.andronikus.gameserver.engine.spawning;
 
+import com.andronikus.game.model.server.EntityRegistry;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.IMoveable;
 import com.andronikus.gameserver.engine.ScalableBalanceConstants;
@@ -58,12 +59,12 @@ public class RandomOutOfBoundsSpawner {
      * @param minSpeed The minimum speed the object spawns at
      * @param maxRotationalVelocity The maximum rotational velocity the object spawns at
      * @param minRotationalVelocity The minimum rotational velocity the object spawns at
-     * @param listingsToPostTo The list that gets added to when an object is spawned
+     * @param listingsToPostTo The registry that gets added to when an object is spawned
      * @param <TYPE> The type of object being spawned
      */
     public <TYPE extends IMoveable> void register(
         Supplier<TYPE> generationFunction, int capacity, double spawnChance, long maxSpeed, long minSpeed,
-        double maxRotationalVelocity, double minRotationalVelocity, Function<GameState, ArrayList<TYPE>> listingsToPostTo
+        double maxRotationalVelocity, double minRotationalVelocity, Function<GameState, EntityRegistry<TYPE>> listingsToPostTo
     ) {
         // TODO make more statistics
         final SpawningRegistration<TYPE> registration = new SpawningRegistration<>();
@@ -95,7 +96,7 @@ public class RandomOutOfBoundsSpawner {
      * @param <TYPE> The type of the object that could potentially be spawned
      */
     private <TYPE extends IMoveable> void doRandomSpawn(GameState state, SpawningRegistration<TYPE> registration) {
-        final ArrayList<TYPE> listingsToPostTo = registration.listingsToPostTo.apply(state);
+        final EntityRegistry<TYPE> listingsToPostTo = registration.listingsToPostTo.apply(state);
         if (listingsToPostTo.size() >= registration.capacity) {
             return;
         }
@@ -188,23 +189,19 @@ public class RandomOutOfBoundsSpawner {
             final double angleTickDelta = (registration.maxRotationalVelocity - registration.minRotationalVelocity) * random.nextDouble() + registration.minRotationalVelocity;
             spawnResult.setDirectionTickDelta(angleTickDelta);
 
-            handleSpawnedItem(state, spawnResult, listingsToPostTo);
+            handleSpawnedItem(spawnResult, listingsToPostTo);
         }
     }
 
     /**
      * Handle a spawned item.
      *
-     * @param state The state of the game
      * @param spawnResult The spawned item
-     * @param listingsToPostTo Where to add the spawning to
+     * @param listingsToPostTo Where to add the spawning to, which also gives it its ID
      * @param <TYPE> The type of what was spawned
      */
-    private <TYPE extends IMoveable> void handleSpawnedItem(GameState state, TYPE spawnResult, ArrayList<TYPE> listingsToPostTo) {
+    private <TYPE extends IMoveable> void handleSpawnedItem(TYPE spawnResult, EntityRegistry<TYPE> listingsToPostTo) {
         listingsToPostTo.add(spawnResult);
-        state.getCollideables().add(spawnResult);
-        spawnResult.setMoveableId(state.getNextSpawnId());
-        state.setNextSpawnId(state.getNextSpawnId() + 1);
     }
 
     private class SpawningRegistration<TYPE extends IMoveable> {
@@ -215,6 +212,6 @@ public class RandomOutOfBoundsSpawner {
         long minSpeed;
         double maxRotationalVelocity;
         double minRotationalVelocity;
-        Function<GameState, ArrayList<TYPE>> listingsToPostTo;
+        Function<GameState, EntityRegistry<TYPE>> listingsToPostTo;
     }
 }
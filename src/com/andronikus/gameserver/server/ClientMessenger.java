@@ -0,0 +1,88 @@
+package com.andronikus.gameserver.server;
+
+import com.gabler.udpmanager.security.AesBytesToCiphertextTransformer;
+import com.gabler.udpmanager.server.ServerClientCallback;
+import com.gabler.udpmanager.server.UdpServer;
+import lombok.Setter;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Sender of a different bytes message to each client. Messages are queued for their clients and then sent in one
+ * {@link UdpServer#clientBroadcast(byte[])}, where the messenger, as the server's encryption, swaps in each client's
+ * own message as the server gets to it. Framing and sending are left to the server.
+ *
+ * The server broadcasts to every client it knows of, including ones that have not bound a session yet, so clients with
+ * nothing queued are sent an empty message. Snapshot decoders skip empty messages.
+ *
+ * This relies on two things the server does: it calls its encryption for each client on the thread that broadcasts,
+ * before the broadcast returns, and it hands the encryption the very key array it was given for the client.
+ * {@code ClientMessengerTest} checks both against a real server.
+ *
+ * Only meant to be used from one thread at a time.
+ *
+ * @author Andronikus
+ */
+public class ClientMessenger implements BiFunction<byte[], byte[], byte[]> {
+
+    // Holds no snapshot, see SnapshotEncoder
+    private static final byte[] NO_MESSAGE = new byte[0];
+
+    private final BiFunction<byte[], byte[], byte[]> bytesToCiphertextTransformer = new AesBytesToCiphertextTransformer();
+    private final ConcurrentHashMap<String, byte[]> clientKeys = new ConcurrentHashMap<>();
+    // Keyed by the identity of the client's key, since that is all the server hands its encryption
+    private final IdentityHashMap<byte[], byte[]> queuedMessages = new IdentityHashMap<>();
+    @Setter
+    private UdpServer server;
+
+    /**
+     * Add a client's key, the same one the server was given, so that messages can be matched to the client.
+     *
+     * @param keyId The key ID
+     * @param key The 128-bit key
+     */
+    public void addClientKey(String keyId, byte[] key) {
+        clientKeys.put(keyId, key);
+    }
+
+    /**
+     * Queue a bytes message to a client, to be sent by {@link #sendQueued()}.
+     *
+     * @param client The client
+     * @param payload The message
+     */
+    public void queue(ServerClientCallback client, byte[] payload) {
+        final byte[] key = client.getKeyId() == null ? null : clientKeys.get(client.getKeyId());
+        if (key == null) {
+            throw new IllegalStateException("No key with ID " + client.getKeyId() + " for client.");
+        }
+        queuedMessages.put(key, payload);
+    }
+
+    /**
+     * Send every queued message to its client. Clients with nothing queued are sent an empty message.
+     */
+    public void sendQueued() {
+        try {
+            server.clientBroadcast(NO_MESSAGE);
+        } finally {
+            queuedMessages.clear();
+        }
+    }
+
+    /**
+     * Encrypt the message queued for the client with a key, or the given message if there is none. Called by the
+     * server for each client as it broadcasts.
+     *
+     * @param payload The message being broadcast
+     * @param key The client's key
+     * @return The ciphertext
+     */
+    @Override
+    public byte[] apply(byte[] payload, byte[] key) {
+        final byte[] queuedMessage = queuedMessages.get(key);
+        return bytesToCiphertextTransformer.apply(queuedMessage == null ? payload : queuedMessage, key);
+    }
+}
@@ -0,0 +1,33 @@
+package com.andronikus.gameserver.server;
+
+import com.andronikus.game.model.client.ClientRequest;
+import com.andronikus.game.model.client.ClientRequestDecoder;
+
+import java.util.function.Function;
+
+/**
+ * Transform bytes to a {@link ClientRequest}, taking both the binary request format and Java serialized requests so
+ * that clients can move over to the binary format one at a time.
+ *
+ * Binary requests are decoded into a request that belongs to the calling thread and is reused for that thread's next
+ * message, so a request must be done with before the thread transforms another message. Each ingress worker handles a
+ * message completely before taking the next one, which makes this safe for {@link GameServer}.
+ *
+ * @author Andronikus
+ */
+public class ClientRequestTransformer implements Function<byte[], ClientRequest> {
+
+    private final ThreadLocal<ClientRequestDecoder> decoders = ThreadLocal.withInitial(ClientRequestDecoder::new);
+    private final SerializedClientRequestTransformer serializedTransformer = new SerializedClientRequestTransformer();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClientRequest apply(byte[] bytes) {
+        if (ClientRequestDecoder.isBinaryRequest(bytes)) {
+            return decoders.get().decode(bytes);
+        }
+        return serializedTransformer.apply(bytes);
+    }
+}
@@ -3,26 +3,22 @@ package com.andronikus.gameserver.server;
 import com.andronikus.gameserver.auth.AuthenticationServlet;
 import com.andronikus.gameserver.auth.IAuthenticationProvider;
 import com.andronikus.gameserver.auth.Session;
+import com.andronikus.gameserver.auth.SessionRegistry;
 import com.andronikus.gameserver.dhke.DhkeServlet;
-import com.andronikus.gameserver.engine.GameStateBytesWrapper;
+import com.andronikus.game.model.codec.WorldSnapshot;
+import com.andronikus.gameserver.broadcast.SnapshotBroadcaster;
 import com.andronikus.gameserver.engine.ServerEngine;
 import com.andronikus.game.model.client.ClientRequest;
-import com.andronikus.game.model.client.InputPurgeRequest;
-import com.andronikus.game.model.client.InputRequest;
 import com.andronikus.gameserver.engine.command.CommandEngineTransferQueue;
-import com.gabler.udpmanager.ResourceLock;
+import com.gabler.udpmanager.security.AesCiphertextToBytesTransformer;
 import com.gabler.udpmanager.server.IUdpServerConfiguration;
 import com.gabler.udpmanager.server.ServerClientCallback;
 import com.gabler.udpmanager.server.UdpServer;
 import lombok.SneakyThrows;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Objects;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Game server. Manages security and framework for transmitting messages between a central game server and game client.
@@ -34,45 +30,58 @@ public class GameServer implements IUdpServerConfiguration {
     private static final Logger LOGGER = Logger.getLogger("GameServer");
 
     private static final int GAME_SERVER_PORT = 13350;
+    // Decryption stays on one thread so that messages reach the ingress pipeline in the order they arrived
     private static final int GAME_SERVER_THREAD_POOL_SIZE = 1;
+    private static final int INGRESS_WORKER_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int INGRESS_QUEUE_CAPACITY = 1024;
 
-    private final ResourceLock<HashMap<String, Session>> sessionManager;
+    private final SessionRegistry sessionRegistry;
     private final Function<byte[], ClientRequest> byteToClientRequestTransformer;
     private final DhkeServlet keyServlet;
     private final UdpServer server;
+    private final IngressPipeline ingress;
+    private final ClientMessenger messenger;
+    private final SnapshotBroadcaster broadcaster;
     private final ServerEngine engine;
     private final AuthenticationServlet authenticationServlet;
 
     /**
      * Initialize a game server.
      *
-     * @param aSessionManager Lock and a map of session secrets to sessions
+     * @param aSessionRegistry Registry of every session
      * @param authenticationProvider Object used for authentication
      */
-    public GameServer(ResourceLock<HashMap<String, Session>> aSessionManager, IAuthenticationProvider authenticationProvider) {
-        this(new BytesToObjectTransformer<>(), aSessionManager, authenticationProvider);
+    public GameServer(SessionRegistry aSessionRegistry, IAuthenticationProvider authenticationProvider) {
+        this(new ClientRequestTransformer(), aSessionRegistry, authenticationProvider);
     }
 
     /**
      * Initialize a game server.
      *
      * @param aByteToClientRequestTransformer Transformer for turning a bytes message to a {@link ClientRequest}
-     * @param aSessionManager Lock and a map of session secrets to sessions
+     * @param aSessionRegistry Registry of every session
      * @param authenticationProvider Object used for authentication
      */
     @SneakyThrows
     public GameServer(
         Function<byte[], ClientRequest> aByteToClientRequestTransformer,
-        ResourceLock<HashMap<String, Session>> aSessionManager,
+        SessionRegistry aSessionRegistry,
         IAuthenticationProvider authenticationProvider
     ) {
-        server = new UdpServer(GAME_SERVER_PORT, GAME_SERVER_THREAD_POOL_SIZE);
+        messenger = new ClientMessenger();
+        server = new UdpServer(
+            GAME_SERVER_PORT, GAME_SERVER_THREAD_POOL_SIZE, messenger, new AesCiphertextToBytesTransformer()
+        );
         server.setConfiguration(this);
+        messenger.setServer(server);
+        ingress = new IngressPipeline(INGRESS_WORKER_COUNT, INGRESS_QUEUE_CAPACITY, this::processBytesMessage);
         keyServlet = new DhkeServlet(this::addClientKeyToServer);
-        engine = new ServerEngine(this::broadcastGameStateBytes);
+        engine = new ServerEngine(this::broadcastGameState);
         byteToClientRequestTransformer = aByteToClientRequestTransformer;
-        sessionManager = aSessionManager;
-        authenticationServlet = new AuthenticationServlet(aSessionManager, authenticationProvider);
+        sessionRegistry = aSessionRegistry;
+        sessionRegistry.addSessionEndListener(engine::endSession);
+        broadcaster = new SnapshotBroadcaster(messenger, aSessionRegistry);
+        authenticationServlet = new AuthenticationServlet(aSessionRegistry, authenticationProvider);
         engine.calculateInitialGameState();
     }
 
@@ -84,12 +93,14 @@ public class GameServer implements IUdpServerConfiguration {
      */
     private synchronized void addClientKeyToServer(byte[] key, String keyId) {
         server.addClientKey(keyId, key);
+        messenger.addClientKey(keyId, key);
     }
 
     /**
      * Start the game server.
      */
     public void start() {
+        ingress.start();
         server.start();
         keyServlet.start();
         authenticationServlet.start();
@@ -99,12 +110,12 @@ public class GameServer implements IUdpServerConfiguration {
     /**
      * Broadcast a game state to all clients.
      *
-     * @param bytesWrapper The wrapper for the game state in bytes
+     * @param snapshot Snapshot of the game state
      */
-    public void broadcastGameStateBytes(GameStateBytesWrapper bytesWrapper) {
+    public void broadcastGameState(WorldSnapshot snapshot) {
 
         try {
-            server.clientBroadcast(bytesWrapper.getPayload());
+            broadcaster.broadcast(snapshot);
         } catch (Exception exception) {
             LOGGER.log(Level.SEVERE, "Server gamestate broadcast failed.", exception);
         }
@@ -115,6 +126,17 @@ public class GameServer implements IUdpServerConfiguration {
      */
     @Override
     public void handleBytesMessage(byte[] bytes, ServerClientCallback serverClientCallback) {
+        ingress.submit(bytes, serverClientCallback);
+    }
+
+    /**
+     * Process a bytes message from a client. Runs on the client's ingress worker, so messages from one client are
+     * processed one at a time in the order they arrived.
+     *
+     * @param bytes The message
+     * @param serverClientCallback The client
+     */
+    private void processBytesMessage(byte[] bytes, ServerClientCallback serverClientCallback) {
         final String logHeader = "[" + serverClientCallback.getAddress().toString() + "(" + serverClientCallback.getPortNumber() + ")] ";
 
         ClientRequest request;
@@ -128,57 +150,36 @@ public class GameServer implements IUdpServerConfiguration {
             return;
         }
 
-        final Session session = sessionManager.performRunInLock((Function<HashMap<String, Session>, Session>) sessions -> sessions.get(request.getSessionToken()));
+        final Session session = sessionRegistry.getBySecret(request.getSessionToken());
         if (session == null) {
             LOGGER.severe(logHeader + "Invalid session secret received.");
             return;
-        } else if (session.getConnectionInfo() == null) {
-            LOGGER.log(Level.INFO, logHeader + "Binding session to client.");
-            session.setConnectionInfo(serverClientCallback);
-        } else if (!session.getConnectionInfo().getAddress().equals(serverClientCallback.getAddress())) {
-            // If a change of address occurs, that's probably sus. If this ever happens, need to know so we can improve security.
-            LOGGER.severe(logHeader + "Potential session jacking. Session ID belongs to " + session.getConnectionInfo().getAddress().toString());
-
-            // Don't give feedback if this occurs
-            return;
         }
 
+        // Two addresses claiming the same session can land on different workers, so only one gets to bind it
+        synchronized (session) {
+            if (session.getConnectionInfo() == null) {
+                LOGGER.log(Level.INFO, logHeader + "Binding session to client.");
+                session.setConnectionInfo(serverClientCallback);
+            } else if (!session.getConnectionInfo().getAddress().equals(serverClientCallback.getAddress())) {
+                // If a change of address occurs, that's probably sus. If this ever happens, need to know so we can improve security.
+                LOGGER.severe(logHeader + "Potential session jacking. Session ID belongs to " + session.getConnectionInfo().getAddress().toString());
+
+                // Don't give feedback if this occurs
+                return;
+            }
+        }
+
+        if (request.getLastReceivedGameStateVersion() > session.getLastReceivedGameStateVersion()) {
+            session.setLastReceivedGameStateVersion(request.getLastReceivedGameStateVersion());
+        }
+
+        // The inputs are handed over as they are, so the request is only walked once
         if (
             request.getSequenceNumber() > session.getLastRecordedSequenceNumber() &&
-            (request.getInputCode0() != null ||
-             request.getInputCode1() != null ||
-             request.getInputCode2() != null ||
-             request.getInputCode3() != null ||
-             request.getInputCode4() != null ||
-             (request.getClientCommands() != null && !request.getClientCommands().isEmpty()))
+            (!request.getInputs().isEmpty() || !request.getClientCommands().isEmpty())
         ) {
-            final ArrayList<InputRequest> inputs = new ArrayList<>();
-            inputs.add(request.getInputCode0());
-            inputs.add(request.getInputCode1());
-            inputs.add(request.getInputCode2());
-            inputs.add(request.getInputCode3());
-            inputs.add(request.getInputCode4());
-            engine.addInputs(
-                inputs
-                    .stream()
-                    .filter(input -> input != null && input.getInputCode() != null)
-                    .collect(Collectors.toList()),
-                session
-            );
-
-            final ArrayList<InputPurgeRequest> purgeRequests = new ArrayList<>();
-            purgeRequests.add(request.getInputPurge0());
-            purgeRequests.add(request.getInputPurge1());
-            purgeRequests.add(request.getInputPurge2());
-            purgeRequests.add(request.getInputPurge3());
-            purgeRequests.add(request.getInputPurge4());
-            engine.purgeInputAcks(
-                purgeRequests
-                    .stream()
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList()) ,
-                session
-            );
+            engine.addInputs(request.getInputs(), session);
 
             session.setLastRecordedSequenceNumber(request.getSequenceNumber());
 
@@ -215,6 +216,15 @@ public class GameServer implements IUdpServerConfiguration {
         engine.setDebugMode(debugMode);
     }
 
+    /**
+     * Set how far from their player clients are shown entities.
+     *
+     * @param viewRadius The view radius
+     */
+    public void setViewRadius(long viewRadius) {
+        broadcaster.setViewRadius(viewRadius);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -229,6 +239,7 @@ public class GameServer implements IUdpServerConfiguration {
     @Override
     public void terminationAction() {
         LOGGER.info("Game Server terminated. Killing the engine and servlets.");
+        ingress.terminate();
         engine.kill();
         authenticationServlet.terminate();
         keyServlet.terminate();
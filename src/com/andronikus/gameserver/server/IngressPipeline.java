@@ -0,0 +1,147 @@
+package com.andronikus.gameserver.server;
+
+import com.gabler.udpmanager.server.ServerClientCallback;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pipeline that handles bytes messages from clients on several worker threads. Messages are sharded by the address
+ * they came from, and a session is only ever bound to one address, so each session's messages are handled in the order
+ * they arrived by one worker, even if its port changes. That keeps per-session state like sequence numbers safe
+ * without locking.
+ *
+ * @author Andronikus
+ */
+public class IngressPipeline {
+
+    private static final Logger LOGGER = Logger.getLogger("IngressPipeline");
+
+    private final BiConsumer<byte[], ServerClientCallback> messageHandler;
+    private final IngressWorker[] workers;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Instantiate a pipeline for handling messages from clients.
+     *
+     * @param workerCount How many threads handle messages
+     * @param queueCapacity How many messages can wait for each worker before new ones are dropped
+     * @param aMessageHandler Function that handles a message
+     */
+    public IngressPipeline(int workerCount, int queueCapacity, BiConsumer<byte[], ServerClientCallback> aMessageHandler) {
+        messageHandler = aMessageHandler;
+        workers = new IngressWorker[workerCount];
+        for (int index = 0; index < workerCount; index++) {
+            workers[index] = new IngressWorker(index, queueCapacity);
+        }
+    }
+
+    /**
+     * Start the workers.
+     */
+    public void start() {
+        for (IngressWorker worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Stop the workers. Messages still waiting are dropped.
+     */
+    public void terminate() {
+        for (IngressWorker worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Hand a message to the worker for the client it came from.
+     *
+     * @param bytes The message
+     * @param client The client
+     */
+    public void submit(byte[] bytes, ServerClientCallback client) {
+        // Not the port, since a session may talk from a new port of its address, see GameServer's session binding
+        final IngressWorker worker = workers[Math.floorMod(client.getAddress().hashCode(), workers.length)];
+
+        // A client sends again soon enough, so under overload drop rather than fall further behind
+        if (!worker.queue.offer(new IngressMessage(bytes, client))) {
+            final long dropped = droppedCount.incrementAndGet();
+            if (dropped % 1000 == 1) {
+                LOGGER.warning("Ingress worker " + worker.getName() + " is full. " + dropped + " messages dropped so far.");
+            }
+        }
+    }
+
+    /**
+     * Get how many messages were dropped because their worker was full.
+     *
+     * @return The number of messages
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get how many messages were handled.
+     *
+     * @return The number of messages
+     */
+    public long getHandledCount() {
+        long handledCount = 0;
+        for (IngressWorker worker : workers) {
+            handledCount += worker.handledCount;
+        }
+        return handledCount;
+    }
+
+    /**
+     * A message and the client it came from.
+     */
+    private static class IngressMessage {
+        private final byte[] bytes;
+        private final ServerClientCallback client;
+
+        private IngressMessage(byte[] someBytes, ServerClientCallback aClient) {
+            bytes = someBytes;
+            client = aClient;
+        }
+    }
+
+    /**
+     * Thread that handles the messages of one shard, one at a time.
+     */
+    private class IngressWorker extends Thread {
+        private final ArrayBlockingQueue<IngressMessage> queue;
+        // Only written by the worker itself, so that workers do not contend over a shared counter
+        private volatile long handledCount = 0;
+
+        private IngressWorker(int index, int queueCapacity) {
+            super("IngressWorker-" + index);
+            setDaemon(true);
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                final IngressMessage message;
+                try {
+                    message = queue.take();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+
+                try {
+                    messageHandler.accept(message.bytes, message.client);
+                } catch (Exception exception) {
+                    LOGGER.log(Level.SEVERE, "Failed to handle client message.", exception);
+                }
+                handledCount = handledCount + 1;
+            }
+        }
+    }
+}
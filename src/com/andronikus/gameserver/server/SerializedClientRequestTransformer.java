@@ -0,0 +1,89 @@
+package com.andronikus.gameserver.server;
+
+import com.andronikus.game.model.client.ClientRequest;
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Transform Java serialized bytes to a {@link ClientRequest}. Clients that still Java serialize their requests send
+ * them in the old layout with five input and five purge slots, so those are read into
+ * {@link com.andronikus.game.model.client.legacy.ClientRequest} and adapted. Requests in the current layout are read
+ * as they are.
+ *
+ * @author Andronikus
+ */
+public class SerializedClientRequestTransformer implements Function<byte[], ClientRequest> {
+
+    // Old classes by name, each only stood in for when the stream has the old class's serial version
+    private static final HashMap<String, ObjectStreamClass> LEGACY_CLASSES = new HashMap<>();
+
+    static {
+        addLegacyClass(
+            "com.andronikus.game.model.client.ClientRequest",
+            com.andronikus.game.model.client.legacy.ClientRequest.class
+        );
+        addLegacyClass(
+            "com.andronikus.game.model.client.InputPurgeRequest",
+            com.andronikus.game.model.client.legacy.InputPurgeRequest.class
+        );
+    }
+
+    /**
+     * Register a class that stands in for an old version of a class.
+     *
+     * @param className The name of the old class
+     * @param legacyClass The class with the old layout
+     */
+    private static void addLegacyClass(String className, Class<?> legacyClass) {
+        LEGACY_CLASSES.put(className, ObjectStreamClass.lookup(legacyClass));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SneakyThrows
+    public ClientRequest apply(byte[] bytes) {
+        final ObjectInputStream objectInputStream = new LegacyObjectInputStream(new ByteArrayInputStream(bytes));
+        final Object object = objectInputStream.readObject();
+        if (object instanceof com.andronikus.game.model.client.legacy.ClientRequest) {
+            return ((com.andronikus.game.model.client.legacy.ClientRequest) object).toClientRequest();
+        }
+        return (ClientRequest) object;
+    }
+
+    /**
+     * Object input stream that reads an old class into the class standing in for it.
+     */
+    private static class LegacyObjectInputStream extends ObjectInputStream {
+
+        /**
+         * Instantiate an object input stream that reads old classes into the classes standing in for them.
+         *
+         * @param inputStream The stream to read from
+         * @throws IOException If the stream header cannot be read
+         */
+        LegacyObjectInputStream(InputStream inputStream) throws IOException {
+            super(inputStream);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass streamClass) throws IOException, ClassNotFoundException {
+            final ObjectStreamClass legacyClass = LEGACY_CLASSES.get(streamClass.getName());
+            if (legacyClass != null && legacyClass.getSerialVersionUID() == streamClass.getSerialVersionUID()) {
+                return legacyClass.forClass();
+            }
+            return super.resolveClass(streamClass);
+        }
+    }
+}
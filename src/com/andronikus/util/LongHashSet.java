@@ -0,0 +1,127 @@
+package com.andronikus.util;
+
+import java.util.Arrays;
+
+/**
+ * Set of longs kept in one array with open addressing, so that adding and checking for a long does not box it.
+ * Clearing the set keeps the array, so a set that is filled and cleared over and over stops allocating once it has
+ * grown to fit. Not thread safe.
+ *
+ * @author Andronikus
+ */
+public class LongHashSet {
+
+    // Marks an empty slot, so the set has to keep track of whether it holds this value itself
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] slots;
+    private int mask;
+    private int size;
+    private boolean hasEmptyValue;
+
+    /**
+     * Instantiate an empty set of longs.
+     */
+    public LongHashSet() {
+        slots = new long[MINIMUM_CAPACITY];
+        Arrays.fill(slots, EMPTY);
+        mask = MINIMUM_CAPACITY - 1;
+    }
+
+    /**
+     * Add a long to the set.
+     *
+     * @param value The long
+     * @return True if the set did not already hold the long
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (hasEmptyValue) {
+                return false;
+            }
+            hasEmptyValue = true;
+            size++;
+            return true;
+        }
+
+        int slot = slotOf(value);
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        size++;
+
+        // Keep the array at most half full so that runs of taken slots stay short
+        if (size * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Check if the set holds a long.
+     *
+     * @param value The long
+     * @return True if the set holds the long
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasEmptyValue;
+        }
+
+        int slot = slotOf(value);
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Get how many longs the set holds.
+     *
+     * @return The number of longs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every long from the set, keeping the array for the next ones.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, EMPTY);
+            size = 0;
+            hasEmptyValue = false;
+        }
+    }
+
+    private void grow() {
+        final long[] oldSlots = slots;
+        slots = new long[oldSlots.length * 2];
+        Arrays.fill(slots, EMPTY);
+        mask = slots.length - 1;
+        for (long value : oldSlots) {
+            if (value != EMPTY) {
+                int slot = slotOf(value);
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = value;
+            }
+        }
+    }
+
+    private int slotOf(long value) {
+        // Spread the bits so that IDs counting up do not all land next to each other
+        final long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
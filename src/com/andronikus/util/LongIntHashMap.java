@@ -0,0 +1,148 @@
+package com.andronikus.util;
+
+import java.util.Arrays;
+
+/**
+ * Map of longs to ints kept in two arrays with open addressing, so that putting and getting does not box the key or
+ * the value. Clearing the map keeps the arrays, so a map that is filled and cleared over and over stops allocating once
+ * it has grown to fit. Not thread safe.
+ *
+ * @author Andronikus
+ */
+public class LongIntHashMap {
+
+    // Marks an empty slot, so the map has to keep track of the value for this key itself
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+
+    /**
+     * Instantiate an empty map of longs to ints.
+     */
+    public LongIntHashMap() {
+        this(MINIMUM_CAPACITY / 2);
+    }
+
+    /**
+     * Instantiate an empty map of longs to ints, sized to hold a number of keys without growing.
+     *
+     * @param expectedSize How many keys the map is expected to hold
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity *= 2;
+        }
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Put an int in the map for a long, replacing the int it had before.
+     *
+     * @param key The long
+     * @param value The int
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            if (!hasEmptyKey) {
+                hasEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue = value;
+            return;
+        }
+
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        // Keep the arrays at most half full so that runs of taken slots stay short
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Get the int the map has for a long.
+     *
+     * @param key The long
+     * @param defaultValue The int to give back if the map has none for the long
+     * @return The int for the long or the default
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        if (key == EMPTY) {
+            return hasEmptyKey ? emptyKeyValue : defaultValue;
+        }
+
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Get how many longs the map has ints for.
+     *
+     * @return The number of longs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every long from the map, keeping the arrays for the next ones.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            hasEmptyKey = false;
+        }
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] != EMPTY) {
+                int slot = slotOf(oldKeys[oldSlot]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[oldSlot];
+                values[slot] = oldValues[oldSlot];
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        // Spread the bits so that keys counting up do not all land next to each other
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
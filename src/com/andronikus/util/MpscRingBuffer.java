@@ -0,0 +1,162 @@
+package com.andronikus.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free queue that any number of threads add to and one thread drains. Elements sit in a fixed ring of
+ * slots, each with a sequence number saying whether it is ready to be written or read (Dmitry Vyukov's bounded queue),
+ * so adding an element does not allocate.
+ *
+ * What happens when the ring is full is up to its {@link OverflowPolicy}. To drop the oldest element, the adding thread
+ * takes it off the ring itself, which is why taking elements off is safe to race with.
+ *
+ * @param <E> The type of element
+ * @author Andronikus
+ */
+public class MpscRingBuffer<E> {
+
+    /**
+     * What to do with an element added to a full ring.
+     */
+    public enum OverflowPolicy {
+        // Throw away the new element
+        REJECT,
+        // Throw away the oldest element to make room for the new one
+        DROP_OLDEST
+    }
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder overflowCount = new LongAdder();
+
+    /**
+     * Instantiate a ring buffer.
+     *
+     * @param capacity How many elements the ring holds, rounded up to a power of two
+     * @param anOverflowPolicy What to do with an element added to a full ring
+     */
+    public MpscRingBuffer(int capacity, OverflowPolicy anOverflowPolicy) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 1 and 2^30.");
+        }
+
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        elements = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int slot = 0; slot < size; slot++) {
+            sequences.set(slot, slot);
+        }
+        mask = size - 1;
+        overflowPolicy = anOverflowPolicy;
+    }
+
+    /**
+     * Add an element from any thread.
+     *
+     * @param element The element
+     * @return False if the ring was full and the element was rejected
+     */
+    public boolean offer(E element) {
+        while (!tryOffer(element)) {
+            if (overflowPolicy == OverflowPolicy.REJECT) {
+                overflowCount.increment();
+                return false;
+            }
+            if (poll() != null) {
+                overflowCount.increment();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Take the oldest element.
+     *
+     * @return The element, or null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            final int slot = (int) position & mask;
+            final long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final E element = (E) elements[slot];
+                    elements[slot] = null;
+                    // Hand the slot back to the writers for its next lap around the ring
+                    sequences.lazySet(slot, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Move the elements in the ring into a collection, oldest first. At most one ring's worth of elements is moved, so
+     * threads that keep adding cannot keep the drain going forever.
+     *
+     * @param target The collection, which is added to and not cleared
+     * @return The number of elements moved
+     */
+    public int drainTo(Collection<? super E> target) {
+        int count = 0;
+        E element;
+        while (count < elements.length && (element = poll()) != null) {
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get how many elements have been thrown away because the ring was full.
+     *
+     * @return The count
+     */
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    /**
+     * Get how many elements the ring holds.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return elements.length;
+    }
+
+    private boolean tryOffer(E element) {
+        long position = tail.get();
+        while (true) {
+            final int slot = (int) position & mask;
+            final long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    // Publishes the element to whoever reads the sequence next
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+}
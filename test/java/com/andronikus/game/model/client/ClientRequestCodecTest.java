@@ -0,0 +1,141 @@
+package com.andronikus.game.model.client;
+
+import com.andronikus.gameserver.server.ClientRequestTransformer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Test of {@link ClientRequestEncoder} and {@link ClientRequestDecoder}.
+ *
+ * @author Andronikus
+ */
+public class ClientRequestCodecTest {
+
+    // A request Java serialized by a client from before requests held lists, with inputs in slots 0 and 2 and a purge
+    private static final String LEGACY_SERIALIZED_REQUEST =
+        "rO0ABXNyAC5jb20uYW5kcm9uaWt1cy5nYW1lLm1vZGVsLmNsaWVudC5DbGllbnRSZXF1ZXN09iqUcTRJReYCAA5KAA5zZXF1ZW5j" +
+        "ZU51bWJlckwADmNsaWVudENvbW1hbmRzdAAQTGphdmEvdXRpbC9MaXN0O0wAEGNvbW1hbmRzVG9SZW1vdmVxAH4AAUwACmlucHV0" +
+        "Q29kZTB0AC9MY29tL2FuZHJvbmlrdXMvZ2FtZS9tb2RlbC9jbGllbnQvSW5wdXRSZXF1ZXN0O0wACmlucHV0Q29kZTFxAH4AAkwA" +
+        "CmlucHV0Q29kZTJxAH4AAkwACmlucHV0Q29kZTNxAH4AAkwACmlucHV0Q29kZTRxAH4AAkwAC2lucHV0UHVyZ2UwdAA0TGNvbS9h" +
+        "bmRyb25pa3VzL2dhbWUvbW9kZWwvY2xpZW50L0lucHV0UHVyZ2VSZXF1ZXN0O0wAC2lucHV0UHVyZ2UxcQB+AANMAAtpbnB1dFB1" +
+        "cmdlMnEAfgADTAALaW5wdXRQdXJnZTNxAH4AA0wAC2lucHV0UHVyZ2U0cQB+AANMAAxzZXNzaW9uVG9rZW50ABJMamF2YS9sYW5n" +
+        "L1N0cmluZzt4cAAAAAAAAAAqc3IAE2phdmEudXRpbC5BcnJheUxpc3R4gdIdmcdhnQMAAUkABHNpemV4cAAAAAF3BAAAAAFzcgAu" +
+        "Y29tLmFuZHJvbmlrdXMuZ2FtZS5tb2RlbC5jbGllbnQuQ2xpZW50Q29tbWFuZFlj9pmyivycAgACSgANY29tbWFuZE51bWJlckwA" +
+        "BGNvZGVxAH4ABHhwAAAAAAAAAAV0AAVTUEFXTnhzcQB+AAYAAAAAdwQAAAAAeHNyAC1jb20uYW5kcm9uaWt1cy5nYW1lLm1vZGVs" +
+        "LmNsaWVudC5JbnB1dFJlcXVlc3TbnI97o1LdwAIAA1oAC2Fja1JlcXVpcmVkTAAJaW5wdXRDb2RlcQB+AARMAAdpbnB1dElkdAAQ" +
+        "TGphdmEvbGFuZy9Mb25nO3hwAXQABlRIUlVTVHNyAA5qYXZhLmxhbmcuTG9uZzuL5JDMjyPfAgABSgAFdmFsdWV4cgAQamF2YS5s" +
+        "YW5nLk51bWJlcoaslR0LlOCLAgAAeHAAAAAAAAAAB3BzcQB+AAwAdAAFU0hPT1RzcQB+ABAAAAAAAAAACHBwc3IAMmNvbS5hbmRy" +
+        "b25pa3VzLmdhbWUubW9kZWwuY2xpZW50LklucHV0UHVyZ2VSZXF1ZXN0EjOgZ1FOriYCAAFKAAJpZHhwAAAAAAAAAANwcHBwdAAF" +
+        "dG9rZW4=";
+
+    @Test
+    public void testRoundTrip() {
+        final ClientRequest request = createRequest();
+        final ClientRequest decoded = new ClientRequestDecoder().decode(new ClientRequestEncoder().encode(request));
+
+        Assertions.assertEquals(request, decoded);
+    }
+
+    @Test
+    public void testDecoderReusesRequest() {
+        final ClientRequestEncoder encoder = new ClientRequestEncoder();
+        final ClientRequestDecoder decoder = new ClientRequestDecoder();
+        final ClientRequest first = decoder.decode(encoder.encode(createRequest()));
+        final InputRequest firstInput = first.getInputs().get(0);
+        final String firstToken = first.getSessionToken();
+
+        // A shorter request must not keep the last request's inputs or commands
+        final ClientRequest shorterRequest = new ClientRequest();
+        shorterRequest.setSessionToken("session-token");
+        shorterRequest.getInputs().add(new InputRequest());
+        shorterRequest.getInputs().get(0).setInputCode("UP");
+        final ClientRequest second = decoder.decode(encoder.encode(shorterRequest));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(firstInput, second.getInputs().get(0));
+        Assertions.assertSame(firstToken, second.getSessionToken());
+        Assertions.assertEquals(shorterRequest, second);
+    }
+
+    @Test
+    public void testMalformedRequests() {
+        final byte[] encoded = new ClientRequestEncoder().encode(createRequest());
+        final ClientRequestDecoder decoder = new ClientRequestDecoder();
+
+        for (int length = 0; length < encoded.length; length++) {
+            final byte[] truncated = Arrays.copyOf(encoded, length);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> decoder.decode(truncated));
+        }
+
+        final byte[] padded = Arrays.copyOf(encoded, encoded.length + 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> decoder.decode(padded));
+
+        final byte[] futureVersion = encoded.clone();
+        futureVersion[1] = (byte) (ClientRequestEncoder.FORMAT_VERSION + 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> decoder.decode(futureVersion));
+    }
+
+    @Test
+    public void testTransformerTakesBothFormats() throws Exception {
+        final ClientRequest request = createRequest();
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        final ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+        objectStream.writeObject(request);
+        objectStream.flush();
+
+        final ClientRequestTransformer transformer = new ClientRequestTransformer();
+        Assertions.assertEquals(request, transformer.apply(byteStream.toByteArray()));
+        Assertions.assertEquals(request, transformer.apply(new ClientRequestEncoder().encode(request)));
+    }
+
+    @Test
+    public void testTransformerAdaptsLegacySerializedRequests() {
+        final ClientRequest request = new ClientRequestTransformer().apply(
+            Base64.getDecoder().decode(LEGACY_SERIALIZED_REQUEST)
+        );
+
+        Assertions.assertEquals(42, request.getSequenceNumber());
+        Assertions.assertEquals(-1, request.getLastReceivedGameStateVersion());
+        Assertions.assertEquals("token", request.getSessionToken());
+        Assertions.assertEquals(2, request.getInputs().size());
+        Assertions.assertEquals("THRUST", request.getInputs().get(0).getInputCode());
+        Assertions.assertEquals(7L, request.getInputs().get(0).getInputId());
+        Assertions.assertTrue(request.getInputs().get(0).isAckRequired());
+        Assertions.assertEquals("SHOOT", request.getInputs().get(1).getInputCode());
+        Assertions.assertEquals(1, request.getClientCommands().size());
+        Assertions.assertEquals("SPAWN", request.getClientCommands().get(0).getCode());
+        Assertions.assertEquals(5, request.getClientCommands().get(0).getCommandNumber());
+        Assertions.assertTrue(request.getCommandsToRemove().isEmpty());
+    }
+
+    private static ClientRequest createRequest() {
+        final ClientRequest request = new ClientRequest();
+        request.setSequenceNumber(300);
+        request.setLastReceivedGameStateVersion(-1);
+        request.setSessionToken("session-token");
+
+        final InputRequest input = new InputRequest();
+        input.setInputCode("UP");
+        input.setInputId(70000L);
+        input.setAckRequired(true);
+        request.getInputs().add(input);
+
+        // More inputs than the old fixed request had room for
+        for (int index = 0; index < 7; index++) {
+            final InputRequest unacknowledgedInput = new InputRequest();
+            unacknowledgedInput.setInputCode("LEFT");
+            request.getInputs().add(unacknowledgedInput);
+        }
+
+        final ClientCommand command = new ClientCommand();
+        command.setCode("spawn snake");
+        command.setCommandNumber(2);
+        request.getClientCommands().add(command);
+        return request;
+    }
+}
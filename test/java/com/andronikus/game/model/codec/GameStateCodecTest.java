@@ -0,0 +1,293 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.server.Asteroid;
+import com.andronikus.game.model.server.BoundingBoxBorder;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Laser;
+import com.andronikus.game.model.server.MicroBlackHole;
+import com.andronikus.game.model.server.Player;
+import com.andronikus.game.model.server.PlayerColor;
+import com.andronikus.game.model.server.Portal;
+import com.andronikus.game.model.server.Snake;
+import com.andronikus.game.model.server.debug.CommandAcknowledgement;
+import com.andronikus.game.model.server.debug.PlayerCollisionFlag;
+import com.andronikus.game.model.server.debug.ServerDebugSettings;
+import com.andronikus.game.model.server.input.InputAcknowledgement;
+import com.andronikus.gameserver.engine.ScalableBalanceConstants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Test of {@link GameStateCodec}.
+ *
+ * @author Andronikus
+ */
+public class GameStateCodecTest {
+
+    private static final Logger LOGGER = Logger.getLogger("GameStateCodecTest");
+
+    private static final double ANGLE_STEP = Math.PI * 2 / 65536;
+
+    private final GameStateCodec codec = new GameStateCodec();
+
+    @Test
+    public void testRoundTrip() {
+        for (long seed = 0; seed < 20; seed++) {
+            final GameState state = createGameState(seed, seed % 2 == 0, true);
+            Assertions.assertEquals(state, codec.decode(codec.encode(state)), "Seed " + seed + " did not survive the round trip");
+        }
+    }
+
+    @Test
+    public void testRoundTripOfEmptyGameState() {
+        final GameState state = new GameState();
+        Assertions.assertEquals(state, codec.decode(codec.encode(state)));
+    }
+
+    @Test
+    public void testQuantizedGameStateIsStable() {
+        // Angles that are not on a step are rounded on the first encode, after which nothing else should change
+        for (long seed = 0; seed < 20; seed++) {
+            final GameState state = createGameState(seed, true, false);
+            final byte[] snapshot = codec.encode(state);
+            Assertions.assertArrayEquals(snapshot, codec.encode(codec.decode(snapshot)));
+        }
+    }
+
+    @Test
+    public void testReferencesArePreserved() {
+        final GameState decoded = codec.decode(codec.encode(createGameState(3, false, true)));
+
+        decoded.getSnakes().stream().filter(snake -> snake.getTarget() != null).forEach(snake ->
+            Assertions.assertTrue(decoded.getPlayers().stream().anyMatch(player -> player == snake.getTarget()))
+        );
+        Assertions.assertEquals(
+            decoded.getPlayers().size() + decoded.getLasers().size() + decoded.getAsteroids().size() +
+            decoded.getSnakes().size() + decoded.getBlackHoles().size() + decoded.getPortals().size(),
+            decoded.getCollideables().stream().distinct().count()
+        );
+        Assertions.assertSame(decoded.getPlayers().get(0), decoded.getCollideables().get(0));
+    }
+
+    @Test
+    public void testAngleQuantization() {
+        final Random random = new Random(42);
+        for (int index = 0; index < 100_000; index++) {
+            final double angle = (random.nextDouble() - 0.5) * Math.PI * 20;
+            final double decoded = SnapshotFields.toAngle(SnapshotFields.fromAngle(angle));
+            Assertions.assertTrue(decoded >= 0 && decoded < Math.PI * 2);
+
+            final double error = Math.abs(Math.IEEEremainder(decoded - angle, Math.PI * 2));
+            Assertions.assertTrue(error <= ANGLE_STEP / 2 + 1e-12, "Angle " + angle + " came back as " + decoded);
+        }
+    }
+
+    @Test
+    public void testPositionsOutsideOfRangeAreClamped() {
+        final long lowest = ScalableBalanceConstants.SNAPSHOT_POSITION_ORIGIN;
+        final long highest = ScalableBalanceConstants.SNAPSHOT_POSITION_ORIGIN + 65535;
+
+        Assertions.assertEquals(lowest, SnapshotFields.toPosition(SnapshotFields.fromPosition(lowest - 1000)));
+        Assertions.assertEquals(highest, SnapshotFields.toPosition(SnapshotFields.fromPosition(highest + 1000)));
+        Assertions.assertEquals(-2000, SnapshotFields.toPosition(SnapshotFields.fromPosition(-2000)));
+        Assertions.assertEquals(
+            ScalableBalanceConstants.BORDER_X_COORDINATE + 2000,
+            SnapshotFields.toPosition(SnapshotFields.fromPosition(ScalableBalanceConstants.BORDER_X_COORDINATE + 2000))
+        );
+    }
+
+    @Test
+    public void testRejectsUnknownFormatVersion() {
+        final byte[] snapshot = codec.encode(new GameState());
+        snapshot[0] = (byte) (SnapshotEncoder.FORMAT_VERSION + 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode(snapshot));
+    }
+
+    @Test
+    public void testRejectsTruncatedSnapshot() {
+        final byte[] snapshot = codec.encode(createGameState(7, true, true));
+        // An empty message is not a truncated snapshot but one that holds none
+        for (int length = 1; length < snapshot.length; length += 37) {
+            final byte[] truncated = Arrays.copyOf(snapshot, length);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated));
+        }
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() throws Exception {
+        final GameState state = createGameState(11, false, false);
+        final int codecSize = codec.encode(state).length;
+
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        final ObjectOutputStream outputStream = new ObjectOutputStream(byteStream);
+        outputStream.writeObject(state);
+        outputStream.flush();
+        final int javaSize = byteStream.size();
+
+        LOGGER.info("Snapshot is " + codecSize + " bytes, Java serialization is " + javaSize + " bytes.");
+        Assertions.assertTrue(codecSize * 4 < javaSize);
+    }
+
+    private static GameState createGameState(long seed, boolean debugMode, boolean onAngleSteps) {
+        final Random random = new Random(seed);
+        final GameState state = new GameState();
+        state.setVersion(random.nextInt(1_000_000));
+        state.setTickEnabled(random.nextBoolean());
+        state.setMovementEnabled(random.nextBoolean());
+
+        final BoundingBoxBorder border = new BoundingBoxBorder();
+        border.setMaxX(ScalableBalanceConstants.BORDER_X_COORDINATE);
+        border.setMaxY(ScalableBalanceConstants.BORDER_Y_COORDINATE);
+        state.setBorder(border);
+
+        final int playerCount = 1 + random.nextInt(8);
+        for (int index = 0; index < playerCount; index++) {
+            final Player player = new Player();
+            player.setSessionSlot(1 + index * 1000 + random.nextInt(1000));
+            player.setX(randomPosition(random));
+            player.setY(randomPosition(random));
+            player.setXVelocity(random.nextInt(77) - 38);
+            player.setYVelocity(random.nextInt(77) - 38);
+            player.setExternalXAcceleration(random.nextInt(15) - 7);
+            player.setExternalYAcceleration(random.nextInt(15) - 7);
+            player.setSpeed(random.nextInt(46) - 7);
+            player.setAcceleration(random.nextInt(7) - 3);
+            player.setBoosting(random.nextBoolean());
+            player.setBoostingCharge(random.nextInt(201));
+            player.setBoostingRecharge(random.nextInt(201));
+            player.setAngle(randomAngle(random, onAngleSteps));
+            player.setRotationalVelocity(onAngleSteps ? (random.nextInt(4001) - 2000) * ANGLE_STEP : random.nextDouble() - 0.5);
+            player.setHealth(random.nextInt(101));
+            player.setDead(random.nextInt(5) == 0);
+            player.setShieldCount(random.nextInt(5));
+            player.setShieldRecharge(random.nextInt(1000));
+            player.setShieldLostThisTick(random.nextBoolean());
+            player.setLaserCharges(random.nextInt(9));
+            player.setLaserRecharge(random.nextInt(750));
+            player.setColor(random.nextInt(4) == 0 ? null : PlayerColor.getById(random.nextInt(8)));
+            player.setThrusting(random.nextBoolean());
+            player.setVenom(random.nextInt(50));
+            player.setCollidedPortalId(random.nextBoolean() ? null : (long) random.nextInt(1000));
+            player.setPerformedWarp(random.nextBoolean());
+            state.getPlayerRegistry().add(player);
+        }
+
+        final int laserCount = random.nextInt(200);
+        for (int index = 0; index < laserCount; index++) {
+            final Laser laser = new Laser();
+            laser.setX(randomPosition(random));
+            laser.setY(randomPosition(random));
+            laser.setAngle(randomAngle(random, onAngleSteps));
+            laser.setXVelocity(random.nextInt(119) - 59);
+            laser.setYVelocity(random.nextInt(119) - 59);
+            laser.setLoyalty(state.getPlayers().get(random.nextInt(playerCount)).getSessionSlot());
+            laser.setActive(random.nextInt(10) != 0);
+            state.getLaserRegistry().add(laser);
+        }
+
+        final int asteroidCount = random.nextInt(60);
+        for (int index = 0; index < asteroidCount; index++) {
+            final Asteroid asteroid = new Asteroid();
+            asteroid.setX(randomPosition(random));
+            asteroid.setY(randomPosition(random));
+            asteroid.setXVelocity(random.nextInt(51) - 25);
+            asteroid.setYVelocity(random.nextInt(51) - 25);
+            asteroid.setAngle(randomAngle(random, onAngleSteps));
+            asteroid.setAngularVelocity(onAngleSteps ? random.nextInt(1025) * ANGLE_STEP : random.nextDouble() * Math.PI / 32);
+            asteroid.setSize(random.nextInt(2));
+            asteroid.setDurability(random.nextInt(45) - 10);
+            asteroid.setCrackingTicks(random.nextInt(13));
+            state.getAsteroidRegistry().add(asteroid);
+        }
+
+        final int snakeCount = random.nextInt(30);
+        for (int index = 0; index < snakeCount; index++) {
+            final Snake snake = new Snake();
+            snake.setX(randomPosition(random));
+            snake.setY(randomPosition(random));
+            snake.setXVelocity(random.nextInt(39) - 19);
+            snake.setYVelocity(random.nextInt(39) - 19);
+            snake.setAngle(randomAngle(random, onAngleSteps));
+            snake.setHealth(random.nextInt(51));
+            snake.setChasing(random.nextBoolean());
+            snake.setTarget(snake.isChasing() ? state.getPlayers().get(random.nextInt(playerCount)) : null);
+            state.getSnakeRegistry().add(snake);
+        }
+
+        final int portalCount = random.nextInt(6);
+        for (int index = 0; index < portalCount; index++) {
+            final Portal portal = new Portal();
+            portal.setX(randomPosition(random));
+            portal.setY(randomPosition(random));
+            portal.setAngle(randomAngle(random, onAngleSteps));
+            portal.setAngularVelocity(onAngleSteps ? (random.nextInt(2049) - 1024) * ANGLE_STEP : random.nextDouble() - 0.5);
+            portal.setTicksSinceCollision(random.nextBoolean() ? null : random.nextInt(19));
+            portal.setTicksSinceMovement(random.nextBoolean() ? null : random.nextInt(19));
+            state.getPortalRegistry().add(portal);
+        }
+
+        final int blackHoleCount = random.nextInt(6);
+        for (int index = 0; index < blackHoleCount; index++) {
+            final MicroBlackHole blackHole = new MicroBlackHole();
+            blackHole.setX(randomPosition(random));
+            blackHole.setY(randomPosition(random));
+            blackHole.setAngle(randomAngle(random, onAngleSteps));
+            blackHole.setAngularVelocity(onAngleSteps ? random.nextInt(2185) * ANGLE_STEP : random.nextDouble() * Math.PI / 30);
+            state.getBlackHoleRegistry().add(blackHole);
+        }
+
+        // Slots freed up here are reused with their next generation
+        state.getLaserRegistry().removeIf(laser -> random.nextInt(4) == 0);
+        for (int index = 0; index < laserCount / 4; index++) {
+            final Laser laser = new Laser();
+            laser.setX(randomPosition(random));
+            laser.setY(randomPosition(random));
+            laser.setLoyalty(state.getPlayers().get(random.nextInt(playerCount)).getSessionSlot());
+            state.getLaserRegistry().add(laser);
+        }
+
+        for (int index = 0; index < playerCount; index++) {
+            final InputAcknowledgement acknowledgement = new InputAcknowledgement();
+            acknowledgement.setSessionSlot(state.getPlayers().get(index).getSessionSlot());
+            acknowledgement.setLatestInputId(random.nextInt(1_000_000));
+            acknowledgement.setAckBitfield(random.nextLong());
+            state.getInputAcknowledgements().add(acknowledgement);
+        }
+
+        if (debugMode) {
+            state.setServerDebugMode(true);
+            state.setDebugSettings(new ServerDebugSettings());
+
+            final CommandAcknowledgement commandAcknowledgement = new CommandAcknowledgement();
+            commandAcknowledgement.setSessionSlot(1 + random.nextInt(100_000));
+            commandAcknowledgement.setCommandId(random.nextInt(1000));
+            state.getDebugSettings().getCommandAcknowledgements().add(commandAcknowledgement);
+
+            final PlayerCollisionFlag flag = new PlayerCollisionFlag();
+            flag.setSessionSlot(state.getPlayers().get(0).getSessionSlot());
+            flag.setCollisionType("ASTEROID");
+            flag.setCollisionId(random.nextInt(1000));
+            flag.setGameStateVersion(state.getVersion());
+            state.getDebugSettings().getPlayerCollisionFlags().add(flag);
+        }
+
+        return state;
+    }
+
+    private static long randomPosition(Random random) {
+        return random.nextInt((int) ScalableBalanceConstants.BORDER_X_COORDINATE + 4000) - 2000;
+    }
+
+    private static double randomAngle(Random random, boolean onAngleSteps) {
+        if (onAngleSteps) {
+            return random.nextInt(65536) * ANGLE_STEP;
+        }
+        return (random.nextDouble() - 0.5) * Math.PI * 20;
+    }
+}
@@ -0,0 +1,266 @@
+package com.andronikus.game.model.codec;
+
+import com.andronikus.game.model.server.Asteroid;
+import com.andronikus.game.model.server.BoundingBoxBorder;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Laser;
+import com.andronikus.game.model.server.MicroBlackHole;
+import com.andronikus.game.model.server.Player;
+import com.andronikus.game.model.server.Portal;
+import com.andronikus.game.model.server.Snake;
+import com.andronikus.game.model.server.input.InputAcknowledgement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Test of encoding snapshots against a baseline with {@link SnapshotEncoder} and {@link SnapshotDecoder}.
+ *
+ * @author Andronikus
+ */
+public class SnapshotDeltaTest {
+
+    private static final double ANGLE_STEP = Math.PI * 2 / 65536;
+    private static final int TICKS = 200;
+    private static final int HISTORY_SIZE = 8;
+
+    @Test
+    public void testDeltasMatchSimulation() {
+        for (long seed = 0; seed < 5; seed++) {
+            final Random random = new Random(seed);
+            final GameState state = createGameState(random);
+            final SnapshotEncoder encoder = new SnapshotEncoder();
+            final SnapshotDecoder decoder = new SnapshotDecoder(HISTORY_SIZE);
+            final SnapshotHistory serverHistory = new SnapshotHistory(HISTORY_SIZE);
+            final GameStateCodec keyframeCodec = new GameStateCodec();
+
+            long deltaBytes = 0;
+            long keyframeBytes = 0;
+            for (int tick = 0; tick < TICKS; tick++) {
+                simulate(state, random);
+                final WorldSnapshot snapshot = WorldSnapshot.capture(state);
+
+                // Mostly send against a recent baseline, sometimes an older one and sometimes a keyframe
+                final WorldSnapshot baseline = tick % 30 == 0 ? null : serverHistory.get(state.getVersion() - 1 - random.nextInt(HISTORY_SIZE - 1));
+                serverHistory.add(snapshot);
+
+                final byte[] message = encoder.encode(snapshot, baseline);
+                final byte[] keyframe = encoder.encode(snapshot, null);
+                if (baseline != null) {
+                    deltaBytes += message.length;
+                    keyframeBytes += keyframe.length;
+                }
+
+                // Quantization already has its own tests, so the delta only has to land on what a keyframe gives
+                Assertions.assertEquals(keyframeCodec.decode(keyframe), decoder.decode(message).toGameState(), "Seed " + seed + " diverged on tick " + tick);
+            }
+
+            Assertions.assertTrue(deltaBytes * 2 < keyframeBytes, "Deltas took " + deltaBytes + " bytes against " + keyframeBytes + " for keyframes");
+        }
+    }
+
+    @Test
+    public void testNarrowedDeltasMatchSimulation() {
+        final Random random = new Random(17);
+        final GameState state = createGameState(random);
+        final SnapshotEncoder encoder = new SnapshotEncoder();
+        final SnapshotDecoder decoder = new SnapshotDecoder(HISTORY_SIZE);
+        final GameStateCodec keyframeCodec = new GameStateCodec();
+
+        WorldSnapshot baseline = null;
+        for (int tick = 0; tick < TICKS; tick++) {
+            simulate(state, random);
+
+            // A view sweeping across the world, so that entities keep coming into and out of it
+            final long viewX = tick * 60L;
+            final BitSet[] kept = new BitSet[SnapshotSchemas.SCHEMAS.size()];
+            final WorldSnapshot snapshot = WorldSnapshot.capture(state);
+            for (int table = 1; table < SnapshotSchemas.COLLIDEABLE_TABLE_COUNT; table++) {
+                kept[table] = new BitSet();
+                final int positionField = SnapshotSchemas.SCHEMAS.get(table).getPositionField();
+                for (int index = 0; index < snapshot.getTable(table).size(); index++) {
+                    if (Math.abs(SnapshotFields.toPosition(snapshot.getTable(table).field(index, positionField)) - viewX) < 3000) {
+                        kept[table].set(index);
+                    }
+                }
+            }
+            final WorldSnapshot narrowed = snapshot.subset(kept);
+
+            final byte[] message = encoder.encode(narrowed, baseline);
+            Assertions.assertEquals(keyframeCodec.decode(encoder.encode(narrowed, null)), decoder.decode(message).toGameState(), "Diverged on tick " + tick);
+            baseline = narrowed;
+        }
+    }
+
+    @Test
+    public void testRemovedEntityOnlyResendsMovedEntity() {
+        final Random random = new Random(99);
+        final GameState state = createGameState(random);
+        final SnapshotEncoder encoder = new SnapshotEncoder();
+        final SnapshotDecoder decoder = new SnapshotDecoder(HISTORY_SIZE);
+
+        final WorldSnapshot baseline = WorldSnapshot.capture(state);
+        decoder.decode(encoder.encode(baseline, null));
+
+        // Removing the first laser moves the last one into its place
+        final Laser lastLaser = state.getLasers().get(state.getLasers().size() - 1);
+        state.getLaserRegistry().remove(state.getLasers().get(0));
+        Assertions.assertSame(lastLaser, state.getLasers().get(0));
+        state.setVersion(state.getVersion() + 1);
+
+        final WorldSnapshot current = WorldSnapshot.capture(state);
+        final byte[] message = encoder.encode(current, baseline);
+        final byte[] keyframe = encoder.encode(current, null);
+        Assertions.assertEquals(new GameStateCodec().decode(keyframe), decoder.decode(message).toGameState());
+        Assertions.assertTrue(message.length * 10 < keyframe.length, "Delta took " + message.length + " bytes against " + keyframe.length + " for a keyframe");
+    }
+
+    @Test
+    public void testMissingBaselineIsRejected() {
+        final GameState state = createGameState(new Random(5));
+        final SnapshotEncoder encoder = new SnapshotEncoder();
+
+        final WorldSnapshot baseline = WorldSnapshot.capture(state);
+        state.setVersion(state.getVersion() + 1);
+        final byte[] message = encoder.encode(WorldSnapshot.capture(state), baseline);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SnapshotDecoder(HISTORY_SIZE).decode(message));
+    }
+
+    @Test
+    public void testKeyFieldsAreNotStrings() {
+        // Entities are matched up by the raw value of their key, which for a string is an ID that differs by snapshot
+        for (IEntitySchema<?> schema : SnapshotSchemas.SCHEMAS) {
+            if (schema.getKeyField() >= 0) {
+                Assertions.assertNotEquals(FieldEncoding.STRING, schema.getFieldEncodings()[schema.getKeyField()]);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyMessageIsSkipped() {
+        final SnapshotDecoder decoder = new SnapshotDecoder(HISTORY_SIZE);
+
+        Assertions.assertNull(decoder.decode(new byte[0]));
+        Assertions.assertNull(new GameStateCodec().decode(new byte[0]));
+    }
+
+    private static GameState createGameState(Random random) {
+        final GameState state = new GameState();
+        final BoundingBoxBorder border = new BoundingBoxBorder();
+        border.setMaxX(13350);
+        border.setMaxY(8035);
+        state.setBorder(border);
+
+        for (int index = 0; index < 6; index++) {
+            final Player player = new Player();
+            player.setSessionSlot(index + 1);
+            player.setX(random.nextInt(13350));
+            player.setY(random.nextInt(8035));
+            player.setXVelocity(random.nextInt(37) - 18);
+            player.setYVelocity(random.nextInt(37) - 18);
+            player.setAngle(random.nextInt(65536) * ANGLE_STEP);
+            state.getPlayerRegistry().add(player);
+        }
+        for (int index = 0; index < 150; index++) {
+            addLaser(state, random);
+        }
+        for (int index = 0; index < 40; index++) {
+            addAsteroid(state, random);
+        }
+        for (int index = 0; index < 10; index++) {
+            final Snake snake = new Snake();
+            snake.setX(random.nextInt(13350));
+            snake.setY(random.nextInt(8035));
+            state.getSnakeRegistry().add(snake);
+        }
+        for (int index = 0; index < 3; index++) {
+            final Portal portal = new Portal();
+            portal.setX(random.nextInt(13350));
+            portal.setY(random.nextInt(8035));
+            portal.setAngularVelocity(random.nextInt(200) * ANGLE_STEP);
+            state.getPortalRegistry().add(portal);
+
+            final MicroBlackHole blackHole = new MicroBlackHole();
+            blackHole.setX(random.nextInt(13350));
+            blackHole.setY(random.nextInt(8035));
+            blackHole.setAngularVelocity(random.nextInt(200) * ANGLE_STEP);
+            state.getBlackHoleRegistry().add(blackHole);
+        }
+        return state;
+    }
+
+    private static void simulate(GameState state, Random random) {
+        state.getPlayers().forEach(player -> {
+            player.setX(player.getX() + player.getXVelocity());
+            player.setY(player.getY() + player.getYVelocity());
+            if (random.nextInt(10) == 0) {
+                player.setAngle(random.nextInt(65536) * ANGLE_STEP);
+                player.setHealth(Math.max(0, player.getHealth() - 23));
+            }
+        });
+        state.getLasers().forEach(laser -> {
+            laser.setX(laser.getX() + laser.getXVelocity());
+            laser.setY(laser.getY() + laser.getYVelocity());
+        });
+        state.getAsteroids().forEach(asteroid -> {
+            asteroid.setX(asteroid.getX() + asteroid.getXVelocity());
+            asteroid.setY(asteroid.getY() + asteroid.getYVelocity());
+            asteroid.setAngle(asteroid.getAngle() + asteroid.getAngularVelocity());
+        });
+        state.getSnakes().forEach(snake -> {
+            snake.setTarget(random.nextInt(4) == 0 ? state.getPlayers().get(random.nextInt(state.getPlayers().size())) : snake.getTarget());
+            snake.setChasing(snake.getTarget() != null);
+        });
+        state.getPortals().forEach(portal -> portal.setAngle(SnapshotFields.toAngle(SnapshotFields.fromAngle(portal.getAngle() + portal.getAngularVelocity()))));
+        state.getBlackHoles().forEach(blackHole -> blackHole.setAngle(SnapshotFields.toAngle(SnapshotFields.fromAngle(blackHole.getAngle() + blackHole.getAngularVelocity()))));
+
+        // Lasers and asteroids come and go
+        for (int index = 0; index < 3; index++) {
+            if (!state.getLasers().isEmpty()) {
+                state.getLaserRegistry().remove(state.getLasers().get(random.nextInt(state.getLasers().size())));
+            }
+            addLaser(state, random);
+        }
+        if (random.nextInt(5) == 0 && !state.getAsteroids().isEmpty()) {
+            state.getAsteroidRegistry().remove(state.getAsteroids().get(random.nextInt(state.getAsteroids().size())));
+            addAsteroid(state, random);
+            addAsteroid(state, random);
+        }
+
+        state.getInputAcknowledgements().clear();
+        for (int index = 0; index < random.nextInt(6); index++) {
+            final InputAcknowledgement acknowledgement = new InputAcknowledgement();
+            acknowledgement.setSessionSlot(1 + random.nextInt(6));
+            acknowledgement.setLatestInputId(random.nextInt(1000));
+            acknowledgement.setAckBitfield(random.nextLong());
+            state.getInputAcknowledgements().add(acknowledgement);
+        }
+
+        state.setVersion(state.getVersion() + 1);
+    }
+
+    private static void addLaser(GameState state, Random random) {
+        final Laser laser = new Laser();
+        laser.setX(random.nextInt(13350));
+        laser.setY(random.nextInt(8035));
+        laser.setAngle(random.nextInt(65536) * ANGLE_STEP);
+        laser.setXVelocity(random.nextInt(119) - 59);
+        laser.setYVelocity(random.nextInt(119) - 59);
+        laser.setLoyalty(1 + random.nextInt(6));
+        state.getLaserRegistry().add(laser);
+    }
+
+    private static void addAsteroid(GameState state, Random random) {
+        final Asteroid asteroid = new Asteroid();
+        asteroid.setX(random.nextInt(13350));
+        asteroid.setY(random.nextInt(8035));
+        asteroid.setXVelocity(random.nextInt(51) - 25);
+        asteroid.setYVelocity(random.nextInt(51) - 25);
+        asteroid.setAngularVelocity(random.nextInt(1025) * ANGLE_STEP);
+        asteroid.setSize(random.nextInt(2));
+        state.getAsteroidRegistry().add(asteroid);
+    }
+}
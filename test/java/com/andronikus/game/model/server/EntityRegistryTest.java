@@ -0,0 +1,87 @@
+package com.andronikus.game.model.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Test of {@link EntityRegistry}.
+ *
+ * @author Andronikus
+ */
+public class EntityRegistryTest {
+
+    @Test
+    public void testRemovedIdsAreNotReused() {
+        final EntityRegistry<Asteroid> registry = new EntityRegistry<>();
+        final Asteroid first = new Asteroid();
+        final Asteroid second = new Asteroid();
+        final Asteroid third = new Asteroid();
+        final long firstId = registry.add(first);
+        registry.add(second);
+        registry.add(third);
+
+        // The last asteroid takes the place of the removed one
+        Assertions.assertTrue(registry.remove(first));
+        Assertions.assertEquals(List.of(third, second), registry.view());
+        Assertions.assertNull(registry.get(firstId));
+        Assertions.assertSame(third, registry.get(third.getId()));
+
+        // The new asteroid gets the same slot, but an ID that the old one cannot be found by
+        final Asteroid fourth = new Asteroid();
+        final long fourthId = registry.add(fourth);
+        Assertions.assertNotEquals(firstId, fourthId);
+        Assertions.assertEquals(firstId & ((1L << EntityRegistry.SLOT_BITS) - 1), fourthId & ((1L << EntityRegistry.SLOT_BITS) - 1));
+        Assertions.assertNull(registry.get(firstId));
+        Assertions.assertNull(registry.remove(firstId));
+        Assertions.assertFalse(registry.remove(first));
+        Assertions.assertSame(fourth, registry.get(fourthId));
+    }
+
+    @Test
+    public void testRemoveIfChecksMovedEntities() {
+        final EntityRegistry<Laser> registry = new EntityRegistry<>();
+        for (int index = 0; index < 10; index++) {
+            final Laser laser = new Laser();
+            laser.setX(index);
+            registry.add(laser);
+        }
+
+        Assertions.assertEquals(5, registry.removeIf(laser -> laser.getX() % 2 == 1));
+        Assertions.assertEquals(5, registry.size());
+        registry.view().forEach(laser -> {
+            Assertions.assertEquals(0, laser.getX() % 2);
+            Assertions.assertSame(laser, registry.get(laser.getId()));
+        });
+    }
+
+    @Test
+    public void testRestoreKeepsIds() {
+        final EntityRegistry<Snake> source = new EntityRegistry<>();
+        for (int index = 0; index < 5; index++) {
+            source.add(new Snake());
+        }
+        source.remove(source.view().get(1));
+        source.remove(source.view().get(3));
+        source.add(new Snake());
+
+        final EntityRegistry<Snake> restored = new EntityRegistry<>();
+        source.view().forEach(snake -> {
+            final Snake copy = new Snake();
+            copy.setId(snake.getId());
+            restored.restore(copy);
+        });
+        source.view().forEach(snake -> Assertions.assertEquals(snake.getId(), restored.get(snake.getId()).getId()));
+
+        // Adding after a restore does not land on a slot that was restored
+        final Snake added = new Snake();
+        restored.add(added);
+        Assertions.assertEquals(source.size() + 1, restored.size());
+        Assertions.assertSame(added, restored.get(added.getId()));
+
+        final Snake duplicate = new Snake();
+        duplicate.setId(added.getId());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> restored.restore(duplicate));
+    }
+}
@@ -0,0 +1,82 @@
+package com.andronikus.gameserver.auth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Test of {@link SessionRegistry}.
+ *
+ * @author Andronikus
+ */
+public class SessionRegistryTest {
+
+    @Test
+    public void testIndexes() {
+        final SessionRegistry registry = new SessionRegistry();
+        final Session session = registry.retrieveOrCreate("Andronikus");
+
+        Assertions.assertSame(session, registry.retrieveOrCreate("ANDRONIKUS"));
+        Assertions.assertSame(session, registry.getByUsername("andronikus"));
+        Assertions.assertSame(session, registry.getBySecret(session.getSecret()));
+        Assertions.assertSame(session, registry.getById(session.getId()));
+        Assertions.assertSame(session, registry.getById(session.getId().toUpperCase()));
+        Assertions.assertEquals(session.getId().toLowerCase(), session.getId());
+        Assertions.assertEquals("Andronikus", session.getUsername());
+        Assertions.assertNull(registry.getBySecret("nonsense"));
+        Assertions.assertNull(registry.getBySecret(null));
+        Assertions.assertEquals(1, registry.getSessions().size());
+
+        // Slots are never handed out twice, even once a session has ended
+        registry.end(session);
+        final Session nextSession = registry.retrieveOrCreate("Andronikus");
+        Assertions.assertTrue(session.getSlot() > 0);
+        Assertions.assertTrue(nextSession.getSlot() > session.getSlot());
+    }
+
+    @Test
+    public void testConcurrentLogins() throws Exception {
+        final SessionRegistry registry = new SessionRegistry();
+        final ConcurrentLinkedQueue<Session> sessions = new ConcurrentLinkedQueue<>();
+
+        // Every thread logs in every user, so each user must still end up with exactly one session
+        final List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            threads.add(new Thread(() -> {
+                for (int user = 0; user < 200; user++) {
+                    sessions.add(registry.retrieveOrCreate("user" + user));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(200, new HashSet<>(sessions).size());
+        Assertions.assertEquals(200, registry.getSessions().size());
+        sessions.forEach(session -> Assertions.assertSame(session, registry.getBySecret(session.getSecret())));
+    }
+
+    @Test
+    public void testEnd() {
+        final SessionRegistry registry = new SessionRegistry();
+        final List<Session> endedSessions = new ArrayList<>();
+        registry.addSessionEndListener(endedSessions::add);
+        final Session session = registry.retrieveOrCreate("Andronikus");
+
+        registry.end(session);
+        registry.end(session);
+
+        Assertions.assertEquals(List.of(session), endedSessions);
+        Assertions.assertNull(registry.getBySecret(session.getSecret()));
+        Assertions.assertNull(registry.getById(session.getId()));
+        Assertions.assertNotSame(session, registry.retrieveOrCreate("Andronikus"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.andronikus.gameserver.broadcast;
+
+import com.andronikus.game.model.codec.SnapshotSchemas;
+import com.andronikus.game.model.codec.WorldSnapshot;
+import com.andronikus.game.model.server.Asteroid;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Player;
+import com.andronikus.game.model.server.input.InputAcknowledgement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of narrowing snapshots down to the part of the world a client is shown with {@link AreaOfInterest}.
+ *
+ * @author Andronikus
+ */
+public class AreaOfInterestTest {
+
+    private static final long VIEW_RADIUS = 1000;
+    private static final long HYSTERESIS = 200;
+    private static final int ASTEROID_TABLE = 2;
+    private static final int INPUT_ACKNOWLEDGEMENT_TABLE = 6;
+    private static final int SESSION = 1;
+    private static final int OTHER = 2;
+    private static final int NOBODY = 3;
+    private static final int STRANGER = 4;
+
+    @Test
+    public void testEntitiesAtTheEdgeDoNotFlicker() {
+        final AreaOfInterest areaOfInterest = new AreaOfInterest(SESSION);
+        final GameState state = createGameState();
+        final Asteroid asteroid = state.getAsteroids().get(0);
+
+        // Comes into view, then drifts just past the edge and back
+        final long[] asteroidXs = {1300, 950, 1100, 1150, 1250, 1100};
+        final boolean[] expectedShown = {false, true, true, true, false, false};
+        for (int step = 0; step < asteroidXs.length; step++) {
+            asteroid.setX(asteroidXs[step]);
+            final WorldSnapshot narrowed = areaOfInterest.narrow(WorldSnapshot.capture(state), VIEW_RADIUS, HYSTERESIS);
+            Assertions.assertEquals(expectedShown[step] ? 1 : 0, narrowed.getTable(ASTEROID_TABLE).size(), "Step " + step);
+            Assertions.assertEquals(expectedShown[step] ? 3 : 2, narrowed.toGameState().getCollideables().size(), "Step " + step);
+        }
+    }
+
+    @Test
+    public void testClientWithoutPlayerOnlySeesPlayers() {
+        final WorldSnapshot narrowed = new AreaOfInterest(NOBODY).narrow(WorldSnapshot.capture(createGameState()), VIEW_RADIUS, HYSTERESIS);
+
+        Assertions.assertEquals(2, narrowed.getTable(SnapshotSchemas.PLAYER_TABLE).size());
+        Assertions.assertEquals(0, narrowed.getTable(ASTEROID_TABLE).size());
+    }
+
+    @Test
+    public void testClientsOnlySeeTheirOwnAcknowledgements() {
+        final GameState state = createGameState();
+        for (int sessionSlot : new int[] {SESSION, OTHER, NOBODY}) {
+            final InputAcknowledgement acknowledgement = new InputAcknowledgement();
+            acknowledgement.setSessionSlot(sessionSlot);
+            acknowledgement.setLatestInputId(sessionSlot * 10);
+            state.getInputAcknowledgements().add(acknowledgement);
+        }
+        final WorldSnapshot snapshot = WorldSnapshot.capture(state);
+
+        // Including a client that does not have a player yet
+        for (int sessionSlot : new int[] {SESSION, NOBODY}) {
+            final GameState narrowed = new AreaOfInterest(sessionSlot).narrow(snapshot, VIEW_RADIUS, HYSTERESIS).toGameState();
+            Assertions.assertEquals(1, narrowed.getInputAcknowledgements().size());
+            Assertions.assertEquals(sessionSlot, narrowed.getInputAcknowledgements().get(0).getSessionSlot());
+            Assertions.assertEquals(sessionSlot * 10, narrowed.getInputAcknowledgements().get(0).getLatestInputId());
+        }
+        Assertions.assertEquals(0, new AreaOfInterest(STRANGER).narrow(snapshot, VIEW_RADIUS, HYSTERESIS).getTable(INPUT_ACKNOWLEDGEMENT_TABLE).size());
+    }
+
+    private static GameState createGameState() {
+        final GameState state = new GameState();
+
+        final Player player = new Player();
+        player.setSessionSlot(SESSION);
+        state.getPlayerRegistry().add(player);
+
+        // Other players are shown no matter how far away they are
+        final Player otherPlayer = new Player();
+        otherPlayer.setSessionSlot(OTHER);
+        otherPlayer.setX(10000);
+        state.getPlayerRegistry().add(otherPlayer);
+
+        final Asteroid asteroid = new Asteroid();
+        state.getAsteroidRegistry().add(asteroid);
+        return state;
+    }
+}
@@ -3,6 +3,7 @@ package com.andronikus.gameserver.engine;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,13 +26,16 @@ public class ConcurrentInputManagerTest {
         manager.addInput(input0);
         manager.addInput(input1);
 
-        final List<ClientInputSet> codeSet0 = manager.getUnhandledCodes();
+        final List<ClientInputSet> codeSet0 = new ArrayList<>();
+        Assertions.assertEquals(2, manager.drainUnhandledCodes(codeSet0));
 
         manager.addInput(input2);
         manager.addInput(input3);
         manager.addInput(input4);
 
-        final List<ClientInputSet> codeSet1 = manager.getUnhandledCodes();
+        final List<ClientInputSet> codeSet1 = new ArrayList<>();
+        Assertions.assertEquals(3, manager.drainUnhandledCodes(codeSet1));
+        Assertions.assertEquals(0, manager.drainUnhandledCodes(codeSet1));
 
         Assertions.assertEquals(2, codeSet0.size());
         Assertions.assertEquals(input0, codeSet0.get(0));
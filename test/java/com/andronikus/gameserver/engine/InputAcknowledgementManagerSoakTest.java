@@ -0,0 +1,83 @@
+package com.andronikus.gameserver.engine;
+
+import com.andronikus.game.model.client.InputRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.logging.Logger;
+
+/**
+ * Soak test of {@link InputAcknowledgementManager}. Millions of inputs go through the duplicate check and acknowledgement
+ * while sessions come and go, and the heap is checked to stay the same size throughout. Heap readings depend on the
+ * garbage collector, so this only runs with the performance tests.
+ *
+ * @author Andronikus
+ */
+public class InputAcknowledgementManagerSoakTest {
+
+    private static final Logger LOGGER = Logger.getLogger("InputAcknowledgementManagerSoakTest");
+
+    private static final int SESSION_COUNT = 16;
+    private static final int ROUNDS = 8;
+    private static final int INPUTS_PER_ROUND = 500_000;
+    private static final long ALLOWED_GROWTH_BYTES = 8L * 1024 * 1024;
+
+    @Test
+    @Tag("soak")
+    public void testHeapStaysFlat() throws Exception {
+        final InputAcknowledgementManager manager = new InputAcknowledgementManager();
+        final InputRequest input = new InputRequest();
+        final int[] sessionSlots = new int[SESSION_COUNT];
+        final long[] nextInputIds = new long[SESSION_COUNT];
+        int nextSessionSlot = 1;
+        for (int session = 0; session < SESSION_COUNT; session++) {
+            sessionSlots[session] = nextSessionSlot++;
+        }
+
+        long baselineHeap = 0;
+        long maxHeap = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int count = 0; count < INPUTS_PER_ROUND; count++) {
+                final int session = count % SESSION_COUNT;
+                // Every so often an input is sent again, as it would be if its acknowledgement was lost
+                final long inputId = count % 7 == 0 ? nextInputIds[session] - 3 : nextInputIds[session]++;
+                input.setInputId(inputId);
+                if (!manager.isDuplicate(input, sessionSlots[session])) {
+                    manager.registerAck(sessionSlots[session], inputId);
+                }
+                if (count % 1000 == 0) {
+                    manager.getAcks();
+                }
+            }
+
+            // A session ends and another takes its place
+            final int endingSession = round % SESSION_COUNT;
+            manager.endSession(sessionSlots[endingSession]);
+            sessionSlots[endingSession] = nextSessionSlot++;
+            nextInputIds[endingSession] = 0;
+            Assertions.assertEquals(SESSION_COUNT - 1, manager.getAcks().size());
+
+            final long usedHeap = usedHeap();
+            LOGGER.info("Heap in use after " + (round + 1) * INPUTS_PER_ROUND + " inputs: " + usedHeap / 1024 + " KiB.");
+            if (round == 0) {
+                baselineHeap = usedHeap;
+            }
+            maxHeap = Math.max(maxHeap, usedHeap);
+        }
+
+        Assertions.assertTrue(
+            maxHeap - baselineHeap < ALLOWED_GROWTH_BYTES,
+            "Heap grew by " + (maxHeap - baselineHeap) / 1024 + " KiB over " + ROUNDS * INPUTS_PER_ROUND + " inputs"
+        );
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int collection = 0; collection < 3; collection++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
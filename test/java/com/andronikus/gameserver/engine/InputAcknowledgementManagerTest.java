@@ -0,0 +1,125 @@
+package com.andronikus.gameserver.engine;
+
+import com.andronikus.game.model.client.InputRequest;
+import com.andronikus.game.model.server.input.InputAcknowledgement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link InputAcknowledgementManager}.
+ *
+ * @author Andronikus
+ */
+public class InputAcknowledgementManagerTest {
+
+    @Test
+    public void testBitfieldFollowsLatestInput() {
+        final InputAcknowledgementManager manager = new InputAcknowledgementManager();
+        manager.registerAck(1, 10);
+        manager.registerAck(1, 12);
+        manager.registerAck(1, 11);
+        manager.registerAck(1, 7);
+        manager.registerAck(2, 3);
+
+        Assertions.assertEquals(2, manager.getAcks().size());
+        final InputAcknowledgement acknowledgement = manager.getAcks().get(0);
+        Assertions.assertEquals(1, acknowledgement.getSessionSlot());
+        Assertions.assertEquals(12, acknowledgement.getLatestInputId());
+        // Inputs 11, 10 and 7 are bits 0, 1 and 4
+        Assertions.assertEquals(0b10011, acknowledgement.getAckBitfield());
+
+        final InputRequest input = new InputRequest();
+        input.setInputId(10L);
+        Assertions.assertTrue(manager.isDuplicate(input, 1));
+        Assertions.assertFalse(manager.isDuplicate(input, 2));
+        input.setInputId(null);
+        Assertions.assertFalse(manager.isDuplicate(input, 1));
+    }
+
+    @Test
+    public void testLargeJumps() {
+        final InputAcknowledgement acknowledgement = new InputAcknowledgement();
+        InputAcknowledgementManager.acknowledge(acknowledgement, 0);
+        InputAcknowledgementManager.acknowledge(acknowledgement, 1);
+        InputAcknowledgementManager.acknowledge(acknowledgement, 64);
+        Assertions.assertEquals(Long.MIN_VALUE | (1L << 62), acknowledgement.getAckBitfield());
+
+        InputAcknowledgementManager.acknowledge(acknowledgement, 128);
+        Assertions.assertEquals(Long.MIN_VALUE, acknowledgement.getAckBitfield());
+
+        // Too far behind the latest input to fit in the bitfield
+        InputAcknowledgementManager.acknowledge(acknowledgement, 63);
+        Assertions.assertEquals(Long.MIN_VALUE, acknowledgement.getAckBitfield());
+
+        InputAcknowledgementManager.acknowledge(acknowledgement, 1000);
+        Assertions.assertEquals(1000, acknowledgement.getLatestInputId());
+        Assertions.assertEquals(0, acknowledgement.getAckBitfield());
+    }
+
+    @Test
+    public void testDuplicateWindow() {
+        final DuplicateInputWindow window = new DuplicateInputWindow(128);
+        Assertions.assertFalse(window.contains(500));
+
+        // Inputs sent just before the first one may still turn up
+        window.add(500);
+        Assertions.assertTrue(window.contains(500));
+        Assertions.assertFalse(window.contains(499));
+        Assertions.assertFalse(window.contains(501));
+
+        window.add(600);
+        window.add(590);
+        Assertions.assertTrue(window.contains(500));
+        Assertions.assertTrue(window.contains(590));
+        Assertions.assertFalse(window.contains(595));
+
+        // Moving the window up forgets the IDs it passes, which then count as too old
+        window.add(700);
+        Assertions.assertTrue(window.contains(500));
+        Assertions.assertFalse(window.contains(650));
+        Assertions.assertTrue(window.contains(600));
+        Assertions.assertFalse(window.contains(701));
+
+        window.add(100_000);
+        Assertions.assertFalse(window.contains(99_999));
+        Assertions.assertTrue(window.contains(99_000));
+        Assertions.assertTrue(window.contains(100_000));
+    }
+
+    @Test
+    public void testEndSession() {
+        final InputAcknowledgementManager manager = new InputAcknowledgementManager();
+        manager.registerAck(1, 4);
+        manager.registerAck(2, 4);
+        manager.endSession(1);
+
+        final InputRequest input = new InputRequest();
+        input.setInputId(4L);
+        Assertions.assertFalse(manager.isDuplicate(input, 1));
+        Assertions.assertTrue(manager.isDuplicate(input, 2));
+        Assertions.assertEquals(1, manager.getAcks().size());
+        Assertions.assertEquals(2, manager.getAcks().get(0).getSessionSlot());
+    }
+
+    @Test
+    public void testOneFixedWindowPerSession() {
+        final InputAcknowledgementManager manager = new InputAcknowledgementManager();
+        manager.registerAck(1, 0);
+        manager.registerAck(2, 0);
+        final DuplicateInputWindow window = manager.getWindow(1);
+
+        // However many inputs come in, the session keeps the window it started with
+        for (long inputId = 1; inputId < 100_000; inputId++) {
+            manager.registerAck(1, inputId);
+        }
+        Assertions.assertSame(window, manager.getWindow(1));
+        Assertions.assertEquals(ScalableBalanceConstants.INPUT_DUPLICATE_WINDOW_SIZE, window.getSize());
+        Assertions.assertEquals(2, manager.getWindowCount());
+
+        manager.endSession(1);
+        Assertions.assertNull(manager.getWindow(1));
+        Assertions.assertEquals(1, manager.getWindowCount());
+        manager.endSession(2);
+        Assertions.assertEquals(0, manager.getWindowCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.andronikus.gameserver.engine;
+
+import com.andronikus.gameserver.auth.Session;
+import com.andronikus.gameserver.engine.input.InputCode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test of {@link InputSetCoalescer}.
+ *
+ * @author Andronikus
+ */
+public class InputSetCoalescerTest {
+
+    @Test
+    public void testSessionsGetOneSetEach() {
+        final Session session = createSession(1);
+        final Session otherSession = createSession(2);
+        final List<ClientInputSet> inputSets = new ArrayList<>();
+        inputSets.add(createInputSet(session, InputCode.THRUST, InputCode.LROTATE, InputCode.SHOOT));
+        inputSets.add(createInputSet(otherSession, InputCode.BOOST));
+        inputSets.add(createInputSet(session, InputCode.LROTATE, InputCode.SHOOT, null));
+        inputSets.add(createInputSet(session, InputCode.THRUSTEND, InputCode.LROTATE));
+
+        final List<ClientInputSet> coalescedSets = new ArrayList<>();
+        new InputSetCoalescer().coalesce(inputSets, coalescedSets);
+
+        Assertions.assertEquals(2, coalescedSets.size());
+        Assertions.assertSame(session, coalescedSets.get(0).getSession());
+        Assertions.assertSame(otherSession, coalescedSets.get(1).getSession());
+
+        // Each shot counts, but only the last thrust state and one rotation are kept
+        Assertions.assertEquals(
+            List.of(InputCode.THRUST, InputCode.SHOOT, InputCode.SHOOT, InputCode.THRUSTEND, InputCode.LROTATE),
+            coalescedSets.get(0).getInputs().stream().map(ClientInput::getCode).collect(Collectors.toList())
+        );
+        Assertions.assertEquals(
+            InputCode.THRUST.mask() | InputCode.THRUSTEND.mask() | InputCode.LROTATE.mask() | InputCode.SHOOT.mask(),
+            coalescedSets.get(0).getCodes()
+        );
+        Assertions.assertEquals(List.of(InputCode.BOOST), coalescedSets.get(1).getInputs().stream().map(ClientInput::getCode).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSplitDoesNotMatter() {
+        final Session session = createSession(1);
+        final List<ClientInputSet> oneSet = new ArrayList<>();
+        oneSet.add(createInputSet(session, InputCode.RROTATE, InputCode.BOOST, InputCode.SHOOT, InputCode.BOOSTEND, InputCode.RROTATE));
+        final List<ClientInputSet> splitSets = new ArrayList<>();
+        splitSets.add(createInputSet(session, InputCode.RROTATE, InputCode.BOOST));
+        splitSets.add(createInputSet(session, InputCode.SHOOT));
+        splitSets.add(createInputSet(session, InputCode.BOOSTEND, InputCode.RROTATE));
+
+        final InputSetCoalescer coalescer = new InputSetCoalescer();
+        final List<ClientInputSet> fromOneSet = new ArrayList<>();
+        coalescer.coalesce(oneSet, fromOneSet);
+        final List<ClientInputSet> fromSplitSets = new ArrayList<>();
+        coalescer.coalesce(splitSets, fromSplitSets);
+
+        Assertions.assertEquals(fromOneSet.get(0).getInputs(), fromSplitSets.get(0).getInputs());
+        Assertions.assertEquals(fromOneSet.get(0).getCodes(), fromSplitSets.get(0).getCodes());
+    }
+
+    private static Session createSession(int slot) {
+        final Session session = new Session();
+        session.setSlot(slot);
+        return session;
+    }
+
+    private static ClientInputSet createInputSet(Session session, InputCode... codes) {
+        final ClientInputSet inputSet = new ClientInputSet();
+        inputSet.setSession(session);
+        inputSet.setInputs(new ArrayList<>());
+        for (InputCode code : codes) {
+            inputSet.getInputs().add(new ClientInput(code, 0, false, -1));
+            inputSet.setCodes(inputSet.getCodes() | (code == null ? 0 : code.mask()));
+        }
+        return inputSet;
+    }
+}
@@ -0,0 +1,101 @@
+package com.andronikus.gameserver.engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link ServerTimeManager}. The timer runs on the test thread against a fake clock, where parking jumps
+ * straight to the deadline and each execution takes however long the test says.
+ *
+ * @author Andronikus
+ */
+public class ServerTimeManagerTest {
+
+    private static final long PERIOD_NANOS = 10_000_000L;
+    private static final long WORK_NANOS = 1_000_000L;
+    private static final long LONG_WORK_NANOS = 35_000_000L;
+
+    private long now;
+    private int executions;
+
+    @Test
+    public void testKeepsRate() {
+        final ServerTimeManager timer = createTimer(CatchUpPolicy.BURST, 100, -1);
+
+        runTimer(timer);
+
+        Assertions.assertEquals(100, timer.getExecutionCount());
+        Assertions.assertEquals(99 * PERIOD_NANOS + WORK_NANOS, now);
+        Assertions.assertEquals(0, timer.getOverrunCount());
+        Assertions.assertEquals(0, timer.getSkippedCount());
+        Assertions.assertEquals(0, timer.getMaxJitterNanos());
+    }
+
+    @Test
+    public void testBurstMakesUpMissedExecutions() {
+        // The fifth execution starts at 40ms and ends at 75ms, so the next three run back to back
+        final ServerTimeManager timer = createTimer(CatchUpPolicy.BURST, 20, 5);
+
+        runTimer(timer);
+
+        Assertions.assertEquals(20, timer.getExecutionCount());
+        Assertions.assertEquals(19 * PERIOD_NANOS + WORK_NANOS, now);
+        Assertions.assertEquals(1, timer.getOverrunCount());
+        Assertions.assertEquals(0, timer.getSkippedCount());
+        Assertions.assertEquals(75_000_000L - 50_000_000L, timer.getMaxJitterNanos());
+        Assertions.assertEquals(0, timer.getLastJitterNanos());
+    }
+
+    @Test
+    public void testSkipDropsMissedExecutions() {
+        // Seven executions are due by the time the fifth ends at 75ms, so the sixth and seventh are dropped
+        final ServerTimeManager timer = createTimer(CatchUpPolicy.SKIP, 20, 5);
+
+        runTimer(timer);
+
+        Assertions.assertEquals(20, timer.getExecutionCount());
+        Assertions.assertEquals(21 * PERIOD_NANOS + WORK_NANOS, now);
+        Assertions.assertEquals(1, timer.getOverrunCount());
+        Assertions.assertEquals(2, timer.getSkippedCount());
+        Assertions.assertEquals(75_000_000L - 70_000_000L, timer.getMaxJitterNanos());
+    }
+
+    @Test
+    public void testSlowDownPushesScheduleBack() {
+        // The sixth execution runs late at 75ms, after which the schedule continues a period after each late start
+        final ServerTimeManager timer = createTimer(CatchUpPolicy.SLOW_DOWN, 10, 5);
+
+        runTimer(timer);
+
+        Assertions.assertEquals(10, timer.getExecutionCount());
+        Assertions.assertEquals(85_000_000L + 3 * PERIOD_NANOS + WORK_NANOS, now);
+        Assertions.assertEquals(1, timer.getOverrunCount());
+        Assertions.assertEquals(0, timer.getSkippedCount());
+        Assertions.assertEquals(75_000_000L - 50_000_000L, timer.getMaxJitterNanos());
+    }
+
+    /**
+     * Create a timer at 100 executions per second that is killed by its last execution.
+     *
+     * @param policy The catch up policy
+     * @param executionCount How many executions to run
+     * @param longExecution Number of the execution that overruns, counting from 1, or -1 for none
+     * @return The timer
+     */
+    private ServerTimeManager createTimer(CatchUpPolicy policy, int executionCount, int longExecution) {
+        final ServerTimeManager[] timer = new ServerTimeManager[1];
+        timer[0] = new ServerTimeManager(null, engine -> {
+            executions++;
+            now += executions == longExecution ? LONG_WORK_NANOS : WORK_NANOS;
+            if (executions == executionCount) {
+                timer[0].kill();
+            }
+        }, "test", 100, policy, () -> now, nanos -> now += nanos + ScalableBalanceConstants.TIMER_SPIN_THRESHOLD_NANOS);
+        return timer[0];
+    }
+
+    private static void runTimer(ServerTimeManager timer) {
+        timer.startTimer();
+        timer.run();
+    }
+}
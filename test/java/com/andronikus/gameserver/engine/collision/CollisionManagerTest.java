@@ -0,0 +1,202 @@
+package com.andronikus.gameserver.engine.collision;
+
+import com.andronikus.game.model.server.Asteroid;
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.IMoveable;
+import com.andronikus.game.model.server.Laser;
+import com.andronikus.game.model.server.MicroBlackHole;
+import com.andronikus.game.model.server.Player;
+import com.andronikus.game.model.server.Portal;
+import com.andronikus.game.model.server.Snake;
+import com.andronikus.game.model.server.debug.ServerDebugSettings;
+import com.andronikus.gameserver.engine.collision.debug.FlagCreatingCollisionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Test of {@link CollisionManager}.
+ *
+ * @author Andronikus
+ */
+public class CollisionManagerTest {
+
+    private static final int TICKS = 10;
+
+    private CollisionManager serialManager;
+    private CollisionManager parallelManager;
+
+    @BeforeEach
+    public void setup() {
+        serialManager = createManager(new ForkJoinPool(1));
+        serialManager.setParallelThreshold(Integer.MAX_VALUE);
+
+        parallelManager = createManager(new ForkJoinPool(4));
+        parallelManager.setParallelThreshold(0);
+    }
+
+    @AfterEach
+    public void teardown() {
+        serialManager.kill();
+        parallelManager.kill();
+    }
+
+    @Test
+    public void testParallelMatchesSerial() {
+        runAndCompare(serialManager, parallelManager, false);
+    }
+
+    @Test
+    public void testParallelMatchesSerialInDebugMode() {
+        runAndCompare(serialManager, parallelManager, true);
+    }
+
+    @Test
+    public void testParallelMatchesSerialWithBruteForce() {
+        serialManager.selectBroadPhase(CollisionManager.BRUTE_FORCE_BROAD_PHASE);
+        parallelManager.selectBroadPhase(CollisionManager.BRUTE_FORCE_BROAD_PHASE);
+        runAndCompare(serialManager, parallelManager, false);
+    }
+
+    @Test
+    public void testSpatialHashMatchesBruteForce() {
+        final CollisionManager bruteForceManager = createManager(new ForkJoinPool(1));
+        try {
+            bruteForceManager.setParallelThreshold(Integer.MAX_VALUE);
+            bruteForceManager.selectBroadPhase(CollisionManager.BRUTE_FORCE_BROAD_PHASE);
+            serialManager.selectBroadPhase(CollisionManager.SPATIAL_HASH_BROAD_PHASE);
+
+            runAndCompare(bruteForceManager, serialManager, false);
+            runAndCompare(bruteForceManager, serialManager, true);
+        } finally {
+            bruteForceManager.kill();
+        }
+    }
+
+    private static void runAndCompare(CollisionManager expectedManager, CollisionManager actualManager, boolean debugMode) {
+        for (long seed = 0; seed < 5; seed++) {
+            final GameState expectedState = createGameState(seed, debugMode);
+            final GameState actualState = createGameState(seed, debugMode);
+            Assertions.assertEquals(expectedState, actualState);
+
+            for (int tick = 0; tick < TICKS; tick++) {
+                moveEverything(expectedState);
+                moveEverything(actualState);
+                expectedManager.checkCollisions(expectedState, true, debugMode);
+                actualManager.checkCollisions(actualState, true, debugMode);
+                Assertions.assertEquals(expectedState, actualState, "Seed " + seed + " diverged on tick " + tick);
+            }
+
+            // Make sure the world was dense enough for collisions to actually happen
+            Assertions.assertTrue(expectedState.getLasers().stream().anyMatch(laser -> !laser.isActive()));
+            Assertions.assertTrue(expectedState.getPlayers().stream().anyMatch(player -> player.getHealth() < 100 || player.getShieldCount() < 4));
+        }
+    }
+
+    private static CollisionManager createManager(ForkJoinPool pool) {
+        final CollisionManager manager = new CollisionManager(pool);
+
+        final ArrayList<CollisionHandler<?, ?>> collisionHandlers = new ArrayList<>();
+        collisionHandlers.add(new PlayerAndLaserCollisionHandler());
+        collisionHandlers.add(new LaserAsteroidCollisionHandler());
+        collisionHandlers.add(new PlayerAsteroidCollisionHandler());
+        collisionHandlers.add(new SnakeLaserCollisionHandler());
+        collisionHandlers.add(new SnakePlayerCollisionHandler());
+        collisionHandlers.add(new PlayerPortalCollisionHandler());
+
+        final ArrayList<CollisionHandler<?, ?>> debugCollisionHandlers = new ArrayList<>();
+        debugCollisionHandlers.add(new FlagCreatingCollisionHandler<>(Asteroid.class));
+        manager.setCollisionHandlers(collisionHandlers, debugCollisionHandlers);
+        return manager;
+    }
+
+    private static GameState createGameState(long seed, boolean debugMode) {
+        final Random random = new Random(seed);
+        final GameState state = new GameState();
+        if (debugMode) {
+            state.setServerDebugMode(true);
+            state.setDebugSettings(new ServerDebugSettings());
+        }
+
+        for (int index = 0; index < 12; index++) {
+            final Player player = new Player();
+            player.setSessionSlot(index + 1);
+            placeRandomly(player, random);
+            player.setAngle(random.nextDouble() * Math.PI * 2);
+            player.setXVelocity(random.nextInt(77) - 38);
+            player.setYVelocity(random.nextInt(77) - 38);
+            state.getPlayerRegistry().add(player);
+        }
+
+        for (int index = 0; index < 300; index++) {
+            final Laser laser = new Laser();
+            placeRandomly(laser, random);
+            laser.setAngle(random.nextDouble() * Math.PI * 2);
+            laser.setXVelocity((long) (Math.cos(laser.getAngle()) * 59));
+            laser.setYVelocity((long) (Math.sin(laser.getAngle()) * 59));
+            laser.setLoyalty(1 + random.nextInt(12));
+            state.getLaserRegistry().add(laser);
+        }
+
+        for (int index = 0; index < 60; index++) {
+            final Asteroid asteroid = new Asteroid();
+            asteroid.setSize(random.nextInt(2));
+            placeRandomly(asteroid, random);
+            asteroid.setAngle(random.nextDouble() * Math.PI * 2);
+            asteroid.setXVelocity(random.nextInt(51) - 25);
+            asteroid.setYVelocity(random.nextInt(51) - 25);
+            state.getAsteroidRegistry().add(asteroid);
+        }
+
+        for (int index = 0; index < 30; index++) {
+            final Snake snake = new Snake();
+            placeRandomly(snake, random);
+            snake.setAngle(random.nextDouble() * Math.PI * 2);
+            snake.setXVelocity(random.nextInt(31) - 15);
+            snake.setYVelocity(random.nextInt(31) - 15);
+            state.getSnakeRegistry().add(snake);
+        }
+
+        for (int index = 0; index < 6; index++) {
+            final Portal portal = new Portal();
+            placeRandomly(portal, random);
+            state.getPortalRegistry().add(portal);
+
+            final MicroBlackHole blackHole = new MicroBlackHole();
+            placeRandomly(blackHole, random);
+            state.getBlackHoleRegistry().add(blackHole);
+        }
+        return state;
+    }
+
+    private static void placeRandomly(IMoveable moveable, Random random) {
+        moveable.setXPosition(random.nextInt(1500));
+        moveable.setYPosition(random.nextInt(1500));
+    }
+
+    private static void moveEverything(GameState state) {
+        state.getPlayers().forEach(player -> {
+            player.recordPreviousPosition();
+            player.setX(player.getX() + player.getXVelocity());
+            player.setY(player.getY() + player.getYVelocity());
+        });
+        state.getLasers().forEach(laser -> {
+            laser.recordPreviousPosition();
+            laser.setX(laser.getX() + laser.getXVelocity());
+            laser.setY(laser.getY() + laser.getYVelocity());
+        });
+        state.getAsteroids().forEach(asteroid -> {
+            asteroid.setX(asteroid.getX() + asteroid.getXVelocity());
+            asteroid.setY(asteroid.getY() + asteroid.getYVelocity());
+        });
+        state.getSnakes().forEach(snake -> {
+            snake.setX(snake.getX() + snake.getXVelocity());
+            snake.setY(snake.getY() + snake.getYVelocity());
+        });
+    }
+}
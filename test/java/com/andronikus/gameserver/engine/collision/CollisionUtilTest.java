@@ -0,0 +1,159 @@
+package com.andronikus.gameserver.engine.collision;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Test of {@link CollisionUtil}.
+ *
+ * @author Andronikus
+ */
+public class CollisionUtilTest {
+
+    private static final int CASE_COUNT = 500_000;
+
+    /*
+     * Cases where the distance is this close to the combined radius are ties. Which way a tie goes depends on the rounding
+     * of the trigonometry in the reference implementation, so they are not compared.
+     */
+    private static final double TIE_TOLERANCE = 1e-9;
+
+    @Test
+    public void testEquivalentToReferenceImplementation() {
+        final Random random = new Random(1234567L);
+        int comparedCount = 0;
+        int collidingCount = 0;
+
+        for (int caseIndex = 0; caseIndex < CASE_COUNT; caseIndex++) {
+            final long x0 = random.nextInt(20000) - 2000;
+            final long y0 = random.nextInt(12000) - 2000;
+            // Mostly keep things close so that plenty of cases are near or in collision
+            final long x1 = x0 + random.nextInt(601) - 300;
+            final long y1 = y0 + random.nextInt(601) - 300;
+
+            final int width0 = randomSize(random);
+            final int height0 = random.nextInt(4) == 0 ? width0 : randomSize(random);
+            final int width1 = randomSize(random);
+            final int height1 = random.nextInt(4) == 0 ? width1 : randomSize(random);
+            final double tilt0 = randomTilt(random);
+            final double tilt1 = randomTilt(random);
+
+            final double margin = referenceMargin(x0, y0, width0, height0, tilt0, x1, y1, width1, height1, tilt1);
+            if (Math.abs(margin) <= TIE_TOLERANCE) {
+                continue;
+            }
+
+            final boolean expected = referenceCollisionTest(x0, y0, width0, height0, tilt0, x1, y1, width1, height1, tilt1);
+            final boolean actual = CollisionUtil.boundedEliptoidCollisionTest(x0, y0, width0, height0, tilt0, x1, y1, width1, height1, tilt1);
+            Assertions.assertEquals(
+                expected, actual,
+                "Mismatch for (" + x0 + ", " + y0 + ", " + width0 + ", " + height0 + ", " + tilt0 + ") and (" +
+                x1 + ", " + y1 + ", " + width1 + ", " + height1 + ", " + tilt1 + ")"
+            );
+
+            comparedCount++;
+            if (expected) {
+                collidingCount++;
+            }
+        }
+
+        // Make sure the random cases actually exercised both outcomes and very little was thrown out as a tie
+        Assertions.assertTrue(comparedCount > CASE_COUNT * 0.99);
+        Assertions.assertTrue(collidingCount > comparedCount / 10);
+        Assertions.assertTrue(collidingCount < comparedCount - comparedCount / 10);
+    }
+
+    @Test
+    public void testSameCenterAlwaysCollides() {
+        Assertions.assertTrue(CollisionUtil.boundedEliptoidCollisionTest(100, 100, 1, 1, 0, 100, 100, 400, 3, 2));
+    }
+
+    @Test
+    public void testFarApartNeverCollides() {
+        Assertions.assertFalse(CollisionUtil.boundedEliptoidCollisionTest(0, 0, 300, 300, 0, 5000, 5000, 300, 300, 0));
+    }
+
+    @Test
+    public void testSweptCatchesPassThrough() {
+        // Laser passes fully over a small target in one tick, so neither end of the path is touching
+        Assertions.assertFalse(CollisionUtil.boundedEliptoidCollisionTest(-40, 0, 48, 32, 0, 0, 0, 16, 16, 0));
+        Assertions.assertFalse(CollisionUtil.boundedEliptoidCollisionTest(40, 0, 48, 32, 0, 0, 0, 16, 16, 0));
+        Assertions.assertTrue(CollisionUtil.sweptBoundedEliptoidCollisionTest(-40, 0, 40, 0, 48, 32, 0, 0, 0, 0, 0, 16, 16, 0));
+
+        // Path that never gets close
+        Assertions.assertFalse(CollisionUtil.sweptBoundedEliptoidCollisionTest(-40, 100, 40, 100, 48, 32, 0, 0, 0, 0, 0, 16, 16, 0));
+    }
+
+    private static int randomSize(Random random) {
+        return 1 + random.nextInt(300);
+    }
+
+    private static double randomTilt(Random random) {
+        final int tiltType = random.nextInt(4);
+        if (tiltType == 0) {
+            return 0;
+        } else if (tiltType == 1) {
+            // Lasers and players can end up with angles well outside of a single rotation
+            return (random.nextDouble() - 0.5) * Math.PI * 20;
+        }
+        return random.nextDouble() * Math.PI * 2;
+    }
+
+    /**
+     * Reference implementation, which is the original trigonometric version of the collision test.
+     */
+    private static boolean referenceCollisionTest(
+        long x0, long y0, int width0, int height0, double tiltAngle0,
+        long x1, long y1, int width1, int height1, double tiltAngle1
+    ) {
+        if (x0 == x1 && y0 == y1) {
+            return true;
+        }
+        return referenceMargin(x0, y0, width0, height0, tiltAngle0, x1, y1, width1, height1, tiltAngle1) >= 0;
+    }
+
+    /**
+     * Combined radius minus the distance, as calculated by the original trigonometric version of the collision test.
+     */
+    private static double referenceMargin(
+        long x0, long y0, int width0, int height0, double tiltAngle0,
+        long x1, long y1, int width1, int height1, double tiltAngle1
+    ) {
+        final long xDelta0 = x1 - x0;
+        final long xDelta1 = x0 - x1;
+        final long yDelta0 = y1 - y0;
+        final long yDelta1 = y0 - y1;
+
+        final double distanceSquared = xDelta0 * xDelta0 + yDelta0 * yDelta0;
+        final double distance = Math.sqrt(distanceSquared);
+        if (distance == 0) {
+            return Double.MAX_VALUE;
+        }
+
+        final double theta0 = extendedRangeArcCosine(xDelta0, yDelta0, distance);
+        final double theta1 = extendedRangeArcCosine(xDelta1, yDelta1, distance);
+
+        final double radialAngle0 = theta0 - tiltAngle0;
+        final double radialAngle1 = theta1 - tiltAngle1;
+
+        final double radialX0 = Math.cos(radialAngle0) * (double) width0 / 2;
+        final double radialY0 = Math.sin(radialAngle0) * (double) height0 / 2;
+        final double radialX1 = Math.cos(radialAngle1) * (double) width1 / 2;
+        final double radialY1 = Math.sin(radialAngle1) * (double) height1 / 2;
+
+        final double radialDistance0 = Math.sqrt(radialX0 * radialX0 + radialY0 * radialY0);
+        final double radialDistance1 = Math.sqrt(radialX1 * radialX1 + radialY1 * radialY1);
+
+        return radialDistance0 + radialDistance1 - distance;
+    }
+
+    private static double extendedRangeArcCosine(double adjacent, double opposite, double hypotenuse) {
+        double postFix = 1;
+        if (opposite < 0) {
+            postFix = -1;
+        }
+        return (Math.acos(adjacent / hypotenuse) * postFix + Math.PI * 2) % (Math.PI * 2);
+    }
+}
@@ -3,14 +3,16 @@ package com.andronikus.gameserver.engine.input;
 import com.andronikus.gameserver.auth.Session;
 import com.andronikus.gameserver.engine.ClientInput;
 import com.andronikus.gameserver.engine.ClientInputSet;
+import com.andronikus.gameserver.engine.player.SessionPlayerIndex;
 import com.andronikus.game.model.server.GameState;
 import com.andronikus.game.model.server.Player;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 
 /**
  * Test of {@link InputSetHandler}.
@@ -32,71 +34,65 @@ public class InputSetHandlerTest {
     @BeforeEach
     public void setup() {
         player = new Player();
-        player.setSessionId("SESSION-ID-1");
+        player.setSessionSlot(1);
 
         gameState = new GameState();
-        gameState.getPlayers().add(player);
+        gameState.getPlayerRegistry().add(player);
+        final SessionPlayerIndex playerIndex = new SessionPlayerIndex();
+        playerIndex.add(player);
 
         sessionWithPlayer = new Session();
         sessionWithPlayer.setId("SESSION-ID-1");
+        sessionWithPlayer.setSlot(1);
         sessionWithoutPlayer = new Session();
         sessionWithoutPlayer.setId("SESSION-ID-2");
+        sessionWithoutPlayer.setSlot(2);
 
         handler1 = Mockito.mock(IInputCodeHandler.class);
         handler2 = Mockito.mock(IInputCodeHandler.class);
 
-        final HashMap<String, IInputCodeHandler> handlerMap = new HashMap<>();
-        handlerMap.put("INPUTCODE1", handler1);
-        handlerMap.put("ANOTHERINPUTCODE", handler2);
-        objectUnderTest = new InputSetHandler(handlerMap);
+        final EnumMap<InputCode, IInputCodeHandler> handlerMap = new EnumMap<>(InputCode.class);
+        handlerMap.put(InputCode.THRUST, handler1);
+        handlerMap.put(InputCode.BREAK, handler2);
+        objectUnderTest = new InputSetHandler(handlerMap, playerIndex);
     }
 
     @Test
     public void testNoPlayerSession() {
-        final ClientInputSet inputSet = createSingleInputInputSet("INPUTCODE1", sessionWithoutPlayer);
+        final ClientInputSet inputSet = createSingleInputInputSet("THRUST", sessionWithoutPlayer);
         objectUnderTest.putInputSetOnGameState(inputSet, gameState);
 
-        final ArrayList<String> inputCodesCopy = new ArrayList<>();
-        inputCodesCopy.add("INPUTCODE1");
-
-        Mockito.verify(handler1, Mockito.times(1)).handleInput(gameState, null, "INPUTCODE1", inputCodesCopy, sessionWithoutPlayer);
-        Mockito.verify(handler2, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(handler1, Mockito.times(1)).handleInput(gameState, null, inputSet.getInputs().get(0), InputCode.THRUST.mask(), sessionWithoutPlayer);
+        Mockito.verify(handler2, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any());
     }
 
     @Test
     public void testSessionWithPlayer() {
-        final ClientInputSet inputSet = createSingleInputInputSet("INPUTCODE1", sessionWithPlayer);
+        final ClientInputSet inputSet = createSingleInputInputSet("THRUST", sessionWithPlayer);
         objectUnderTest.putInputSetOnGameState(inputSet, gameState);
 
-        final ArrayList<String> inputCodesCopy = new ArrayList<>();
-        inputCodesCopy.add("INPUTCODE1");
-
-        Mockito.verify(handler1, Mockito.times(1)).handleInput(gameState, player, "INPUTCODE1", inputCodesCopy, sessionWithPlayer);
-        Mockito.verify(handler2, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(handler1, Mockito.times(1)).handleInput(gameState, player, inputSet.getInputs().get(0), InputCode.THRUST.mask(), sessionWithPlayer);
+        Mockito.verify(handler2, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any());
     }
 
     @Test
     public void testSingleWordInput() {
-        final ClientInputSet inputSet = createSingleInputInputSet("ANOTHERINPUTCODE", sessionWithPlayer);
+        final ClientInputSet inputSet = createSingleInputInputSet("BREAK", sessionWithPlayer);
         objectUnderTest.putInputSetOnGameState(inputSet, gameState);
 
-        final ArrayList<String> inputCodesCopy = new ArrayList<>();
-        inputCodesCopy.add("ANOTHERINPUTCODE");
-
-        Mockito.verify(handler2, Mockito.times(1)).handleInput(gameState, player, "ANOTHERINPUTCODE", inputCodesCopy, sessionWithPlayer);
-        Mockito.verify(handler1, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(handler2, Mockito.times(1)).handleInput(gameState, player, inputSet.getInputs().get(0), InputCode.BREAK.mask(), sessionWithPlayer);
+        Mockito.verify(handler1, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any());
     }
 
     @Test
     public void testMultipleWordInput() {
-        final ClientInputSet inputSet = createSingleInputInputSet("ANOTHERINPUTCODE 43", sessionWithPlayer);
+        final ClientInputSet inputSet = createSingleInputInputSet("BREAK 43", sessionWithPlayer);
         objectUnderTest.putInputSetOnGameState(inputSet, gameState);
 
-        final ArrayList<String> inputCodesCopy = new ArrayList<>();
-        inputCodesCopy.add("ANOTHERINPUTCODE 43");
-
-        Mockito.verify(handler2, Mockito.times(1)).handleInput(gameState, player, "ANOTHERINPUTCODE 43", inputCodesCopy, sessionWithPlayer);
-        Mockito.verify(handler1, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Assertions.assertEquals(InputCode.BREAK, inputSet.getInputs().get(0).getCode());
+        Assertions.assertEquals(43, inputSet.getInputs().get(0).getArgument());
+        Mockito.verify(handler2, Mockito.times(1)).handleInput(gameState, player, inputSet.getInputs().get(0), InputCode.BREAK.mask(), sessionWithPlayer);
+        Mockito.verify(handler1, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any());
     }
 
     @Test
@@ -104,23 +100,52 @@ public class InputSetHandlerTest {
         final ClientInputSet inputSet = createSingleInputInputSet("INVALID-COMMAND", sessionWithPlayer);
         objectUnderTest.putInputSetOnGameState(inputSet, gameState);
 
-        Mockito.verify(handler1, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
-        Mockito.verify(handler2, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Assertions.assertNull(inputSet.getInputs().get(0).getCode());
+        Mockito.verify(handler1, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any());
+        Mockito.verify(handler2, Mockito.times(0)).handleInput(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    public void testHandlersSeeEveryCode() {
+        final ClientInputSet inputSet = createSingleInputInputSet("BREAK", sessionWithPlayer);
+        inputSet.getInputs().add(new ClientInput(InputCode.BOOSTEND, 0, false, -1));
+        inputSet.setCodes(InputCode.BREAK.mask() | InputCode.BOOSTEND.mask());
+        objectUnderTest.putInputSetOnGameState(inputSet, gameState);
+
+        Mockito.verify(handler2, Mockito.times(1)).handleInput(gameState, player, inputSet.getInputs().get(0), inputSet.getCodes(), sessionWithPlayer);
+        Assertions.assertTrue(InputCode.BOOSTEND.isIn(inputSet.getCodes()));
+        Assertions.assertFalse(InputCode.BOOST.isIn(inputSet.getCodes()));
+    }
+
+    @Test
+    public void testInputsAfterJoiningApplyToNewPlayer() {
+        final SessionPlayerIndex playerIndex = new SessionPlayerIndex();
+        final InputSetHandler defaultHandler = new InputSetHandler(playerIndex);
+        final ClientInputSet inputSet = createSingleInputInputSet("JOINGAME", sessionWithoutPlayer);
+        inputSet.getInputs().add(new ClientInput(InputCode.THRUST, 0, false, -1));
+        inputSet.setCodes(InputCode.JOINGAME.mask() | InputCode.THRUST.mask());
+        defaultHandler.putInputSetOnGameState(inputSet, gameState);
+
+        final Player newPlayer = playerIndex.get(gameState, sessionWithoutPlayer.getSlot());
+        Assertions.assertNotNull(newPlayer);
+        Assertions.assertTrue(newPlayer.isThrusting());
     }
 
     /**
      * Test creation of an input set with a single input code.
      *
-     * @param inputCode Input code
+     * @param inputText Input as the client sent it
      * @param session Session the input set came from
      * @return The input set to use in testing
      */
-    private ClientInputSet createSingleInputInputSet(String inputCode, Session session) {
+    private ClientInputSet createSingleInputInputSet(String inputText, Session session) {
         final ClientInputSet inputSet = new ClientInputSet();
         inputSet.setInputs(new ArrayList<>());
         inputSet.setSession(session);
-        final ClientInput input = new ClientInput(inputCode, false, -1);
+        final InputCode code = InputCode.forText(inputText);
+        final ClientInput input = new ClientInput(code, InputCode.argumentForText(inputText), false, -1);
         inputSet.getInputs().add(input);
+        inputSet.setCodes(code == null ? 0 : code.mask());
         return inputSet;
     }
 }
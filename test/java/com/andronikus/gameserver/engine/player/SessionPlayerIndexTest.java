@@ -0,0 +1,42 @@
+package com.andronikus.gameserver.engine.player;
+
+import com.andronikus.game.model.server.GameState;
+import com.andronikus.game.model.server.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link SessionPlayerIndex}.
+ *
+ * @author Andronikus
+ */
+public class SessionPlayerIndexTest {
+
+    @Test
+    public void testPlayersLeave() {
+        final GameState state = new GameState();
+        final SessionPlayerIndex index = new SessionPlayerIndex();
+        for (int session = 0; session < 3; session++) {
+            final Player player = new Player();
+            player.setSessionSlot(session + 1);
+            state.getPlayerRegistry().add(player);
+            index.add(player);
+        }
+        Assertions.assertSame(state.getPlayers().get(1), index.get(state, 2));
+        Assertions.assertNull(index.get(state, 4));
+
+        // Ended sessions are only let go of once the engine gets to them
+        index.endSession(1);
+        Assertions.assertNotNull(index.get(state, 1));
+        index.removeEndedSessions();
+        Assertions.assertNull(index.get(state, 1));
+
+        // A player taken off the game state is not found, even once its slot is reused
+        final Player removed = index.get(state, 2);
+        state.getPlayerRegistry().remove(removed);
+        final Player newPlayer = new Player();
+        newPlayer.setSessionSlot(5);
+        state.getPlayerRegistry().add(newPlayer);
+        Assertions.assertNull(index.get(state, removed.getSessionSlot()));
+    }
+}
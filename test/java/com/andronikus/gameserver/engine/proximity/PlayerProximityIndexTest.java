@@ -0,0 +1,91 @@
+package com.andronikus.gameserver.engine.proximity;
+
+import com.andronikus.game.model.server.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Test of {@link PlayerProximityIndex}.
+ *
+ * @author Andronikus
+ */
+public class PlayerProximityIndexTest {
+
+    private static final int CELL_SIZE = 100;
+
+    private final PlayerProximityIndex index = new PlayerProximityIndex(CELL_SIZE);
+
+    @Test
+    public void testRangeIsInclusive() {
+        final Player onBoundary = createPlayer(30, 40);
+        final Player justOutside = createPlayer(-30, 41);
+        index.rebuild(Arrays.asList(onBoundary, justOutside));
+
+        final HashMap<Player, Long> found = findWithin(0, 0, 50);
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertEquals(2500L, found.get(onBoundary));
+        Assertions.assertSame(onBoundary, index.findNearestPlayerWithin(0, 0, 50));
+    }
+
+    @Test
+    public void testPlayersInNeighbouringCellsAreFound() {
+        // The point is near the corner of its cell, and every player is in a different cell from it
+        final Player left = createPlayer(95, 205);
+        final Player above = createPlayer(105, 195);
+        final Player diagonal = createPlayer(95, 195);
+        final Player farAway = createPlayer(350, 205);
+        index.rebuild(Arrays.asList(left, above, diagonal, farAway));
+
+        final HashMap<Player, Long> found = findWithin(105, 205, 20);
+        Assertions.assertEquals(3, found.size());
+        Assertions.assertTrue(found.keySet().containsAll(Arrays.asList(left, above, diagonal)));
+    }
+
+    @Test
+    public void testDeadPlayersAreLeftOut() {
+        final Player deadPlayer = createPlayer(0, 0);
+        deadPlayer.setDead(true);
+        final Player livePlayer = createPlayer(10, 0);
+        index.rebuild(Arrays.asList(deadPlayer, livePlayer));
+
+        final HashMap<Player, Long> found = findWithin(0, 0, 50);
+        Assertions.assertEquals(1, found.size());
+        Assertions.assertTrue(found.containsKey(livePlayer));
+        Assertions.assertSame(livePlayer, index.findNearestPlayerWithin(0, 0, 50));
+
+        livePlayer.setDead(true);
+        index.rebuild(Arrays.asList(deadPlayer, livePlayer));
+        Assertions.assertNull(index.findNearestPlayerWithin(0, 0, 50));
+    }
+
+    @Test
+    public void testNearestPlayerWins() {
+        final Player near = createPlayer(-150, -20);
+        final Player nearer = createPlayer(-100, 70);
+        final Player nearest = createPlayer(60, -60);
+        index.rebuild(Arrays.asList(near, nearer, nearest));
+
+        Assertions.assertSame(nearest, index.findNearestPlayerWithin(0, 0, 200));
+        Assertions.assertSame(nearer, index.findNearestPlayerWithin(-120, 60, 200));
+        Assertions.assertNull(index.findNearestPlayerWithin(1000, 1000, 200));
+
+        // The search is reused, so an earlier search must not leak into a later one
+        Assertions.assertSame(nearest, index.findNearestPlayerWithin(0, 0, 200));
+    }
+
+    private HashMap<Player, Long> findWithin(long x, long y, long range) {
+        final HashMap<Player, Long> found = new HashMap<>();
+        index.forEachPlayerWithin(x, y, range, found::put);
+        return found;
+    }
+
+    private static Player createPlayer(long x, long y) {
+        final Player player = new Player();
+        player.setX(x);
+        player.setY(y);
+        return player;
+    }
+}
@@ -0,0 +1,165 @@
+package com.andronikus.gameserver.server;
+
+import com.gabler.udpmanager.model.UdpRequest;
+import com.gabler.udpmanager.security.AesBytesToCiphertextTransformer;
+import com.gabler.udpmanager.security.AesCiphertextToBytesTransformer;
+import com.gabler.udpmanager.server.IUdpServerConfiguration;
+import com.gabler.udpmanager.server.ServerClientCallback;
+import com.gabler.udpmanager.server.UdpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Test of {@link ClientMessenger}.
+ *
+ * @author Andronikus
+ */
+public class ClientMessengerTest {
+
+    private final BiFunction<byte[], byte[], byte[]> ciphertextToBytesTransformer =
+        new AesCiphertextToBytesTransformer();
+
+    @Test
+    public void testEachClientIsSentItsOwnQueuedMessage() {
+        final ClientMessenger messenger = new ClientMessenger();
+        final byte[] firstKey = new byte[16];
+        final byte[] secondKey = new byte[16];
+        secondKey[0] = 1;
+        messenger.addClientKey("first", firstKey);
+        messenger.addClientKey("second", secondKey);
+
+        messenger.queue(client("first"), new byte[] {1, 2, 3});
+        messenger.queue(client("second"), new byte[] {4, 5});
+
+        Assertions.assertArrayEquals(
+            new byte[] {1, 2, 3}, ciphertextToBytesTransformer.apply(messenger.apply(new byte[0], firstKey), firstKey)
+        );
+        Assertions.assertArrayEquals(
+            new byte[] {4, 5}, ciphertextToBytesTransformer.apply(messenger.apply(new byte[0], secondKey), secondKey)
+        );
+    }
+
+    @Test
+    public void testClientWithNothingQueuedIsSentTheBroadcastMessage() {
+        final ClientMessenger messenger = new ClientMessenger();
+        final byte[] key = new byte[16];
+        messenger.addClientKey("client", key);
+
+        Assertions.assertArrayEquals(
+            new byte[] {7}, ciphertextToBytesTransformer.apply(messenger.apply(new byte[] {7}, key), key)
+        );
+    }
+
+    @Test
+    public void testQueueForClientWithoutKeyFails() {
+        final ClientMessenger messenger = new ClientMessenger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> messenger.queue(client("unknown"), new byte[0]));
+    }
+
+    @Test
+    public void testBroadcastThroughRealServer() throws Exception {
+        final ConcurrentHashMap<String, ServerClientCallback> clients = new ConcurrentHashMap<>();
+        final ClientMessenger messenger = new ClientMessenger();
+        final UdpServer server = new UdpServer(0, 1, messenger, ciphertextToBytesTransformer);
+        server.setConfiguration(new RecordingConfiguration(clients));
+        messenger.setServer(server);
+        server.start();
+
+        final byte[] firstKey = new byte[16];
+        final byte[] secondKey = new byte[16];
+        secondKey[0] = 1;
+        try (
+            DatagramSocket firstSocket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+            DatagramSocket secondSocket = new DatagramSocket(0, InetAddress.getLoopbackAddress())
+        ) {
+            connect(server, messenger, firstSocket, "first", firstKey);
+            connect(server, messenger, secondSocket, "second", secondKey);
+
+            messenger.queue(clients.get("first"), new byte[] {1, 2, 3});
+            messenger.sendQueued();
+            Assertions.assertArrayEquals(new byte[] {1, 2, 3}, receive(firstSocket, firstKey));
+            Assertions.assertArrayEquals(new byte[0], receive(secondSocket, secondKey));
+
+            // Had the server encrypted after the broadcast returned, the cleared queue would show here
+            messenger.sendQueued();
+            Assertions.assertArrayEquals(new byte[0], receive(firstSocket, firstKey));
+            Assertions.assertArrayEquals(new byte[0], receive(secondSocket, secondKey));
+        } finally {
+            server.terminate();
+        }
+    }
+
+    private static ServerClientCallback client(String keyId) {
+        final ServerClientCallback client = new ServerClientCallback();
+        client.setKeyId(keyId);
+        return client;
+    }
+
+    private static void connect(UdpServer server, ClientMessenger messenger, DatagramSocket socket, String keyId, byte[] key) {
+        server.addClientKey(keyId, key);
+        messenger.addClientKey(keyId, key);
+
+        final UdpRequest request = new UdpRequest();
+        request.setKeyId(keyId);
+        request.setPayloadType(UdpRequest.PAYLOAD_TYPE_BYTES);
+        request.setBytePayload(new AesBytesToCiphertextTransformer().apply(new byte[] {0}, key));
+        server.handleMessageFromClient(request, socket.getLocalAddress(), socket.getLocalPort());
+    }
+
+    private byte[] receive(DatagramSocket socket, byte[] key) throws Exception {
+        socket.setSoTimeout(5000);
+        final DatagramPacket packet = new DatagramPacket(new byte[65536], 65536);
+        socket.receive(packet);
+
+        final ObjectInputStream objectStream = new ObjectInputStream(
+            new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength())
+        );
+        final UdpRequest request = (UdpRequest) objectStream.readObject();
+        return ciphertextToBytesTransformer.apply(request.getBytePayload(), key);
+    }
+
+    /**
+     * Server configuration that remembers each client by its key ID.
+     */
+    private static class RecordingConfiguration implements IUdpServerConfiguration {
+        private final ConcurrentHashMap<String, ServerClientCallback> clients;
+
+        private RecordingConfiguration(ConcurrentHashMap<String, ServerClientCallback> aClients) {
+            clients = aClients;
+        }
+
+        @Override
+        public void handleBytesMessage(byte[] bytes, ServerClientCallback client) {
+            clients.put(client.getKeyId(), client);
+        }
+
+        @Override
+        public void handleStringMessage(String message, ServerClientCallback client) {
+        }
+
+        @Override
+        public void startAction() {
+        }
+
+        @Override
+        public void terminationAction() {
+        }
+
+        @Override
+        public void pauseAction() {
+        }
+
+        @Override
+        public void resumeAction() {
+        }
+    }
+}
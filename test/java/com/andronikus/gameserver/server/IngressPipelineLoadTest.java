@@ -0,0 +1,130 @@
+package com.andronikus.gameserver.server;
+
+import com.andronikus.game.model.client.ClientRequest;
+import com.andronikus.game.model.client.InputRequest;
+import com.gabler.udpmanager.server.ServerClientCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Load test of {@link IngressPipeline}. Each message is deserialized the way the game server does it, and the
+ * sequence numbers each session sees are checked to come in order. How throughput scales with workers is a benchmark,
+ * so it only runs with the performance tests.
+ *
+ * @author Andronikus
+ */
+public class IngressPipelineLoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger("IngressPipelineLoadTest");
+
+    private static final int SESSION_COUNT = 64;
+    private static final int MESSAGES_PER_SESSION = 300;
+
+    @Test
+    public void testMessagesStayInOrderWithoutDrops() throws Exception {
+        // Each run checks that nothing was dropped and every session's messages were handled in order
+        measureThroughput(4, createMessages(), createClients());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testThroughputScalesWithWorkers() throws Exception {
+        final byte[][][] messages = createMessages();
+        final ServerClientCallback[] clients = createClients();
+
+        // Warm up first so that the one worker run is not also paying for the JIT
+        measureThroughput(1, messages, clients);
+
+        final double singleWorkerThroughput = measureThroughput(1, messages, clients);
+        double bestThroughput = singleWorkerThroughput;
+        for (int workerCount = 2; workerCount <= 8; workerCount *= 2) {
+            bestThroughput = Math.max(bestThroughput, measureThroughput(workerCount, messages, clients));
+        }
+
+        // Workers can only run side by side with the cores to do it
+        if (Runtime.getRuntime().availableProcessors() >= 4) {
+            Assertions.assertTrue(
+                bestThroughput > singleWorkerThroughput * 1.5,
+                "Best throughput of " + (long) bestThroughput + " messages per second against " + (long) singleWorkerThroughput + " for one worker"
+            );
+        }
+    }
+
+    private static double measureThroughput(int workerCount, byte[][][] messages, ServerClientCallback[] clients) throws Exception {
+        final BytesToObjectTransformer<ClientRequest> transformer = new BytesToObjectTransformer<>();
+        final ConcurrentHashMap<String, Long> lastSequenceNumbers = new ConcurrentHashMap<>();
+        final AtomicLong outOfOrderCount = new AtomicLong();
+
+        final IngressPipeline pipeline = new IngressPipeline(workerCount, SESSION_COUNT * MESSAGES_PER_SESSION, (bytes, client) -> {
+            final ClientRequest request = transformer.apply(bytes);
+            final Long lastSequenceNumber = lastSequenceNumbers.get(request.getSessionToken());
+            if (lastSequenceNumber != null && request.getSequenceNumber() <= lastSequenceNumber) {
+                outOfOrderCount.incrementAndGet();
+            }
+            lastSequenceNumbers.put(request.getSessionToken(), request.getSequenceNumber());
+        });
+        pipeline.start();
+
+        final long startTime = System.nanoTime();
+        for (int message = 0; message < MESSAGES_PER_SESSION; message++) {
+            for (int session = 0; session < SESSION_COUNT; session++) {
+                pipeline.submit(messages[session][message], clients[session]);
+            }
+        }
+
+        final long total = (long) SESSION_COUNT * MESSAGES_PER_SESSION;
+        while (pipeline.getHandledCount() < total) {
+            Thread.sleep(1);
+        }
+        final long elapsedNanos = System.nanoTime() - startTime;
+        pipeline.terminate();
+
+        Assertions.assertEquals(0, pipeline.getDroppedCount());
+        Assertions.assertEquals(0, outOfOrderCount.get());
+
+        final double throughput = total * 1_000_000_000.0 / elapsedNanos;
+        LOGGER.info(workerCount + " ingress workers handled " + (long) throughput + " messages per second.");
+        return throughput;
+    }
+
+    private static byte[][][] createMessages() throws Exception {
+        final byte[][][] messages = new byte[SESSION_COUNT][MESSAGES_PER_SESSION][];
+        for (int session = 0; session < SESSION_COUNT; session++) {
+            for (int message = 0; message < MESSAGES_PER_SESSION; message++) {
+                final ClientRequest request = new ClientRequest();
+                request.setSessionToken("SESSION-" + session);
+                request.setSequenceNumber(message);
+
+                final InputRequest input = new InputRequest();
+                input.setInputCode("THRUST");
+                input.setInputId((long) message);
+                request.getInputs().add(input);
+
+                final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+                final ObjectOutputStream objectStream = new ObjectOutputStream(byteStream);
+                objectStream.writeObject(request);
+                objectStream.close();
+                messages[session][message] = byteStream.toByteArray();
+            }
+        }
+        return messages;
+    }
+
+    private static ServerClientCallback[] createClients() throws Exception {
+        final ServerClientCallback[] clients = new ServerClientCallback[SESSION_COUNT];
+        for (int session = 0; session < SESSION_COUNT; session++) {
+            clients[session] = new ServerClientCallback();
+            clients[session].setAddress(InetAddress.getByAddress(new byte[] {10, 0, 0, (byte) session}));
+            clients[session].setPortNumber(40000 + session);
+        }
+        return clients;
+    }
+}
@@ -0,0 +1,53 @@
+package com.andronikus.gameserver.server;
+
+import com.gabler.udpmanager.server.ServerClientCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test of {@link IngressPipeline}.
+ *
+ * @author Andronikus
+ */
+public class IngressPipelineTest {
+
+    @Test
+    public void testPortsOfOneAddressShareAWorker() throws Exception {
+        final InetAddress address = InetAddress.getByAddress(new byte[] {10, 0, 0, 1});
+        final List<Integer> handledOrder = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> handlingThreads = Collections.synchronizedList(new ArrayList<>());
+
+        final IngressPipeline pipeline = new IngressPipeline(8, 1000, (bytes, client) -> {
+            handledOrder.add((int) bytes[0]);
+            handlingThreads.add(Thread.currentThread());
+        });
+        pipeline.start();
+
+        // A session that moves to a new port part way through, as the game server lets it
+        final int messageCount = 100;
+        for (int message = 0; message < messageCount; message++) {
+            pipeline.submit(new byte[] {(byte) message}, client(address, message % 2 == 0 ? 40000 : 40001));
+        }
+        while (pipeline.getHandledCount() < messageCount) {
+            Thread.sleep(1);
+        }
+        pipeline.terminate();
+
+        Assertions.assertEquals(1, handlingThreads.stream().distinct().count());
+        for (int message = 0; message < messageCount; message++) {
+            Assertions.assertEquals(message, handledOrder.get(message));
+        }
+    }
+
+    private static ServerClientCallback client(InetAddress address, int port) {
+        final ServerClientCallback client = new ServerClientCallback();
+        client.setAddress(address);
+        client.setPortNumber(port);
+        return client;
+    }
+}
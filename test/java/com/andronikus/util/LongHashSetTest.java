@@ -0,0 +1,53 @@
+package com.andronikus.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link LongHashSet}.
+ *
+ * @author Andronikus
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void testAddAndContains() {
+        final LongHashSet set = new LongHashSet();
+
+        // Enough to make the set grow a few times
+        for (long value = -500; value < 500; value++) {
+            Assertions.assertTrue(set.add(value * 31));
+        }
+        Assertions.assertFalse(set.add(31));
+        Assertions.assertEquals(1000, set.size());
+
+        for (long value = -500; value < 500; value++) {
+            Assertions.assertTrue(set.contains(value * 31));
+            Assertions.assertFalse(set.contains(value * 31 + 1));
+        }
+    }
+
+    @Test
+    public void testMinimumValue() {
+        final LongHashSet set = new LongHashSet();
+        Assertions.assertFalse(set.contains(Long.MIN_VALUE));
+
+        Assertions.assertTrue(set.add(Long.MIN_VALUE));
+        Assertions.assertFalse(set.add(Long.MIN_VALUE));
+        Assertions.assertTrue(set.contains(Long.MIN_VALUE));
+        Assertions.assertEquals(1, set.size());
+    }
+
+    @Test
+    public void testClear() {
+        final LongHashSet set = new LongHashSet();
+        set.add(Long.MIN_VALUE);
+        set.add(7);
+        set.clear();
+
+        Assertions.assertEquals(0, set.size());
+        Assertions.assertFalse(set.contains(Long.MIN_VALUE));
+        Assertions.assertFalse(set.contains(7));
+        Assertions.assertTrue(set.add(7));
+    }
+}
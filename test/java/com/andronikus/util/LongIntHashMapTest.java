@@ -0,0 +1,54 @@
+package com.andronikus.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link LongIntHashMap}.
+ *
+ * @author Andronikus
+ */
+public class LongIntHashMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        final LongIntHashMap map = new LongIntHashMap();
+
+        // Enough to make the map grow a few times
+        for (long key = -500; key < 500; key++) {
+            map.put(key * 31, (int) key);
+        }
+        map.put(31, 7);
+        Assertions.assertEquals(1000, map.size());
+
+        for (long key = -500; key < 500; key++) {
+            Assertions.assertEquals(key == 1 ? 7 : (int) key, map.getOrDefault(key * 31, -1000));
+            Assertions.assertEquals(-1000, map.getOrDefault(key * 31 + 1, -1000));
+        }
+    }
+
+    @Test
+    public void testMinimumKey() {
+        final LongIntHashMap map = new LongIntHashMap();
+        Assertions.assertEquals(-1, map.getOrDefault(Long.MIN_VALUE, -1));
+
+        map.put(Long.MIN_VALUE, 3);
+        map.put(Long.MIN_VALUE, 4);
+        Assertions.assertEquals(4, map.getOrDefault(Long.MIN_VALUE, -1));
+        Assertions.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testClear() {
+        final LongIntHashMap map = new LongIntHashMap(100);
+        map.put(Long.MIN_VALUE, 1);
+        map.put(7, 2);
+        map.clear();
+
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertEquals(-1, map.getOrDefault(Long.MIN_VALUE, -1));
+        Assertions.assertEquals(-1, map.getOrDefault(7, -1));
+        map.put(7, 3);
+        Assertions.assertEquals(3, map.getOrDefault(7, -1));
+    }
+}
@@ -0,0 +1,92 @@
+package com.andronikus.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test of {@link MpscRingBuffer}.
+ *
+ * @author Andronikus
+ */
+public class MpscRingBufferTest {
+
+    @Test
+    public void testReject() {
+        final MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3, MpscRingBuffer.OverflowPolicy.REJECT);
+        Assertions.assertEquals(4, ring.capacity());
+
+        for (int element = 0; element < 6; element++) {
+            Assertions.assertEquals(element < 4, ring.offer(element));
+        }
+        Assertions.assertEquals(2, ring.getOverflowCount());
+
+        final List<Integer> drained = new ArrayList<>();
+        Assertions.assertEquals(4, ring.drainTo(drained));
+        Assertions.assertEquals(List.of(0, 1, 2, 3), drained);
+        Assertions.assertNull(ring.poll());
+
+        // Slots are reused on the next lap around the ring
+        ring.offer(6);
+        Assertions.assertEquals(6, ring.poll());
+    }
+
+    @Test
+    public void testDropOldest() {
+        final MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4, MpscRingBuffer.OverflowPolicy.DROP_OLDEST);
+        for (int element = 0; element < 7; element++) {
+            Assertions.assertTrue(ring.offer(element));
+        }
+        Assertions.assertEquals(3, ring.getOverflowCount());
+
+        final List<Integer> drained = new ArrayList<>();
+        ring.drainTo(drained);
+        Assertions.assertEquals(List.of(3, 4, 5, 6), drained);
+    }
+
+    @Test
+    public void testManyProducers() throws Exception {
+        final int producerCount = 4;
+        final int elementsPerProducer = 100_000;
+        final MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024, MpscRingBuffer.OverflowPolicy.REJECT);
+
+        final List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < producerCount; producer++) {
+            final int producerId = producer;
+            producers.add(new Thread(() -> {
+                for (int element = 0; element < elementsPerProducer; element++) {
+                    final long[] value = {producerId, element};
+                    while (!ring.offer(value)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+
+        // Every element arrives once, and each producer's elements arrive in the order they were added
+        final long[] nextElements = new long[producerCount];
+        final List<long[]> drained = new ArrayList<>();
+        int received = 0;
+        while (received < producerCount * elementsPerProducer) {
+            drained.clear();
+            received += ring.drainTo(drained);
+            for (long[] value : drained) {
+                Assertions.assertEquals(nextElements[(int) value[0]]++, value[1]);
+            }
+            if (drained.isEmpty()) {
+                Thread.yield();
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Assertions.assertNull(ring.poll());
+        for (long nextElement : nextElements) {
+            Assertions.assertEquals(elementsPerProducer, nextElement);
+        }
+    }
+}